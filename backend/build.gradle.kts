@@ -79,7 +79,24 @@ tasks.test {
 }
 
 tasks.named<Test>("test") {
-    useJUnitPlatform()
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+}
+
+// Throughput benchmarks are tagged "benchmark" and only run with ./gradlew :backend:benchmark
+tasks.register<Test>("benchmark") {
+    description = "Runs the throughput benchmarks."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    maxHeapSize = "1g"
+    testLogging {
+        showStandardStreams = true
+    }
 }
 
 application {
@@ -5,6 +5,9 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import edu.neu.cs6510.sp25.t1.backend.config.PipelineLoggingListener;
 
 /**
  * Main class to start the Spring Boot application.
@@ -17,12 +20,16 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 @EntityScan(basePackages = "edu.neu.cs6510.sp25.t1.backend.database.entity")
 
 @EnableJpaRepositories("edu.neu.cs6510.sp25.t1.backend.database.repository")
+
+@EnableScheduling
 /*
  * Main application class for the backend service.
  *
  */
 public class BackendApp {
   public static void main(String[] args) {
-    SpringApplication.run(BackendApp.class, args);
+    SpringApplication application = new SpringApplication(BackendApp.class);
+    application.addListeners(new PipelineLoggingListener());
+    application.run(args);
   }
 }
@@ -0,0 +1,69 @@
+package edu.neu.cs6510.sp25.t1.backend.api.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.UUID;
+
+import edu.neu.cs6510.sp25.t1.backend.service.log.LogReadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controller class for reading job execution logs.
+ * Clients follow a running job by passing the {@code next} offset of each range as the
+ * {@code from} offset of the following request until a range is marked {@code complete}.
+ */
+@RestController
+@RequestMapping("/api/logs")
+@Tag(name = "Log API", description = "Endpoints for reading job execution logs")
+public class LogController {
+
+  private final LogReadService logReadService;
+
+  /**
+   * Constructor for LogController.
+   *
+   * @param logReadService LogReadService instance
+   */
+  public LogController(LogReadService logReadService) {
+    this.logReadService = logReadService;
+  }
+
+  /**
+   * Fetch a range of a job execution's log.
+   *
+   * @param jobExecutionId The job execution ID.
+   * @param from (Optional) Byte offset to start at; defaults to the start of the log.
+   * @param limit (Optional) Maximum number of lines to return.
+   * @param tail (Optional) Return the last lines of the log instead; {@code from} is ignored.
+   * @return A ResponseEntity containing the log text with its start and next offsets.
+   *         Returns a 400 status code for an unknown job execution or invalid parameters
+   *         and a 500 status code if the log cannot be read.
+   */
+  @GetMapping("/{jobExecutionId}")
+  @Operation(summary = "Retrieve job logs", description = "Fetches a range of a job execution's log by byte offset, or its last lines.")
+  public ResponseEntity<?> getLogs(
+          @PathVariable UUID jobExecutionId,
+          @RequestParam(defaultValue = "0") long from,
+          @RequestParam(required = false) Integer limit,
+          @RequestParam(required = false) Integer tail) {
+    try {
+      if (tail != null) {
+        return ResponseEntity.ok(logReadService.tail(jobExecutionId, tail));
+      }
+      return ResponseEntity.ok(logReadService.read(jobExecutionId, from, limit));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (Exception e) {
+      return ResponseEntity.status(500).body(
+              Map.of("error", "Failed to retrieve logs: " + e.getMessage())
+      );
+    }
+  }
+}
@@ -1,7 +1,9 @@
 package edu.neu.cs6510.sp25.t1.backend.api.controller;
 
-import edu.neu.cs6510.sp25.t1.backend.messaging.StageQueuePublisher;
+import edu.neu.cs6510.sp25.t1.backend.messaging.AdmissionRejectedException;
+import edu.neu.cs6510.sp25.t1.backend.messaging.ExecutionAdmissionController;
 import edu.neu.cs6510.sp25.t1.backend.service.status.StatusService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,16 +11,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.context.annotation.Lazy;
 
-import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.UUID;
 
 import edu.neu.cs6510.sp25.t1.backend.error.ApiError;
-import edu.neu.cs6510.sp25.t1.backend.service.execution.PipelineExecutionService;
+import edu.neu.cs6510.sp25.t1.backend.service.execution.PipelineTriggerService;
 import edu.neu.cs6510.sp25.t1.common.api.request.PipelineExecutionRequest;
 import edu.neu.cs6510.sp25.t1.common.api.response.PipelineExecutionResponse;
 import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
@@ -35,38 +36,40 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "Pipeline API", description = "Endpoints for managing pipeline executions")
 public class PipelineController {
 
-  private final PipelineExecutionService pipelineExecutionService;
-  @Lazy
-  private final StageQueuePublisher stageQueuePublisher;
+  private final PipelineTriggerService pipelineTriggerService;
   private final StatusService statusService;
+  private final ExecutionAdmissionController admissionController;
 
   /**
    * Constructor for PipelineController.
    *
-   * @param pipelineExecutionService the service responsible for executing
-   *                                 pipelines
-   * @param stageQueuePublisher      the publisher responsible for managing stage
-   *                                 queues
+   * @param pipelineTriggerService   the service reserving pipeline executions
+   *                                 and setting them up in the background
    * @param statusService            the service responsible for handling status
    *                                 updates
+   * @param admissionController      the controller limiting how many executions
+   *                                 run and wait at once
    */
   public PipelineController(
-      PipelineExecutionService pipelineExecutionService,
-      StageQueuePublisher stageQueuePublisher,
-      StatusService statusService) {
-    this.pipelineExecutionService = pipelineExecutionService;
-    this.stageQueuePublisher = stageQueuePublisher;
+      PipelineTriggerService pipelineTriggerService,
+      StatusService statusService,
+      ExecutionAdmissionController admissionController) {
+    this.pipelineTriggerService = pipelineTriggerService;
     this.statusService = statusService;
+    this.admissionController = admissionController;
   }
 
   /**
    * Trigger a pipeline execution.
+   * Only reserves a pending execution and returns its ID with 202 Accepted; the repository is read
+   * and the execution set up in the background. The Location header points at the setup progress.
+   * Responds with 429 and a Retry-After header when too many executions are already waiting.
    *
    * @param request PipelineExecutionRequest object
    * @return ResponseEntity object
    */
   @PostMapping("/run")
-  @Operation(summary = "Trigger pipeline execution", description = "Starts a new pipeline execution.")
+  @Operation(summary = "Trigger pipeline execution", description = "Reserves a new pipeline execution and sets it up in the background.")
   public ResponseEntity<?> runPipeline(@RequestBody PipelineExecutionRequest request) {
     PipelineLogger.info("Received pipeline execution request for: " + request.getFilePath());
 
@@ -78,10 +81,21 @@ public class PipelineController {
             new ApiError(HttpStatus.BAD_REQUEST, "Invalid Request", "Pipeline file path is required"));
       }
 
-      Queue<Queue<UUID>> stageQueue = new LinkedList<Queue<UUID>>();
-      PipelineExecutionResponse response = pipelineExecutionService.startPipelineExecution(request, stageQueue);
-      stageQueuePublisher.dispatchStageQueue(stageQueue);
-      return ResponseEntity.ok(response);
+      admissionController.tryReserve();
+      PipelineExecutionResponse response;
+      try {
+        response = pipelineTriggerService.trigger(request);
+      } finally {
+        // The reserved execution counts as waiting from here on
+        admissionController.releaseReservation();
+      }
+      return ResponseEntity.status(HttpStatus.ACCEPTED)
+          .header(HttpHeaders.LOCATION, "/api/pipeline/executions/" + response.getExecutionId() + "/progress")
+          .body(response);
+    } catch (AdmissionRejectedException e) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+          .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+          .body(new ApiError(HttpStatus.TOO_MANY_REQUESTS, "Pipeline Execution Queue Full", e.getMessage()));
     } catch (Exception e) {
       PipelineLogger.error("Failed pipeline execution: " + e.getMessage());
       return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
@@ -89,6 +103,63 @@ public class PipelineController {
     }
   }
 
+  /**
+   * Trigger several pipelines of one repository from a single fetch.
+   * Every selected pipeline file under `.pipelines/` is read at the same commit and gets its own
+   * execution, set up in the background like a single trigger. One waiting slot is reserved for the batch
+   * while the repository is read.
+   *
+   * @param request   PipelineExecutionRequest carrying the repository, branch and run options
+   * @param pipelines optional paths or file names of the pipelines to run; every pipeline runs when omitted
+   * @return ResponseEntity with one PipelineExecutionResponse per triggered pipeline
+   */
+  @PostMapping("/run-all")
+  @Operation(summary = "Trigger every pipeline of a repository", description = "Reads the pipeline files of a repository once and reserves one execution per file.")
+  public ResponseEntity<?> runAllPipelines(@RequestBody PipelineExecutionRequest request,
+                                           @RequestParam(required = false) List<String> pipelines) {
+    PipelineLogger.info("Received multi-pipeline execution request for: " + request.getRepo());
+
+    try {
+      if (request.getRepo() == null || request.getRepo().isEmpty()) {
+        PipelineLogger.error("Repository is missing in the request");
+        return ResponseEntity.badRequest().body(
+            new ApiError(HttpStatus.BAD_REQUEST, "Invalid Request", "Repository is required"));
+      }
+
+      admissionController.tryReserve();
+      List<PipelineExecutionResponse> responses;
+      try {
+        responses = pipelineTriggerService.triggerAll(request, pipelines);
+      } finally {
+        admissionController.releaseReservation();
+      }
+      return ResponseEntity.status(HttpStatus.ACCEPTED).body(responses);
+    } catch (AdmissionRejectedException e) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+          .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+          .body(new ApiError(HttpStatus.TOO_MANY_REQUESTS, "Pipeline Execution Queue Full", e.getMessage()));
+    } catch (Exception e) {
+      PipelineLogger.error("Failed multi-pipeline execution: " + e.getMessage());
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
+          new ApiError(HttpStatus.INTERNAL_SERVER_ERROR, "Pipeline Execution Failed", e.getMessage()));
+    }
+  }
+
+  /**
+   * Gets the setup progress of a triggered pipeline execution, step by step.
+   *
+   * @param executionId the pipeline execution ID returned by the trigger
+   * @return ResponseEntity with the progress, or 404 if the execution was not triggered recently
+   */
+  @GetMapping("/executions/{executionId}/progress")
+  @Operation(summary = "Get pipeline setup progress", description = "Returns the status of each setup step of a triggered pipeline execution.")
+  public ResponseEntity<?> getTriggerProgress(@PathVariable UUID executionId) {
+    return pipelineTriggerService.getProgress(executionId)
+        .<ResponseEntity<?>>map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiError(HttpStatus.NOT_FOUND,
+            "Progress Not Found", "No recent trigger for pipeline execution: " + executionId)));
+  }
+
   // /**
   // * Debug endpoint to check the database status for a specific pipeline
   // * execution.
@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.RestController;
 import java.util.List;
 import java.util.Map;
 
+import edu.neu.cs6510.sp25.t1.backend.service.report.DurationStatsService;
 import edu.neu.cs6510.sp25.t1.backend.service.report.ReportService;
 import edu.neu.cs6510.sp25.t1.common.dto.JobReportDTO;
 import edu.neu.cs6510.sp25.t1.common.dto.PipelineReportDTO;
@@ -26,14 +27,17 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class ReportController {
 
   private final ReportService reportService;
+  private final DurationStatsService durationStatsService;
 
   /**
    * Constructor for ReportController.
    *
-   * @param reportService ReportService instance
+   * @param reportService        ReportService instance
+   * @param durationStatsService DurationStatsService instance
    */
-  public ReportController(ReportService reportService) {
+  public ReportController(ReportService reportService, DurationStatsService durationStatsService) {
     this.reportService = reportService;
+    this.durationStatsService = durationStatsService;
   }
 
   /**
@@ -48,34 +52,42 @@ public class ReportController {
   }
 
   /**
-   * Fetch pipeline execution history.
+   * Fetch pipeline execution history, one page of runs at a time, most recent run first.
    *
    * @param pipelineName The name of the pipeline whose execution history is to be retrieved.
    * @param stage (Optional) The specific stage within the pipeline to filter the results.
    * @param job (Optional) The specific job within the stage to filter the results.
-   * @return A ResponseEntity containing the pipeline execution history, filtered by the provided parameters if applicable.
-   *         Returns a 500 status code with an error message if an exception occurs.
+   * @param limit (Optional) Maximum number of runs per page; defaults to report.history.default-page-size.
+   * @param cursor (Optional) Cursor of the page to fetch, as returned with the previous page.
+   * @param summary (Optional) If true, pipeline runs are returned without stage and job details.
+   * @return A ResponseEntity containing a page of the pipeline execution history, filtered by the provided
+   *         parameters if applicable, with the cursor of the next page.
+   *         Returns a 400 status code for an invalid cursor and a 500 status code if another exception occurs.
    */
   @GetMapping("/pipeline/history/{pipelineName}")
-  @Operation(summary = "Retrieve pipeline execution history", description = "Fetches past executions of a specified pipeline.")
+  @Operation(summary = "Retrieve pipeline execution history", description = "Fetches a page of past executions of a specified pipeline.")
   public ResponseEntity<?> getPipelineExecutionHistory(
           @PathVariable String pipelineName,
           @RequestParam(required = false) String stage,
-          @RequestParam(required = false) String job) {
+          @RequestParam(required = false) String job,
+          @RequestParam(required = false) Integer limit,
+          @RequestParam(required = false) String cursor,
+          @RequestParam(defaultValue = "false") boolean summary) {
     try {
       if (stage != null) {
         if (job != null) {
           // Both stage and job provided
-          return ResponseEntity.ok(reportService.getJobReportsForStage(pipelineName, stage, job));
+          return ResponseEntity.ok(reportService.getJobReportPage(pipelineName, stage, job, cursor, limit));
         } else {
           // Only stage provided
-          return ResponseEntity.ok(reportService.getStageReports(pipelineName, stage));
+          return ResponseEntity.ok(reportService.getStageReportPage(pipelineName, stage, cursor, limit));
         }
       } else {
-        // No filtering, return all pipeline runs
-        List<PipelineReportDTO> reports = reportService.getPipelineReports(pipelineName);
-        return ResponseEntity.ok(reports);
+        // No filtering, page through the pipeline runs
+        return ResponseEntity.ok(reportService.getPipelineReportPage(pipelineName, cursor, limit, summary));
       }
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
     } catch (Exception e) {
       return ResponseEntity.status(500).body(
               Map.of("error", "Failed to retrieve pipeline reports: " + e.getMessage())
@@ -83,6 +95,30 @@ public class ReportController {
     }
   }
 
+  /**
+   * Fetch duration statistics of a pipeline's successful executions.
+   *
+   * @param pipelineName The name of the pipeline.
+   * @param stage (Optional) Only report on this stage and its jobs.
+   * @param job (Optional) Only report on the jobs with this name.
+   * @return A ResponseEntity containing count, mean, min, max and p50/p95/p99 durations of the pipeline,
+   *         its stages and its jobs. Returns a 500 status code if the statistics cannot be read.
+   */
+  @GetMapping("/pipeline/{pipelineName}/stats")
+  @Operation(summary = "Retrieve duration statistics", description = "Fetches duration percentiles of a pipeline, its stages and its jobs.")
+  public ResponseEntity<?> getDurationStats(
+          @PathVariable String pipelineName,
+          @RequestParam(required = false) String stage,
+          @RequestParam(required = false) String job) {
+    try {
+      return ResponseEntity.ok(durationStatsService.getStats(pipelineName, stage, job));
+    } catch (Exception e) {
+      return ResponseEntity.status(500).body(
+              Map.of("error", "Failed to retrieve duration statistics: " + e.getMessage())
+      );
+    }
+  }
+
   /**
    * Fetch detailed execution summary for a pipeline run.
    *
@@ -0,0 +1,92 @@
+package edu.neu.cs6510.sp25.t1.backend.api.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import edu.neu.cs6510.sp25.t1.backend.service.status.StatusEventBus;
+import edu.neu.cs6510.sp25.t1.backend.service.status.StatusService;
+import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controller class streaming pipeline status transitions as Server-Sent Events.
+ * Watchers receive the current status tree once on connect, followed by a {@code status}
+ * event for every job, stage and pipeline transition, instead of polling the status endpoint.
+ */
+@RestController
+@RequestMapping("/api/pipeline")
+@Tag(name = "Pipeline API", description = "Endpoints for managing pipeline executions")
+public class StatusStreamController {
+
+  /** Event name of the status tree sent when a watcher connects. */
+  static final String SNAPSHOT_EVENT = "snapshot";
+
+  /** Event name of a single status transition. */
+  static final String STATUS_EVENT = "status";
+
+  private final StatusService statusService;
+  private final StatusEventBus statusEventBus;
+
+  @Value("${status.stream.timeout-ms:1800000}")
+  private long streamTimeoutMs = 1800000;
+
+  /**
+   * Constructor for StatusStreamController.
+   *
+   * @param statusService  the service resolving the current pipeline status
+   * @param statusEventBus the bus publishing status transitions
+   */
+  public StatusStreamController(StatusService statusService, StatusEventBus statusEventBus) {
+    this.statusService = statusService;
+    this.statusEventBus = statusEventBus;
+  }
+
+  /**
+   * Streams the status transitions of a pipeline.
+   *
+   * @param pipelineName the name of the pipeline to watch
+   * @return the event stream
+   */
+  @GetMapping(value = "/{pipelineName}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @Operation(summary = "Stream pipeline status", description = "Pushes job, stage and pipeline status transitions as Server-Sent Events.")
+  public SseEmitter streamPipelineStatus(@PathVariable String pipelineName) {
+    SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+    AtomicReference<Runnable> unsubscribe = new AtomicReference<>(() -> { });
+
+    // Subscribe before taking the snapshot so no transition falls between the two
+    unsubscribe.set(statusEventBus.subscribe(pipelineName, event -> {
+      try {
+        emitter.send(SseEmitter.event().name(STATUS_EVENT).data(event, MediaType.APPLICATION_JSON));
+      } catch (IOException e) {
+        unsubscribe.get().run();
+        emitter.completeWithError(e);
+      }
+    }));
+    emitter.onCompletion(() -> unsubscribe.get().run());
+    emitter.onTimeout(() -> unsubscribe.get().run());
+    emitter.onError(e -> unsubscribe.get().run());
+    PipelineLogger.info("Status watcher connected for pipeline: {}", pipelineName);
+
+    try {
+      Map<String, Object> snapshot = statusService.getStatusForPipeline(pipelineName);
+      emitter.send(SseEmitter.event().name(SNAPSHOT_EVENT).data(snapshot, MediaType.APPLICATION_JSON));
+    } catch (IllegalArgumentException e) {
+      // Nothing has run yet; the watcher only receives transitions
+      PipelineLogger.debug("No status snapshot for pipeline {}: {}", pipelineName, e.getMessage());
+    } catch (IOException e) {
+      unsubscribe.get().run();
+      emitter.completeWithError(e);
+    }
+    return emitter;
+  }
+}
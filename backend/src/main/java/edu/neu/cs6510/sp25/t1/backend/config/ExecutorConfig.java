@@ -0,0 +1,68 @@
+package edu.neu.cs6510.sp25.t1.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the executors background work runs on.
+ * Each kind of work gets its own virtual-thread executor, so slow git I/O cannot delay job
+ * dispatch or status updates, and each is measured separately.
+ */
+@Configuration
+public class ExecutorConfig {
+
+  /**
+   * Executor publishing admitted jobs to RabbitMQ.
+   *
+   * @param maxConcurrency maximum number of concurrent publishes, or 0 for no limit
+   * @param meterRegistry  registry receiving the executor metrics
+   * @return the dispatch executor
+   */
+  @Bean(destroyMethod = "close")
+  public MeteredVirtualThreadExecutor dispatchExecutor(
+      @Value("${executor.dispatch.max-concurrency:0}") int maxConcurrency, MeterRegistry meterRegistry) {
+    return new MeteredVirtualThreadExecutor("pipeline-dispatch", maxConcurrency, meterRegistry);
+  }
+
+  /**
+   * Executor for repository fetches and pipeline file reads.
+   *
+   * @param maxConcurrency maximum number of concurrent git operations, or 0 for no limit
+   * @param meterRegistry  registry receiving the executor metrics
+   * @return the git executor
+   */
+  @Bean(destroyMethod = "close")
+  public MeteredVirtualThreadExecutor gitExecutor(
+      @Value("${executor.git.max-concurrency:16}") int maxConcurrency, MeterRegistry meterRegistry) {
+    return new MeteredVirtualThreadExecutor("git-io", maxConcurrency, meterRegistry);
+  }
+
+  /**
+   * Executor recomputing and publishing pipeline status after job updates.
+   *
+   * @param maxConcurrency maximum number of concurrent status updates, or 0 for no limit
+   * @param meterRegistry  registry receiving the executor metrics
+   * @return the status executor
+   */
+  @Bean(destroyMethod = "close")
+  public MeteredVirtualThreadExecutor statusExecutor(
+      @Value("${executor.status.max-concurrency:8}") int maxConcurrency, MeterRegistry meterRegistry) {
+    return new MeteredVirtualThreadExecutor("status-update", maxConcurrency, meterRegistry);
+  }
+
+  /**
+   * Executor handing committed status transitions to status watchers.
+   *
+   * @param maxConcurrency maximum number of pipelines whose watchers are served at once, or 0 for no limit
+   * @param meterRegistry  registry receiving the executor metrics
+   * @return the status fan-out executor
+   */
+  @Bean(destroyMethod = "close")
+  public MeteredVirtualThreadExecutor statusFanOutExecutor(
+      @Value("${executor.status-fan-out.max-concurrency:0}") int maxConcurrency, MeterRegistry meterRegistry) {
+    return new MeteredVirtualThreadExecutor("status-fan-out", maxConcurrency, meterRegistry);
+  }
+}
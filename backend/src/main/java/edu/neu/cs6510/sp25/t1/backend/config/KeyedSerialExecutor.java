@@ -0,0 +1,66 @@
+package edu.neu.cs6510.sp25.t1.backend.config;
+
+import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Executor running the tasks submitted with the same key one after another, in submission order,
+ * while tasks of different keys run concurrently on the delegate executor.
+ * Only the last task of every key is remembered, and it is forgotten once it has run, so keys cost
+ * nothing while they have no pending work.
+ */
+public class KeyedSerialExecutor {
+
+  private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+
+  private final Executor delegate;
+
+  /** Completion of the last task submitted for every key with pending work. */
+  private final Map<Object, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs a new KeyedSerialExecutor.
+   *
+   * @param delegate executor the tasks run on
+   */
+  public KeyedSerialExecutor(Executor delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * Runs a task once every task submitted earlier with the same key has finished.
+   * Failures are logged and do not hold up the tasks submitted after it.
+   *
+   * @param key  the key ordering the task
+   * @param task the task to run
+   */
+  public void execute(Object key, Runnable task) {
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    CompletableFuture<Void> previous = tails.put(key, done);
+    (previous == null ? DONE : previous)
+        .thenRunAsync(() -> {
+          try {
+            task.run();
+          } catch (RuntimeException e) {
+            PipelineLogger.error("Task of key {} failed: {}", key, e.getMessage());
+          }
+        }, delegate)
+        .whenComplete((result, error) -> {
+          tails.remove(key, done);
+          done.complete(null);
+        });
+  }
+
+  /**
+   * Returns the number of keys with pending tasks.
+   *
+   * @return pending key count
+   */
+  public int getPendingKeyCount() {
+    return tails.size();
+  }
+}
@@ -0,0 +1,33 @@
+package edu.neu.cs6510.sp25.t1.backend.config;
+
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.logging.LoggingApplicationListener;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+
+import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
+
+/**
+ * Attaches the {@link PipelineLogger} appenders once Spring Boot has set up logging.
+ * Spring Boot resets Logback while it starts, which drops the console, file and async appenders the
+ * logger installs when it is loaded, so they are attached again right after the logging system is
+ * initialized and before any bean logs. Request threads only hand log events to a ring buffer unless
+ * {@code pipeline.logging.async=false} is set.
+ * <p>
+ * Registered on the {@code SpringApplication}, since the event fires before the application context exists.
+ */
+public class PipelineLoggingListener implements ApplicationListener<ApplicationEnvironmentPreparedEvent>, Ordered {
+
+  @Override
+  public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+    PipelineLogger.reattach(event.getEnvironment().getProperty(PipelineLogger.ASYNC_PROPERTY, Boolean.class, true));
+  }
+
+  /**
+   * Runs right after the listener that initializes the logging system.
+   */
+  @Override
+  public int getOrder() {
+    return LoggingApplicationListener.DEFAULT_ORDER + 1;
+  }
+}
@@ -1,6 +1,10 @@
 package edu.neu.cs6510.sp25.t1.backend.config;
 
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -10,15 +14,33 @@ import org.springframework.context.annotation.Configuration;
 
 /**
  * Configuration class for setting up RabbitMQ-related beans.
- * Registers the job queue, RabbitTemplate, and RabbitAdmin to enable messaging and queue management.
+ * Registers the job and job status queues, RabbitTemplate, and RabbitAdmin to enable messaging and queue management.
+ * Jobs are published to a topic exchange with a routing key per pipeline execution, so consumers
+ * can bind to the jobs of a single execution; the shared job queue receives all of them.
+ * The job queue is a priority queue, so jobs on the critical path of their pipeline are delivered first.
  */
 @Configuration
 public class RabbitMQConfig {
 
+  /** Prefix of the routing key jobs are published with; the pipeline execution ID follows it. */
+  public static final String JOB_ROUTING_KEY_PREFIX = "job.";
+
+  /** Name of the RabbitMQ exchange jobs are published to, injected from application properties. */
+  @Value("${spring.rabbitmq.job-exchange}")
+  private String jobExchangeName;
+
   /** Name of the RabbitMQ job queue, injected from application properties. */
   @Value("${spring.rabbitmq.job-queue}")
   private String jobQueueName;
 
+  /** Highest priority of the job queue, injected from application properties; 0 declares a plain queue. */
+  @Value("${execution.priority.max-priority:9}")
+  private int jobQueueMaxPriority;
+
+  /** Name of the RabbitMQ queue workers report job status updates to, injected from application properties. */
+  @Value("${spring.rabbitmq.status-queue}")
+  private String statusQueueName;
+
   /**
    * Creates and configures a {@link RabbitAdmin} instance.
    *
@@ -42,12 +64,48 @@ public class RabbitMQConfig {
   }
 
   /**
-   * Declares the job queue with durability enabled.
+   * Declares the job queue with durability enabled and, unless disabled, message priorities.
+   * RabbitMQ cannot change the arguments of an existing queue, so a job queue declared without
+   * priorities must be deleted once before the priorities take effect.
    *
    * @return the configured job queue
    */
   @Bean
   public Queue jobQueue() {
-    return new Queue(jobQueueName, true);
+    QueueBuilder builder = QueueBuilder.durable(jobQueueName);
+    if (jobQueueMaxPriority > 0) {
+      builder.maxPriority(jobQueueMaxPriority);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Declares the job status queue with durability enabled.
+   *
+   * @return the configured job status queue
+   */
+  @Bean
+  public Queue jobStatusQueue() {
+    return new Queue(statusQueueName, true);
+  }
+
+  /**
+   * Declares the durable topic exchange jobs are published to.
+   *
+   * @return the configured job exchange
+   */
+  @Bean
+  public TopicExchange jobExchange() {
+    return new TopicExchange(jobExchangeName, true, false);
+  }
+
+  /**
+   * Binds the shared job queue to the jobs of every pipeline execution.
+   *
+   * @return the binding of the job queue to the job exchange
+   */
+  @Bean
+  public Binding jobQueueBinding() {
+    return BindingBuilder.bind(jobQueue()).to(jobExchange()).with(JOB_ROUTING_KEY_PREFIX + "#");
   }
 }
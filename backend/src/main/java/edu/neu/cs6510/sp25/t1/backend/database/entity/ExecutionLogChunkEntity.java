@@ -0,0 +1,83 @@
+package edu.neu.cs6510.sp25.t1.backend.database.entity;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents one compressed chunk of a job execution's log.
+ * Chunks are append-only: the chunks of a job are numbered from 0 and each holds the lines
+ * following the previous chunk, so the log is read back by concatenating them in sequence order.
+ */
+@Entity
+@Table(name = "execution_log_chunks")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExecutionLogChunkEntity {
+
+  /**
+   * Unique identifier for the chunk.
+   */
+  @Id
+  @GeneratedValue
+  private UUID id;
+
+  /**
+   * The job execution the log belongs to.
+   */
+  @Column(name = "job_execution_id", nullable = false)
+  private UUID jobExecutionId;
+
+  /**
+   * Position of the chunk in the job log, starting at 0.
+   */
+  @Column(name = "sequence_number", nullable = false)
+  private long sequenceNumber;
+
+  /**
+   * Number of line breaks in the job log before the chunk.
+   */
+  @Column(name = "first_line", nullable = false)
+  private long firstLine;
+
+  /**
+   * Number of line breaks in the chunk.
+   */
+  @Column(name = "line_count", nullable = false)
+  private int lineCount;
+
+  /**
+   * Offset of the chunk's first byte in the uncompressed job log.
+   */
+  @Column(name = "byte_offset", nullable = false)
+  private long byteOffset;
+
+  /**
+   * Uncompressed length of the chunk in bytes.
+   */
+  @Column(name = "byte_length", nullable = false)
+  private int byteLength;
+
+  /**
+   * The deflate-compressed UTF-8 text of the chunk.
+   */
+  @Column(name = "data", nullable = false, columnDefinition = "BYTEA")
+  private byte[] data;
+
+  /**
+   * Timestamp indicating when the chunk was sealed.
+   */
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private Instant createdAt;
+}
@@ -0,0 +1,69 @@
+package edu.neu.cs6510.sp25.t1.backend.database.entity;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Index entry of a segment file holding the whole log of a finished job execution.
+ * Once a log is written to a segment, its chunks are removed from the database.
+ */
+@Entity
+@Table(name = "execution_log_segments")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExecutionLogSegmentEntity {
+
+  /**
+   * The job execution the log belongs to.
+   */
+  @Id
+  @Column(name = "job_execution_id", nullable = false)
+  private UUID jobExecutionId;
+
+  /**
+   * Name of the segment file within the segment directory.
+   */
+  @Column(name = "file_name", nullable = false)
+  private String fileName;
+
+  /**
+   * Number of chunks in the segment.
+   */
+  @Column(name = "chunk_count", nullable = false)
+  private int chunkCount;
+
+  /**
+   * Number of line breaks in the log.
+   */
+  @Column(name = "line_count", nullable = false)
+  private long lineCount;
+
+  /**
+   * Uncompressed length of the log in bytes.
+   */
+  @Column(name = "byte_length", nullable = false)
+  private long byteLength;
+
+  /**
+   * Size of the segment file in bytes.
+   */
+  @Column(name = "size_bytes", nullable = false)
+  private long sizeBytes;
+
+  /**
+   * Timestamp indicating when the segment was written.
+   */
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private Instant createdAt;
+}
@@ -5,9 +5,11 @@ import java.util.UUID;
 
 import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
 import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
@@ -40,10 +42,12 @@ public class JobExecutionEntity {
   private UUID id;
 
   /**
-   * Foreign key reference to the job being executed.
+   * The stage execution the job belongs to. Stage executions are partitioned, so the link has
+   * no database constraint.
    */
   @ManyToOne
-  @JoinColumn(name = "stage_execution_id", nullable = false)
+  @JoinColumn(name = "stage_execution_id", nullable = false,
+      foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
   private StageExecutionEntity stageExecution;
 
 
@@ -76,9 +80,15 @@ public class JobExecutionEntity {
   /**
    * Timestamp indicating when the job execution started.
    */
-  @Column(name = "start_time")
+  @Column(name = "start_time", updatable = false)
   private Instant startTime;
 
+  /**
+   * Timestamp indicating when a worker reported the job execution running, or null until then.
+   */
+  @Column(name = "run_start_time")
+  private Instant runStartTime;
+
   /**
    * Timestamp indicating when the job execution was completed.
    */
@@ -102,4 +112,13 @@ public class JobExecutionEntity {
       this.completionTime = Instant.now();
     }
   }
+
+  /**
+   * Returns when the job execution started running, leaving out the time it waited for admission and a worker.
+   *
+   * @return the run start time, or the creation time if no worker reported the job running
+   */
+  public Instant runningSince() {
+    return runStartTime != null ? runStartTime : startTime;
+  }
 }
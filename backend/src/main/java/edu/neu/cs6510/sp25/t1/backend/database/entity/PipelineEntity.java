@@ -23,7 +23,8 @@ import lombok.Setter;
 @Entity
 @Table(name = "pipelines", indexes = {
         @Index(name = "idx_pipeline_name", columnList = "name"),
-        @Index(name = "idx_pipeline_repo", columnList = "repository_url")
+        @Index(name = "idx_pipeline_repo", columnList = "repository_url"),
+        @Index(name = "idx_pipeline_definition", columnList = "name, definition_hash")
 })
 @Getter
 @Setter
@@ -48,6 +49,10 @@ public class PipelineEntity {
   @Column(name = "commit_hash", length = 40)
   private String commitHash;
 
+  /** SHA-256 of the configuration the stage and job definitions were created from. */
+  @Column(name = "definition_hash", length = 64)
+  private String definitionHash;
+
   @Column(name = "created_at", updatable = false)
   private Instant createdAt;
 
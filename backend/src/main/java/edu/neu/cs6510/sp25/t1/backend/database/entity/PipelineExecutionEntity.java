@@ -1,5 +1,6 @@
 package edu.neu.cs6510.sp25.t1.backend.database.entity;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -30,6 +31,9 @@ import lombok.Setter;
 @AllArgsConstructor
 @Builder
 public class PipelineExecutionEntity {
+  /** Allowance for clock adjustments between creating a run and creating its stages and jobs. */
+  private static final Duration CHILD_START_MARGIN = Duration.ofHours(1);
+
   @Id
   @GeneratedValue
   private UUID id;
@@ -50,7 +54,7 @@ public class PipelineExecutionEntity {
   @Column(name = "status")
   private ExecutionStatus status;
 
-  @Column(name = "start_time")
+  @Column(name = "start_time", updatable = false)
   private Instant startTime;
 
   @Column(name = "completion_time")
@@ -68,4 +72,15 @@ public class PipelineExecutionEntity {
       this.completionTime = Instant.now();
     }
   }
+
+  /**
+   * Returns a lower bound on the start time of the stage and job executions of this run.
+   * Their tables are partitioned by start time, so filtering on it keeps queries to the partitions
+   * from the run's start on.
+   *
+   * @return the lower bound, or the epoch if the start time is unknown
+   */
+  public Instant earliestChildStartTime() {
+    return startTime == null ? Instant.EPOCH : startTime.minus(CHILD_START_MARGIN);
+  }
 }
@@ -83,9 +83,15 @@ public class StageExecutionEntity {
   /**
    * Timestamp indicating when the stage execution started.
    */
-  @Column(name = "start_time")
+  @Column(name = "start_time", updatable = false)
   private Instant startTime;
 
+  /**
+   * Timestamp indicating when the first job of the stage execution was reported running, or null until then.
+   */
+  @Column(name = "run_start_time")
+  private Instant runStartTime;
+
   /**
    * Timestamp indicating when the stage execution was completed.
    */
@@ -108,14 +114,27 @@ public class StageExecutionEntity {
   }
 
   /**
-   * Updates the execution status and completion timestamp.
+   * Updates the execution status and timestamps. The first transition to RUNNING records when the stage
+   * started running.
    *
    * @param newState the new execution status to set
    */
   public void updateState(ExecutionStatus newState) {
     this.status = newState;
+    if (newState == ExecutionStatus.RUNNING && this.runStartTime == null) {
+      this.runStartTime = Instant.now();
+    }
     if (newState == ExecutionStatus.SUCCESS || newState == ExecutionStatus.FAILED || newState == ExecutionStatus.CANCELED) {
       this.completionTime = Instant.now();
     }
   }
+
+  /**
+   * Returns when the stage execution started running, leaving out the time its jobs waited for admission.
+   *
+   * @return the run start time, or the creation time if none of its jobs was reported running
+   */
+  public Instant runningSince() {
+    return runStartTime != null ? runStartTime : startTime;
+  }
 }
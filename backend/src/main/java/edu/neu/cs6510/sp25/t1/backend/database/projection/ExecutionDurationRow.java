@@ -0,0 +1,36 @@
+package edu.neu.cs6510.sp25.t1.backend.database.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Flat read-only row of a finished pipeline, stage or job execution's timing, used to build
+ * duration statistics without loading execution entities.
+ *
+ * @param executionId    the pipeline, stage or job execution ID
+ * @param stageName      the stage name, or null for a pipeline execution
+ * @param jobName        the job name, or null for a pipeline or stage execution
+ * @param startTime      when the execution started; for a stage or job, when it started running
+ * @param completionTime when the execution completed
+ */
+public record ExecutionDurationRow(
+    UUID executionId,
+    String stageName,
+    String jobName,
+    Instant startTime,
+    Instant completionTime) {
+
+  /**
+   * Creates the row of a stage execution.
+   */
+  public ExecutionDurationRow(UUID executionId, String stageName, Instant startTime, Instant completionTime) {
+    this(executionId, stageName, null, startTime, completionTime);
+  }
+
+  /**
+   * Creates the row of a pipeline execution.
+   */
+  public ExecutionDurationRow(UUID executionId, Instant startTime, Instant completionTime) {
+    this(executionId, null, null, startTime, completionTime);
+  }
+}
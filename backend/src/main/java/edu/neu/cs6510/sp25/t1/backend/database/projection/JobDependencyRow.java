@@ -0,0 +1,14 @@
+package edu.neu.cs6510.sp25.t1.backend.database.projection;
+
+import java.util.UUID;
+
+/**
+ * Flat read-only row of a dependency declared between two job definitions.
+ *
+ * @param jobId          the job definition that has the dependency
+ * @param dependsOnJobId the job definition that must complete first
+ */
+public record JobDependencyRow(
+    UUID jobId,
+    UUID dependsOnJobId) {
+}
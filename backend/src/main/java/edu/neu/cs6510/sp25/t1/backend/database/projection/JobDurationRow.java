@@ -0,0 +1,18 @@
+package edu.neu.cs6510.sp25.t1.backend.database.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Flat read-only row of a finished job execution's timing, used to estimate how long
+ * future executions of the same job will take.
+ *
+ * @param jobId          the job definition the execution ran
+ * @param startTime      when the execution started running
+ * @param completionTime when the execution completed
+ */
+public record JobDurationRow(
+    UUID jobId,
+    Instant startTime,
+    Instant completionTime) {
+}
@@ -0,0 +1,28 @@
+package edu.neu.cs6510.sp25.t1.backend.database.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+
+/**
+ * Flat read-only row of a job execution joined with its job name, used to build reports
+ * without loading job execution entities.
+ *
+ * @param id               the job execution ID
+ * @param stageExecutionId the stage execution the job belongs to
+ * @param jobName          the job name, or null if the job definition no longer exists
+ * @param status           the job execution status
+ * @param startTime        the job start time
+ * @param completionTime   the job completion time
+ * @param allowFailure     whether the job is allowed to fail
+ */
+public record JobReportRow(
+    UUID id,
+    UUID stageExecutionId,
+    String jobName,
+    ExecutionStatus status,
+    Instant startTime,
+    Instant completionTime,
+    boolean allowFailure) {
+}
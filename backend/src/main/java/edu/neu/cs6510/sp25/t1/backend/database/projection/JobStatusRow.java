@@ -0,0 +1,21 @@
+package edu.neu.cs6510.sp25.t1.backend.database.projection;
+
+import java.util.UUID;
+
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+
+/**
+ * Flat read-only row of a job execution joined with its job name, used to report
+ * pipeline status without loading job execution entities.
+ *
+ * @param stageExecutionId the stage execution the job belongs to
+ * @param jobExecutionId   the job execution ID
+ * @param jobName          the job name, or null if the job definition no longer exists
+ * @param status           the job execution status
+ */
+public record JobStatusRow(
+    UUID stageExecutionId,
+    UUID jobExecutionId,
+    String jobName,
+    ExecutionStatus status) {
+}
@@ -0,0 +1,26 @@
+package edu.neu.cs6510.sp25.t1.backend.database.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+
+/**
+ * Flat read-only row of a stage execution joined with its stage name, used to build reports
+ * without loading stage execution entities and their jobs.
+ *
+ * @param id                  the stage execution ID
+ * @param pipelineExecutionId the pipeline execution the stage belongs to
+ * @param stageName           the stage name, or null if the stage definition no longer exists
+ * @param status              the stage execution status
+ * @param startTime           the stage start time
+ * @param completionTime      the stage completion time
+ */
+public record StageReportRow(
+    UUID id,
+    UUID pipelineExecutionId,
+    String stageName,
+    ExecutionStatus status,
+    Instant startTime,
+    Instant completionTime) {
+}
@@ -0,0 +1,21 @@
+package edu.neu.cs6510.sp25.t1.backend.database.projection;
+
+import java.util.UUID;
+
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+
+/**
+ * Aggregated read-only row of a stage execution, carrying both its persisted status and
+ * the most severe status among its job executions, used to resolve pipeline status.
+ *
+ * @param stageExecutionId the stage execution ID
+ * @param stageName        the stage name, or null if the stage definition no longer exists
+ * @param status           the persisted stage execution status
+ * @param jobStatusRank    precedence rank of the most severe job status, or null if the stage has no jobs
+ */
+public record StageStatusRow(
+    UUID stageExecutionId,
+    String stageName,
+    ExecutionStatus status,
+    Integer jobStatusRank) {
+}
@@ -0,0 +1,85 @@
+package edu.neu.cs6510.sp25.t1.backend.database.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import edu.neu.cs6510.sp25.t1.backend.database.entity.ExecutionLogChunkEntity;
+
+/**
+ * Repository for the compressed log chunks of job executions.
+ */
+@Repository
+public interface ExecutionLogChunkRepository extends JpaRepository<ExecutionLogChunkEntity, UUID> {
+
+  /**
+   * Finds the last stored chunk of a job execution's log.
+   *
+   * @param jobExecutionId the job execution ID
+   * @return the chunk with the highest sequence number, if any
+   */
+  Optional<ExecutionLogChunkEntity> findFirstByJobExecutionIdOrderBySequenceNumberDesc(UUID jobExecutionId);
+
+  /**
+   * Finds the chunk of a job execution's log that holds a byte offset.
+   *
+   * @param jobExecutionId the job execution ID
+   * @param byteOffset     offset in the uncompressed log
+   * @return the last chunk starting at or before the offset, if any
+   */
+  Optional<ExecutionLogChunkEntity> findFirstByJobExecutionIdAndByteOffsetLessThanEqualOrderByByteOffsetDesc(
+      UUID jobExecutionId, long byteOffset);
+
+  /**
+   * Finds the chunk of a job execution's log that holds a line break.
+   *
+   * @param jobExecutionId the job execution ID
+   * @param line           number of the line break, counting from 1
+   * @return the last chunk with fewer line breaks before it, if any
+   */
+  Optional<ExecutionLogChunkEntity> findFirstByJobExecutionIdAndFirstLineLessThanOrderBySequenceNumberDesc(
+      UUID jobExecutionId, long line);
+
+  /**
+   * Fetches the chunks of a job execution's log that follow a chunk.
+   *
+   * @param jobExecutionId the job execution ID
+   * @param sequenceNumber sequence number of the chunk already read
+   * @param pageable       how many chunks to fetch
+   * @return the following chunks in sequence order
+   */
+  List<ExecutionLogChunkEntity> findByJobExecutionIdAndSequenceNumberGreaterThanOrderBySequenceNumberAsc(
+      UUID jobExecutionId, long sequenceNumber, Pageable pageable);
+
+  /**
+   * Finds job executions that completed before a point in time and still have chunks stored.
+   *
+   * @param completedBefore the point in time
+   * @param pageable        how many job executions to fetch
+   * @return the job execution IDs
+   */
+  @Query("SELECT je.id FROM JobExecutionEntity je WHERE je.completionTime < :completedBefore "
+      + "AND EXISTS (SELECT 1 FROM ExecutionLogChunkEntity c WHERE c.jobExecutionId = je.id)")
+  List<UUID> findJobExecutionIdsWithChunksCompletedBefore(@Param("completedBefore") Instant completedBefore,
+      Pageable pageable);
+
+  /**
+   * Deletes every chunk of a job execution's log in one statement.
+   *
+   * @param jobExecutionId the job execution ID
+   * @return the number of deleted chunks
+   */
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM ExecutionLogChunkEntity c WHERE c.jobExecutionId = :jobExecutionId")
+  int deleteByJobExecutionId(@Param("jobExecutionId") UUID jobExecutionId);
+}
@@ -0,0 +1,44 @@
+package edu.neu.cs6510.sp25.t1.backend.database.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import edu.neu.cs6510.sp25.t1.backend.database.entity.ExecutionLogSegmentEntity;
+
+/**
+ * Repository for the index of log segment files.
+ */
+@Repository
+public interface ExecutionLogSegmentRepository extends JpaRepository<ExecutionLogSegmentEntity, UUID> {
+
+  /**
+   * Fetches the oldest segments.
+   *
+   * @param pageable how many segments to fetch
+   * @return the segments, oldest first
+   */
+  List<ExecutionLogSegmentEntity> findByOrderByCreatedAtAsc(Pageable pageable);
+
+  /**
+   * Fetches segments written before a point in time.
+   *
+   * @param createdBefore the point in time
+   * @param pageable      how many segments to fetch
+   * @return the segments, oldest first
+   */
+  List<ExecutionLogSegmentEntity> findByCreatedAtBeforeOrderByCreatedAtAsc(Instant createdBefore, Pageable pageable);
+
+  /**
+   * Sums the sizes of all segment files.
+   *
+   * @return the total size in bytes
+   */
+  @Query("SELECT COALESCE(SUM(s.sizeBytes), 0) FROM ExecutionLogSegmentEntity s")
+  long sumSizeBytes();
+}
@@ -1,16 +1,26 @@
 package edu.neu.cs6510.sp25.t1.backend.database.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import edu.neu.cs6510.sp25.t1.backend.database.entity.JobExecutionEntity;
 import edu.neu.cs6510.sp25.t1.backend.database.entity.StageExecutionEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.JobDependencyRow;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.JobDurationRow;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.ExecutionDurationRow;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.JobReportRow;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.JobStatusRow;
 import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
 
 /**
@@ -21,6 +31,8 @@ public interface JobExecutionRepository extends JpaRepository<JobExecutionEntity
 
   List<JobExecutionEntity> findByStageExecution(StageExecutionEntity stageExecution);
 
+  long countByStageExecution_PipelineExecutionId(UUID pipelineExecutionId);
+
   Optional<JobExecutionEntity> findByJobId(UUID jobId);
 
 
@@ -32,6 +44,174 @@ public interface JobExecutionRepository extends JpaRepository<JobExecutionEntity
   @Query("SELECT je FROM JobExecutionEntity je JOIN JobEntity j ON je.jobId = j.id WHERE je.stageExecution.id = :stageExecutionId AND j.name = :jobName ORDER BY je.startTime DESC")
   List<JobExecutionEntity> findByStageExecutionAndJobNameOrderByStartTimeDesc(@Param("stageExecutionId") UUID stageExecutionId, @Param("jobName") String jobName);
 
-  @Query("SELECT jd.dependency.id FROM JobDependencyEntity jd WHERE jd.job.id = :jobId")
-  List<UUID> findDependenciesByJobId(@Param("jobId") UUID jobId);
+  /**
+   * Fetches the dependencies declared by several job definitions in one query.
+   *
+   * @param jobIds the job definition IDs
+   * @return one row per declared dependency, between job definition IDs
+   */
+  @Query("SELECT new edu.neu.cs6510.sp25.t1.backend.database.projection.JobDependencyRow(j.id, d) "
+      + "FROM JobEntity j JOIN j.dependencies d WHERE j.id IN :jobIds")
+  List<JobDependencyRow> findDependencyRowsByJobIdIn(@Param("jobIds") Collection<UUID> jobIds);
+
+  /**
+   * Fetches the report rows of every job of a stage execution, with job names, in one query.
+   *
+   * @param stageExecutionId the stage execution ID
+   * @return job report rows in start order
+   */
+  @Query("SELECT new edu.neu.cs6510.sp25.t1.backend.database.projection.JobReportRow(je.id, se.id, j.name, je.status, je.startTime, je.completionTime, je.allowFailure) "
+      + "FROM JobExecutionEntity je JOIN je.stageExecution se LEFT JOIN JobEntity j ON je.jobId = j.id "
+      + "WHERE se.id = :stageExecutionId ORDER BY je.startTime")
+  List<JobReportRow> findJobReportRowsByStageExecutionId(@Param("stageExecutionId") UUID stageExecutionId);
+
+  /**
+   * Fetches the report rows of the executions of one job within a stage execution.
+   *
+   * @param stageExecutionId the stage execution ID
+   * @param jobName          the name of the job
+   * @return job report rows, most recent first
+   */
+  @Query("SELECT new edu.neu.cs6510.sp25.t1.backend.database.projection.JobReportRow(je.id, se.id, j.name, je.status, je.startTime, je.completionTime, je.allowFailure) "
+      + "FROM JobExecutionEntity je JOIN je.stageExecution se LEFT JOIN JobEntity j ON je.jobId = j.id "
+      + "WHERE se.id = :stageExecutionId AND j.name = :jobName ORDER BY je.startTime DESC")
+  List<JobReportRow> findJobReportRowsByStageExecutionIdAndJobName(@Param("stageExecutionId") UUID stageExecutionId, @Param("jobName") String jobName);
+
+  /**
+   * Fetches the report rows of every job of a pipeline execution in one query.
+   *
+   * @param pipelineExecutionId the pipeline execution ID
+   * @param startedSince        lower bound on the start time of the stage and job executions, to skip older partitions
+   * @return job report rows in start order
+   */
+  @Query("SELECT new edu.neu.cs6510.sp25.t1.backend.database.projection.JobReportRow(je.id, se.id, j.name, je.status, je.startTime, je.completionTime, je.allowFailure) "
+      + "FROM JobExecutionEntity je JOIN je.stageExecution se LEFT JOIN JobEntity j ON je.jobId = j.id "
+      + "WHERE se.pipelineExecutionId = :pipelineExecutionId AND se.startTime >= :startedSince "
+      + "AND je.startTime >= :startedSince ORDER BY je.startTime")
+  List<JobReportRow> findJobReportRowsByPipelineExecutionId(@Param("pipelineExecutionId") UUID pipelineExecutionId,
+      @Param("startedSince") Instant startedSince);
+
+  /**
+   * Fetches the report rows of every job of a set of pipeline executions in one query.
+   *
+   * @param pipelineExecutionIds the pipeline execution IDs
+   * @param startedSince         lower bound on the start time of the stage and job executions, to skip older partitions
+   * @return job report rows in start order
+   */
+  @Query("SELECT new edu.neu.cs6510.sp25.t1.backend.database.projection.JobReportRow(je.id, se.id, j.name, je.status, je.startTime, je.completionTime, je.allowFailure) "
+      + "FROM JobExecutionEntity je JOIN je.stageExecution se LEFT JOIN JobEntity j ON je.jobId = j.id "
+      + "WHERE se.pipelineExecutionId IN :pipelineExecutionIds AND se.startTime >= :startedSince "
+      + "AND je.startTime >= :startedSince ORDER BY je.startTime")
+  List<JobReportRow> findJobReportRowsByPipelineExecutionIdIn(
+      @Param("pipelineExecutionIds") Collection<UUID> pipelineExecutionIds,
+      @Param("startedSince") Instant startedSince);
+
+  /**
+   * Fetches the status rows of every job of a pipeline execution in one query.
+   *
+   * @param pipelineExecutionId the pipeline execution ID
+   * @param startedSince        lower bound on the start time of the stage and job executions, to skip older partitions
+   * @return job status rows grouped by stage execution order, in start order within a stage
+   */
+  @Query("SELECT new edu.neu.cs6510.sp25.t1.backend.database.projection.JobStatusRow(se.id, je.id, j.name, je.status) "
+      + "FROM JobExecutionEntity je JOIN je.stageExecution se LEFT JOIN JobEntity j ON je.jobId = j.id "
+      + "WHERE se.pipelineExecutionId = :pipelineExecutionId AND se.startTime >= :startedSince "
+      + "AND je.startTime >= :startedSince ORDER BY se.executionOrder, je.startTime")
+  List<JobStatusRow> findJobStatusRowsByPipelineExecutionId(@Param("pipelineExecutionId") UUID pipelineExecutionId,
+      @Param("startedSince") Instant startedSince);
+
+  /**
+   * Fetches the report rows of every job of one stage of a set of pipeline executions in one query.
+   *
+   * @param pipelineExecutionIds the pipeline execution IDs
+   * @param stageName            the name of the stage
+   * @param startedSince         lower bound on the start time of the stage and job executions, to skip older partitions
+   * @return job report rows in start order
+   */
+  @Query("SELECT new edu.neu.cs6510.sp25.t1.backend.database.projection.JobReportRow(je.id, se.id, j.name, je.status, je.startTime, je.completionTime, je.allowFailure) "
+      + "FROM JobExecutionEntity je JOIN je.stageExecution se LEFT JOIN JobEntity j ON je.jobId = j.id "
+      + "JOIN StageEntity s ON se.stageId = s.id "
+      + "WHERE se.pipelineExecutionId IN :pipelineExecutionIds AND s.name = :stageName "
+      + "AND se.startTime >= :startedSince AND je.startTime >= :startedSince ORDER BY je.startTime")
+  List<JobReportRow> findJobReportRowsByPipelineExecutionIdInAndStageName(
+      @Param("pipelineExecutionIds") Collection<UUID> pipelineExecutionIds,
+      @Param("stageName") String stageName,
+      @Param("startedSince") Instant startedSince);
+
+  /**
+   * Fetches the report rows of one job of one stage of a set of pipeline executions in one query.
+   *
+   * @param pipelineExecutionIds the pipeline execution IDs
+   * @param stageName            the name of the stage
+   * @param jobName              the name of the job
+   * @param startedSince         lower bound on the start time of the stage and job executions, to skip older partitions
+   * @return job report rows, most recent first
+   */
+  @Query("SELECT new edu.neu.cs6510.sp25.t1.backend.database.projection.JobReportRow(je.id, se.id, j.name, je.status, je.startTime, je.completionTime, je.allowFailure) "
+      + "FROM JobExecutionEntity je JOIN je.stageExecution se JOIN JobEntity j ON je.jobId = j.id "
+      + "JOIN StageEntity s ON se.stageId = s.id "
+      + "WHERE se.pipelineExecutionId IN :pipelineExecutionIds AND s.name = :stageName AND j.name = :jobName "
+      + "AND se.startTime >= :startedSince AND je.startTime >= :startedSince ORDER BY je.startTime DESC")
+  List<JobReportRow> findJobReportRowsByPipelineExecutionIdInAndStageNameAndJobName(
+      @Param("pipelineExecutionIds") Collection<UUID> pipelineExecutionIds,
+      @Param("stageName") String stageName,
+      @Param("jobName") String jobName,
+      @Param("startedSince") Instant startedSince);
+
+  /**
+   * Records when a worker reported a job execution running. Later reports keep the first time.
+   *
+   * @param jobExecutionId the job execution ID
+   * @param runStartTime   when the job was reported running
+   * @return 1 if the run start time was recorded, 0 if it already was or the job execution does not exist
+   */
+  @Modifying
+  @Transactional
+  @Query("UPDATE JobExecutionEntity je SET je.runStartTime = :runStartTime "
+      + "WHERE je.id = :jobExecutionId AND je.runStartTime IS NULL")
+  int markRunStarted(@Param("jobExecutionId") UUID jobExecutionId, @Param("runStartTime") Instant runStartTime);
+
+  /**
+   * Fetches the timing of the most recently completed executions of a set of jobs in one query,
+   * at most {@code historySize} per job, so a frequently run job cannot crowd out the history of the others.
+   * Durations are measured from when each execution started running, or from its creation if that is unknown.
+   *
+   * @param jobIds       the job definition IDs
+   * @param status       the status the executions finished with
+   * @param startedSince lower bound on the start time of the job executions, to skip older partitions
+   * @param historySize  maximum number of executions returned per job
+   * @return job duration rows, most recently completed first
+   */
+  @Query("SELECT new edu.neu.cs6510.sp25.t1.backend.database.projection.JobDurationRow(r.jobId, r.startTime, r.completionTime) "
+      + "FROM (SELECT je.jobId AS jobId, COALESCE(je.runStartTime, je.startTime) AS startTime, je.completionTime AS completionTime, "
+      + "ROW_NUMBER() OVER (PARTITION BY je.jobId ORDER BY je.completionTime DESC) AS recency "
+      + "FROM JobExecutionEntity je "
+      + "WHERE je.jobId IN :jobIds AND je.status = :status AND je.startTime >= :startedSince "
+      + "AND je.completionTime IS NOT NULL) r "
+      + "WHERE r.recency <= :historySize ORDER BY r.completionTime DESC")
+  List<JobDurationRow> findRecentDurationRowsByJobIdIn(@Param("jobIds") Collection<UUID> jobIds,
+                                                       @Param("status") ExecutionStatus status,
+                                                       @Param("startedSince") Instant startedSince,
+                                                       @Param("historySize") int historySize);
+
+  /**
+   * Fetches the timing of the most recently completed job executions of a pipeline in one query.
+   * Durations are measured from when each execution started running, or from its creation if that is unknown.
+   *
+   * @param pipelineName the name of the pipeline
+   * @param status       the status the executions finished with
+   * @param startedSince lower bound on the start time of the pipeline, stage and job executions, to skip older
+   *                     partitions
+   * @param pageable     limits the number of rows fetched
+   * @return execution duration rows with stage and job names, most recently completed first
+   */
+  @Query("SELECT new edu.neu.cs6510.sp25.t1.backend.database.projection.ExecutionDurationRow(je.id, s.name, j.name, COALESCE(je.runStartTime, je.startTime), je.completionTime) "
+      + "FROM JobExecutionEntity je JOIN je.stageExecution se JOIN JobEntity j ON je.jobId = j.id "
+      + "JOIN StageEntity s ON se.stageId = s.id "
+      + "JOIN PipelineExecutionEntity pe ON se.pipelineExecutionId = pe.id JOIN PipelineEntity p ON pe.pipelineId = p.id "
+      + "WHERE p.name = :pipelineName AND je.status = :status AND je.completionTime IS NOT NULL "
+      + "AND pe.startTime >= :startedSince AND se.startTime >= :startedSince AND je.startTime >= :startedSince "
+      + "ORDER BY je.completionTime DESC")
+  List<ExecutionDurationRow> findRecentDurationRowsByPipelineName(@Param("pipelineName") String pipelineName,
+      @Param("status") ExecutionStatus status, @Param("startedSince") Instant startedSince, Pageable pageable);
 }
@@ -3,6 +3,7 @@ package edu.neu.cs6510.sp25.t1.backend.database.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,4 +23,20 @@ public interface JobRepository extends JpaRepository<JobEntity, UUID> {
    */
   List<JobEntity> findByStageId(UUID stageId);
 
+  /**
+   * Retrieves all jobs of several stages in a single query.
+   *
+   * @param stageIds The stage IDs.
+   * @return List of job entities.
+   */
+  List<JobEntity> findByStageIdIn(Collection<UUID> stageIds);
+
+  /**
+   * Counts the jobs of several stages.
+   *
+   * @param stageIds The stage IDs.
+   * @return Number of jobs.
+   */
+  long countByStageIdIn(Collection<UUID> stageIds);
+
 }
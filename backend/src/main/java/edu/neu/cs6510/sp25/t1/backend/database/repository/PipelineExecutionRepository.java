@@ -1,15 +1,19 @@
 package edu.neu.cs6510.sp25.t1.backend.database.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import edu.neu.cs6510.sp25.t1.backend.database.entity.PipelineExecutionEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.ExecutionDurationRow;
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
 
 /**
  * Repository for managing PipelineExecution entities.
@@ -26,7 +30,26 @@ public interface PipelineExecutionRepository extends JpaRepository<PipelineExecu
   Optional<PipelineExecutionEntity> findByPipelineId(UUID pipelineId);
 
   /**
-   * Finds a specific pipeline execution by pipeline ID and run number.
+   * Finds the most recent execution of a pipeline.
+   *
+   * @param pipelineId the pipeline ID
+   * @return the latest pipeline execution, if any
+   */
+  Optional<PipelineExecutionEntity> findFirstByPipelineIdOrderByStartTimeDesc(UUID pipelineId);
+
+  /**
+   * Finds the pipeline execution a job execution belongs to.
+   *
+   * @param jobExecutionId the job execution ID
+   * @return the pipeline execution, if the job execution exists
+   */
+  @Query("SELECT pe FROM JobExecutionEntity je JOIN je.stageExecution se "
+      + "JOIN PipelineExecutionEntity pe ON se.pipelineExecutionId = pe.id WHERE je.id = :jobExecutionId")
+  Optional<PipelineExecutionEntity> findByJobExecutionId(@Param("jobExecutionId") UUID jobExecutionId);
+
+  /**
+   * Finds a specific pipeline execution by pipeline ID and run number. The pair is unique: the execution
+   * tables are partitioned, so it is enforced by the pipeline_runs lookup table rather than an index.
    *
    * @param pipelineId the pipeline ID
    * @param runNumber  the run number of the execution
@@ -35,14 +58,31 @@ public interface PipelineExecutionRepository extends JpaRepository<PipelineExecu
   Optional<PipelineExecutionEntity> findByPipelineIdAndRunNumber(UUID pipelineId, int runNumber);
 
   /**
-   * dynamically fetches the pipeline name associated with a pipeline execution
-   * and return the entity
+   * Fetches the first page of a pipeline's execution history, most recent first.
+   * Ties on start time are broken by ID so the order is stable across pages.
    *
    * @param pipelineName the name of the pipeline
-   * @return a list of pipeline
+   * @param pageable     page size (the page number is ignored by keyset paging)
+   * @return the most recent pipeline executions
+   */
+  @Query("SELECT pe FROM PipelineExecutionEntity pe JOIN PipelineEntity p ON pe.pipelineId = p.id WHERE p.name = :pipelineName "
+      + "ORDER BY pe.startTime DESC, pe.id DESC")
+  List<PipelineExecutionEntity> findHistoryPage(@Param("pipelineName") String pipelineName, Pageable pageable);
+
+  /**
+   * Fetches the page of a pipeline's execution history that follows the given (startTime, id) key.
+   *
+   * @param pipelineName   the name of the pipeline
+   * @param afterStartTime start time of the last execution of the previous page
+   * @param afterId        ID of the last execution of the previous page
+   * @param pageable       page size (the page number is ignored by keyset paging)
+   * @return the pipeline executions that come after the key, most recent first
    */
-  @Query("SELECT pe FROM PipelineExecutionEntity pe JOIN PipelineEntity p ON pe.pipelineId = p.id WHERE p.name = :pipelineName ORDER BY pe.startTime DESC")
-  List<PipelineExecutionEntity> findByPipelineNameOrderByStartTimeDesc(@Param("pipelineName") String pipelineName);
+  @Query("SELECT pe FROM PipelineExecutionEntity pe JOIN PipelineEntity p ON pe.pipelineId = p.id WHERE p.name = :pipelineName "
+      + "AND (pe.startTime < :afterStartTime OR (pe.startTime = :afterStartTime AND pe.id < :afterId)) "
+      + "ORDER BY pe.startTime DESC, pe.id DESC")
+  List<PipelineExecutionEntity> findHistoryPageAfter(@Param("pipelineName") String pipelineName,
+      @Param("afterStartTime") Instant afterStartTime, @Param("afterId") UUID afterId, Pageable pageable);
 
   /**
    * Join pipelineExecution and pipeline tables to fetch the pipeline name by pipelineId
@@ -61,4 +101,32 @@ public interface PipelineExecutionRepository extends JpaRepository<PipelineExecu
    */
   @Query("SELECT p.id FROM PipelineEntity p WHERE p.name = :pipelineName")
   Optional<UUID> findPipelineIdByName(@Param("pipelineName") String pipelineName);
+
+  /**
+   * Fetches the distinct names of all pipelines that have been executed at least once.
+   *
+   * @return pipeline names in alphabetical order
+   */
+  @Query("SELECT DISTINCT p.name FROM PipelineExecutionEntity pe JOIN PipelineEntity p ON pe.pipelineId = p.id ORDER BY p.name")
+  List<String> findDistinctPipelineNames();
+
+  /**
+   * Fetches the timing of the most recently completed executions of a pipeline in one query.
+   * Durations are measured from when the first stage started running, like the ones recorded as executions
+   * complete, or from the creation of the execution if it has no stages.
+   *
+   * @param pipelineName the name of the pipeline
+   * @param status       the status the executions finished with
+   * @param startedSince lower bound on the start time of the executions, to skip older partitions
+   * @param pageable     limits the number of rows fetched
+   * @return execution duration rows, most recently completed first
+   */
+  @Query("SELECT new edu.neu.cs6510.sp25.t1.backend.database.projection.ExecutionDurationRow(pe.id, "
+      + "COALESCE((SELECT MIN(COALESCE(se.runStartTime, se.startTime)) FROM StageExecutionEntity se "
+      + "WHERE se.pipelineExecutionId = pe.id AND se.startTime >= :startedSince), pe.startTime), pe.completionTime) "
+      + "FROM PipelineExecutionEntity pe JOIN PipelineEntity p ON pe.pipelineId = p.id "
+      + "WHERE p.name = :pipelineName AND pe.status = :status AND pe.completionTime IS NOT NULL "
+      + "AND pe.startTime >= :startedSince ORDER BY pe.completionTime DESC")
+  List<ExecutionDurationRow> findRecentDurationRowsByPipelineName(@Param("pipelineName") String pipelineName,
+      @Param("status") ExecutionStatus status, @Param("startedSince") Instant startedSince, Pageable pageable);
 }
@@ -21,4 +21,14 @@ public interface PipelineRepository extends JpaRepository<PipelineEntity, UUID>
    * @return an optional pipeline entity
    */
   Optional<PipelineEntity> findByName(String name);
+
+  /**
+   * Finds the most recent pipeline with the given name whose definitions were created
+   * from a configuration with the given hash.
+   *
+   * @param name           the name of the pipeline
+   * @param definitionHash the definition hash
+   * @return an optional pipeline entity
+   */
+  Optional<PipelineEntity> findFirstByNameAndDefinitionHashOrderByCreatedAtDesc(String name, String definitionHash);
 }
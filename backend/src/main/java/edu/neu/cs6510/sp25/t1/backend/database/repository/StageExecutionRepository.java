@@ -1,15 +1,22 @@
 package edu.neu.cs6510.sp25.t1.backend.database.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import edu.neu.cs6510.sp25.t1.backend.database.entity.StageExecutionEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.ExecutionDurationRow;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.StageReportRow;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.StageStatusRow;
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
 
 /**
  * Repository for managing StageExecution entities.
@@ -25,6 +32,14 @@ public interface StageExecutionRepository extends JpaRepository<StageExecutionEn
    */
   List<StageExecutionEntity> findByPipelineExecutionId(UUID pipelineExecutionId);
 
+  /**
+   * Counts stage executions by pipeline execution ID.
+   *
+   * @param pipelineExecutionId the pipeline execution ID
+   * @return the number of stage executions associated with the given pipeline execution
+   */
+  long countByPipelineExecutionId(UUID pipelineExecutionId);
+
   /**
    * Finds a specific stage execution by stage ID and pipeline execution ID.
    *
@@ -62,4 +77,114 @@ public interface StageExecutionRepository extends JpaRepository<StageExecutionEn
   @Query("SELECT se FROM StageExecutionEntity se JOIN StageEntity s ON se.stageId = s.id WHERE se.pipelineExecutionId = :pipelineExecutionId AND s.name = :stageName ORDER BY se.startTime DESC")
   List<StageExecutionEntity> findByPipelineExecutionIdAndStageNameOrderByStartTimeDesc(@Param("pipelineExecutionId") UUID pipelineExecutionId, @Param("stageName") String stageName);
 
+  /**
+   * Fetches the report rows of every stage of a pipeline execution, with stage names, in one query.
+   *
+   * @param pipelineExecutionId the pipeline execution ID
+   * @param startedSince        lower bound on the start time of the stage executions, to skip older partitions
+   * @return stage report rows in execution order
+   */
+  @Query("SELECT new edu.neu.cs6510.sp25.t1.backend.database.projection.StageReportRow(se.id, se.pipelineExecutionId, s.name, se.status, se.startTime, se.completionTime) "
+      + "FROM StageExecutionEntity se LEFT JOIN StageEntity s ON se.stageId = s.id "
+      + "WHERE se.pipelineExecutionId = :pipelineExecutionId AND se.startTime >= :startedSince "
+      + "ORDER BY se.executionOrder")
+  List<StageReportRow> findStageReportRowsByPipelineExecutionId(@Param("pipelineExecutionId") UUID pipelineExecutionId,
+      @Param("startedSince") Instant startedSince);
+
+  /**
+   * Fetches the report rows of the executions of one stage within a pipeline execution.
+   *
+   * @param pipelineExecutionId the pipeline execution ID
+   * @param stageName           the name of the stage
+   * @return stage report rows, most recent first
+   */
+  @Query("SELECT new edu.neu.cs6510.sp25.t1.backend.database.projection.StageReportRow(se.id, se.pipelineExecutionId, s.name, se.status, se.startTime, se.completionTime) "
+      + "FROM StageExecutionEntity se LEFT JOIN StageEntity s ON se.stageId = s.id "
+      + "WHERE se.pipelineExecutionId = :pipelineExecutionId AND s.name = :stageName ORDER BY se.startTime DESC")
+  List<StageReportRow> findStageReportRowsByPipelineExecutionIdAndStageName(@Param("pipelineExecutionId") UUID pipelineExecutionId, @Param("stageName") String stageName);
+
+  /**
+   * Fetches the report rows of every stage of a set of pipeline executions in one query.
+   *
+   * @param pipelineExecutionIds the pipeline execution IDs
+   * @param startedSince         lower bound on the start time of the stage executions, to skip older partitions
+   * @return stage report rows in execution order
+   */
+  @Query("SELECT new edu.neu.cs6510.sp25.t1.backend.database.projection.StageReportRow(se.id, se.pipelineExecutionId, s.name, se.status, se.startTime, se.completionTime) "
+      + "FROM StageExecutionEntity se LEFT JOIN StageEntity s ON se.stageId = s.id "
+      + "WHERE se.pipelineExecutionId IN :pipelineExecutionIds AND se.startTime >= :startedSince "
+      + "ORDER BY se.executionOrder")
+  List<StageReportRow> findStageReportRowsByPipelineExecutionIdIn(
+      @Param("pipelineExecutionIds") Collection<UUID> pipelineExecutionIds,
+      @Param("startedSince") Instant startedSince);
+
+  /**
+   * Aggregates the job statuses of every stage of a pipeline execution in one query.
+   * Job statuses are ranked SUCCESS (0) &lt; PENDING (1) &lt; RUNNING (2) &lt; CANCELED (3) &lt; FAILED (4)
+   * and the highest rank per stage is returned.
+   *
+   * @param pipelineExecutionId the pipeline execution ID
+   * @param startedSince        lower bound on the start time of the stage and job executions, to skip older partitions
+   * @return one status row per stage execution, in execution order
+   */
+  @Query("SELECT new edu.neu.cs6510.sp25.t1.backend.database.projection.StageStatusRow(se.id, s.name, se.status, "
+      + "MAX(CASE je.status WHEN edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus.SUCCESS THEN 0 "
+      + "WHEN edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus.PENDING THEN 1 "
+      + "WHEN edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus.RUNNING THEN 2 "
+      + "WHEN edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus.CANCELED THEN 3 "
+      + "WHEN edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus.FAILED THEN 4 END)) "
+      + "FROM StageExecutionEntity se LEFT JOIN StageEntity s ON se.stageId = s.id "
+      + "LEFT JOIN JobExecutionEntity je ON je.stageExecution.id = se.id AND je.startTime >= :startedSince "
+      + "WHERE se.pipelineExecutionId = :pipelineExecutionId AND se.startTime >= :startedSince "
+      + "GROUP BY se.id, s.name, se.status, se.executionOrder ORDER BY se.executionOrder")
+  List<StageStatusRow> findStageStatusRowsByPipelineExecutionId(@Param("pipelineExecutionId") UUID pipelineExecutionId,
+      @Param("startedSince") Instant startedSince);
+
+  /**
+   * Finds when the first stage of a pipeline execution started running, leaving out the time the
+   * execution waited for admission before its stages ran.
+   *
+   * @param pipelineExecutionId the pipeline execution ID
+   * @param startedSince        lower bound on the start time of the stage executions, to skip older partitions
+   * @return the earliest stage run start time, or empty if the execution has no stages
+   */
+  @Query("SELECT MIN(COALESCE(se.runStartTime, se.startTime)) FROM StageExecutionEntity se "
+      + "WHERE se.pipelineExecutionId = :pipelineExecutionId AND se.startTime >= :startedSince")
+  Optional<Instant> findFirstRunStartTimeByPipelineExecutionId(@Param("pipelineExecutionId") UUID pipelineExecutionId,
+      @Param("startedSince") Instant startedSince);
+
+  /**
+   * Fetches the report rows of one stage of a set of pipeline executions in one query.
+   *
+   * @param pipelineExecutionIds the pipeline execution IDs
+   * @param stageName            the name of the stage
+   * @param startedSince         lower bound on the start time of the stage executions, to skip older partitions
+   * @return stage report rows, most recent stage execution first
+   */
+  @Query("SELECT new edu.neu.cs6510.sp25.t1.backend.database.projection.StageReportRow(se.id, se.pipelineExecutionId, s.name, se.status, se.startTime, se.completionTime) "
+      + "FROM StageExecutionEntity se JOIN StageEntity s ON se.stageId = s.id "
+      + "WHERE se.pipelineExecutionId IN :pipelineExecutionIds AND s.name = :stageName "
+      + "AND se.startTime >= :startedSince ORDER BY se.startTime DESC")
+  List<StageReportRow> findStageReportRowsByPipelineExecutionIdInAndStageName(
+      @Param("pipelineExecutionIds") Collection<UUID> pipelineExecutionIds,
+      @Param("stageName") String stageName,
+      @Param("startedSince") Instant startedSince);
+
+  /**
+   * Fetches the timing of the most recently completed stage executions of a pipeline in one query.
+   *
+   * @param pipelineName the name of the pipeline
+   * @param status       the status the executions finished with
+   * @param startedSince lower bound on the start time of the pipeline and stage executions, to skip older partitions
+   * @param pageable     limits the number of rows fetched
+   * @return execution duration rows with stage names, most recently completed first
+   */
+  @Query("SELECT new edu.neu.cs6510.sp25.t1.backend.database.projection.ExecutionDurationRow(se.id, s.name, COALESCE(se.runStartTime, se.startTime), se.completionTime) "
+      + "FROM StageExecutionEntity se JOIN StageEntity s ON se.stageId = s.id "
+      + "JOIN PipelineExecutionEntity pe ON se.pipelineExecutionId = pe.id JOIN PipelineEntity p ON pe.pipelineId = p.id "
+      + "WHERE p.name = :pipelineName AND se.status = :status AND se.completionTime IS NOT NULL "
+      + "AND pe.startTime >= :startedSince AND se.startTime >= :startedSince "
+      + "ORDER BY se.completionTime DESC")
+  List<ExecutionDurationRow> findRecentDurationRowsByPipelineName(@Param("pipelineName") String pipelineName,
+      @Param("status") ExecutionStatus status, @Param("startedSince") Instant startedSince, Pageable pageable);
 }
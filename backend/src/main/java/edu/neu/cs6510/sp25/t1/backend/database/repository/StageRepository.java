@@ -22,4 +22,12 @@ public interface StageRepository extends JpaRepository<StageEntity, UUID> {
    * @return a list of stages belonging to the specified pipeline
    */
   List<StageEntity> findByPipelineId(UUID pipelineId);
+
+  /**
+   * Counts the stages associated with a specific pipeline.
+   *
+   * @param pipelineId the pipeline ID
+   * @return the number of stages belonging to the specified pipeline
+   */
+  long countByPipelineId(UUID pipelineId);
 }
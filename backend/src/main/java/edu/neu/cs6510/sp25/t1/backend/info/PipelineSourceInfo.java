@@ -0,0 +1,29 @@
+package edu.neu.cs6510.sp25.t1.backend.info;
+
+import lombok.Getter;
+
+/**
+ * Represents a pipeline definition read straight from a Git repository.
+ * This includes the repository path of the pipeline YAML file, its content,
+ * and the commit it was read from.
+ */
+@Getter
+public class PipelineSourceInfo {
+  private final String yamlPath;
+  private final String yamlContent;
+  private final String commitHash;
+
+  /**
+   * Constructs a new {@code PipelineSourceInfo}.
+   *
+   * @param yamlPath the repository path of the pipeline YAML file (e.g., ".pipelines/pipeline.yaml")
+   * @param yamlContent the content of the pipeline YAML file
+   * @param commitHash the commit the file was read from
+   */
+  public PipelineSourceInfo(String yamlPath, String yamlContent, String commitHash) {
+    this.yamlPath = yamlPath;
+    this.yamlContent = yamlContent;
+    this.commitHash = commitHash;
+  }
+
+}
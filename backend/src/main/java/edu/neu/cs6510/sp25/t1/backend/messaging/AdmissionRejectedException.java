@@ -0,0 +1,25 @@
+package edu.neu.cs6510.sp25.t1.backend.messaging;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a pipeline execution is refused because too many executions are already
+ * waiting for a slot. Callers should retry after the suggested delay.
+ */
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+
+  /** Seconds the caller should wait before retrying. */
+  private final long retryAfterSeconds;
+
+  /**
+   * Constructs a new AdmissionRejectedException.
+   *
+   * @param message           the detail message
+   * @param retryAfterSeconds seconds the caller should wait before retrying
+   */
+  public AdmissionRejectedException(String message, long retryAfterSeconds) {
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+}
@@ -0,0 +1,380 @@
+package edu.neu.cs6510.sp25.t1.backend.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when ready jobs may be published, enforcing the {@code execution.queue.max-concurrent-*}
+ * limits on running pipelines, stages and jobs.
+ * <p>
+ * A pipeline execution is running from the moment its first job is published until it is finished.
+ * A stage is running while any of its jobs are in flight. Jobs that cannot start yet wait in a
+ * {@link WeightedFairQueue} keyed by pipeline, so a burst of runs of one pipeline cannot starve
+ * other pipelines. When too many executions are waiting for a pipeline slot, new executions are
+ * rejected by {@link #tryReserve()} with an {@link AdmissionRejectedException} instead of being queued.
+ * <p>
+ * A slot is normally freed by the completion of its job. Slots whose completion never arrives are
+ * freed by {@link #releaseExpired(Duration)}, so lost status messages cannot stop dispatch for good.
+ */
+@Component
+public class ExecutionAdmissionController {
+
+  /** A job that may be published now. */
+  public record Admission(UUID pipelineExecutionId, UUID jobId) {
+  }
+
+  /** A job waiting for a slot. */
+  private record QueuedJob(UUID pipelineExecutionId, UUID jobId, long queuedAtNanos) {
+  }
+
+  /** Stage of a pipeline execution. */
+  private record StageKey(UUID pipelineExecutionId, int stage) {
+  }
+
+  /** A job holding a slot, with the time it was handed out. */
+  private record InFlightJob(StageKey stage, long admittedAtNanos) {
+  }
+
+  /** Bookkeeping of a registered pipeline execution. */
+  private static final class ExecutionState {
+    private final String pipeline;
+    private final Map<UUID, Integer> stageByJob;
+    private final long registeredAtNanos;
+    private boolean running;
+
+    private ExecutionState(String pipeline, Map<UUID, Integer> stageByJob, long registeredAtNanos) {
+      this.pipeline = pipeline;
+      this.stageByJob = stageByJob;
+      this.registeredAtNanos = registeredAtNanos;
+    }
+  }
+
+  private final int maxConcurrentPipelines;
+  private final int maxConcurrentStages;
+  private final int maxConcurrentJobs;
+  private final int maxQueuedPipelines;
+  private final long retryAfterSeconds;
+  private final Map<String, Integer> pipelineWeights;
+
+  private final WeightedFairQueue<QueuedJob> queue = new WeightedFairQueue<>();
+  private final Map<UUID, ExecutionState> executions = new HashMap<>();
+  private final Map<UUID, InFlightJob> inFlightJobs = new HashMap<>();
+  private final Map<StageKey, Integer> inFlightPerStage = new HashMap<>();
+  private int runningPipelines;
+  /** Slots taken by {@link #tryReserve} for triggers whose executions are not reserved yet. */
+  private int pendingReservations;
+
+  private final Timer jobWaitTimer;
+  private final Timer pipelineWaitTimer;
+  private final Counter rejectedCounter;
+
+  /**
+   * Constructs a new ExecutionAdmissionController.
+   *
+   * @param maxConcurrentPipelines maximum number of pipeline executions running at once
+   * @param maxConcurrentStages    maximum number of stages with jobs in flight at once
+   * @param maxConcurrentJobs      maximum number of jobs in flight at once
+   * @param maxQueuedPipelines     maximum number of executions waiting for a pipeline slot
+   * @param retryAfterSeconds      delay suggested to rejected callers
+   * @param pipelineWeights        comma-separated {@code pipeline=weight} pairs; unlisted pipelines weigh 1
+   * @param meterRegistry          registry receiving the queue metrics
+   */
+  public ExecutionAdmissionController(
+      @Value("${execution.queue.max-concurrent-pipelines:5}") int maxConcurrentPipelines,
+      @Value("${execution.queue.max-concurrent-stages:10}") int maxConcurrentStages,
+      @Value("${execution.queue.max-concurrent-jobs:20}") int maxConcurrentJobs,
+      @Value("${execution.queue.max-queued-pipelines:50}") int maxQueuedPipelines,
+      @Value("${execution.queue.retry-after-seconds:30}") long retryAfterSeconds,
+      @Value("${execution.queue.pipeline-weights:}") String pipelineWeights,
+      MeterRegistry meterRegistry) {
+    this.maxConcurrentPipelines = Math.max(1, maxConcurrentPipelines);
+    this.maxConcurrentStages = Math.max(1, maxConcurrentStages);
+    this.maxConcurrentJobs = Math.max(1, maxConcurrentJobs);
+    this.maxQueuedPipelines = Math.max(0, maxQueuedPipelines);
+    this.retryAfterSeconds = retryAfterSeconds;
+    this.pipelineWeights = parseWeights(pipelineWeights);
+
+    Gauge.builder("execution.queue.depth", this, ExecutionAdmissionController::getQueuedJobCount)
+        .tag("level", "jobs").description("Ready jobs waiting for a slot").register(meterRegistry);
+    Gauge.builder("execution.queue.depth", this, ExecutionAdmissionController::getQueuedPipelineCount)
+        .tag("level", "pipelines").description("Pipeline executions waiting for a slot").register(meterRegistry);
+    Gauge.builder("execution.queue.running", this, ExecutionAdmissionController::getRunningPipelineCount)
+        .tag("level", "pipelines").register(meterRegistry);
+    Gauge.builder("execution.queue.running", this, ExecutionAdmissionController::getRunningStageCount)
+        .tag("level", "stages").register(meterRegistry);
+    Gauge.builder("execution.queue.running", this, ExecutionAdmissionController::getRunningJobCount)
+        .tag("level", "jobs").register(meterRegistry);
+    this.jobWaitTimer = Timer.builder("execution.queue.wait").tag("level", "jobs")
+        .description("Time a ready job waited before being published").register(meterRegistry);
+    this.pipelineWaitTimer = Timer.builder("execution.queue.wait").tag("level", "pipelines")
+        .description("Time a pipeline execution waited for a pipeline slot").register(meterRegistry);
+    this.rejectedCounter = Counter.builder("execution.queue.rejected")
+        .description("Pipeline executions rejected because the queue was full").register(meterRegistry);
+  }
+
+  /**
+   * Reserves a waiting slot for a new trigger if one is free, checking and reserving under the same lock
+   * so concurrent triggers cannot all pass the check before any of them is counted.
+   * Called before any work is done for a trigger, so that rejected triggers cost nothing. The slot counts
+   * as waiting until {@link #releaseReservation} is called, which the caller must do once the trigger has
+   * reserved its executions with {@link #reserveExecution}, or has failed.
+   *
+   * @throws AdmissionRejectedException if too many executions are already waiting for a slot
+   */
+  public synchronized void tryReserve() {
+    int queued = getQueuedPipelineCount() + pendingReservations;
+    if (runningPipelines >= maxConcurrentPipelines && queued >= maxQueuedPipelines) {
+      rejectedCounter.increment();
+      PipelineLogger.warn("Rejecting pipeline execution: {} executions already waiting", queued);
+      throw new AdmissionRejectedException(
+          "Too many pipeline executions waiting (" + queued + "), retry later", retryAfterSeconds);
+    }
+    pendingReservations++;
+  }
+
+  /**
+   * Frees a slot reserved by {@link #tryReserve}. The executions the trigger reserved in the meantime
+   * keep counting as waiting on their own.
+   */
+  public synchronized void releaseReservation() {
+    if (pendingReservations > 0) {
+      pendingReservations--;
+    }
+  }
+
+  /**
+   * Counts a pipeline execution as waiting while it is being set up, before its jobs are known.
+   * The execution must later be registered with {@link #registerExecution} or dropped with
+   * {@link #finishExecution}.
+   *
+   * @param pipelineExecutionId the pipeline execution ID
+   * @param pipeline            the pipeline the execution belongs to
+   */
+  public synchronized void reserveExecution(UUID pipelineExecutionId, String pipeline) {
+    executions.putIfAbsent(pipelineExecutionId, new ExecutionState(pipeline, new HashMap<>(), System.nanoTime()));
+  }
+
+  /**
+   * Registers a pipeline execution before any of its jobs are queued.
+   * A reserved execution keeps its reservation time, so its wait includes the setup.
+   *
+   * @param pipelineExecutionId the pipeline execution ID
+   * @param pipeline            the pipeline the execution belongs to; executions of one pipeline share a queue flow
+   * @param stageByJob          the stage index of every job of the execution
+   */
+  public synchronized void registerExecution(UUID pipelineExecutionId, String pipeline, Map<UUID, Integer> stageByJob) {
+    ExecutionState reserved = executions.get(pipelineExecutionId);
+    if (reserved != null) {
+      reserved.stageByJob.putAll(stageByJob);
+      return;
+    }
+    executions.put(pipelineExecutionId, new ExecutionState(pipeline, new HashMap<>(stageByJob), System.nanoTime()));
+  }
+
+  /**
+   * Queues jobs whose dependencies are satisfied. They are handed out by {@link #drain()}.
+   *
+   * @param pipelineExecutionId the pipeline execution the jobs belong to
+   * @param jobIds              the ready jobs
+   */
+  public synchronized void enqueue(UUID pipelineExecutionId, Collection<UUID> jobIds) {
+    ExecutionState execution = executions.get(pipelineExecutionId);
+    if (execution == null) {
+      PipelineLogger.warn("Ignoring jobs of unregistered pipeline execution: {}", pipelineExecutionId);
+      return;
+    }
+    int weight = pipelineWeights.getOrDefault(execution.pipeline, 1);
+    long now = System.nanoTime();
+    for (UUID jobId : jobIds) {
+      queue.add(execution.pipeline, weight, new QueuedJob(pipelineExecutionId, jobId, now));
+    }
+  }
+
+  /**
+   * Hands out, in fair order, every queued job that fits within the concurrency limits,
+   * and counts them as in flight.
+   *
+   * @return the jobs to publish now
+   */
+  public synchronized List<Admission> drain() {
+    List<Admission> admitted = new ArrayList<>();
+    long now = System.nanoTime();
+    while (inFlightJobs.size() < maxConcurrentJobs) {
+      QueuedJob job = queue.pollFirst(this::canStart);
+      if (job == null) {
+        break;
+      }
+      ExecutionState execution = executions.get(job.pipelineExecutionId());
+      if (!execution.running) {
+        execution.running = true;
+        runningPipelines++;
+        pipelineWaitTimer.record(now - execution.registeredAtNanos, TimeUnit.NANOSECONDS);
+      }
+      StageKey stage = new StageKey(job.pipelineExecutionId(), execution.stageByJob.getOrDefault(job.jobId(), 0));
+      inFlightJobs.put(job.jobId(), new InFlightJob(stage, now));
+      inFlightPerStage.merge(stage, 1, Integer::sum);
+      jobWaitTimer.record(now - job.queuedAtNanos(), TimeUnit.NANOSECONDS);
+      admitted.add(new Admission(job.pipelineExecutionId(), job.jobId()));
+    }
+    return admitted;
+  }
+
+  /**
+   * Frees the slot of a completed job. A job that completes while still queued is dropped from the queue.
+   *
+   * @param jobId the completed job
+   */
+  public synchronized void release(UUID jobId) {
+    InFlightJob inFlight = inFlightJobs.remove(jobId);
+    if (inFlight == null) {
+      queue.removeIf(job -> job.jobId().equals(jobId));
+      return;
+    }
+    if (inFlightPerStage.merge(inFlight.stage(), -1, Integer::sum) <= 0) {
+      inFlightPerStage.remove(inFlight.stage());
+    }
+  }
+
+  /**
+   * Frees the slots of the jobs that were handed out longer ago than the lease, as if they had completed.
+   * A completion that arrives later for one of them is ignored by {@link #release}.
+   *
+   * @param lease how long a job may hold its slot
+   * @return the jobs whose slots were freed
+   */
+  public synchronized List<UUID> releaseExpired(Duration lease) {
+    long now = System.nanoTime();
+    List<UUID> expired = new ArrayList<>();
+    inFlightJobs.forEach((jobId, inFlight) -> {
+      if (now - inFlight.admittedAtNanos() >= lease.toNanos()) {
+        expired.add(jobId);
+      }
+    });
+    expired.forEach(this::release);
+    return expired;
+  }
+
+  /**
+   * Returns the jobs currently holding a slot.
+   *
+   * @return in-flight job IDs
+   */
+  public synchronized List<UUID> getInFlightJobIds() {
+    return new ArrayList<>(inFlightJobs.keySet());
+  }
+
+  /**
+   * Forgets a finished pipeline execution and frees its pipeline slot.
+   *
+   * @param pipelineExecutionId the finished pipeline execution
+   */
+  public synchronized void finishExecution(UUID pipelineExecutionId) {
+    ExecutionState execution = executions.remove(pipelineExecutionId);
+    if (execution == null) {
+      return;
+    }
+    if (execution.running) {
+      runningPipelines--;
+    }
+    queue.removeIf(job -> job.pipelineExecutionId().equals(pipelineExecutionId));
+    inFlightJobs.values().removeIf(inFlight -> inFlight.stage().pipelineExecutionId().equals(pipelineExecutionId));
+    inFlightPerStage.keySet().removeIf(stage -> stage.pipelineExecutionId().equals(pipelineExecutionId));
+  }
+
+  /**
+   * Returns the number of ready jobs waiting for a slot.
+   *
+   * @return queued job count
+   */
+  public synchronized int getQueuedJobCount() {
+    return queue.size();
+  }
+
+  /**
+   * Returns the number of registered pipeline executions that have not started yet.
+   *
+   * @return queued pipeline execution count
+   */
+  public synchronized int getQueuedPipelineCount() {
+    return executions.size() - runningPipelines;
+  }
+
+  /**
+   * Returns the number of running pipeline executions.
+   *
+   * @return running pipeline execution count
+   */
+  public synchronized int getRunningPipelineCount() {
+    return runningPipelines;
+  }
+
+  /**
+   * Returns the number of stages with jobs in flight.
+   *
+   * @return running stage count
+   */
+  public synchronized int getRunningStageCount() {
+    return inFlightPerStage.size();
+  }
+
+  /**
+   * Returns the number of jobs in flight.
+   *
+   * @return running job count
+   */
+  public synchronized int getRunningJobCount() {
+    return inFlightJobs.size();
+  }
+
+  /**
+   * Checks whether a queued job may start without exceeding the pipeline or stage limits.
+   *
+   * @param job the queued job
+   * @return true if the job may start now
+   */
+  private boolean canStart(QueuedJob job) {
+    ExecutionState execution = executions.get(job.pipelineExecutionId());
+    if (!execution.running && runningPipelines >= maxConcurrentPipelines) {
+      return false;
+    }
+    StageKey stage = new StageKey(job.pipelineExecutionId(), execution.stageByJob.getOrDefault(job.jobId(), 0));
+    return inFlightPerStage.containsKey(stage) || inFlightPerStage.size() < maxConcurrentStages;
+  }
+
+  /**
+   * Parses the {@code pipeline=weight} pairs of the weights property.
+   *
+   * @param weights the property value
+   * @return weight per pipeline
+   */
+  static Map<String, Integer> parseWeights(String weights) {
+    Map<String, Integer> parsed = new HashMap<>();
+    if (weights == null || weights.isBlank()) {
+      return parsed;
+    }
+    for (String pair : weights.split(",")) {
+      String[] parts = pair.split("=");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Invalid pipeline weight: " + pair);
+      }
+      parsed.put(parts[0].trim(), Math.max(1, Integer.parseInt(parts[1].trim())));
+    }
+    return parsed;
+  }
+}
@@ -0,0 +1,233 @@
+package edu.neu.cs6510.sp25.t1.backend.messaging;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.ToLongFunction;
+
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+import edu.neu.cs6510.sp25.t1.common.graph.Dag;
+
+/**
+ * Dependency graph of the job executions belonging to one dispatched pipeline.
+ * Jobs are registered first; {@link #link()} then compacts them into a {@link Dag} and keeps, for every
+ * job, the number of dependencies still outstanding. A completion only visits the dependants of the
+ * completed job, so dispatching a pipeline costs O(V + E) overall.
+ * <p>
+ * This class is not thread-safe; callers synchronize on the graph instance.
+ */
+class JobDependencyGraph {
+
+  /** Dependencies of every registered job, in registration order. */
+  private final Map<UUID, Collection<UUID>> registeredDependencies = new LinkedHashMap<>();
+
+  /** Jobs that have not completed or been canceled yet, in registration order. */
+  private final Set<UUID> outstanding = new LinkedHashSet<>();
+
+  /** Jobs whose failure still releases their dependants. */
+  private final Set<UUID> allowFailure = new HashSet<>();
+
+  /** The linked graph; null until {@link #link()} is called. */
+  private Dag<UUID> dag;
+
+  /** Number of dependencies each job is still waiting on, by node index. */
+  private int[] remainingDependencies;
+
+  /** Jobs that have been handed out for dispatch, by node index. */
+  private boolean[] dispatched;
+
+  /**
+   * Result of recording a job completion.
+   *
+   * @param released jobs whose dependencies are now all satisfied and must be dispatched
+   * @param canceled jobs that can no longer run because a dependency failed
+   */
+  record Completion(List<UUID> released, List<UUID> canceled) {
+  }
+
+  /**
+   * Registers a job with the jobs it depends on.
+   * Dependencies that are not registered in this graph are dropped by {@link #link()}.
+   *
+   * @param jobId        the job execution ID
+   * @param dependencies the job execution IDs that must complete first
+   */
+  void addJob(UUID jobId, Collection<UUID> dependencies) {
+    registeredDependencies.put(jobId, new ArrayList<>(dependencies));
+    outstanding.add(jobId);
+  }
+
+  /**
+   * Marks a job as allowed to fail, so that its failure still releases its dependants.
+   *
+   * @param jobId the job execution ID
+   */
+  void markAllowFailure(UUID jobId) {
+    allowFailure.add(jobId);
+  }
+
+  /**
+   * Drops dependencies on unknown jobs and builds the dependency graph.
+   * Must be called once after all jobs are registered and before {@link #releaseReady()}.
+   *
+   * @return dependency IDs that referenced jobs outside this graph
+   */
+  List<UUID> link() {
+    Dag.Builder<UUID> builder = Dag.builder();
+    registeredDependencies.keySet().forEach(builder::addNode);
+
+    List<UUID> unknown = new ArrayList<>();
+    for (Map.Entry<UUID, Collection<UUID>> entry : registeredDependencies.entrySet()) {
+      for (UUID dependency : entry.getValue()) {
+        if (builder.contains(dependency)) {
+          builder.addDependency(entry.getKey(), dependency);
+        } else {
+          unknown.add(dependency);
+        }
+      }
+    }
+
+    dag = builder.build();
+    remainingDependencies = new int[dag.size()];
+    dispatched = new boolean[dag.size()];
+    for (int i = 0; i < dag.size(); i++) {
+      remainingDependencies[i] = dag.dependencyCount(i);
+    }
+    return unknown;
+  }
+
+  /**
+   * Returns the jobs whose dependencies are all satisfied and that have not been dispatched yet,
+   * marking them as dispatched.
+   *
+   * @return jobs ready for dispatch, in registration order
+   */
+  List<UUID> releaseReady() {
+    List<UUID> ready = new ArrayList<>();
+    if (dag == null) {
+      return ready;
+    }
+    for (int i = 0; i < dag.size(); i++) {
+      release(i, ready);
+    }
+    return ready;
+  }
+
+  /**
+   * Records that a job reached a terminal status.
+   * A successful job, or a failed job that is allowed to fail, satisfies its dependants.
+   * Otherwise every job that transitively depends on it is removed from the graph and reported as canceled.
+   *
+   * @param jobId  the completed job execution ID
+   * @param status the terminal status of the job
+   * @return the jobs released or canceled by this completion
+   */
+  Completion complete(UUID jobId, ExecutionStatus status) {
+    if (!outstanding.remove(jobId) || dag == null) {
+      return new Completion(List.of(), List.of());
+    }
+    int index = dag.indexOf(jobId);
+
+    boolean satisfied = status == ExecutionStatus.SUCCESS
+        || (status == ExecutionStatus.FAILED && allowFailure.contains(jobId));
+
+    if (satisfied) {
+      List<UUID> released = new ArrayList<>();
+      for (int dependant : dag.dependants(index)) {
+        remainingDependencies[dependant]--;
+        release(dependant, released);
+      }
+      return new Completion(released, List.of());
+    }
+
+    List<UUID> canceled = new ArrayList<>();
+    Deque<Integer> toVisit = new ArrayDeque<>();
+    for (int dependant : dag.dependants(index)) {
+      toVisit.add(dependant);
+    }
+    while (!toVisit.isEmpty()) {
+      int dependant = toVisit.poll();
+      if (outstanding.remove(dag.node(dependant))) {
+        canceled.add(dag.node(dependant));
+        for (int next : dag.dependants(dependant)) {
+          toVisit.add(next);
+        }
+      }
+    }
+    return new Completion(List.of(), canceled);
+  }
+
+  /**
+   * Computes the critical path of every job: its own duration plus the longest chain of durations
+   * of the jobs that transitively wait on it. The jobs with the longest remaining path hold up the
+   * pipeline the most, so they should start first. Must be called after {@link #link()}.
+   *
+   * @param duration estimated duration of a job
+   * @return remaining path length per job, in the unit of the durations
+   */
+  Map<UUID, Long> remainingPathLengths(ToLongFunction<UUID> duration) {
+    long[] lengths = new long[dag.size()];
+    for (int i = 0; i < dag.size(); i++) {
+      lengths[i] = duration.applyAsLong(dag.node(i));
+    }
+
+    // Dependants come later in a topological order, so walking it backwards sees them first
+    int[] order = dag.sort().getOrderIndexes();
+    for (int k = order.length - 1; k >= 0; k--) {
+      int job = order[k];
+      long longestDependant = 0;
+      for (int dependant : dag.dependants(job)) {
+        longestDependant = Math.max(longestDependant, lengths[dependant]);
+      }
+      lengths[job] += longestDependant;
+    }
+
+    Map<UUID, Long> lengthsByJob = new HashMap<>();
+    for (int i = 0; i < dag.size(); i++) {
+      lengthsByJob.put(dag.node(i), lengths[i]);
+    }
+    return lengthsByJob;
+  }
+
+  /**
+   * Marks a job as dispatched and adds it to a list if it is outstanding, waits on no dependency
+   * and was not dispatched before.
+   *
+   * @param index    the node index of the job
+   * @param released list the job is added to
+   */
+  private void release(int index, List<UUID> released) {
+    UUID jobId = dag.node(index);
+    if (remainingDependencies[index] == 0 && !dispatched[index] && outstanding.contains(jobId)) {
+      dispatched[index] = true;
+      released.add(jobId);
+    }
+  }
+
+  /**
+   * Returns the IDs of all jobs that have not completed yet.
+   *
+   * @return outstanding job execution IDs
+   */
+  Set<UUID> getJobIds() {
+    return outstanding;
+  }
+
+  /**
+   * Checks whether every registered job has completed or been canceled.
+   *
+   * @return true if no jobs are outstanding
+   */
+  boolean isFinished() {
+    return outstanding.isEmpty();
+  }
+}
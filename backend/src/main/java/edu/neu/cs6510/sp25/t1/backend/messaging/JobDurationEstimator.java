@@ -0,0 +1,124 @@
+package edu.neu.cs6510.sp25.t1.backend.messaging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import edu.neu.cs6510.sp25.t1.backend.database.entity.JobExecutionEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.JobDurationRow;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.JobExecutionRepository;
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Estimates how long job executions will run from the recent successful runs of the same jobs,
+ * measured from when earlier job executions started running until they completed.
+ * The estimate of a job is the median of its last {@code execution.priority.history-size} runs started
+ * in the last {@code execution.priority.history-days} days; jobs without such runs are assumed to take
+ * {@code execution.priority.default-job-seconds}.
+ */
+@Component
+public class JobDurationEstimator {
+
+  private final JobExecutionRepository jobExecutionRepository;
+  private final int historySize;
+  private final Duration historyWindow;
+  private final long defaultMillis;
+
+  /**
+   * Constructs a new JobDurationEstimator.
+   *
+   * @param jobExecutionRepository repository holding the earlier job executions
+   * @param historySize            number of recent runs per job the estimate is based on
+   * @param historyDays            days back from now the runs the estimate is based on may have started
+   * @param defaultJobSeconds      estimate for jobs without successful runs
+   */
+  public JobDurationEstimator(
+      JobExecutionRepository jobExecutionRepository,
+      @Value("${execution.priority.history-size:20}") int historySize,
+      @Value("${execution.priority.history-days:30}") int historyDays,
+      @Value("${execution.priority.default-job-seconds:60}") long defaultJobSeconds) {
+    this.jobExecutionRepository = jobExecutionRepository;
+    this.historySize = Math.max(1, historySize);
+    this.historyWindow = Duration.ofDays(Math.max(1, historyDays));
+    this.defaultMillis = Math.max(1, Duration.ofSeconds(defaultJobSeconds).toMillis());
+  }
+
+  /**
+   * Estimates the duration of job executions in one query.
+   * If the history cannot be read, every job gets the default estimate.
+   *
+   * @param jobExecutions the job executions to estimate
+   * @return estimated duration in milliseconds per job execution ID
+   */
+  public Map<UUID, Long> estimateMillis(Collection<JobExecutionEntity> jobExecutions) {
+    Set<UUID> jobIds = new HashSet<>();
+    for (JobExecutionEntity jobExecution : jobExecutions) {
+      if (jobExecution.getJobId() != null) {
+        jobIds.add(jobExecution.getJobId());
+      }
+    }
+
+    Map<UUID, Long> millisByJob = jobIds.isEmpty() ? Map.of() : estimateJobMillis(jobIds);
+    Map<UUID, Long> estimates = new HashMap<>();
+    for (JobExecutionEntity jobExecution : jobExecutions) {
+      estimates.put(jobExecution.getId(), millisByJob.getOrDefault(jobExecution.getJobId(), defaultMillis));
+    }
+    return estimates;
+  }
+
+  /**
+   * Returns the estimate used for jobs without history.
+   *
+   * @return the default duration in milliseconds
+   */
+  public long getDefaultMillis() {
+    return defaultMillis;
+  }
+
+  /**
+   * Computes the median duration of the recent successful runs of every job definition.
+   *
+   * @param jobIds the job definition IDs
+   * @return median duration in milliseconds per job definition with history
+   */
+  private Map<UUID, Long> estimateJobMillis(Set<UUID> jobIds) {
+    List<JobDurationRow> rows;
+    try {
+      rows = jobExecutionRepository.findRecentDurationRowsByJobIdIn(jobIds, ExecutionStatus.SUCCESS,
+          Instant.now().minus(historyWindow), historySize);
+    } catch (RuntimeException e) {
+      PipelineLogger.warn("Failed to read job duration history, using default estimates: {}", e.getMessage());
+      return Map.of();
+    }
+
+    // The query returns at most historySize of the latest runs of each job
+    Map<UUID, List<Long>> samplesByJob = new HashMap<>();
+    for (JobDurationRow row : rows) {
+      List<Long> samples = samplesByJob.computeIfAbsent(row.jobId(), id -> new ArrayList<>());
+      long millis = Duration.between(row.startTime(), row.completionTime()).toMillis();
+      if (millis >= 0) {
+        samples.add(millis);
+      }
+    }
+
+    Map<UUID, Long> medians = new HashMap<>();
+    samplesByJob.forEach((jobId, samples) -> {
+      if (!samples.isEmpty()) {
+        samples.sort(null);
+        medians.put(jobId, Math.max(1, samples.get(samples.size() / 2)));
+      }
+    });
+    return medians;
+  }
+}
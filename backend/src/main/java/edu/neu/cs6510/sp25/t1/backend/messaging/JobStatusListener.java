@@ -0,0 +1,111 @@
+package edu.neu.cs6510.sp25.t1.backend.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import edu.neu.cs6510.sp25.t1.backend.config.KeyedSerialExecutor;
+import edu.neu.cs6510.sp25.t1.backend.service.log.LogIngestionService;
+import edu.neu.cs6510.sp25.t1.backend.service.status.StatusService;
+import edu.neu.cs6510.sp25.t1.common.api.request.JobStatusUpdate;
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Listens for job status updates published by workers and forwards them to the
+ * {@link StageQueuePublisher}, which releases the jobs waiting on the completed job,
+ * and to the {@link StatusService}, which pushes the resulting transitions to status watchers.
+ * Log text carried by an update is handed to the {@link LogIngestionService} on the consumer thread,
+ * so the parts of a job's log are stored in the order they were sent.
+ * Status updates run on the status executor, so database round trips do not hold up the consumer.
+ * The updates of one pipeline execution are applied one at a time in the order they arrived, so a late
+ * RUNNING cannot overwrite a completion and two updates never resolve the same stage at once.
+ */
+@Component
+public class JobStatusListener {
+
+  private final StageQueuePublisher stageQueuePublisher;
+  private final StatusService statusService;
+  private final LogIngestionService logIngestionService;
+  private final ObjectMapper objectMapper;
+  private final KeyedSerialExecutor statusExecutor;
+
+  /**
+   * Constructs a new JobStatusListener.
+   *
+   * @param stageQueuePublisher publisher releasing the jobs waiting on completed jobs
+   * @param statusService       service resolving and publishing status transitions
+   * @param logIngestionService service storing the log text carried by updates
+   * @param objectMapper        mapper reading the update messages
+   * @param statusExecutor      executor the status updates run on
+   */
+  public JobStatusListener(StageQueuePublisher stageQueuePublisher, StatusService statusService,
+      LogIngestionService logIngestionService, ObjectMapper objectMapper,
+      @Qualifier("statusExecutor") Executor statusExecutor) {
+    this.stageQueuePublisher = stageQueuePublisher;
+    this.statusService = statusService;
+    this.logIngestionService = logIngestionService;
+    this.objectMapper = objectMapper;
+    this.statusExecutor = new KeyedSerialExecutor(statusExecutor);
+  }
+
+  /**
+   * Handles a job status update message.
+   * Malformed messages are logged and discarded.
+   *
+   * @param message the raw RabbitMQ message containing a {@link JobStatusUpdate} as JSON
+   */
+  @RabbitListener(queues = "${spring.rabbitmq.status-queue}")
+  public void onStatusUpdate(Message message) {
+    JobStatusUpdate update;
+    try {
+      update = objectMapper.readValue(message.getBody(), JobStatusUpdate.class);
+    } catch (IOException e) {
+      PipelineLogger.error("Discarding malformed job status update: {}", e.getMessage());
+      return;
+    }
+
+    if (update.getJobExecutionId() == null || update.getStatus() == null) {
+      PipelineLogger.warn("Discarding job status update without job execution ID or status.");
+      return;
+    }
+
+    PipelineLogger.atDebug().jobId(update.getJobExecutionId()).log("Received status {}", update.getStatus());
+    // Looked up before the completion forgets the job; a job no longer in flight is ordered on its own
+    UUID orderKey = stageQueuePublisher.findPipelineExecutionId(update.getJobExecutionId())
+        .orElse(update.getJobExecutionId());
+    stageQueuePublisher.onJobCompleted(update.getJobExecutionId(), update.getStatus());
+    storeLogs(update);
+
+    statusExecutor.execute(orderKey, () -> {
+      try {
+        statusService.onJobStatusUpdate(update.getJobExecutionId(), update.getStatus());
+      } catch (RuntimeException e) {
+        PipelineLogger.warn("Failed to publish status transition for job {}: {}", update.getJobExecutionId(),
+            e.getMessage());
+      }
+    });
+  }
+
+  /**
+   * Appends the log text of an update and, once the job has finished, writes out the rest of its log.
+   */
+  private void storeLogs(JobStatusUpdate update) {
+    try {
+      logIngestionService.append(update.getJobExecutionId(), update.getLogs());
+      ExecutionStatus status = update.getStatus();
+      if (status == ExecutionStatus.SUCCESS || status == ExecutionStatus.FAILED || status == ExecutionStatus.CANCELED) {
+        logIngestionService.complete(update.getJobExecutionId());
+      }
+    } catch (RuntimeException e) {
+      PipelineLogger.warn("Failed to store logs of job {}: {}", update.getJobExecutionId(), e.getMessage());
+    }
+  }
+}
@@ -2,44 +2,108 @@ package edu.neu.cs6510.sp25.t1.backend.messaging;
 
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.rabbit.core.RabbitAdmin;
-import org.springframework.amqp.core.QueueInformation;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import edu.neu.cs6510.sp25.t1.backend.config.RabbitMQConfig;
+import edu.neu.cs6510.sp25.t1.backend.database.entity.JobExecutionEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.JobDependencyRow;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.JobExecutionRepository;
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
 import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Queue;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 /**
- * Component responsible for dispatching stages of jobs to RabbitMQ.
- * Each stage is represented as a queue of job UUIDs, and stages are dispatched sequentially.
- * This component waits for the RabbitMQ job queue to be empty before dispatching the next stage.
+ * Component responsible for dispatching the jobs of a pipeline execution to RabbitMQ.
+ * Jobs are published as soon as every job they depend on has completed, instead of
+ * waiting for the whole broker queue to drain between stages.
+ * Dependencies are tracked per pipeline execution, so one execution never waits on
+ * another execution's jobs, and each job is routed with its execution's routing key.
+ * A job with explicit dependencies waits only for those jobs, wherever they are in the pipeline;
+ * any other job waits for every job of the preceding non-empty stage. Dependencies are declared
+ * between job definitions and loaded for the whole execution in one query.
+ * Ready jobs go through the {@link ExecutionAdmissionController}, which holds them back while
+ * the configured pipeline, stage or job concurrency limits are reached, and are published on the
+ * dispatch executor so the caller never waits on the broker.
+ * Jobs with the longest remaining critical path, estimated from the durations of earlier runs, are
+ * queued first and published with a higher message priority, so the jobs that hold up the pipeline
+ * the most start first.
+ * In-flight jobs are periodically reconciled with the stored job statuses, so a lost status message
+ * or a worker that never reports cannot hold a concurrency slot for good.
  */
 @Component
 @RequiredArgsConstructor
 public class StageQueuePublisher {
 
   private final RabbitTemplate rabbitTemplate;
-  private final RabbitAdmin rabbitAdmin;
+  private final JobExecutionRepository jobExecutionRepository;
+  private final ExecutionAdmissionController admissionController;
+  private final JobDurationEstimator durationEstimator;
+  @Qualifier("dispatchExecutor")
+  private final Executor dispatchExecutor;
 
-  @Value("${spring.rabbitmq.job-queue}")
-  private String jobQueueName;
+  @Value("${spring.rabbitmq.job-exchange}")
+  private String jobExchangeName;
 
-  private static final long POLL_INTERVAL_MS = 1000; // Time between polling RabbitMQ for emptiness
+  /** Highest message priority; jobs on the critical path of their execution get it. 0 disables priorities. */
+  @Value("${execution.priority.max-priority:9}")
+  private int maxPriority;
+
+  /** Jobs holding a slot longer than this have it freed even if they never reported back. 0 disables the lease. */
+  @Value("${execution.queue.job-lease-minutes:120}")
+  private long jobLeaseMinutes;
+
+  /** Header carrying the pipeline execution ID on every published job message. */
+  static final String PIPELINE_EXECUTION_HEADER = "pipelineExecutionId";
+
+  /** Dependency graph of every in-flight pipeline execution. */
+  private final Map<UUID, JobDependencyGraph> graphsByExecution = new ConcurrentHashMap<>();
+
+  /** Pipeline execution of every job that has not completed yet. */
+  private final Map<UUID, UUID> executionsByJob = new ConcurrentHashMap<>();
+
+  /** Message priority of every job that has not completed yet. */
+  private final Map<UUID, Integer> priorityByJob = new ConcurrentHashMap<>();
 
   /**
-   * Starts processing the stageQueue and sending job UUIDs to RabbitMQ.
-   * @param stageQueue Queue of job queues (Queue<Queue<UUID>>)
+   * Dispatches the stages of a pipeline execution that shares no queue flow with other executions.
+   *
+   * @param pipelineExecutionId ID of the pipeline execution the jobs belong to
+   * @param stageQueue          Queue of job queues (Queue<Queue<UUID>>)
+   * @see #dispatchStageQueue(UUID, String, Queue)
+   */
+  public void dispatchStageQueue(UUID pipelineExecutionId, Queue<Queue<UUID>> stageQueue) {
+    dispatchStageQueue(pipelineExecutionId, pipelineExecutionId.toString(), stageQueue);
+  }
+
+  /**
+   * Builds the dependency graph for the given stages and queues every job that has no
+   * outstanding dependencies. Remaining jobs are queued from {@link #onJobCompleted}.
+   * Queued jobs are published as soon as the admission controller grants them a slot.
+   *
+   * @param pipelineExecutionId ID of the pipeline execution the jobs belong to
+   * @param pipeline            the pipeline being run; its executions are queued fairly against other pipelines
+   * @param stageQueue          Queue of job queues (Queue<Queue<UUID>>)
    */
-  @Async
-  public void dispatchStageQueue(Queue<Queue<UUID>> stageQueue) {
-    PipelineLogger.info("Starting StageQueuePublisher...");
+  public void dispatchStageQueue(UUID pipelineExecutionId, String pipeline, Queue<Queue<UUID>> stageQueue) {
+    PipelineLogger.info("Starting StageQueuePublisher for pipeline execution: {}", pipelineExecutionId);
 
+    List<List<UUID>> stages = new ArrayList<>();
+    List<UUID> jobIds = new ArrayList<>();
     while (!stageQueue.isEmpty()) {
       Queue<UUID> currentJobQueue = stageQueue.poll();
 
@@ -47,63 +111,291 @@ public class StageQueuePublisher {
         PipelineLogger.warn("Empty job queue found, skipping...");
         continue;
       }
+      stages.add(new ArrayList<>(currentJobQueue));
+      jobIds.addAll(currentJobQueue);
+    }
 
-      // Wait until RabbitMQ job queue is empty
-      PipelineLogger.info("Waiting for RabbitMQ job queue to become empty...");
-      waitForRabbitQueueEmpty();
+    if (jobIds.isEmpty()) {
+      PipelineLogger.info("No jobs to dispatch for pipeline execution: {}", pipelineExecutionId);
+      admissionController.finishExecution(pipelineExecutionId);
+      return;
+    }
+    // Queried before the graph is shared, so no lock is held across the database round trip
+    List<JobExecutionEntity> jobs = jobExecutionRepository.findAllById(jobIds);
+    Map<UUID, List<UUID>> dependenciesByJob = findDependencies(jobs);
+    Map<UUID, Long> estimatedMillis = durationEstimator.estimateMillis(jobs);
 
-      // Send each job UUID to RabbitMQ
-      PipelineLogger.info("Dispatching jobs to RabbitMQ...");
-      for (UUID jobId : currentJobQueue) {
-        sendJobToRabbitMq(jobId);
+    JobDependencyGraph graph = new JobDependencyGraph();
+    Map<UUID, Integer> stageByJob = new HashMap<>();
+    List<UUID> previousStage = List.of();
+    for (int stageIndex = 0; stageIndex < stages.size(); stageIndex++) {
+      List<UUID> currentStage = stages.get(stageIndex);
+      for (UUID jobId : currentStage) {
+        List<UUID> dependencies = dependenciesByJob.getOrDefault(jobId, List.of());
+        graph.addJob(jobId, dependencies.isEmpty() ? previousStage : dependencies);
+        stageByJob.put(jobId, stageIndex);
       }
+      previousStage = currentStage;
+    }
+
+    if (graphsByExecution.putIfAbsent(pipelineExecutionId, graph) != null) {
+      PipelineLogger.error("Pipeline execution already dispatched: {}", pipelineExecutionId);
+      throw new IllegalStateException("Pipeline execution already dispatched: " + pipelineExecutionId);
+    }
+    admissionController.registerExecution(pipelineExecutionId, pipeline, stageByJob);
 
-      PipelineLogger.info("Finished dispatching jobs for one stage.");
+    List<UUID> ready;
+    synchronized (graph) {
+      graph.link().forEach(unknown ->
+          PipelineLogger.warn("Ignoring dependency on job outside this pipeline execution: {}", unknown));
+      for (JobExecutionEntity job : jobs) {
+        if (job.isAllowFailure()) {
+          graph.markAllowFailure(job.getId());
+        }
+      }
+      graph.getJobIds().forEach(jobId -> executionsByJob.put(jobId, pipelineExecutionId));
+      assignPriorities(graph.remainingPathLengths(
+          jobId -> estimatedMillis.getOrDefault(jobId, durationEstimator.getDefaultMillis())));
+      ready = byPriority(graph.releaseReady());
     }
 
-    PipelineLogger.info("All stages processed and dispatched.");
+    PipelineLogger.atInfo().executionId(pipelineExecutionId)
+        .log("Queueing {} jobs without pending dependencies...", ready.size());
+    admissionController.enqueue(pipelineExecutionId, ready);
+    publishAdmittedJobs();
   }
 
   /**
-   * Sends a job UUID to the configured RabbitMQ job queue.
+   * Loads the dependencies declared between the job definitions of a pipeline execution in one query
+   * and maps them onto the job executions of this run.
    *
-   * @param jobId UUID of the job to dispatch
+   * @param jobs the job executions of the pipeline execution
+   * @return job execution IDs each job execution depends on; jobs without declared dependencies are absent
    */
-  private void sendJobToRabbitMq(UUID jobId) {
-    String message = jobId.toString();
-    rabbitTemplate.convertAndSend(jobQueueName, message);
-    PipelineLogger.info("Sent job UUID to RabbitMQ: " + message);
+  private Map<UUID, List<UUID>> findDependencies(List<JobExecutionEntity> jobs) {
+    Map<UUID, UUID> executionsByDefinition = new HashMap<>();
+    for (JobExecutionEntity job : jobs) {
+      if (job.getJobId() != null) {
+        executionsByDefinition.put(job.getJobId(), job.getId());
+      }
+    }
+    if (executionsByDefinition.isEmpty()) {
+      return Map.of();
+    }
+
+    Map<UUID, List<UUID>> dependenciesByJob = new HashMap<>();
+    for (JobDependencyRow row : jobExecutionRepository.findDependencyRowsByJobIdIn(executionsByDefinition.keySet())) {
+      UUID jobId = executionsByDefinition.get(row.jobId());
+      UUID dependency = executionsByDefinition.get(row.dependsOnJobId());
+      if (jobId == null) {
+        continue;
+      }
+      if (dependency == null) {
+        PipelineLogger.warn("Ignoring dependency on job outside this pipeline execution: {}", row.dependsOnJobId());
+        continue;
+      }
+      dependenciesByJob.computeIfAbsent(jobId, id -> new ArrayList<>()).add(dependency);
+    }
+    return dependenciesByJob;
   }
 
   /**
-   * Polls RabbitMQ until the job queue becomes empty.
-   * Throws an exception if the queue is not found or the thread is interrupted.
+   * Records the terminal status of a job execution and publishes the jobs it unblocks.
+   * If the job failed and is not allowed to fail, or was canceled, every job depending on it
+   * is marked as canceled instead. Non-terminal statuses and unknown jobs are ignored.
+   *
+   * @param jobExecutionId the job execution ID
+   * @param status         the status reported for the job
    */
-  private void waitForRabbitQueueEmpty() {
-    while (true) {
-      QueueInformation queueInfo = rabbitAdmin.getQueueInfo(jobQueueName);
+  public void onJobCompleted(UUID jobExecutionId, ExecutionStatus status) {
+    if (status != ExecutionStatus.SUCCESS && status != ExecutionStatus.FAILED
+        && status != ExecutionStatus.CANCELED) {
+      return;
+    }
 
-      if (queueInfo == null) {
-        PipelineLogger.error("RabbitMQ queue not found: " + jobQueueName);
-        throw new IllegalStateException("RabbitMQ queue not found: " + jobQueueName);
-      }
+    UUID pipelineExecutionId = executionsByJob.remove(jobExecutionId);
+    JobDependencyGraph graph = pipelineExecutionId == null ? null : graphsByExecution.get(pipelineExecutionId);
+    priorityByJob.remove(jobExecutionId);
+    admissionController.release(jobExecutionId);
+    if (graph == null) {
+      PipelineLogger.debug("Ignoring completion of untracked job: {}", jobExecutionId);
+      publishAdmittedJobs();
+      return;
+    }
 
-      int messageCount = queueInfo.getMessageCount();
+    JobDependencyGraph.Completion completion;
+    boolean finished;
+    synchronized (graph) {
+      completion = graph.complete(jobExecutionId, status);
+      finished = graph.isFinished();
+    }
+    PipelineLogger.atInfo().executionId(pipelineExecutionId).jobId(jobExecutionId)
+        .log("Job completed with status {}", status);
 
-      PipelineLogger.info("RabbitMQ job queue message count: " + messageCount);
+    if (!completion.canceled().isEmpty()) {
+      completion.canceled().forEach(jobId -> {
+        executionsByJob.remove(jobId);
+        priorityByJob.remove(jobId);
+      });
+      cancelJobs(completion.canceled());
+    }
+    admissionController.enqueue(pipelineExecutionId, byPriority(completion.released()));
+
+    if (finished) {
+      graphsByExecution.remove(pipelineExecutionId);
+      admissionController.finishExecution(pipelineExecutionId);
+      PipelineLogger.info("All jobs dispatched and completed for pipeline execution: {}", pipelineExecutionId);
+    }
+    publishAdmittedJobs();
+  }
+
+  /**
+   * Reconciles the jobs holding a concurrency slot with their stored status.
+   * A job whose stored status is terminal, or whose row is gone, is completed as if its status
+   * message had arrived. A job that has held its slot longer than the lease gets its slot freed;
+   * its dependants are still released once it reports back.
+   */
+  @Scheduled(fixedDelayString = "${execution.queue.reconcile-interval-ms:60000}")
+  public void reconcileInFlightJobs() {
+    List<UUID> inFlight = admissionController.getInFlightJobIds();
+    if (!inFlight.isEmpty()) {
+      Map<UUID, ExecutionStatus> statuses = new HashMap<>();
+      jobExecutionRepository.findAllById(inFlight).forEach(job -> statuses.put(job.getId(), job.getStatus()));
+      for (UUID jobId : inFlight) {
+        ExecutionStatus status = statuses.getOrDefault(jobId, ExecutionStatus.CANCELED);
+        if (status == ExecutionStatus.SUCCESS || status == ExecutionStatus.FAILED
+            || status == ExecutionStatus.CANCELED) {
+          PipelineLogger.warn("Completing job {} from its stored status {}; its status message was lost", jobId,
+              status);
+          onJobCompleted(jobId, status);
+        }
+      }
+    }
 
-      if (messageCount == 0) {
-        PipelineLogger.info("RabbitMQ job queue is empty. Proceeding...");
-        break;
+    if (jobLeaseMinutes > 0) {
+      List<UUID> expired = admissionController.releaseExpired(Duration.ofMinutes(jobLeaseMinutes));
+      if (!expired.isEmpty()) {
+        PipelineLogger.warn("Freed the slots of jobs that did not report back within {} minutes: {}",
+            jobLeaseMinutes, expired);
       }
+    }
+    publishAdmittedJobs();
+  }
+
+  /**
+   * Returns the pipeline execution of a job that has not completed yet.
+   *
+   * @param jobExecutionId the job execution ID
+   * @return the pipeline execution ID, or empty if the job is not in flight
+   */
+  public Optional<UUID> findPipelineExecutionId(UUID jobExecutionId) {
+    return Optional.ofNullable(executionsByJob.get(jobExecutionId));
+  }
+
+  /**
+   * Returns the number of jobs of a pipeline execution that have not completed yet.
+   *
+   * @param pipelineExecutionId the pipeline execution ID
+   * @return outstanding job count, or 0 if the execution is not in flight
+   */
+  public int getOutstandingJobCount(UUID pipelineExecutionId) {
+    JobDependencyGraph graph = graphsByExecution.get(pipelineExecutionId);
+    if (graph == null) {
+      return 0;
+    }
+    synchronized (graph) {
+      return graph.getJobIds().size();
+    }
+  }
+
+  /**
+   * Maps the remaining path lengths of the jobs of one execution onto message priorities,
+   * scaled so that the jobs on the execution's critical path get the highest priority.
+   *
+   * @param pathLengths remaining path length per job
+   */
+  private void assignPriorities(Map<UUID, Long> pathLengths) {
+    long longest = pathLengths.values().stream().mapToLong(Long::longValue).max().orElse(0);
+    pathLengths.forEach((jobId, length) -> priorityByJob.put(jobId,
+        longest <= 0 ? 0 : (int) Math.round((double) maxPriority * length / longest)));
+  }
+
+  /**
+   * Orders jobs by descending priority, keeping their order among jobs of equal priority.
+   *
+   * @param jobIds the jobs to order
+   * @return the ordered jobs
+   */
+  private List<UUID> byPriority(List<UUID> jobIds) {
+    List<UUID> ordered = new ArrayList<>(jobIds);
+    ordered.sort(Comparator.comparingInt((UUID jobId) -> priorityByJob.getOrDefault(jobId, 0)).reversed());
+    return ordered;
+  }
 
+  /**
+   * Publishes every queued job the admission controller grants a slot to, in the order they were admitted,
+   * from a single task on the dispatch executor.
+   */
+  private void publishAdmittedJobs() {
+    List<ExecutionAdmissionController.Admission> admitted = admissionController.drain();
+    if (!admitted.isEmpty()) {
+      dispatchExecutor.execute(() -> publish(admitted));
+    }
+  }
+
+  /**
+   * Publishes admitted jobs in order. When a job cannot be sent, it and the rest of the batch give their
+   * slots back and are queued again, so they are retried by the next dispatch or reconciliation.
+   *
+   * @param admitted the admitted jobs, in admission order
+   */
+  private void publish(List<ExecutionAdmissionController.Admission> admitted) {
+    for (int i = 0; i < admitted.size(); i++) {
+      ExecutionAdmissionController.Admission admission = admitted.get(i);
       try {
-        TimeUnit.MILLISECONDS.sleep(POLL_INTERVAL_MS);
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-        PipelineLogger.error("Interrupted while waiting for RabbitMQ queue to become empty.");
-        throw new RuntimeException("Interrupted while waiting for RabbitMQ queue to become empty.", e);
+        sendJobToRabbitMq(admission.pipelineExecutionId(), admission.jobId());
+      } catch (RuntimeException e) {
+        List<ExecutionAdmissionController.Admission> unsent = admitted.subList(i, admitted.size());
+        PipelineLogger.warn("Failed to publish {} jobs, queuing them again: {}", unsent.size(), e.getMessage());
+        for (ExecutionAdmissionController.Admission job : unsent) {
+          admissionController.release(job.jobId());
+          admissionController.enqueue(job.pipelineExecutionId(), List.of(job.jobId()));
+        }
+        return;
       }
     }
   }
+
+  /**
+   * Marks job executions that can no longer run as canceled.
+   *
+   * @param jobIds IDs of the job executions to cancel
+   */
+  private void cancelJobs(List<UUID> jobIds) {
+    List<JobExecutionEntity> jobs = jobExecutionRepository.findAllById(jobIds);
+    jobs.forEach(job -> job.updateState(ExecutionStatus.CANCELED));
+    jobExecutionRepository.saveAll(jobs);
+    jobIds.forEach(admissionController::release);
+    PipelineLogger.warn("Canceled {} jobs after upstream failure: {}", jobs.size(), jobIds);
+  }
+
+  /**
+   * Publishes a job UUID to the job exchange with the routing key of its pipeline execution
+   * and the priority derived from its critical path.
+   *
+   * @param pipelineExecutionId ID of the pipeline execution the job belongs to
+   * @param jobId               UUID of the job to dispatch
+   */
+  private void sendJobToRabbitMq(UUID pipelineExecutionId, UUID jobId) {
+    String message = jobId.toString();
+    rabbitTemplate.convertAndSend(jobExchangeName,
+        RabbitMQConfig.JOB_ROUTING_KEY_PREFIX + pipelineExecutionId, message, amqpMessage -> {
+          amqpMessage.getMessageProperties().setHeader(PIPELINE_EXECUTION_HEADER, pipelineExecutionId.toString());
+          if (maxPriority > 0) {
+            amqpMessage.getMessageProperties().setPriority(priorityByJob.getOrDefault(jobId, 0));
+          }
+          return amqpMessage;
+        });
+    PipelineLogger.atDebug().executionId(pipelineExecutionId).jobId(jobId).log("Sent job UUID to RabbitMQ");
+  }
 }
@@ -0,0 +1,116 @@
+package edu.neu.cs6510.sp25.t1.backend.messaging;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Queue that interleaves items of several flows in proportion to the flow weights.
+ * Uses start-time fair queuing: every item is tagged with the virtual time at which its flow
+ * may start it, and items are handed out in tag order. A flow with twice the weight of another
+ * advances its tags half as fast, so it is served twice as often while both have items queued.
+ * Items of the same flow are always handed out in insertion order.
+ * <p>
+ * This class is not thread-safe; callers synchronize on the queue or its owner.
+ *
+ * @param <T> the item type
+ */
+class WeightedFairQueue<T> {
+
+  /** A queued item with its start tag. Ties are broken by insertion order. */
+  private record Entry<T>(T item, String flow, double startTag, long sequence) {
+  }
+
+  private final TreeSet<Entry<T>> entries = new TreeSet<>((a, b) -> {
+    int byTag = Double.compare(a.startTag(), b.startTag());
+    return byTag != 0 ? byTag : Long.compare(a.sequence(), b.sequence());
+  });
+
+  /** Finish tag of the last item queued per flow, while the flow has items queued. */
+  private final Map<String, Double> lastFinishTag = new HashMap<>();
+
+  /** Number of queued items per flow. */
+  private final Map<String, Integer> queuedPerFlow = new HashMap<>();
+
+  private double virtualTime;
+  private long sequence;
+
+  /**
+   * Queues an item for a flow.
+   *
+   * @param flow   the flow the item belongs to
+   * @param weight the weight of the flow, at least 1
+   * @param item   the item to queue
+   */
+  void add(String flow, int weight, T item) {
+    double startTag = Math.max(virtualTime, lastFinishTag.getOrDefault(flow, 0.0));
+    lastFinishTag.put(flow, startTag + 1.0 / Math.max(1, weight));
+    queuedPerFlow.merge(flow, 1, Integer::sum);
+    entries.add(new Entry<>(item, flow, startTag, sequence++));
+  }
+
+  /**
+   * Removes and returns the first item, in fair order, that satisfies a condition.
+   * Items that do not satisfy it keep their place in the queue.
+   *
+   * @param eligible condition an item must satisfy to be handed out
+   * @return the item, or null if no queued item is eligible
+   */
+  T pollFirst(Predicate<T> eligible) {
+    Iterator<Entry<T>> iterator = entries.iterator();
+    while (iterator.hasNext()) {
+      Entry<T> entry = iterator.next();
+      if (eligible.test(entry.item())) {
+        iterator.remove();
+        virtualTime = Math.max(virtualTime, entry.startTag());
+        forget(entry.flow());
+        return entry.item();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Removes every queued item that satisfies a condition.
+   *
+   * @param condition condition selecting the items to remove
+   * @return true if any item was removed
+   */
+  boolean removeIf(Predicate<T> condition) {
+    boolean removed = false;
+    Iterator<Entry<T>> iterator = entries.iterator();
+    while (iterator.hasNext()) {
+      Entry<T> entry = iterator.next();
+      if (condition.test(entry.item())) {
+        iterator.remove();
+        forget(entry.flow());
+        removed = true;
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Returns the number of queued items.
+   *
+   * @return queued item count
+   */
+  int size() {
+    return entries.size();
+  }
+
+  /**
+   * Drops the bookkeeping of a flow once it has no items queued. A flow that becomes active
+   * again starts at the current virtual time, so it cannot bank service it did not use.
+   *
+   * @param flow the flow an item was just removed from
+   */
+  private void forget(String flow) {
+    if (queuedPerFlow.merge(flow, -1, Integer::sum) <= 0) {
+      queuedPerFlow.remove(flow);
+      lastFinishTag.remove(flow);
+    }
+  }
+}
@@ -1,26 +1,21 @@
 package edu.neu.cs6510.sp25.t1.backend.service.execution;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.Map;
 import java.util.Queue;
 import java.util.UUID;
 
 
-import edu.neu.cs6510.sp25.t1.backend.info.ClonedPipelineInfo;
+import edu.neu.cs6510.sp25.t1.backend.info.PipelineSourceInfo;
 
 
 import edu.neu.cs6510.sp25.t1.backend.service.pipeline.PipelineDefinitionService;
 import edu.neu.cs6510.sp25.t1.backend.service.pipeline.PipelineExecutionCreationService;
 import edu.neu.cs6510.sp25.t1.backend.service.pipeline.YamlConfigurationService;
 import edu.neu.cs6510.sp25.t1.backend.service.pipeline.GitPipelineService;
-import org.apache.commons.io.FileUtils;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import edu.neu.cs6510.sp25.t1.backend.database.entity.PipelineExecutionEntity;
 import edu.neu.cs6510.sp25.t1.common.api.request.PipelineExecutionRequest;
-import edu.neu.cs6510.sp25.t1.common.api.response.PipelineExecutionResponse;
 
 import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
 import lombok.RequiredArgsConstructor;
@@ -40,68 +35,80 @@ public class PipelineExecutionService {
   private final GitPipelineService gitPipelineService;
 
   /**
-   * Starts a new pipeline execution by parsing YAML, saving entities, and queuing execution.
-   * This method coordinates between different services to handle the complete execution process.
+   * Reserves a pending pipeline execution for a request, before anything is read from the repository.
    *
    * @param request request containing pipeline details and YAML file path
-   * @param stageQueue queue of stages to be executed
-   * @return response containing pipeline execution ID and status
+   * @return ID of the reserved pipeline execution
    */
-  @Transactional(rollbackFor = Exception.class)
-  public PipelineExecutionResponse startPipelineExecution(PipelineExecutionRequest request, Queue<Queue<UUID>> stageQueue) {
-    PipelineLogger.info("Received pipeline execution request for: " + request.getFilePath());
+  public UUID reservePipelineExecution(PipelineExecutionRequest request) {
+    PipelineExecutionEntity pipelineExecution = pipelineExecutionCreationService.savePipelineExecution(
+        pipelineExecutionCreationService.createPipelineExecution(request, null));
+    PipelineLogger.info("Reserved pipeline execution " + pipelineExecution.getId() + " for: " + request.getFilePath());
+    return pipelineExecution.getId();
+  }
 
-    try {
-      // step 0: use volume to clone the repo then pass the volume file path to step 1
-      ClonedPipelineInfo info = gitPipelineService.cloneRepoAndLocatePipelineFile(request);
+  /**
+   * Sets up a reserved pipeline execution by reading and parsing its YAML and saving its entities.
+   * Repository reads and parsing run outside any transaction; only the database writes are transactional,
+   * so no database connection is held during network I/O.
+   *
+   * @param executionId ID of the reserved pipeline execution
+   * @param request     request containing pipeline details and YAML file path
+   * @param stageQueue  queue receiving the job IDs of every stage
+   * @param progress    progress the steps are reported to
+   */
+  public void preparePipelineExecution(UUID executionId, PipelineExecutionRequest request,
+      Queue<Queue<UUID>> stageQueue, TriggerProgress progress) {
+    preparePipelineExecution(executionId, request, null, stageQueue, progress);
+  }
 
-      // Step 1: Resolve and validate the pipeline file path
-      var resolvedPath = yamlConfigurationService.resolveAndValidatePipelinePath(info.getYamlPath());
+  /**
+   * Sets up a reserved pipeline execution from a pipeline file that may already have been read,
+   * so several executions triggered from one fetch of the repository skip reading it again.
+   *
+   * @param executionId ID of the reserved pipeline execution
+   * @param request     request containing pipeline details and YAML file path
+   * @param source      the pipeline file already read from the repository, or null to read it
+   * @param stageQueue  queue receiving the job IDs of every stage
+   * @param progress    progress the steps are reported to
+   */
+  public void preparePipelineExecution(UUID executionId, PipelineExecutionRequest request, PipelineSourceInfo source,
+      Queue<Queue<UUID>> stageQueue, TriggerProgress progress) {
+    try {
+      // Step 1: read the pipeline YAML straight from the repository mirror, nothing is written to the volume
+      progress.begin(TriggerProgress.Step.FETCH);
+      if (source == null) {
+        source = gitPipelineService.readPipelineFile(request);
+      }
 
       // changing rootPath to repo url, use this working Dir block in db to save url for worker extraction
       String rootPath = request.getFilePath();
-//      String rootPath = PathUtil.extractPipelineRootDirectoryAsString(resolvedPath);
 
       // Step 2: Parse and validate the pipeline YAML configuration
-      Map<String, Object> pipelineConfig = yamlConfigurationService.parseAndValidatePipelineYaml(resolvedPath.toString());
-
-      // Step 3: Create or get pipeline entity
-      PipelineLogger.info("Step 1: Creating or getting pipeline entity");
-      UUID pipelineId = pipelineDefinitionService.createOrGetPipelineEntity(request, pipelineConfig);
-      PipelineLogger.info("Pipeline entity created/retrieved with ID: " + pipelineId);
-
-      // Step 4: Create pipeline stages and jobs
-      PipelineLogger.info("Step 2: Creating pipeline stages and jobs");
-      pipelineDefinitionService.createPipelineDefinition(pipelineId, pipelineConfig, rootPath);
-
-      // Step 5: Create and save the pipeline execution entity
-      PipelineLogger.info("Step 3: Creating pipeline execution entity");
-      PipelineExecutionEntity pipelineExecution = pipelineExecutionCreationService.createPipelineExecution(request, pipelineId);
-      pipelineExecution = pipelineExecutionCreationService.savePipelineExecution(pipelineExecution);
-      PipelineLogger.info("Pipeline execution saved with ID: " + pipelineExecution.getId());
-
-      // Step 6: Create and save stage executions with their jobs
-      PipelineLogger.info("Step 4: Creating stage executions and job executions");
-      pipelineExecutionCreationService.createAndSaveStageExecutions(pipelineExecution.getId(), pipelineConfig, stageQueue);
-
-      // Step 7: Verify entities were properly saved
-      PipelineLogger.info("Step 5: Verifying entities were properly saved");
-      pipelineExecutionCreationService.verifyEntitiesSaved(pipelineId, pipelineExecution.getId());
-
-      // Step 8: delete the folder
-      File clonedFolder = new File("/mnt/pipeline", info.getUuid().toString());
-      try {
-        FileUtils.deleteDirectory(clonedFolder); // org.apache.commons.io.FileUtils
-        PipelineLogger.info("Cleaned up cloned repo: " + clonedFolder.getAbsolutePath());
-      } catch (IOException e) {
-        PipelineLogger.warn("Failed to clean up cloned repo: " + e.getMessage());
-      }
-
-      return new PipelineExecutionResponse(pipelineExecution.getId().toString(), "PENDING");
+      progress.begin(TriggerProgress.Step.PARSE);
+      Map<String, Object> pipelineConfig = yamlConfigurationService.parseAndValidatePipelineYamlContent(
+          request.getRepo(), source.getCommitHash(), source.getYamlPath(), source.getYamlContent());
+
+      // Step 3: Create or reuse the pipeline definition, then attach it to the reserved execution with its stages and jobs
+      progress.begin(TriggerProgress.Step.MATERIALIZE);
+      UUID pipelineId = pipelineDefinitionService.createOrReusePipelineDefinition(request, pipelineConfig, rootPath);
+      PipelineLogger.info("Pipeline definition created/reused with ID: " + pipelineId);
+      pipelineExecutionCreationService.materializePipelineExecution(
+          executionId, pipelineId, source.getCommitHash(), pipelineConfig, stageQueue);
+      pipelineExecutionCreationService.verifyEntitiesSaved(pipelineId, executionId);
     } catch (Exception e) {
-      PipelineLogger.error("Failed to start pipeline execution: " + e.getMessage() + " | " + e);
+      PipelineLogger.error("Failed to prepare pipeline execution " + executionId + ": " + e.getMessage() + " | " + e);
       throw new RuntimeException("Pipeline execution failed: " + e.getMessage());
     }
   }
 
+  /**
+   * Marks a reserved pipeline execution whose setup failed as failed.
+   *
+   * @param executionId ID of the pipeline execution
+   */
+  public void failPipelineExecution(UUID executionId) {
+    pipelineExecutionCreationService.markPipelineExecutionFailed(executionId);
+  }
+
 }
\ No newline at end of file
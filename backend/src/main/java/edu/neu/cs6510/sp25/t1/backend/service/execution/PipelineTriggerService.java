@@ -0,0 +1,300 @@
+package edu.neu.cs6510.sp25.t1.backend.service.execution;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import edu.neu.cs6510.sp25.t1.backend.info.PipelineSourceInfo;
+import edu.neu.cs6510.sp25.t1.backend.messaging.ExecutionAdmissionController;
+import edu.neu.cs6510.sp25.t1.backend.messaging.StageQueuePublisher;
+import edu.neu.cs6510.sp25.t1.backend.service.pipeline.GitPipelineService;
+import edu.neu.cs6510.sp25.t1.common.api.request.PipelineExecutionRequest;
+import edu.neu.cs6510.sp25.t1.common.api.response.PipelineExecutionResponse;
+import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Service triggering pipeline executions asynchronously.
+ * A trigger only reserves a pending pipeline execution and returns its ID; fetching, parsing,
+ * saving the execution and dispatching its jobs run as a sequence of steps on the git executor.
+ * The progress of each step can be polled until some time after the setup finished.
+ * Several pipelines of one repository can be triggered together; their executions are reserved first, then
+ * their files are read from a single fetch of the repository and each execution skips its own fetch.
+ */
+@Service
+public class PipelineTriggerService {
+
+  private final PipelineExecutionService pipelineExecutionService;
+  private final GitPipelineService gitPipelineService;
+  private final StageQueuePublisher stageQueuePublisher;
+  private final ExecutionAdmissionController admissionController;
+  private final Executor gitExecutor;
+
+  @Value("${execution.trigger.progress-retention-minutes:60}")
+  private long progressRetentionMinutes;
+
+  /** Setup progress of recently triggered pipeline executions. */
+  private final Map<UUID, TriggerProgress> progressByExecution = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs a new PipelineTriggerService.
+   *
+   * @param pipelineExecutionService the service reserving and setting up pipeline executions
+   * @param gitPipelineService       the service reading the pipeline files of a multi-pipeline trigger
+   * @param stageQueuePublisher      the publisher dispatching the jobs of a set up execution
+   * @param admissionController      the controller counting executions being set up as waiting
+   * @param gitExecutor              the executor the setup steps run on
+   */
+  public PipelineTriggerService(
+      PipelineExecutionService pipelineExecutionService,
+      GitPipelineService gitPipelineService,
+      @Lazy StageQueuePublisher stageQueuePublisher,
+      ExecutionAdmissionController admissionController,
+      @Qualifier("gitExecutor") Executor gitExecutor) {
+    this.pipelineExecutionService = pipelineExecutionService;
+    this.gitPipelineService = gitPipelineService;
+    this.stageQueuePublisher = stageQueuePublisher;
+    this.admissionController = admissionController;
+    this.gitExecutor = gitExecutor;
+  }
+
+  /**
+   * Reserves a pipeline execution and starts setting it up in the background.
+   *
+   * @param request the pipeline execution request
+   * @return response carrying the reserved execution ID and the PENDING status
+   */
+  public PipelineExecutionResponse trigger(PipelineExecutionRequest request) {
+    evictExpiredProgress();
+    return reserveAndSetUp(request, null);
+  }
+
+  /**
+   * Triggers several pipelines of one repository from a single fetch. One execution is reserved per
+   * selected pipeline, then the repository is fetched once on the git executor, every selected file is read
+   * at the same commit and each execution is set up in the background without fetching it again.
+   * When no pipeline is selected, every pipeline file of the last fetch of the repository is selected, and
+   * pipeline files added since are triggered once the fetch shows them; only the first trigger of a
+   * repository has to wait for its clone to learn which pipelines it has.
+   *
+   * @param request   the pipeline execution request carrying the repository, branch and run options
+   * @param pipelines paths or file names of the pipelines to run; every pipeline file runs when empty
+   * @return one response per triggered pipeline, in pipeline file order
+   * @throws Exception if the repository has to be cloned to list its pipelines and cannot be read
+   */
+  public List<PipelineExecutionResponse> triggerAll(PipelineExecutionRequest request, Collection<String> pipelines)
+      throws Exception {
+    evictExpiredProgress();
+
+    boolean everyPipeline = pipelines == null || pipelines.isEmpty();
+    Optional<List<String>> selected = everyPipeline
+        ? gitPipelineService.listCachedPipelineFiles(request)
+        : Optional.of(pipelines.stream().map(GitPipelineService::pipelinePath).distinct().sorted().toList());
+    if (selected.isEmpty()) {
+      return readAndTriggerAll(request);
+    }
+
+    Map<String, TriggerProgress> progressByPath = new LinkedHashMap<>();
+    List<PipelineExecutionResponse> responses = new ArrayList<>();
+    for (String path : selected.get()) {
+      PipelineExecutionRequest pipelineRequest = pipelineRequest(request, path, request.getCommitHash());
+      UUID executionId = reserve(pipelineRequest);
+      progressByPath.put(path, progressByExecution.get(executionId));
+      responses.add(new PipelineExecutionResponse(executionId.toString(), "PENDING"));
+    }
+
+    gitExecutor.execute(() -> fetchAndSetUpAll(request, progressByPath, everyPipeline));
+    PipelineLogger.info("Triggered " + responses.size() + " pipelines of " + request.getRepo());
+    return responses;
+  }
+
+  /**
+   * Reads the pipeline files from a single fetch, then schedules the setup of each reserved execution.
+   * A reserved pipeline file missing from the fetched commit fails only its own execution; if the files
+   * cannot be read at all, every reserved execution fails.
+   *
+   * @param request        the pipeline execution request carrying the repository and branch
+   * @param progressByPath progress of the reserved execution of each selected pipeline file
+   * @param everyPipeline  whether every pipeline file was selected, so files added since the last fetch
+   *                       are triggered as well
+   */
+  void fetchAndSetUpAll(PipelineExecutionRequest request, Map<String, TriggerProgress> progressByPath,
+      boolean everyPipeline) {
+    progressByPath.values().forEach(progress -> progress.begin(TriggerProgress.Step.FETCH));
+    Map<String, PipelineSourceInfo> fetched = new LinkedHashMap<>();
+    try {
+      gitPipelineService.readPipelineFiles(request, List.of())
+          .forEach(source -> fetched.put(source.getYamlPath(), source));
+    } catch (Exception e) {
+      progressByPath.values().forEach(progress -> failSetUp(progress, e.getMessage()));
+      return;
+    }
+
+    progressByPath.forEach((path, progress) -> {
+      PipelineSourceInfo source = fetched.get(path);
+      if (source == null) {
+        failSetUp(progress, "Pipeline file not found: " + path);
+        return;
+      }
+      PipelineExecutionRequest pipelineRequest = pipelineRequest(request, path, source.getCommitHash());
+      gitExecutor.execute(() -> setUp(progress.getExecutionId(), pipelineRequest, source, progress));
+    });
+
+    if (everyPipeline) {
+      fetched.values().stream()
+          .filter(source -> !progressByPath.containsKey(source.getYamlPath()))
+          .forEach(source -> {
+            PipelineExecutionResponse added = reserveAndSetUp(
+                pipelineRequest(request, source.getYamlPath(), source.getCommitHash()), source);
+            PipelineLogger.info("Triggered pipeline {} added since the last fetch as execution {}",
+                source.getYamlPath(), added.getExecutionId());
+          });
+    }
+  }
+
+  /**
+   * Triggers every pipeline of a repository that has no mirror yet: the pipeline files are only known once
+   * the repository is cloned, so the fetch is awaited before the executions are reserved. The fetch still
+   * runs on the git executor, so it counts against the same concurrency limit.
+   */
+  private List<PipelineExecutionResponse> readAndTriggerAll(PipelineExecutionRequest request) throws Exception {
+    List<PipelineSourceInfo> sources;
+    try {
+      sources = CompletableFuture.supplyAsync(() -> {
+        try {
+          return gitPipelineService.readPipelineFiles(request, List.of());
+        } catch (Exception e) {
+          throw new CompletionException(e);
+        }
+      }, gitExecutor).join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof Exception cause ? cause : e;
+    }
+
+    List<PipelineExecutionResponse> responses = new ArrayList<>();
+    for (PipelineSourceInfo source : sources) {
+      responses.add(reserveAndSetUp(pipelineRequest(request, source.getYamlPath(), source.getCommitHash()), source));
+    }
+    PipelineLogger.info("Triggered " + responses.size() + " pipelines of " + request.getRepo() + " at commit "
+        + (sources.isEmpty() ? "-" : sources.get(0).getCommitHash()));
+    return responses;
+  }
+
+  /**
+   * Reserves a pipeline execution and schedules its setup on the git executor.
+   *
+   * @param request the pipeline execution request
+   * @param source  the pipeline file already read from the repository, or null to read it during setup
+   * @return response carrying the reserved execution ID and the PENDING status
+   */
+  private PipelineExecutionResponse reserveAndSetUp(PipelineExecutionRequest request, PipelineSourceInfo source) {
+    UUID executionId = reserve(request);
+    TriggerProgress progress = progressByExecution.get(executionId);
+    gitExecutor.execute(() -> setUp(executionId, request, source, progress));
+    return new PipelineExecutionResponse(executionId.toString(), "PENDING");
+  }
+
+  /**
+   * Reserves a pending pipeline execution, tracks its setup progress and counts it as waiting for admission.
+   *
+   * @param request the pipeline execution request
+   * @return ID of the reserved pipeline execution
+   */
+  private UUID reserve(PipelineExecutionRequest request) {
+    UUID executionId = pipelineExecutionService.reservePipelineExecution(request);
+    progressByExecution.put(executionId, new TriggerProgress(executionId));
+    admissionController.reserveExecution(executionId, request.getFilePath());
+    return executionId;
+  }
+
+  /**
+   * Builds the request of one pipeline of a multi-pipeline trigger.
+   */
+  private static PipelineExecutionRequest pipelineRequest(PipelineExecutionRequest request, String yamlPath,
+      String commitHash) {
+    return new PipelineExecutionRequest(null, request.getRepo(), request.getBranch(), commitHash, request.isLocal(),
+        request.getRunNumber(), yamlPath);
+  }
+
+  /**
+   * Returns the setup progress of a recently triggered pipeline execution.
+   *
+   * @param executionId the pipeline execution ID
+   * @return the progress, or empty if the execution was not triggered recently
+   */
+  public Optional<TriggerProgress> getProgress(UUID executionId) {
+    return Optional.ofNullable(progressByExecution.get(executionId));
+  }
+
+  /**
+   * Runs the setup steps of a reserved pipeline execution. A failed step marks the execution as failed.
+   *
+   * @param executionId ID of the reserved pipeline execution
+   * @param request     the pipeline execution request
+   * @param source      the pipeline file already read from the repository, or null to read it
+   * @param progress    progress the steps are reported to
+   */
+  void setUp(UUID executionId, PipelineExecutionRequest request, PipelineSourceInfo source, TriggerProgress progress) {
+    try {
+      Queue<Queue<UUID>> stageQueue = new LinkedList<>();
+      if (source == null) {
+        pipelineExecutionService.preparePipelineExecution(executionId, request, stageQueue, progress);
+      } else {
+        pipelineExecutionService.preparePipelineExecution(executionId, request, source, stageQueue, progress);
+      }
+
+      progress.begin(TriggerProgress.Step.DISPATCH);
+      stageQueuePublisher.dispatchStageQueue(executionId, request.getFilePath(), stageQueue);
+      progress.complete();
+      PipelineLogger.info("Pipeline execution set up and dispatched: " + executionId);
+    } catch (RuntimeException e) {
+      failSetUp(progress, e.getMessage());
+    }
+  }
+
+  /**
+   * Fails the running setup step of a reserved pipeline execution and marks the execution as failed.
+   *
+   * @param progress progress of the execution being set up
+   * @param error    why the setup failed
+   */
+  private void failSetUp(TriggerProgress progress, String error) {
+    UUID executionId = progress.getExecutionId();
+    PipelineLogger.error("Failed to set up pipeline execution " + executionId + ": " + error);
+    progress.fail(error);
+    admissionController.finishExecution(executionId);
+    try {
+      pipelineExecutionService.failPipelineExecution(executionId);
+    } catch (RuntimeException markFailure) {
+      PipelineLogger.error("Failed to mark pipeline execution " + executionId + " as failed: "
+          + markFailure.getMessage());
+    }
+  }
+
+  /**
+   * Drops the progress of setups that finished longer ago than the retention period.
+   */
+  private void evictExpiredProgress() {
+    Instant cutoff = Instant.now().minus(Duration.ofMinutes(progressRetentionMinutes));
+    progressByExecution.values().removeIf(progress -> {
+      Instant finishTime = progress.getFinishTime();
+      return finishTime != null && finishTime.isBefore(cutoff);
+    });
+  }
+}
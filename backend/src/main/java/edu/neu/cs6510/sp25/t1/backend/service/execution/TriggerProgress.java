@@ -0,0 +1,146 @@
+package edu.neu.cs6510.sp25.t1.backend.service.execution;
+
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Progress of the background steps that set up a triggered pipeline execution.
+ * Steps run in declaration order; each one is PENDING, RUNNING, SUCCESS or FAILED.
+ * Thread-safe: the setup runs on a background thread while the progress endpoint reads it.
+ */
+public class TriggerProgress {
+
+  /** Setup steps of a triggered pipeline execution, in the order they run. */
+  public enum Step {
+    /** Fetch the repository and read the pipeline file. */
+    FETCH,
+    /** Parse and validate the pipeline configuration. */
+    PARSE,
+    /** Save the pipeline definition and the stage and job executions. */
+    MATERIALIZE,
+    /** Hand the jobs to the dispatcher. */
+    DISPATCH
+  }
+
+  /**
+   * Snapshot of one step.
+   *
+   * @param step       the step
+   * @param status     the step status
+   * @param startTime  when the step started, or null if it has not
+   * @param finishTime when the step finished, or null if it has not
+   * @param error      why the step failed, or null
+   */
+  public record StepProgress(Step step, ExecutionStatus status, Instant startTime, Instant finishTime, String error) {
+  }
+
+  private final UUID executionId;
+  private final Map<Step, StepProgress> steps = new EnumMap<>(Step.class);
+  private Step current;
+  private Instant finishTime;
+
+  /**
+   * Constructs a new TriggerProgress with every step pending.
+   *
+   * @param executionId ID of the reserved pipeline execution
+   */
+  public TriggerProgress(UUID executionId) {
+    this.executionId = executionId;
+    for (Step step : Step.values()) {
+      steps.put(step, new StepProgress(step, ExecutionStatus.PENDING, null, null, null));
+    }
+  }
+
+  /**
+   * Starts a step, completing the step that was running before it. A step that is already running
+   * keeps running from when it started.
+   *
+   * @param step the step to start
+   */
+  public synchronized void begin(Step step) {
+    if (step == current) {
+      return;
+    }
+    completeCurrent();
+    current = step;
+    steps.put(step, new StepProgress(step, ExecutionStatus.RUNNING, Instant.now(), null, null));
+  }
+
+  /**
+   * Completes the running step; the setup is finished.
+   */
+  public synchronized void complete() {
+    completeCurrent();
+    finishTime = Instant.now();
+  }
+
+  /**
+   * Fails the running step; the setup is finished and later steps never run.
+   *
+   * @param error why the step failed
+   */
+  public synchronized void fail(String error) {
+    Step failed = current == null ? Step.FETCH : current;
+    StepProgress running = steps.get(failed);
+    steps.put(failed, new StepProgress(failed, ExecutionStatus.FAILED, running.startTime(), Instant.now(), error));
+    current = null;
+    finishTime = Instant.now();
+  }
+
+  /**
+   * Returns the ID of the pipeline execution being set up.
+   *
+   * @return the pipeline execution ID
+   */
+  public UUID getExecutionId() {
+    return executionId;
+  }
+
+  /**
+   * Returns the overall setup status: FAILED if a step failed, SUCCESS once every step completed,
+   * RUNNING while a step runs and PENDING before the first one starts.
+   *
+   * @return the overall status
+   */
+  public synchronized ExecutionStatus getStatus() {
+    if (steps.values().stream().anyMatch(step -> step.status() == ExecutionStatus.FAILED)) {
+      return ExecutionStatus.FAILED;
+    }
+    if (finishTime != null) {
+      return ExecutionStatus.SUCCESS;
+    }
+    return current == null ? ExecutionStatus.PENDING : ExecutionStatus.RUNNING;
+  }
+
+  /**
+   * Returns a snapshot of every step, in execution order.
+   *
+   * @return the step snapshots
+   */
+  public synchronized List<StepProgress> getSteps() {
+    return new ArrayList<>(steps.values());
+  }
+
+  /**
+   * Returns when the setup finished.
+   *
+   * @return the finish time, or null while the setup is still running
+   */
+  public synchronized Instant getFinishTime() {
+    return finishTime;
+  }
+
+  private void completeCurrent() {
+    if (current != null) {
+      StepProgress running = steps.get(current);
+      steps.put(current, new StepProgress(current, ExecutionStatus.SUCCESS, running.startTime(), Instant.now(), null));
+      current = null;
+    }
+  }
+}
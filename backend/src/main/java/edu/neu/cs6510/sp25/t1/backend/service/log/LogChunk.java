@@ -0,0 +1,32 @@
+package edu.neu.cs6510.sp25.t1.backend.service.log;
+
+import edu.neu.cs6510.sp25.t1.backend.database.entity.ExecutionLogChunkEntity;
+
+/**
+ * One compressed chunk of a job log, wherever it is stored.
+ *
+ * @param sequenceNumber position of the chunk in the job log
+ * @param firstLine      number of line breaks in the job log before the chunk
+ * @param lineCount      number of line breaks in the chunk
+ * @param byteOffset     offset of the chunk's first byte in the uncompressed job log
+ * @param byteLength     uncompressed length of the chunk in bytes
+ * @param data           the deflate-compressed text of the chunk
+ */
+record LogChunk(long sequenceNumber, long firstLine, int lineCount, long byteOffset, int byteLength, byte[] data) {
+
+  static LogChunk of(ExecutionLogChunkEntity chunk) {
+    return new LogChunk(chunk.getSequenceNumber(), chunk.getFirstLine(), chunk.getLineCount(), chunk.getByteOffset(),
+        chunk.getByteLength(), chunk.getData());
+  }
+
+  /**
+   * Returns the offset following the chunk's last byte in the uncompressed job log.
+   */
+  long end() {
+    return byteOffset + byteLength;
+  }
+
+  byte[] decompress() {
+    return LogChunkCodec.decompress(data, byteLength);
+  }
+}
@@ -0,0 +1,78 @@
+package edu.neu.cs6510.sp25.t1.backend.service.log;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses and decompresses log chunks with deflate.
+ * Build logs are highly repetitive, so even the fastest compression level shrinks them several times.
+ */
+final class LogChunkCodec {
+
+  private LogChunkCodec() {
+  }
+
+  /**
+   * Compresses part of a byte array.
+   *
+   * @param bytes  the uncompressed bytes
+   * @param offset offset of the first byte to compress
+   * @param length number of bytes to compress
+   * @return the compressed bytes
+   */
+  static byte[] compress(byte[] bytes, int offset, int length) {
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(bytes, offset, length);
+      deflater.finish();
+      byte[] out = new byte[Math.max(64, length / 4)];
+      int written = 0;
+      while (!deflater.finished()) {
+        if (written == out.length) {
+          out = Arrays.copyOf(out, out.length * 2);
+        }
+        written += deflater.deflate(out, written, out.length - written);
+      }
+      return Arrays.copyOf(out, written);
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Decompresses a chunk.
+   *
+   * @param compressed the compressed bytes
+   * @param length     the uncompressed length
+   * @return the uncompressed bytes
+   * @throws IllegalStateException if the chunk is corrupt or not of the given length
+   */
+  static byte[] decompress(byte[] compressed, int length) {
+    if (length == 0) {
+      return new byte[0];
+    }
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(compressed);
+      byte[] out = new byte[length];
+      int read = 0;
+      while (read < length && !inflater.finished()) {
+        int n = inflater.inflate(out, read, length - read);
+        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        read += n;
+      }
+      if (read != length || !inflater.finished()) {
+        throw new IllegalStateException("Log chunk does not decompress to " + length + " bytes");
+      }
+      return out;
+    } catch (DataFormatException e) {
+      throw new IllegalStateException("Corrupt log chunk: " + e.getMessage(), e);
+    } finally {
+      inflater.end();
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package edu.neu.cs6510.sp25.t1.backend.service.log;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Chunks of one job log, looked up the way {@link LogReadService} reads them.
+ * Logs of running and recently finished jobs are read from the database, older ones from a segment file.
+ */
+interface LogChunkSource {
+
+  /**
+   * Returns the last chunk of the log.
+   *
+   * @return the chunk with the highest sequence number, if any
+   */
+  Optional<LogChunk> last();
+
+  /**
+   * Returns the chunk holding a byte offset.
+   *
+   * @param byteOffset offset in the uncompressed log
+   * @return the last chunk starting at or before the offset, if any
+   */
+  Optional<LogChunk> atOffset(long byteOffset);
+
+  /**
+   * Returns the chunk holding a line break.
+   *
+   * @param line number of the line break, counting from 1
+   * @return the last chunk with fewer line breaks before it, if any
+   */
+  Optional<LogChunk> atLine(long line);
+
+  /**
+   * Returns the chunks following a chunk.
+   *
+   * @param sequenceNumber sequence number of the chunk already read
+   * @param count          maximum number of chunks
+   * @return the following chunks in sequence order
+   */
+  List<LogChunk> following(long sequenceNumber, int count);
+}
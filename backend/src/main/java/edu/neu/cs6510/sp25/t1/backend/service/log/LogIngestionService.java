@@ -0,0 +1,264 @@
+package edu.neu.cs6510.sp25.t1.backend.service.log;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
+
+import edu.neu.cs6510.sp25.t1.backend.database.entity.ExecutionLogChunkEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.ExecutionLogChunkRepository;
+import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
+
+/**
+ * Service storing the logs workers send with job status updates.
+ * <p>
+ * Log text is buffered per job execution and sealed into chunks of about {@code logs.ingest.chunk-bytes}
+ * bytes, cut at line breaks, compressed and numbered in order. Sealed chunks of all jobs are written
+ * together, {@code logs.ingest.batch-size} at a time, so a chatty job costs one multi-row insert per batch
+ * instead of one insert per line. Text that stays buffered for {@code logs.ingest.flush-interval-ms} is
+ * sealed even if the chunk is not full, and a job's log is written out as soon as the job finishes.
+ */
+@Service
+public class LogIngestionService {
+
+  private final ExecutionLogChunkRepository chunkRepository;
+  private final int chunkBytes;
+  private final int batchSize;
+  private final long flushIntervalNanos;
+
+  private final Map<UUID, JobLog> openLogs = new ConcurrentHashMap<>();
+  private final Queue<ExecutionLogChunkEntity> sealedChunks = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger sealedCount = new AtomicInteger();
+  private final Object writeLock = new Object();
+
+  /**
+   * Constructor for LogIngestionService.
+   *
+   * @param chunkRepository repository the chunks are written to
+   * @param chunkBytes      uncompressed size at which a chunk is sealed
+   * @param batchSize       number of sealed chunks written per insert batch
+   * @param flushIntervalMs how long text may stay buffered before it is sealed
+   */
+  public LogIngestionService(ExecutionLogChunkRepository chunkRepository,
+      @Value("${logs.ingest.chunk-bytes:65536}") int chunkBytes,
+      @Value("${logs.ingest.batch-size:50}") int batchSize,
+      @Value("${logs.ingest.flush-interval-ms:1000}") long flushIntervalMs) {
+    this.chunkRepository = chunkRepository;
+    this.chunkBytes = Math.max(1024, chunkBytes);
+    this.batchSize = Math.max(1, batchSize);
+    this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, flushIntervalMs));
+  }
+
+  /**
+   * Appends text to the log of a job execution.
+   * Callers append the parts of one job's log in order.
+   *
+   * @param jobExecutionId the job execution ID
+   * @param text           the log text, usually one or more whole lines
+   */
+  public void append(UUID jobExecutionId, String text) {
+    if (jobExecutionId == null || text == null || text.isEmpty()) {
+      return;
+    }
+    JobLog log = openLogs.computeIfAbsent(jobExecutionId, this::open);
+    synchronized (log) {
+      log.add(text.getBytes(StandardCharsets.UTF_8));
+      while (log.length >= chunkBytes) {
+        seal(log, cutPoint(log));
+      }
+    }
+    if (sealedCount.get() >= batchSize) {
+      flush();
+    }
+  }
+
+  /**
+   * Seals the rest of a job execution's log and writes out its chunks. Called when the job finishes.
+   *
+   * @param jobExecutionId the job execution ID
+   */
+  public void complete(UUID jobExecutionId) {
+    JobLog log = openLogs.get(jobExecutionId);
+    if (log == null) {
+      return;
+    }
+    synchronized (log) {
+      if (log.length > 0) {
+        seal(log, log.length);
+      }
+    }
+    flush();
+    // Only forget the job once its last chunk is stored, so readers never see it finished with text missing
+    openLogs.remove(jobExecutionId, log);
+  }
+
+  /**
+   * Checks whether part of a job execution's log may still be buffered and not yet stored.
+   *
+   * @param jobExecutionId the job execution ID
+   * @return true until the job's log has been completed
+   */
+  public boolean isBuffering(UUID jobExecutionId) {
+    return openLogs.containsKey(jobExecutionId);
+  }
+
+  /**
+   * Seals the text that has been buffered for longer than the flush interval and writes out every sealed chunk,
+   * so logs of quiet jobs are stored without waiting for a full chunk.
+   */
+  @Scheduled(fixedDelayString = "${logs.ingest.flush-interval-ms:1000}")
+  public void flushIdle() {
+    long now = System.nanoTime();
+    for (JobLog log : openLogs.values()) {
+      synchronized (log) {
+        if (log.length > 0 && now - log.bufferedSince >= flushIntervalNanos) {
+          seal(log, log.length);
+        }
+      }
+    }
+    flush();
+  }
+
+  /**
+   * Writes out every sealed chunk in batches. A batch that cannot be written is logged and dropped,
+   * so a database outage does not hold up status processing.
+   */
+  public void flush() {
+    synchronized (writeLock) {
+      List<ExecutionLogChunkEntity> batch = new ArrayList<>(batchSize);
+      ExecutionLogChunkEntity chunk;
+      while ((chunk = sealedChunks.poll()) != null) {
+        sealedCount.decrementAndGet();
+        batch.add(chunk);
+        if (batch.size() == batchSize) {
+          write(batch);
+          batch = new ArrayList<>(batchSize);
+        }
+      }
+      if (!batch.isEmpty()) {
+        write(batch);
+      }
+    }
+  }
+
+  /**
+   * Seals and writes out the buffered logs of every job on shutdown.
+   */
+  @PreDestroy
+  public void close() {
+    for (UUID jobExecutionId : List.copyOf(openLogs.keySet())) {
+      complete(jobExecutionId);
+    }
+    flush();
+  }
+
+  private void write(List<ExecutionLogChunkEntity> batch) {
+    try {
+      chunkRepository.saveAll(batch);
+    } catch (RuntimeException e) {
+      PipelineLogger.error("Dropping {} log chunks that could not be stored: {}", batch.size(), e.getMessage());
+    }
+  }
+
+  /**
+   * Starts buffering the log of a job execution after the chunks already stored for it.
+   */
+  private JobLog open(UUID jobExecutionId) {
+    JobLog log = new JobLog(jobExecutionId);
+    chunkRepository.findFirstByJobExecutionIdOrderBySequenceNumberDesc(jobExecutionId).ifPresent(last -> {
+      log.nextSequence = last.getSequenceNumber() + 1;
+      log.nextLine = last.getFirstLine() + last.getLineCount();
+      log.nextOffset = last.getByteOffset() + last.getByteLength();
+    });
+    return log;
+  }
+
+  /**
+   * Returns where to cut a full buffer: after the last line break that fits in a chunk, or at the chunk size
+   * for a line longer than a chunk, moved back so no UTF-8 character is split.
+   */
+  private int cutPoint(JobLog log) {
+    for (int i = chunkBytes - 1; i >= 0; i--) {
+      if (log.bytes[i] == '\n') {
+        return i + 1;
+      }
+    }
+    int cut = chunkBytes;
+    while (cut > 1 && cut < log.length && (log.bytes[cut] & 0xC0) == 0x80) {
+      cut--;
+    }
+    return cut;
+  }
+
+  /**
+   * Compresses the first bytes of a job's buffer into the next chunk and queues it for writing.
+   */
+  private void seal(JobLog log, int length) {
+    int lines = 0;
+    for (int i = 0; i < length; i++) {
+      if (log.bytes[i] == '\n') {
+        lines++;
+      }
+    }
+    sealedChunks.add(ExecutionLogChunkEntity.builder()
+        .jobExecutionId(log.jobExecutionId)
+        .sequenceNumber(log.nextSequence)
+        .firstLine(log.nextLine)
+        .lineCount(lines)
+        .byteOffset(log.nextOffset)
+        .byteLength(length)
+        .data(LogChunkCodec.compress(log.bytes, 0, length))
+        .createdAt(Instant.now())
+        .build());
+    sealedCount.incrementAndGet();
+
+    log.nextSequence++;
+    log.nextLine += lines;
+    log.nextOffset += length;
+    log.length -= length;
+    System.arraycopy(log.bytes, length, log.bytes, 0, log.length);
+    log.bufferedSince = System.nanoTime();
+  }
+
+  /**
+   * Unsealed text of one job execution's log and the position of the next chunk.
+   */
+  private static final class JobLog {
+    private final UUID jobExecutionId;
+    private byte[] bytes = new byte[4096];
+    private int length;
+    private long bufferedSince;
+    private long nextSequence;
+    private long nextLine;
+    private long nextOffset;
+
+    private JobLog(UUID jobExecutionId) {
+      this.jobExecutionId = jobExecutionId;
+    }
+
+    private void add(byte[] text) {
+      if (length == 0) {
+        bufferedSince = System.nanoTime();
+      }
+      if (length + text.length > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + text.length));
+      }
+      System.arraycopy(text, 0, bytes, length, text.length);
+      length += text.length;
+    }
+  }
+}
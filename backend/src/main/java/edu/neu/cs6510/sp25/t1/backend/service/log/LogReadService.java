@@ -0,0 +1,227 @@
+package edu.neu.cs6510.sp25.t1.backend.service.log;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import edu.neu.cs6510.sp25.t1.backend.database.entity.JobExecutionEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.ExecutionLogChunkRepository;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.JobExecutionRepository;
+import edu.neu.cs6510.sp25.t1.common.dto.LogRangeDTO;
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+
+/**
+ * Service reading ranges of job logs from the chunks stored by {@link LogIngestionService}, in the
+ * database or, once {@link LogTieringService} moved them, in a segment file.
+ * <p>
+ * Ranges are addressed by byte offset in the uncompressed log. The chunk holding an offset is found
+ * through its indexed start offset, and the last lines of a log through the line counts of the last
+ * chunks, so a read only decompresses the chunks it returns text from, however long the log is.
+ * Text still buffered by the ingestion service becomes readable once it is stored.
+ */
+@Service
+public class LogReadService {
+
+  /** Number of following chunks fetched per query while a range spans several chunks. */
+  private static final int CHUNKS_PER_QUERY = 4;
+
+  /** Once a range holds this many bytes, no further chunk is read into it. */
+  private static final int MAX_RANGE_BYTES = 1 << 20;
+
+  private final ExecutionLogChunkRepository chunkRepository;
+  private final JobExecutionRepository jobExecutionRepository;
+  private final LogIngestionService logIngestionService;
+  private final LogTieringService logTieringService;
+  private final int defaultLines;
+  private final int maxLines;
+
+  /**
+   * Constructor for LogReadService.
+   *
+   * @param chunkRepository        repository holding the log chunks
+   * @param jobExecutionRepository repository holding the job executions
+   * @param logIngestionService    service buffering the logs of running jobs
+   * @param logTieringService      service holding the segments of finished job logs
+   * @param defaultLines           lines returned when no limit is given
+   * @param maxLines               upper bound on the lines returned by one read
+   */
+  public LogReadService(ExecutionLogChunkRepository chunkRepository,
+      JobExecutionRepository jobExecutionRepository,
+      LogIngestionService logIngestionService,
+      LogTieringService logTieringService,
+      @Value("${logs.read.default-lines:1000}") int defaultLines,
+      @Value("${logs.read.max-lines:10000}") int maxLines) {
+    this.chunkRepository = chunkRepository;
+    this.jobExecutionRepository = jobExecutionRepository;
+    this.logIngestionService = logIngestionService;
+    this.logTieringService = logTieringService;
+    this.maxLines = Math.max(1, maxLines);
+    this.defaultLines = Math.min(this.maxLines, Math.max(1, defaultLines));
+  }
+
+  /**
+   * Reads the log of a job execution from a byte offset, up to a number of lines.
+   * A range ends after a line break unless it reaches the end of the stored log.
+   *
+   * @param jobExecutionId the job execution ID
+   * @param from           byte offset to start at, usually 0 or the {@code next} offset of an earlier range
+   * @param limit          maximum number of lines, or null for the default
+   * @return the range; empty if nothing was stored after the offset yet
+   * @throws IllegalArgumentException if the job execution does not exist or the offset or limit is invalid
+   */
+  @Transactional(readOnly = true)
+  public LogRangeDTO read(UUID jobExecutionId, long from, Integer limit) {
+    if (from < 0) {
+      throw new IllegalArgumentException("Log offset cannot be negative: " + from);
+    }
+    if (limit != null && limit <= 0) {
+      throw new IllegalArgumentException("Log line limit must be positive: " + limit);
+    }
+    JobExecutionEntity jobExecution = findJobExecution(jobExecutionId);
+    LogChunkSource chunks = chunksOf(jobExecutionId);
+    return readRange(jobExecution, chunks, chunks.last().map(LogChunk::end).orElse(0L), from,
+        limit == null ? defaultLines : Math.min(limit, maxLines));
+  }
+
+  /**
+   * Reads the last lines of the log of a job execution.
+   * Only the chunks holding those lines are read.
+   *
+   * @param jobExecutionId the job execution ID
+   * @param lines          number of lines
+   * @return the range holding the last lines; its {@code next} offset is the end of the stored log
+   * @throws IllegalArgumentException if the job execution does not exist or the number of lines is invalid
+   */
+  @Transactional(readOnly = true)
+  public LogRangeDTO tail(UUID jobExecutionId, int lines) {
+    if (lines <= 0) {
+      throw new IllegalArgumentException("Number of log lines must be positive: " + lines);
+    }
+    int limit = Math.min(lines, maxLines);
+    JobExecutionEntity jobExecution = findJobExecution(jobExecutionId);
+    LogChunkSource chunks = chunksOf(jobExecutionId);
+    Optional<LogChunk> lastOpt = chunks.last();
+    if (lastOpt.isEmpty()) {
+      return readRange(jobExecution, chunks, 0, 0, limit);
+    }
+    LogChunk last = lastOpt.get();
+    byte[] lastBytes = last.decompress();
+
+    // Line k starts after the k-th line break; a last line without a break still counts as a line
+    boolean endsWithBreak = lastBytes.length > 0 && lastBytes[lastBytes.length - 1] == '\n';
+    long totalLines = last.firstLine() + last.lineCount() + (endsWithBreak ? 0 : 1);
+    long firstLine = totalLines - limit;
+    if (firstLine <= 0) {
+      return readRange(jobExecution, chunks, last.end(), 0, limit);
+    }
+
+    LogChunk chunk = last;
+    byte[] bytes = lastBytes;
+    if (firstLine <= last.firstLine()) {
+      chunk = chunks.atLine(firstLine).orElseThrow(() -> new IllegalStateException("Log chunks of job execution "
+          + jobExecutionId + " are missing line " + firstLine));
+      bytes = chunk.decompress();
+    }
+    long breaksToSkip = firstLine - chunk.firstLine();
+    int position = 0;
+    while (breaksToSkip > 0 && position < bytes.length) {
+      if (bytes[position++] == '\n') {
+        breaksToSkip--;
+      }
+    }
+    return readRange(jobExecution, chunks, last.end(), chunk.byteOffset() + position, limit);
+  }
+
+  /**
+   * Collects up to a number of lines from an offset, walking the chunks in sequence order.
+   */
+  private LogRangeDTO readRange(JobExecutionEntity jobExecution, LogChunkSource chunks, long end, long from,
+      int limit) {
+    UUID jobExecutionId = jobExecution.getId();
+    ByteArrayOutputStream text = new ByteArrayOutputStream();
+    int lines = 0;
+    long position = from;
+
+    if (from < end) {
+      LogChunk chunk = chunks.atOffset(from).orElse(null);
+      Deque<LogChunk> following = new ArrayDeque<>();
+      while (chunk != null) {
+        byte[] bytes = chunk.decompress();
+        // Text of a chunk that could not be stored is skipped
+        position = Math.max(position, chunk.byteOffset());
+        int start = (int) Math.min(bytes.length, position - chunk.byteOffset());
+        int stop = start;
+        while (stop < bytes.length && lines < limit) {
+          if (bytes[stop++] == '\n') {
+            lines++;
+          }
+        }
+        text.write(bytes, start, stop - start);
+        position += stop - start;
+        if (lines >= limit || position >= end || text.size() >= MAX_RANGE_BYTES) {
+          break;
+        }
+        if (following.isEmpty()) {
+          following.addAll(chunks.following(chunk.sequenceNumber(), CHUNKS_PER_QUERY));
+        }
+        chunk = following.poll();
+      }
+    }
+
+    boolean complete = isFinished(jobExecution.getStatus()) && position >= end
+        && !logIngestionService.isBuffering(jobExecutionId);
+    return new LogRangeDTO(jobExecutionId, from, position, lines, text.toString(StandardCharsets.UTF_8), complete);
+  }
+
+  private JobExecutionEntity findJobExecution(UUID jobExecutionId) {
+    return jobExecutionRepository.findById(jobExecutionId)
+        .orElseThrow(() -> new IllegalArgumentException("Job execution not found: " + jobExecutionId));
+  }
+
+  private static boolean isFinished(ExecutionStatus status) {
+    return status == ExecutionStatus.SUCCESS || status == ExecutionStatus.FAILED || status == ExecutionStatus.CANCELED;
+  }
+
+  private LogChunkSource chunksOf(UUID jobExecutionId) {
+    Optional<LogSegment> segment = logTieringService.openSegment(jobExecutionId);
+    return segment.isPresent() ? segment.get() : new StoredChunks(chunkRepository, jobExecutionId);
+  }
+
+  /**
+   * Chunks of a log still stored in the database.
+   */
+  private record StoredChunks(ExecutionLogChunkRepository repository, UUID jobExecutionId) implements LogChunkSource {
+
+    @Override
+    public Optional<LogChunk> last() {
+      return repository.findFirstByJobExecutionIdOrderBySequenceNumberDesc(jobExecutionId).map(LogChunk::of);
+    }
+
+    @Override
+    public Optional<LogChunk> atOffset(long byteOffset) {
+      return repository.findFirstByJobExecutionIdAndByteOffsetLessThanEqualOrderByByteOffsetDesc(jobExecutionId,
+          byteOffset).map(LogChunk::of);
+    }
+
+    @Override
+    public Optional<LogChunk> atLine(long line) {
+      return repository.findFirstByJobExecutionIdAndFirstLineLessThanOrderBySequenceNumberDesc(jobExecutionId, line)
+          .map(LogChunk::of);
+    }
+
+    @Override
+    public List<LogChunk> following(long sequenceNumber, int count) {
+      return repository.findByJobExecutionIdAndSequenceNumberGreaterThanOrderBySequenceNumberAsc(jobExecutionId,
+          sequenceNumber, PageRequest.of(0, count)).stream().map(LogChunk::of).toList();
+    }
+  }
+}
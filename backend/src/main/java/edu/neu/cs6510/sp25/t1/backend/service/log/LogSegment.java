@@ -0,0 +1,237 @@
+package edu.neu.cs6510.sp25.t1.backend.service.log;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Segment file holding the whole log of one finished job: its compressed chunks followed by an index.
+ * <p>
+ * Layout, big-endian:
+ * <pre>
+ * chunks  the compressed chunk data, back to back
+ * index   per chunk: firstLine (8), lineCount (4), byteOffset (8), byteLength (4), dataOffset (8), dataLength (4)
+ * footer  indexOffset (8), chunkCount (4), version (4), magic (4)
+ * </pre>
+ * A segment is read through a read-only memory mapping. Offsets and lines are found by binary search over
+ * the mapped index, and only the chunks a read returns text from are copied out and decompressed.
+ * Chunks are numbered by their position in the segment.
+ */
+final class LogSegment implements LogChunkSource {
+  static final String FILE_SUFFIX = ".seg";
+  static final String TEMP_SUFFIX = ".tmp";
+
+  private static final int MAGIC = 0x504c4f47;
+  private static final int VERSION = 1;
+  private static final int ENTRY_BYTES = 36;
+  private static final int FOOTER_BYTES = 20;
+
+  /** Positions of the ascending fields within an index entry. */
+  private static final int FIRST_LINE_FIELD = 0;
+  private static final int BYTE_OFFSET_FIELD = 12;
+
+  private final ByteBuffer buffer;
+  private final int indexOffset;
+  private final int chunkCount;
+
+  private LogSegment(ByteBuffer buffer, int indexOffset, int chunkCount) {
+    this.buffer = buffer;
+    this.indexOffset = indexOffset;
+    this.chunkCount = chunkCount;
+  }
+
+  /**
+   * Maps a segment file. The mapping stays readable after the file is deleted.
+   *
+   * @param file the segment file
+   * @return the segment
+   * @throws IOException if the file cannot be read or is not a segment
+   */
+  static LogSegment open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < FOOTER_BYTES || size > Integer.MAX_VALUE) {
+        throw new IOException("Invalid log segment size " + size + ": " + file);
+      }
+      ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      int footer = (int) size - FOOTER_BYTES;
+      long indexOffset = buffer.getLong(footer);
+      int chunkCount = buffer.getInt(footer + 8);
+      if (buffer.getInt(footer + 16) != MAGIC || buffer.getInt(footer + 12) != VERSION || chunkCount < 0
+          || indexOffset < 0 || indexOffset + (long) chunkCount * ENTRY_BYTES != footer) {
+        throw new IOException("Not a log segment: " + file);
+      }
+      return new LogSegment(buffer, (int) indexOffset, chunkCount);
+    }
+  }
+
+  /**
+   * Starts writing a segment file. The file only appears once {@link Writer#finish()} succeeds.
+   *
+   * @param file the segment file
+   * @return the writer
+   * @throws IOException if the temporary file cannot be created
+   */
+  static Writer create(Path file) throws IOException {
+    return new Writer(file);
+  }
+
+  int chunkCount() {
+    return chunkCount;
+  }
+
+  @Override
+  public Optional<LogChunk> last() {
+    return chunkCount == 0 ? Optional.empty() : Optional.of(chunk(chunkCount - 1));
+  }
+
+  @Override
+  public Optional<LogChunk> atOffset(long byteOffset) {
+    return chunkAt(lastIndexAtOrBelow(BYTE_OFFSET_FIELD, byteOffset));
+  }
+
+  @Override
+  public Optional<LogChunk> atLine(long line) {
+    return chunkAt(lastIndexAtOrBelow(FIRST_LINE_FIELD, line - 1));
+  }
+
+  @Override
+  public List<LogChunk> following(long sequenceNumber, int count) {
+    int from = (int) Math.max(0, Math.min(chunkCount, sequenceNumber + 1));
+    int to = (int) Math.min(chunkCount, (long) from + count);
+    List<LogChunk> chunks = new ArrayList<>(to - from);
+    for (int index = from; index < to; index++) {
+      chunks.add(chunk(index));
+    }
+    return chunks;
+  }
+
+  private Optional<LogChunk> chunkAt(int index) {
+    return index < 0 ? Optional.empty() : Optional.of(chunk(index));
+  }
+
+  private LogChunk chunk(int index) {
+    int entry = indexOffset + index * ENTRY_BYTES;
+    byte[] data = new byte[buffer.getInt(entry + 32)];
+    buffer.get((int) buffer.getLong(entry + 24), data);
+    return new LogChunk(index, buffer.getLong(entry), buffer.getInt(entry + 8), buffer.getLong(entry + 12),
+        buffer.getInt(entry + 20), data);
+  }
+
+  /**
+   * Returns the last chunk whose index field at a position is at most a value; the field is
+   * ascending over the chunks.
+   */
+  private int lastIndexAtOrBelow(int field, long value) {
+    int low = 0;
+    int high = chunkCount - 1;
+    int found = -1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      if (buffer.getLong(indexOffset + middle * ENTRY_BYTES + field) <= value) {
+        found = middle;
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * What was written to a segment file.
+   *
+   * @param chunkCount number of chunks
+   * @param lineCount  number of line breaks in the log
+   * @param byteLength uncompressed length of the log in bytes
+   * @param sizeBytes  size of the segment file
+   */
+  record Summary(int chunkCount, long lineCount, long byteLength, long sizeBytes) {
+  }
+
+  /**
+   * Writes the chunks of a log, in sequence order, to a temporary file next to the segment file and moves
+   * it in place once the index is written. Closing an unfinished writer deletes the temporary file.
+   */
+  static final class Writer implements Closeable {
+    private final Path file;
+    private final Path temp;
+    private final FileOutputStream stream;
+    private final DataOutputStream out;
+    private ByteBuffer index = ByteBuffer.allocate(ENTRY_BYTES * 64);
+    private long dataOffset;
+    private int chunkCount;
+    private long lineCount;
+    private long byteLength;
+    private boolean finished;
+
+    private Writer(Path file) throws IOException {
+      this.file = file;
+      this.temp = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+      this.stream = new FileOutputStream(temp.toFile());
+      this.out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+    }
+
+    /**
+     * Appends the next chunk of the log.
+     *
+     * @param chunk the chunk
+     * @throws IOException if the chunk cannot be written or the segment would be too large to map
+     */
+    void add(LogChunk chunk) throws IOException {
+      byte[] data = chunk.data();
+      if (dataOffset + data.length + (long) (chunkCount + 1) * ENTRY_BYTES + FOOTER_BYTES > Integer.MAX_VALUE) {
+        throw new IOException("Log is too large for a segment: " + file);
+      }
+      out.write(data);
+      if (!index.hasRemaining()) {
+        index = ByteBuffer.allocate(index.capacity() * 2).put(index.flip());
+      }
+      index.putLong(chunk.firstLine()).putInt(chunk.lineCount()).putLong(chunk.byteOffset())
+          .putInt(chunk.byteLength()).putLong(dataOffset).putInt(data.length);
+      dataOffset += data.length;
+      chunkCount++;
+      lineCount = chunk.firstLine() + chunk.lineCount();
+      byteLength = chunk.end();
+    }
+
+    /**
+     * Writes the index, syncs the file and moves it in place.
+     *
+     * @return what was written
+     * @throws IOException if the file cannot be written or moved
+     */
+    Summary finish() throws IOException {
+      out.write(index.array(), 0, index.position());
+      out.writeLong(dataOffset);
+      out.writeInt(chunkCount);
+      out.writeInt(VERSION);
+      out.writeInt(MAGIC);
+      out.flush();
+      stream.getFD().sync();
+      out.close();
+      Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      finished = true;
+      return new Summary(chunkCount, lineCount, byteLength, dataOffset + index.position() + FOOTER_BYTES);
+    }
+
+    @Override
+    public void close() throws IOException {
+      out.close();
+      if (!finished) {
+        Files.deleteIfExists(temp);
+      }
+    }
+  }
+}
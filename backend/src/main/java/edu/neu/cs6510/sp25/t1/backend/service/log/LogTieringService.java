@@ -0,0 +1,284 @@
+package edu.neu.cs6510.sp25.t1.backend.service.log;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import edu.neu.cs6510.sp25.t1.backend.database.entity.ExecutionLogChunkEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.entity.ExecutionLogSegmentEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.ExecutionLogChunkRepository;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.ExecutionLogSegmentRepository;
+import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
+
+/**
+ * Service moving the logs of finished jobs out of the database into segment files on local disk.
+ * <p>
+ * Logs stay in the database as chunks while their job runs and for {@code logs.tiering.seal-after-minutes}
+ * after it finished. Then the chunks of each job are streamed into one {@link LogSegment} file, its index
+ * entry is stored and the chunks are deleted in one statement, so the database only keeps one small row per
+ * finished job. Segments are evicted oldest first once they are older than {@code logs.segments.max-age-days}
+ * or their combined size exceeds {@code logs.segments.max-disk-mb}; the log of an evicted segment is gone.
+ * <p>
+ * {@link LogReadService} reads a log from its segment when it has one, so readers do not notice the move.
+ */
+@Service
+public class LogTieringService {
+
+  /** Number of chunks fetched per query while a log is written to a segment. */
+  private static final int CHUNKS_PER_QUERY = 256;
+
+  /** Number of segments fetched per query while evicting. */
+  private static final int SEGMENTS_PER_QUERY = 100;
+
+  private final ExecutionLogChunkRepository chunkRepository;
+  private final ExecutionLogSegmentRepository segmentRepository;
+  private final LogIngestionService logIngestionService;
+  private final Path segmentDir;
+  private final long maxDiskMb;
+  private final long maxAgeDays;
+  private final long sealAfterMinutes;
+  private final int jobsPerRun;
+
+  /**
+   * Constructor for LogTieringService.
+   *
+   * @param chunkRepository     repository holding the log chunks
+   * @param segmentRepository   repository holding the segment index
+   * @param logIngestionService service buffering the logs of running jobs
+   * @param segmentDir          directory of the segment files
+   * @param maxDiskMb           combined size of the segments above which the oldest are evicted, 0 for no limit
+   * @param maxAgeDays          age after which a segment is evicted, 0 to keep segments until the size limit
+   * @param sealAfterMinutes    how long a log stays in the database after its job finished
+   * @param jobsPerRun          logs moved to segments per run
+   */
+  public LogTieringService(ExecutionLogChunkRepository chunkRepository,
+      ExecutionLogSegmentRepository segmentRepository,
+      LogIngestionService logIngestionService,
+      @Value("${logs.segments.base-dir:/mnt/pipeline/log-segments}") String segmentDir,
+      @Value("${logs.segments.max-disk-mb:10240}") long maxDiskMb,
+      @Value("${logs.segments.max-age-days:30}") long maxAgeDays,
+      @Value("${logs.tiering.seal-after-minutes:10}") long sealAfterMinutes,
+      @Value("${logs.tiering.jobs-per-run:100}") int jobsPerRun) {
+    this.chunkRepository = chunkRepository;
+    this.segmentRepository = segmentRepository;
+    this.logIngestionService = logIngestionService;
+    this.segmentDir = Path.of(segmentDir);
+    this.maxDiskMb = maxDiskMb;
+    this.maxAgeDays = maxAgeDays;
+    this.sealAfterMinutes = Math.max(0, sealAfterMinutes);
+    this.jobsPerRun = Math.max(1, jobsPerRun);
+  }
+
+  /**
+   * Moves the logs of finished jobs to segments, then evicts old segments.
+   */
+  @Scheduled(fixedDelayString = "${logs.tiering.interval-ms:60000}")
+  public void tierLogs() {
+    try {
+      sealFinishedLogs();
+      evictSegments();
+    } catch (RuntimeException e) {
+      PipelineLogger.warn("Log tiering failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Moves the logs of jobs that finished long enough ago to segments.
+   *
+   * @return the number of logs moved
+   */
+  public int sealFinishedLogs() {
+    Instant completedBefore = Instant.now().minus(Duration.ofMinutes(sealAfterMinutes));
+    List<UUID> jobExecutionIds = chunkRepository.findJobExecutionIdsWithChunksCompletedBefore(completedBefore,
+        PageRequest.of(0, jobsPerRun));
+    int sealed = 0;
+    for (UUID jobExecutionId : jobExecutionIds) {
+      if (logIngestionService.isBuffering(jobExecutionId)) {
+        continue;
+      }
+      try {
+        seal(jobExecutionId);
+        sealed++;
+      } catch (IOException | RuntimeException e) {
+        PipelineLogger.warn("Failed to move the log of job execution {} to a segment: {}", jobExecutionId,
+            e.getMessage());
+      }
+    }
+    if (sealed > 0) {
+      PipelineLogger.info("Moved {} job logs to segments", sealed);
+    }
+    return sealed;
+  }
+
+  /**
+   * Writes the chunks of one job log to a segment file, indexes it and deletes the chunks.
+   * A log that already has a segment was written by an earlier run that could not delete its chunks.
+   */
+  void seal(UUID jobExecutionId) throws IOException {
+    if (segmentRepository.existsById(jobExecutionId)) {
+      chunkRepository.deleteByJobExecutionId(jobExecutionId);
+      return;
+    }
+    String fileName = jobExecutionId + LogSegment.FILE_SUFFIX;
+    Path file = segmentDir.resolve(fileName);
+    Files.createDirectories(segmentDir);
+
+    LogSegment.Summary summary;
+    try (LogSegment.Writer writer = LogSegment.create(file)) {
+      long sequenceNumber = -1;
+      List<ExecutionLogChunkEntity> page;
+      do {
+        page = chunkRepository.findByJobExecutionIdAndSequenceNumberGreaterThanOrderBySequenceNumberAsc(
+            jobExecutionId, sequenceNumber, PageRequest.of(0, CHUNKS_PER_QUERY));
+        for (ExecutionLogChunkEntity chunk : page) {
+          writer.add(LogChunk.of(chunk));
+          sequenceNumber = chunk.getSequenceNumber();
+        }
+      } while (page.size() == CHUNKS_PER_QUERY);
+      summary = writer.finish();
+    }
+
+    try {
+      segmentRepository.save(ExecutionLogSegmentEntity.builder()
+          .jobExecutionId(jobExecutionId)
+          .fileName(fileName)
+          .chunkCount(summary.chunkCount())
+          .lineCount(summary.lineCount())
+          .byteLength(summary.byteLength())
+          .sizeBytes(summary.sizeBytes())
+          .createdAt(Instant.now())
+          .build());
+    } catch (RuntimeException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+    chunkRepository.deleteByJobExecutionId(jobExecutionId);
+    PipelineLogger.debug("Moved the log of job execution {} to {}", jobExecutionId, file);
+  }
+
+  /**
+   * Evicts segments past the age limit, then the oldest segments until they fit the size limit.
+   * Segment files left without an index entry, such as those of deleted job executions, are removed
+   * once they are past the age limit.
+   *
+   * @return the number of segments evicted
+   */
+  public int evictSegments() {
+    int evicted = 0;
+    if (maxAgeDays > 0) {
+      Instant createdBefore = Instant.now().minus(Duration.ofDays(maxAgeDays));
+      List<ExecutionLogSegmentEntity> expired;
+      do {
+        expired = segmentRepository.findByCreatedAtBeforeOrderByCreatedAtAsc(createdBefore,
+            PageRequest.of(0, SEGMENTS_PER_QUERY));
+        expired.forEach(this::evict);
+        evicted += expired.size();
+      } while (expired.size() == SEGMENTS_PER_QUERY);
+      removeFilesModifiedBefore(createdBefore);
+    }
+
+    if (maxDiskMb > 0) {
+      long budget = maxDiskMb * 1024 * 1024;
+      long total = segmentRepository.sumSizeBytes();
+      while (total > budget) {
+        List<ExecutionLogSegmentEntity> oldest = segmentRepository.findByOrderByCreatedAtAsc(
+            PageRequest.of(0, SEGMENTS_PER_QUERY));
+        if (oldest.isEmpty()) {
+          break;
+        }
+        for (ExecutionLogSegmentEntity segment : oldest) {
+          if (total <= budget) {
+            break;
+          }
+          evict(segment);
+          total -= segment.getSizeBytes();
+          evicted++;
+        }
+      }
+    }
+    if (evicted > 0) {
+      PipelineLogger.info("Evicted {} log segments", evicted);
+    }
+    return evicted;
+  }
+
+  /**
+   * Deletes the segments of job executions, such as those whose history is dropped.
+   *
+   * @param jobExecutionIds the job execution IDs
+   * @return the number of segments deleted
+   */
+  public int deleteSegments(Collection<UUID> jobExecutionIds) {
+    if (jobExecutionIds.isEmpty()) {
+      return 0;
+    }
+    List<ExecutionLogSegmentEntity> segments = segmentRepository.findAllById(jobExecutionIds);
+    segments.forEach(this::evict);
+    return segments.size();
+  }
+
+  /**
+   * Opens the segment holding the log of a job execution.
+   *
+   * @param jobExecutionId the job execution ID
+   * @return the segment, or empty if the log is still in the database or its segment was evicted
+   */
+  Optional<LogSegment> openSegment(UUID jobExecutionId) {
+    Optional<ExecutionLogSegmentEntity> segment = segmentRepository.findById(jobExecutionId);
+    if (segment.isEmpty()) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(LogSegment.open(segmentDir.resolve(segment.get().getFileName())));
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to open the log segment of job execution " + jobExecutionId + ": "
+          + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Removes a segment from the index, then deletes its file; a file that cannot be deleted is left
+   * to the age-based cleanup.
+   */
+  private void evict(ExecutionLogSegmentEntity segment) {
+    segmentRepository.delete(segment);
+    Path file = segmentDir.resolve(segment.getFileName());
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      PipelineLogger.warn("Failed to delete log segment {}: {}", file, e.getMessage());
+    }
+  }
+
+  private void removeFilesModifiedBefore(Instant modifiedBefore) {
+    if (!Files.isDirectory(segmentDir)) {
+      return;
+    }
+    FileTime cutoff = FileTime.from(modifiedBefore);
+    try (Stream<Path> files = Files.list(segmentDir)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        String name = file.getFileName().toString();
+        if ((name.endsWith(LogSegment.FILE_SUFFIX) || name.endsWith(LogSegment.TEMP_SUFFIX))
+            && Files.getLastModifiedTime(file).compareTo(cutoff) < 0) {
+          Files.deleteIfExists(file);
+          PipelineLogger.debug("Removed stale log segment file {}", file);
+        }
+      }
+    } catch (IOException e) {
+      PipelineLogger.warn("Failed to clean up log segments in {}: {}", segmentDir, e.getMessage());
+    }
+  }
+}
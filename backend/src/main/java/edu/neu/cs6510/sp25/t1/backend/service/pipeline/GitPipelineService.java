@@ -1,56 +1,145 @@
 package edu.neu.cs6510.sp25.t1.backend.service.pipeline;
 
-import edu.neu.cs6510.sp25.t1.backend.info.ClonedPipelineInfo;
+import edu.neu.cs6510.sp25.t1.backend.info.PipelineSourceInfo;
 import edu.neu.cs6510.sp25.t1.common.api.request.PipelineExecutionRequest;
 import edu.neu.cs6510.sp25.t1.common.utils.GitCloneUtil;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
 
 /**
- * Service for cloning a Git repository and locating the pipeline definition file.
+ * Service for reading the pipeline definitions of a Git repository and locating the pipeline definition file.
  * The service assumes the pipeline YAML is inside a `.pipelines/` directory at the root.
+ * Repositories are read from a cached bare mirror, and pipeline files are read in memory without a working tree.
  */
 @Service
+@RequiredArgsConstructor
 public class GitPipelineService {
+  private static final String PIPELINES_DIR = ".pipelines";
+
+  private final RepositoryMirrorService repositoryMirrorService;
+
   /**
-   * Clones the Git repository defined in the request and returns the absolute path
-   * to the first YAML pipeline file found in the `.pipelines` directory.
+   * Reads the first YAML pipeline file in the `.pipelines` directory of the Git repository defined
+   * in the request straight from the repository mirror, without writing anything to the workspace.
    *
    * @param request the pipeline execution request containing the repo URL and optional branch
-   * @return a {@link ClonedPipelineInfo} containing the YAML path and UUID of the clone
-   * @throws Exception if cloning fails or if no pipeline file is found
+   * @return a {@link PipelineSourceInfo} containing the YAML path, its content and the commit it was read from
+   * @throws Exception if fetching fails or if no pipeline file is found
    */
-  public ClonedPipelineInfo cloneRepoAndLocatePipelineFile(PipelineExecutionRequest request) throws Exception {
-    String mountBasePath = "/mnt/pipeline";
-    UUID uuid = UUID.randomUUID();
-    File cloneDir = new File(mountBasePath, uuid.toString());
+  public PipelineSourceInfo readPipelineFile(PipelineExecutionRequest request) throws Exception {
+    String branch = request.getBranch();
 
-    String repo = request.getRepo();
+    return repositoryMirrorService.withMirror(request.getRepo(), mirrorDir -> {
+      String commitHash = GitCloneUtil.resolveCommit(mirrorDir, branch);
+      String yamlPath = listPipelineFiles(mirrorDir, commitHash).get(0);
+      return new PipelineSourceInfo(yamlPath, GitCloneUtil.readFile(mirrorDir, commitHash, yamlPath), commitHash);
+    });
+  }
+
+  /**
+   * Reads several YAML pipeline files of the `.pipelines` directory from a single fetch of the
+   * repository mirror. Every file is read at the same commit.
+   *
+   * @param request   the pipeline execution request containing the repo URL and optional branch
+   * @param selection paths (e.g. {@code .pipelines/build.yaml}) or file names of the pipelines to read;
+   *                  every pipeline file is read when empty
+   * @return one {@link PipelineSourceInfo} per pipeline file, in path order
+   * @throws Exception if fetching fails, if no pipeline file is found or if a selected file does not exist
+   */
+  public List<PipelineSourceInfo> readPipelineFiles(PipelineExecutionRequest request, Collection<String> selection)
+      throws Exception {
     String branch = request.getBranch();
 
-    File clonedRepo;
-    if (branch != null && !branch.isEmpty()) {
-      clonedRepo = GitCloneUtil.cloneRepository(repo, cloneDir, branch);
-    } else {
-      clonedRepo = GitCloneUtil.cloneRepository(repo, cloneDir);
-    }
+    return repositoryMirrorService.withMirror(request.getRepo(), mirrorDir -> {
+      String commitHash = GitCloneUtil.resolveCommit(mirrorDir, branch);
+      List<String> yamlPaths = listPipelineFiles(mirrorDir, commitHash);
 
-    File pipelinesDir = new File(clonedRepo, ".pipelines");
-    if (!pipelinesDir.exists() || !pipelinesDir.isDirectory()) {
-      throw new IOException("'.pipelines' directory not found: " + pipelinesDir.getAbsolutePath());
-    }
+      List<String> selected = new ArrayList<>();
+      if (selection == null || selection.isEmpty()) {
+        selected.addAll(yamlPaths);
+      } else {
+        for (String wanted : new TreeSet<>(selection)) {
+          String yamlPath = yamlPaths.stream()
+              .filter(path -> path.equals(wanted) || path.equals(PIPELINES_DIR + "/" + wanted))
+              .findFirst()
+              .orElseThrow(() -> new IOException("Pipeline file not found: " + wanted + " at commit " + commitHash));
+          if (!selected.contains(yamlPath)) {
+            selected.add(yamlPath);
+          }
+        }
+        Collections.sort(selected);
+      }
+
+      List<PipelineSourceInfo> sources = new ArrayList<>();
+      for (String yamlPath : selected) {
+        sources.add(new PipelineSourceInfo(yamlPath, GitCloneUtil.readFile(mirrorDir, commitHash, yamlPath),
+            commitHash));
+      }
+      return sources;
+    });
+  }
+
+  /**
+   * Lists the YAML pipeline files of the `.pipelines` directory as of the last fetch of the repository
+   * mirror, without fetching it again.
+   *
+   * @param request the pipeline execution request containing the repo URL and optional branch
+   * @return the pipeline file paths in path order, or empty if the repository has no mirror yet, its
+   *         mirror is being fetched or its last fetch has no pipeline file on the branch
+   * @throws Exception if the mirror cannot be read
+   */
+  public Optional<List<String>> listCachedPipelineFiles(PipelineExecutionRequest request) throws Exception {
+    return repositoryMirrorService.withCachedMirror(request.getRepo(), mirrorDir -> {
+      try {
+        return listPipelineFiles(mirrorDir, GitCloneUtil.resolveCommit(mirrorDir, request.getBranch())).stream()
+            .sorted()
+            .toList();
+      } catch (IOException e) {
+        return null;
+      }
+    });
+  }
 
-    File[] yamlFiles = pipelinesDir.listFiles((dir, name) ->
-        name.toLowerCase().endsWith(".yaml") || name.toLowerCase().endsWith(".yml")
-    );
+  /**
+   * Returns the path of a pipeline file selected by path or by file name.
+   *
+   * @param selection a path (e.g. {@code .pipelines/build.yaml}) or file name of a pipeline
+   * @return the path of the pipeline file, relative to the repository root
+   */
+  public static String pipelinePath(String selection) {
+    return selection.startsWith(PIPELINES_DIR + "/") ? selection : PIPELINES_DIR + "/" + selection;
+  }
 
-    if (yamlFiles == null || yamlFiles.length == 0) {
-      throw new IOException("No YAML file found in: " + pipelinesDir.getAbsolutePath());
+  /**
+   * Lists the YAML files directly inside the `.pipelines` directory at a commit.
+   *
+   * @param mirrorDir  the bare mirror directory
+   * @param commitHash the commit to list
+   * @return the YAML file paths, relative to the repository root
+   * @throws Exception if listing fails or if no pipeline file is found
+   */
+  private List<String> listPipelineFiles(File mirrorDir, String commitHash) throws Exception {
+    List<String> files = GitCloneUtil.listFiles(mirrorDir, commitHash, PIPELINES_DIR);
+    if (files.isEmpty()) {
+      throw new IOException("'.pipelines' directory not found at commit " + commitHash);
     }
 
-    return new ClonedPipelineInfo(yamlFiles[0].getAbsolutePath(), uuid);
+    List<String> yamlPaths = files.stream()
+        .filter(path -> path.indexOf('/', PIPELINES_DIR.length() + 1) < 0)
+        .filter(path -> path.toLowerCase().endsWith(".yaml") || path.toLowerCase().endsWith(".yml"))
+        .toList();
+    if (yamlPaths.isEmpty()) {
+      throw new IOException("No YAML file found in: " + PIPELINES_DIR + " at commit " + commitHash);
+    }
+    return yamlPaths;
   }
 }
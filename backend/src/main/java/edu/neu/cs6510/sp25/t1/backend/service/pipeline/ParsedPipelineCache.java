@@ -0,0 +1,129 @@
+package edu.neu.cs6510.sp25.t1.backend.service.pipeline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of validated pipeline configurations, keyed by repository, commit and file path.
+ * A file at a given commit never changes, so re-runs and retries of the same commit reuse the
+ * configuration without parsing or validating it again. The least recently used entry is evicted
+ * once the cache is full. Cached configurations are read-only.
+ */
+@Component
+public class ParsedPipelineCache {
+
+  /** Identifies one pipeline file at one commit. */
+  private record Key(String repo, String commitHash, String path) {
+  }
+
+  private final int maxEntries;
+  private final Map<Key, Map<String, Object>> entries;
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter evictions;
+
+  /**
+   * Constructs a new ParsedPipelineCache.
+   *
+   * @param maxEntries    maximum number of cached configurations
+   * @param meterRegistry registry receiving the hit, miss and eviction counts
+   */
+  public ParsedPipelineCache(
+      @Value("${pipeline.parse-cache.max-entries:256}") int maxEntries,
+      MeterRegistry meterRegistry) {
+    this.maxEntries = Math.max(0, maxEntries);
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Map<String, Object>> eldest) {
+        if (size() > ParsedPipelineCache.this.maxEntries) {
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+    this.hits = Counter.builder("pipeline.parse.cache").tag("result", "hit")
+        .description("Pipeline configurations served from the cache").register(meterRegistry);
+    this.misses = Counter.builder("pipeline.parse.cache").tag("result", "miss")
+        .description("Pipeline configurations parsed and validated").register(meterRegistry);
+    this.evictions = Counter.builder("pipeline.parse.cache.evictions")
+        .description("Pipeline configurations evicted from the cache").register(meterRegistry);
+    Gauge.builder("pipeline.parse.cache.size", this, ParsedPipelineCache::size)
+        .description("Pipeline configurations currently cached").register(meterRegistry);
+  }
+
+  /**
+   * Returns the cached configuration of a pipeline file at a commit, parsing and caching it on a miss.
+   * Failed parses are not cached. Nothing is cached without a commit, since the file may still change.
+   *
+   * @param repo       the repository URL
+   * @param commitHash the commit the file was read from
+   * @param path       the file path within the repository
+   * @param parser     parses and validates the file; only called on a miss
+   * @return the validated, read-only configuration
+   */
+  public Map<String, Object> get(String repo, String commitHash, String path, Supplier<Map<String, Object>> parser) {
+    if (commitHash == null || commitHash.isEmpty()) {
+      misses.increment();
+      return parser.get();
+    }
+
+    Key key = new Key(repo, commitHash, path);
+    synchronized (entries) {
+      Map<String, Object> cached = entries.get(key);
+      if (cached != null) {
+        hits.increment();
+        return cached;
+      }
+    }
+
+    // Parsed outside the lock; two concurrent misses for one key both parse, and the last one wins
+    misses.increment();
+    Map<String, Object> parsed = readOnlyMap(parser.get());
+    synchronized (entries) {
+      entries.put(key, parsed);
+    }
+    return parsed;
+  }
+
+  /**
+   * Returns the number of cached configurations.
+   *
+   * @return the cache size
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Object readOnly(Object value) {
+    if (value instanceof Map<?, ?> map) {
+      return readOnlyMap((Map<String, Object>) map);
+    }
+    if (value instanceof List<?> list) {
+      List<Object> copy = new ArrayList<>(list.size());
+      list.forEach(item -> copy.add(readOnly(item)));
+      return Collections.unmodifiableList(copy);
+    }
+    return value;
+  }
+
+  private static Map<String, Object> readOnlyMap(Map<String, Object> map) {
+    Map<String, Object> copy = new LinkedHashMap<>();
+    map.forEach((key, value) -> copy.put(key, readOnly(value)));
+    return Collections.unmodifiableMap(copy);
+  }
+}
@@ -1,11 +1,21 @@
 package edu.neu.cs6510.sp25.t1.backend.service.pipeline;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +42,74 @@ public class PipelineDefinitionService {
   private final JobRepository jobRepository;
   private final JobScriptRepository jobScriptRepository;
 
+  /** Serializes configurations with sorted map keys so that equal configurations hash equally. */
+  private static final ObjectMapper CANONICAL_MAPPER = new ObjectMapper()
+      .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+  /**
+   * A job created for a pipeline definition, with the names of the jobs it declares as dependencies.
+   *
+   * @param job          the saved job entity
+   * @param dependencies names of the jobs that must complete first
+   */
+  private record CreatedJob(JobEntity job, List<String> dependencies) {
+  }
+
+  /**
+   * Resolves the pipeline definition for a run.
+   * If a pipeline with the same name and definition hash already exists, it is reused as is and
+   * no stage, job or script rows are written. Otherwise the pipeline entity and its stages and jobs are created.
+   *
+   * @param request        the pipeline execution request
+   * @param pipelineConfig the pipeline configuration from YAML
+   * @param rootPath       the root path for job scripts
+   * @return the ID of the pipeline entity
+   */
+  @Transactional
+  public UUID createOrReusePipelineDefinition(PipelineExecutionRequest request, Map<String, Object> pipelineConfig,
+      String rootPath) {
+    String definitionHash = computeDefinitionHash(request, pipelineConfig, rootPath);
+
+    if (request.getPipelineId() == null && pipelineConfig.containsKey("name")) {
+      String name = extractPipelineName(pipelineConfig);
+      Optional<PipelineEntity> existing =
+          pipelineRepository.findFirstByNameAndDefinitionHashOrderByCreatedAtDesc(name, definitionHash);
+      if (existing.isPresent()) {
+        PipelineLogger.info("Pipeline definition unchanged, reusing pipeline: " + existing.get().getId());
+        return existing.get().getId();
+      }
+    }
+
+    UUID pipelineId = createOrGetPipelineEntity(request, pipelineConfig, definitionHash);
+    createPipelineDefinition(pipelineId, pipelineConfig, rootPath);
+    return pipelineId;
+  }
+
+  /**
+   * Computes the definition hash of a pipeline: the SHA-256 of its configuration together with
+   * everything else that is written into its definition rows.
+   *
+   * @param request        the pipeline execution request
+   * @param pipelineConfig the pipeline configuration from YAML
+   * @param rootPath       the root path for job scripts
+   * @return the hex-encoded hash
+   */
+  public String computeDefinitionHash(PipelineExecutionRequest request, Map<String, Object> pipelineConfig,
+      String rootPath) {
+    Map<String, Object> definition = new HashMap<>();
+    definition.put("config", pipelineConfig);
+    definition.put("rootPath", rootPath);
+    definition.put("repository", extractRepositoryUrl(request, pipelineConfig));
+    definition.put("branch", extractBranch(request, pipelineConfig));
+
+    try {
+      byte[] canonical = CANONICAL_MAPPER.writeValueAsString(definition).getBytes(StandardCharsets.UTF_8);
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonical));
+    } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+      throw new RuntimeException("Failed to compute pipeline definition hash: " + e.getMessage(), e);
+    }
+  }
+
   /**
    * Creates or retrieves an existing pipeline entity based on the request.
    *
@@ -41,6 +119,21 @@ public class PipelineDefinitionService {
    */
   @Transactional
   public UUID createOrGetPipelineEntity(PipelineExecutionRequest request, Map<String, Object> pipelineConfig) {
+    return createOrGetPipelineEntity(request, pipelineConfig, null);
+  }
+
+  /**
+   * Creates or retrieves an existing pipeline entity based on the request.
+   * A newly created pipeline records the given definition hash.
+   *
+   * @param request        the pipeline execution request
+   * @param pipelineConfig the pipeline configuration from YAML
+   * @param definitionHash the definition hash of the configuration, or null
+   * @return the ID of the pipeline entity
+   */
+  @Transactional
+  public UUID createOrGetPipelineEntity(PipelineExecutionRequest request, Map<String, Object> pipelineConfig,
+      String definitionHash) {
     // Debug log the request
     PipelineLogger.info("createOrGetPipelineEntity called with pipelineId: " + request.getPipelineId());
     PipelineLogger.info("Repo: " + request.getRepo() + ", Branch: " + request.getBranch());
@@ -75,6 +168,7 @@ public class PipelineDefinitionService {
         .repositoryUrl(repoUrl)
         .branch(branch)
         .commitHash(request.getCommitHash())
+        .definitionHash(definitionHash)
         .build();
 
     try {
@@ -96,6 +190,8 @@ public class PipelineDefinitionService {
 
   /**
    * Creates stage and job entities based on pipeline configuration.
+   * Once every job exists, the dependencies each job declares by name are saved as
+   * {@code job_dependencies} rows between the job definitions.
    *
    * @param pipelineId     the pipeline ID
    * @param pipelineConfig the parsed pipeline configuration
@@ -115,15 +211,50 @@ public class PipelineDefinitionService {
     PipelineLogger.info("Found pipeline entity with ID: " + pipelineId + ", name: " + pipeline.getName());
 
     boolean usingTopLevelJobs = pipelineConfig.containsKey("jobs");
+    Map<String, CreatedJob> createdJobs = new LinkedHashMap<>();
 
     if (usingTopLevelJobs) {
       // Handle top-level jobs format
       PipelineLogger.info("Using top-level jobs format");
-      createPipelineDefinitionWithTopLevelJobs(pipelineId, pipelineConfig, rootPath);
+      createPipelineDefinitionWithTopLevelJobs(pipelineId, pipelineConfig, rootPath, createdJobs);
     } else {
       // Handle nested stage-jobs format
       PipelineLogger.info("Using nested stage-jobs format");
-      createPipelineDefinitionWithNestedJobs(pipelineId, pipelineConfig);
+      createPipelineDefinitionWithNestedJobs(pipelineId, pipelineConfig, createdJobs);
+    }
+
+    saveJobDependencies(createdJobs);
+  }
+
+  /**
+   * Resolves the dependency names of the created jobs to job IDs and saves them.
+   *
+   * @param createdJobs the jobs of the pipeline by name
+   */
+  private void saveJobDependencies(Map<String, CreatedJob> createdJobs) {
+    List<JobEntity> dependants = new ArrayList<>();
+    for (Map.Entry<String, CreatedJob> entry : createdJobs.entrySet()) {
+      List<String> dependencyNames = entry.getValue().dependencies();
+      if (dependencyNames.isEmpty()) {
+        continue;
+      }
+      List<UUID> dependencyIds = new ArrayList<>();
+      for (String dependencyName : dependencyNames) {
+        CreatedJob dependency = createdJobs.get(dependencyName);
+        if (dependency == null) {
+          PipelineLogger.error("Job " + entry.getKey() + " depends on unknown job: " + dependencyName);
+          throw new RuntimeException("Job " + entry.getKey() + " depends on unknown job: " + dependencyName);
+        }
+        dependencyIds.add(dependency.job().getId());
+      }
+      JobEntity job = entry.getValue().job();
+      job.setDependencies(dependencyIds);
+      dependants.add(job);
+    }
+
+    if (!dependants.isEmpty()) {
+      jobRepository.saveAll(dependants);
+      PipelineLogger.info("Saved dependencies of " + dependants.size() + " jobs");
     }
   }
 
@@ -133,10 +264,11 @@ public class PipelineDefinitionService {
    * @param pipelineId     the pipeline ID
    * @param pipelineConfig the pipeline configuration
    * @param rootPath       the root path for job scripts
+   * @param createdJobs    collects the created jobs by name
    */
   @Transactional
   private void createPipelineDefinitionWithTopLevelJobs(UUID pipelineId, Map<String, Object> pipelineConfig,
-      String rootPath) {
+      String rootPath, Map<String, CreatedJob> createdJobs) {
     // Extract stages (as simple strings) from config
     List<String> stageNames = extractStageNamesFromConfig(pipelineConfig);
 
@@ -174,7 +306,7 @@ public class PipelineDefinitionService {
       }
 
       UUID stageId = stageNameToIdMap.get(stageName);
-      createJobFromConfig(stageId, jobConfig, rootPath);
+      createJobFromConfig(stageId, jobConfig, rootPath, createdJobs);
     }
   }
 
@@ -183,9 +315,11 @@ public class PipelineDefinitionService {
    *
    * @param pipelineId     the pipeline ID
    * @param pipelineConfig the pipeline configuration
+   * @param createdJobs    collects the created jobs by name
    */
   @Transactional
-  private void createPipelineDefinitionWithNestedJobs(UUID pipelineId, Map<String, Object> pipelineConfig) {
+  private void createPipelineDefinitionWithNestedJobs(UUID pipelineId, Map<String, Object> pipelineConfig,
+      Map<String, CreatedJob> createdJobs) {
     List<Map<String, Object>> stages = extractNestedStagesFromConfig(pipelineConfig);
 
     if (stages.isEmpty()) {
@@ -197,7 +331,7 @@ public class PipelineDefinitionService {
 
     for (int order = 0; order < stages.size(); order++) {
       Map<String, Object> stageConfig = stages.get(order);
-      createStageWithJobs(pipelineId, stageConfig, order);
+      createStageWithJobs(pipelineId, stageConfig, order, createdJobs);
     }
   }
 
@@ -295,11 +429,13 @@ public class PipelineDefinitionService {
    *
    * @param stageId   the stage ID
    * @param jobConfig the job configuration
-   * @param rootPath  the root path for job scripts
+   * @param rootPath    the root path for job scripts
+   * @param createdJobs collects the created jobs by name
    * @return the job ID
    */
   @Transactional
-  private UUID createJobFromConfig(UUID stageId, Map<String, Object> jobConfig, String rootPath) {
+  private UUID createJobFromConfig(UUID stageId, Map<String, Object> jobConfig, String rootPath,
+      Map<String, CreatedJob> createdJobs) {
     String jobName = (String) jobConfig.get("name");
     PipelineLogger.info("Creating job with name: " + jobName + " for stage: " + stageId);
 
@@ -350,6 +486,7 @@ public class PipelineDefinitionService {
       // Handle job scripts if present
       saveJobScripts(job.getId(), jobConfig);
 
+      createdJobs.put(jobName, new CreatedJob(job, extractDependencyNames(jobConfig)));
       return job.getId();
     } catch (Exception e) {
       PipelineLogger.error("Error saving job entity: " + e.getMessage() + " | " + e);
@@ -383,9 +520,11 @@ public class PipelineDefinitionService {
    * @param pipelineId  the pipeline ID
    * @param stageConfig the stage configuration
    * @param order       the execution order
+   * @param createdJobs collects the created jobs by name
    */
   @Transactional
-  private void createStageWithJobs(UUID pipelineId, Map<String, Object> stageConfig, int order) {
+  private void createStageWithJobs(UUID pipelineId, Map<String, Object> stageConfig, int order,
+      Map<String, CreatedJob> createdJobs) {
     String stageName = (String) stageConfig.get("name");
 
     PipelineLogger.info("Creating stage with name: " + stageName + ", order: " + order);
@@ -409,7 +548,7 @@ public class PipelineDefinitionService {
       }
 
       // Create and save job entities for this stage
-      createJobDefinitions(stage.getId(), stageConfig);
+      createJobDefinitions(stage.getId(), stageConfig, createdJobs);
     } catch (Exception e) {
       PipelineLogger.error("Error saving stage entity: " + e.getMessage());
       throw e;
@@ -421,9 +560,11 @@ public class PipelineDefinitionService {
    *
    * @param stageId     the stage ID
    * @param stageConfig the stage configuration from YAML
+   * @param createdJobs collects the created jobs by name
    */
   @SuppressWarnings("unchecked")
-  private void createJobDefinitions(UUID stageId, Map<String, Object> stageConfig) {
+  private void createJobDefinitions(UUID stageId, Map<String, Object> stageConfig,
+      Map<String, CreatedJob> createdJobs) {
     // Verify the stage exists first
     StageEntity stage = stageRepository.findById(stageId)
         .orElseThrow(() -> {
@@ -443,7 +584,7 @@ public class PipelineDefinitionService {
     PipelineLogger.info("Found " + jobsConfig.size() + " jobs in stage configuration");
 
     for (Map<String, Object> jobConfig : jobsConfig) {
-      createJob(stageId, jobConfig);
+      createJob(stageId, jobConfig, createdJobs);
     }
   }
 
@@ -451,10 +592,11 @@ public class PipelineDefinitionService {
    * Create a job entity.
    *
    * @param stageId   the stage ID
-   * @param jobConfig the job configuration
+   * @param jobConfig   the job configuration
+   * @param createdJobs collects the created jobs by name
    */
   @Transactional
-  private void createJob(UUID stageId, Map<String, Object> jobConfig) {
+  private void createJob(UUID stageId, Map<String, Object> jobConfig, Map<String, CreatedJob> createdJobs) {
     String jobName = (String) jobConfig.get("name");
     PipelineLogger.info("Creating job with name: " + jobName + " for stage: " + stageId);
 
@@ -487,6 +629,8 @@ public class PipelineDefinitionService {
 
       // Handle job scripts if present
       saveJobScripts(job.getId(), jobConfig);
+
+      createdJobs.put(jobName, new CreatedJob(job, extractDependencyNames(jobConfig)));
     } catch (Exception e) {
       PipelineLogger.error("Error saving job entity: " + e.getMessage() + " | " + e);
       throw e;
@@ -526,6 +670,28 @@ public class PipelineDefinitionService {
     return false;
   }
 
+  /**
+   * Extract the names of the jobs a job depends on (support both "dependencies" and "needs"
+   * properties, each either a single name or a list of names).
+   *
+   * @param jobConfig the job configuration
+   * @return the dependency names, empty if none are declared
+   */
+  private List<String> extractDependencyNames(Map<String, Object> jobConfig) {
+    Object dependenciesObj = jobConfig.containsKey("dependencies")
+        ? jobConfig.get("dependencies")
+        : jobConfig.get("needs");
+    if (dependenciesObj instanceof String) {
+      return List.of((String) dependenciesObj);
+    } else if (dependenciesObj instanceof List) {
+      return ((List<?>) dependenciesObj).stream()
+          .filter(d -> d instanceof String)
+          .map(d -> (String) d)
+          .toList();
+    }
+    return List.of();
+  }
+
   /**
    * Save job scripts.
    *
@@ -1,11 +1,14 @@
 package edu.neu.cs6510.sp25.t1.backend.service.pipeline;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Queue;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -68,12 +71,6 @@ public class PipelineExecutionCreationService {
     try {
       pipelineExecution = pipelineExecutionRepository.saveAndFlush(pipelineExecution); // Save and flush in one operation
       PipelineLogger.info("Successfully saved pipeline execution: " + pipelineExecution.getId());
-
-      // Verify the save was successful
-      PipelineExecutionEntity savedEntity = pipelineExecutionRepository.findById(pipelineExecution.getId())
-              .orElseThrow(() -> new RuntimeException("Failed to verify pipeline execution was saved"));
-      PipelineLogger.info("Verified pipeline execution exists in database: " + savedEntity.getId());
-
       return pipelineExecution;
     } catch (Exception e) {
       PipelineLogger.error("Error saving pipeline execution: " + e.getMessage());
@@ -81,6 +78,49 @@ public class PipelineExecutionCreationService {
     }
   }
 
+  /**
+   * Attaches the pipeline definition to a reserved pipeline execution and creates its stage and job executions,
+   * all in one transaction.
+   *
+   * @param pipelineExecutionId ID of the reserved pipeline execution
+   * @param pipelineId          ID of the pipeline definition the execution runs
+   * @param commitHash          commit the pipeline file was read from, used if the request named none
+   * @param pipelineConfig      Parsed pipeline configuration
+   * @param stageQueue          Queue to store job UUIDs for each stage execution
+   */
+  @Transactional
+  public void materializePipelineExecution(
+      UUID pipelineExecutionId,
+      UUID pipelineId,
+      String commitHash,
+      Map<String, Object> pipelineConfig,
+      Queue<Queue<UUID>> stageQueue) {
+    PipelineExecutionEntity pipelineExecution = pipelineExecutionRepository.findById(pipelineExecutionId)
+            .orElseThrow(() -> new RuntimeException("Pipeline execution not found: " + pipelineExecutionId));
+
+    pipelineExecution.setPipelineId(pipelineId);
+    if (pipelineExecution.getCommitHash() == null || pipelineExecution.getCommitHash().isEmpty()) {
+      pipelineExecution.setCommitHash(commitHash);
+    }
+    pipelineExecutionRepository.save(pipelineExecution);
+
+    createAndSaveStageExecutions(pipelineExecution, pipelineConfig, stageQueue);
+  }
+
+  /**
+   * Marks a pipeline execution that could not be set up as failed.
+   *
+   * @param pipelineExecutionId ID of the pipeline execution
+   */
+  @Transactional
+  public void markPipelineExecutionFailed(UUID pipelineExecutionId) {
+    pipelineExecutionRepository.findById(pipelineExecutionId).ifPresent(pipelineExecution -> {
+      pipelineExecution.updateState(ExecutionStatus.FAILED);
+      pipelineExecutionRepository.save(pipelineExecution);
+      PipelineLogger.warn("Marked pipeline execution as failed: " + pipelineExecutionId);
+    });
+  }
+
   /**
    * Creates and saves stage execution entities based on the pipeline YAML configuration.
    *
@@ -93,147 +133,120 @@ public class PipelineExecutionCreationService {
       UUID pipelineExecutionId,
       Map<String, Object> pipelineConfig,
       Queue<Queue<UUID>> stageQueue) {
-//    // Determine if we're using top-level jobs or nested stages format
-//    boolean usingTopLevelJobs = pipelineConfig.containsKey("jobs");
-    
     // Get pipeline execution to retrieve pipelineId
     PipelineExecutionEntity pipelineExecution = pipelineExecutionRepository.findById(pipelineExecutionId)
             .orElseThrow(() -> new RuntimeException("Pipeline execution not found: " + pipelineExecutionId));
-    
+
+    createAndSaveStageExecutions(pipelineExecution, pipelineConfig, stageQueue);
+  }
+
+  /**
+   * Creates and saves all stage and job execution entities of a pipeline execution.
+   * Job definitions of every stage are loaded with one query, and all executions are
+   * written in a single flush so that Hibernate can batch the inserts.
+   *
+   * @param pipelineExecution the saved pipeline execution entity
+   * @param pipelineConfig    Parsed pipeline configuration
+   * @param stageQueue        Queue to store job UUIDs for each stage execution
+   */
+  @Transactional
+  public void createAndSaveStageExecutions(
+      PipelineExecutionEntity pipelineExecution,
+      Map<String, Object> pipelineConfig,
+      Queue<Queue<UUID>> stageQueue) {
+    UUID pipelineExecutionId = pipelineExecution.getId();
+
     // Get all stages for this pipeline
     List<StageEntity> pipelineStages = stageRepository.findByPipelineId(pipelineExecution.getPipelineId());
     if (pipelineStages.isEmpty()) {
       PipelineLogger.error("No stage definitions found for pipeline: " + pipelineExecution.getPipelineId());
       throw new RuntimeException("Pipeline stage definitions not found");
     }
-    
-    // Ensure all stage entities are flushed to the database
-    stageRepository.flush();
-    
+
     int stagesCount = pipelineStages.size();
     PipelineLogger.info("Creating " + stagesCount + " stage executions for pipeline: " + pipelineExecutionId);
-    
+
     String commitHash = pipelineExecution.getCommitHash();
     boolean isLocal = pipelineExecution.isLocal();
     PipelineLogger.info("Using commit hash: " + commitHash + " and isLocal: " + isLocal);
 
-    // Create stage executions for all stages
-//    for (int order = 0; order < stagesCount; order++) {
-//      createStageExecution(pipelineExecutionId, pipelineStages, order, commitHash, isLocal);
-//    }
-    for (int order = 0; order < stagesCount; order++) {
-      Queue<UUID> jobQueue = createStageExecution(pipelineExecutionId, pipelineStages, order, commitHash, isLocal);
-      stageQueue.add(jobQueue);
-    }
-  }
-  
-  /**
-   * Create a stage execution entity.
-   *
-   * @param pipelineExecutionId the pipeline execution ID
-   * @param pipelineStages the list of stage entities
-   * @param order the execution order
-   * @param commitHash the commit hash
-   * @param isLocal whether the execution is local
-   * 
-   * @return a queue of job UUIDs associated with the created stage execution
-   */
-  @Transactional
-  private Queue<UUID> createStageExecution(UUID pipelineExecutionId, List<StageEntity> pipelineStages, int order,
-      String commitHash, boolean isLocal) {
+    Map<Integer, StageEntity> stagesByOrder = new HashMap<>();
+    pipelineStages.forEach(stage -> stagesByOrder.putIfAbsent(stage.getExecutionOrder(), stage));
 
-    Queue<UUID> jobQueue = new LinkedList<>();
+    // Load the jobs of all stages at once
+    Map<UUID, List<JobEntity>> jobsByStage = jobRepository
+            .findByStageIdIn(pipelineStages.stream().map(StageEntity::getId).toList())
+            .stream()
+            .collect(Collectors.groupingBy(JobEntity::getStageId));
 
-    // Find the matching stage entity for this order
-    int finalOrder = order;
-    StageEntity matchingStage = pipelineStages.stream()
-            .filter(stage -> stage.getExecutionOrder() == finalOrder)
-            .findFirst()
-            .orElseThrow(() -> new RuntimeException("Stage definition not found for order: " + finalOrder));
-    
-    // Create the stage execution entity
-    StageExecutionEntity stageExecution = StageExecutionEntity.builder()
-            .pipelineExecutionId(pipelineExecutionId)
-            .stageId(matchingStage.getId())  // Use actual stage ID 
-            .executionOrder(order)
-            .commitHash(commitHash)  // Use commit hash from pipeline execution
-            .isLocal(isLocal)        // Use isLocal from pipeline execution
-            .status(ExecutionStatus.PENDING)
-            .startTime(Instant.now())
-            .build();
-
-    try {
-      // Save the stage execution
-      stageExecution = stageExecutionRepository.saveAndFlush(stageExecution);
-      PipelineLogger.info("Saved stage execution with ID: " + stageExecution.getId() + " for stage: " + matchingStage.getId());
-
-      // Make sure all jobs for this stage are already created
-      jobRepository.flush();
-      
-      // Extract and create job executions
-      List<JobExecutionEntity> jobs = createJobExecutions(matchingStage.getId(), stageExecution);
+    List<StageExecutionEntity> stageExecutions = new ArrayList<>(stagesCount);
+    List<List<JobExecutionEntity>> jobExecutionsByStage = new ArrayList<>(stagesCount);
+    Instant now = Instant.now();
 
-      // Save job executions
-      if (!jobs.isEmpty()) {
-        PipelineLogger.info("Saving " + jobs.size() + " jobs for stage: " + stageExecution.getId());
-        jobs = jobExecutionRepository.saveAll(jobs).stream().toList();
-        jobExecutionRepository.flush();
+    for (int order = 0; order < stagesCount; order++) {
+      StageEntity matchingStage = stagesByOrder.get(order);
+      if (matchingStage == null) {
+        throw new RuntimeException("Stage definition not found for order: " + order);
+      }
 
-        PipelineLogger.info("Saved stage execution: " + stageExecution.getId() + " with " + jobs.size() + " jobs.");
+      StageExecutionEntity stageExecution = StageExecutionEntity.builder()
+              .pipelineExecutionId(pipelineExecutionId)
+              .stageId(matchingStage.getId())  // Use actual stage ID
+              .executionOrder(order)
+              .commitHash(commitHash)  // Use commit hash from pipeline execution
+              .isLocal(isLocal)        // Use isLocal from pipeline execution
+              .status(ExecutionStatus.PENDING)
+              .startTime(now)
+              .build();
+      stageExecutions.add(stageExecution);
 
-        // add to queue
-        jobs.forEach(jobExecution -> jobQueue.add(jobExecution.getId()));
-        PipelineLogger.info("Collected job UUIDs for stage execution " + stageExecution.getId() + ": " + jobQueue);
-      } else {
-        PipelineLogger.warn("No jobs defined for stage: " + stageExecution.getId());
+      List<JobEntity> stageJobs = jobsByStage.getOrDefault(matchingStage.getId(), List.of());
+      if (stageJobs.isEmpty()) {
+        PipelineLogger.warn("No job definitions found for stage: " + matchingStage.getId());
       }
+      jobExecutionsByStage.add(stageJobs.stream()
+              .map(job -> createJobExecution(job, stageExecution, now))
+              .toList());
+    }
+
+    try {
+      // IDs are generated client-side on persist, so the rows are only written by the single flush below
+      stageExecutionRepository.saveAll(stageExecutions);
+      List<JobExecutionEntity> allJobExecutions = jobExecutionsByStage.stream().flatMap(List::stream).toList();
+      jobExecutionRepository.saveAll(allJobExecutions);
+      jobExecutionRepository.flush();
+      PipelineLogger.info("Saved " + stageExecutions.size() + " stage executions and "
+              + allJobExecutions.size() + " job executions for pipeline execution: " + pipelineExecutionId);
     } catch (Exception e) {
-      PipelineLogger.error("Error saving stage execution: " + e.getMessage() + " | " + e);
+      PipelineLogger.error("Error saving stage executions: " + e.getMessage() + " | " + e);
       throw e;
     }
 
-    return jobQueue;
+    for (List<JobExecutionEntity> jobExecutions : jobExecutionsByStage) {
+      Queue<UUID> jobQueue = new LinkedList<>();
+      jobExecutions.forEach(jobExecution -> jobQueue.add(jobExecution.getId()));
+      stageQueue.add(jobQueue);
+    }
   }
 
   /**
-   * Creates job execution entities for a stage.
+   * Creates a job execution entity for a job definition.
    *
-   * @param stageId       ID of the stage entity
-   * @param stageExecution stage execution entity
-   * @return list of job execution entities
+   * @param job            the job definition
+   * @param stageExecution the stage execution the job belongs to
+   * @param startTime      the creation time of the execution
+   * @return the job execution entity
    */
-  @Transactional
-  private List<JobExecutionEntity> createJobExecutions(UUID stageId, StageExecutionEntity stageExecution) {
-    // Get all jobs for this stage
-    List<JobEntity> stageJobs = jobRepository.findByStageId(stageId);
-    
-    if (stageJobs.isEmpty()) {
-      PipelineLogger.warn("No job definitions found for stage: " + stageId);
-      return List.of();
-    }
-
-    // Create job executions by ensuring job entities are saved first
-    return stageJobs.stream().map(job -> {
-      if (job.getId() == null) {
-        PipelineLogger.info("Saving job entity before creating execution for job: " + job.getName());
-        job = jobRepository.saveAndFlush(job);
-      } else {
-        if (!jobRepository.existsById(job.getId())) {
-          PipelineLogger.warn("Job entity does not exist in database, saving it now: " + job.getId());
-          job = jobRepository.saveAndFlush(job);
-        }
-      }
-
-      return JobExecutionEntity.builder()
-              .stageExecution(stageExecution)
-              .jobId(job.getId())  // Use actual job ID
-              .commitHash(stageExecution.getCommitHash())
-              .isLocal(stageExecution.isLocal())
-              .allowFailure(job.isAllowFailure())
-              .status(ExecutionStatus.PENDING)
-              .startTime(Instant.now())
-              .build();
-    }).collect(java.util.stream.Collectors.toList());
+  private JobExecutionEntity createJobExecution(JobEntity job, StageExecutionEntity stageExecution, Instant startTime) {
+    return JobExecutionEntity.builder()
+            .stageExecution(stageExecution)
+            .jobId(job.getId())  // Use actual job ID
+            .commitHash(stageExecution.getCommitHash())
+            .isLocal(stageExecution.isLocal())
+            .allowFailure(job.isAllowFailure())
+            .status(ExecutionStatus.PENDING)
+            .startTime(startTime)
+            .build();
   }
 
   /**
@@ -258,25 +271,18 @@ public class PipelineExecutionCreationService {
         PipelineLogger.info("Successfully verified pipeline execution entity: " + pipelineExecutionId);
       }
 
-      // Check stages exist
-      List<StageEntity> stages = stageRepository.findByPipelineId(pipelineId);
-      PipelineLogger.info("Found " + stages.size() + " stages for pipeline: " + pipelineId);
-
-      // Check jobs exist for each stage
-      for (StageEntity stage : stages) {
-        List<JobEntity> jobs = jobRepository.findByStageId(stage.getId());
-        PipelineLogger.info("Found " + jobs.size() + " jobs for stage: " + stage.getId());
-      }
-      
-      // Check stage executions exist
-      List<StageExecutionEntity> stageExecutions = stageExecutionRepository.findByPipelineExecutionId(pipelineExecutionId);
-      PipelineLogger.info("Found " + stageExecutions.size() + " stage executions for pipeline execution: " + pipelineExecutionId);
-      
-      // Check job executions exist for each stage execution
-      for (StageExecutionEntity stageExecution : stageExecutions) {
-        List<JobExecutionEntity> jobExecutions = jobExecutionRepository.findByStageExecution(stageExecution);
-        PipelineLogger.info("Found " + jobExecutions.size() + " job executions for stage execution: " + stageExecution.getId());
+      // Check stages and jobs exist
+      List<UUID> stageIds = stageRepository.findByPipelineId(pipelineId).stream().map(StageEntity::getId).toList();
+      PipelineLogger.info("Found " + stageIds.size() + " stages for pipeline: " + pipelineId);
+      if (!stageIds.isEmpty()) {
+        PipelineLogger.info("Found " + jobRepository.countByStageIdIn(stageIds) + " jobs for pipeline: " + pipelineId);
       }
+
+      // Check stage and job executions exist
+      PipelineLogger.info("Found " + stageExecutionRepository.countByPipelineExecutionId(pipelineExecutionId)
+              + " stage executions for pipeline execution: " + pipelineExecutionId);
+      PipelineLogger.info("Found " + jobExecutionRepository.countByStageExecution_PipelineExecutionId(pipelineExecutionId)
+              + " job executions for pipeline execution: " + pipelineExecutionId);
     } catch (Exception e) {
       PipelineLogger.error("Error verifying saved entities: " + e.getMessage());
     }
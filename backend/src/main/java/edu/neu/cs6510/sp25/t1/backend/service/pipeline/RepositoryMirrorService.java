@@ -0,0 +1,206 @@
+package edu.neu.cs6510.sp25.t1.backend.service.pipeline;
+
+import org.apache.commons.io.FileUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
+import edu.neu.cs6510.sp25.t1.common.utils.GitCloneUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service maintaining one bare mirror per remote repository on local disk.
+ * The first request for a repository clones it once; later requests only fetch the
+ * objects that changed since the previous fetch. Mirrors are evicted least recently used
+ * first once their combined size exceeds the configured disk budget. Each mirror is measured
+ * after it is fetched, so checking the budget does not walk every mirror on disk.
+ */
+@Service
+public class RepositoryMirrorService {
+
+  @Value("${git.mirror.base-dir:/mnt/pipeline/mirrors}")
+  private String mirrorBaseDir;
+
+  @Value("${git.mirror.max-disk-mb:10240}")
+  private long maxDiskMb;
+
+  /** Lock per mirror, so fetches and evictions of the same repository never overlap. */
+  private final Map<String, ReentrantLock> mirrorLocks = new ConcurrentHashMap<>();
+
+  /** Size in bytes of every mirror, measured after its last fetch or, if left by an earlier run, when first seen. */
+  private final Map<String, Long> mirrorSizes = new ConcurrentHashMap<>();
+
+  /**
+   * Callback run against an up-to-date mirror.
+   *
+   * @param <T> the result type
+   */
+  @FunctionalInterface
+  public interface MirrorAction<T> {
+    /**
+     * Runs against the mirror while it is locked.
+     *
+     * @param mirrorDir the bare mirror directory
+     * @return the action result
+     * @throws Exception if the action fails
+     */
+    T apply(File mirrorDir) throws Exception;
+  }
+
+  /**
+   * Brings the mirror of a repository up to date and runs an action against it.
+   * The mirror stays locked while the action runs, so it is never fetched or evicted underneath it.
+   *
+   * @param repoUrl the remote repository URL
+   * @param action  the action to run against the mirror
+   * @param <T>     the result type
+   * @return the action result
+   * @throws Exception if the mirror cannot be updated or the action fails
+   */
+  public <T> T withMirror(String repoUrl, MirrorAction<T> action) throws Exception {
+    String key = mirrorKey(repoUrl);
+    File mirrorDir = new File(mirrorBaseDir, key + ".git");
+    ReentrantLock lock = mirrorLocks.computeIfAbsent(key, k -> new ReentrantLock());
+
+    T result;
+    lock.lock();
+    try {
+      boolean existed = mirrorDir.exists();
+      GitCloneUtil.updateMirror(repoUrl, mirrorDir);
+      mirrorDir.setLastModified(System.currentTimeMillis());
+      mirrorSizes.put(key, FileUtils.sizeOfDirectory(mirrorDir));
+      PipelineLogger.info((existed ? "Fetched" : "Cloned") + " mirror of " + repoUrl + " at " + mirrorDir);
+
+      result = action.apply(mirrorDir);
+    } finally {
+      lock.unlock();
+    }
+
+    evictLeastRecentlyUsed(key);
+    return result;
+  }
+
+  /**
+   * Runs an action against the mirror of a repository as of its last fetch, without fetching.
+   * Nothing runs when the repository has no mirror yet or its mirror is being fetched or evicted,
+   * so the caller never waits on the network.
+   *
+   * @param repoUrl the remote repository URL
+   * @param action  the action to run against the mirror
+   * @param <T>     the result type
+   * @return the action result, or empty if the mirror is missing or busy
+   * @throws Exception if the action fails
+   */
+  public <T> Optional<T> withCachedMirror(String repoUrl, MirrorAction<T> action) throws Exception {
+    String key = mirrorKey(repoUrl);
+    File mirrorDir = new File(mirrorBaseDir, key + ".git");
+    ReentrantLock lock = mirrorLocks.computeIfAbsent(key, k -> new ReentrantLock());
+
+    if (!lock.tryLock()) {
+      return Optional.empty();
+    }
+    try {
+      return mirrorDir.exists() ? Optional.ofNullable(action.apply(mirrorDir)) : Optional.empty();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Deletes the least recently used mirrors until the cache fits in its disk budget.
+   * The mirror just used and mirrors that are currently locked are never evicted.
+   *
+   * @param currentKey key of the mirror that was just used
+   */
+  void evictLeastRecentlyUsed(String currentKey) {
+    File[] mirrors = new File(mirrorBaseDir).listFiles(File::isDirectory);
+    if (mirrors == null) {
+      return;
+    }
+
+    long budget = maxDiskMb * 1024 * 1024;
+    Set<String> keys = new HashSet<>();
+    long total = 0;
+    for (File mirror : mirrors) {
+      String key = keyOf(mirror);
+      keys.add(key);
+      Long size = mirrorSizes.get(key);
+      if (size == null) {
+        size = FileUtils.sizeOfDirectory(mirror);
+        mirrorSizes.putIfAbsent(key, size);
+      }
+      total += size;
+    }
+    // Forget mirrors deleted from disk by other means
+    mirrorSizes.keySet().retainAll(keys);
+    if (total <= budget) {
+      return;
+    }
+
+    Arrays.sort(mirrors, Comparator.comparingLong(File::lastModified));
+    for (File mirror : mirrors) {
+      if (total <= budget) {
+        break;
+      }
+      String key = keyOf(mirror);
+      if (key.equals(currentKey)) {
+        continue;
+      }
+
+      ReentrantLock lock = mirrorLocks.computeIfAbsent(key, k -> new ReentrantLock());
+      if (!lock.tryLock()) {
+        continue;
+      }
+      try {
+        FileUtils.deleteDirectory(mirror);
+        Long size = mirrorSizes.remove(key);
+        total -= size == null ? 0 : size;
+        PipelineLogger.info("Evicted repository mirror: " + mirror);
+      } catch (IOException e) {
+        PipelineLogger.warn("Failed to evict repository mirror " + mirror + ": " + e.getMessage());
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Returns the mirror key of a mirror directory.
+   *
+   * @param mirror the bare mirror directory
+   * @return the mirror key
+   */
+  private static String keyOf(File mirror) {
+    return mirror.getName().replaceFirst("\\.git$", "");
+  }
+
+  /**
+   * Derives a stable, filesystem-safe directory name from a repository URL.
+   *
+   * @param repoUrl the remote repository URL
+   * @return the mirror key
+   */
+  static String mirrorKey(String repoUrl) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] hash = digest.digest(repoUrl.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(hash, 0, 16);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
@@ -14,11 +14,14 @@ import lombok.RequiredArgsConstructor;
 /**
  * Service responsible for handling YAML configuration files for pipelines.
  * This includes resolving file paths, reading YAML files, and validating their contents.
+ * Configurations read at a commit are cached, so re-running a commit skips parsing and validation.
  */
 @Service
 @RequiredArgsConstructor
 public class YamlConfigurationService {
 
+  private final ParsedPipelineCache parsedPipelineCache;
+
   /**
    * Resolves and validates the pipeline file path.
    *
@@ -72,4 +75,43 @@ public class YamlConfigurationService {
       throw new RuntimeException("YAML parsing failed: " + e.getMessage(), e);
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Parses and validates pipeline YAML content that was read without a file on disk.
+   *
+   * @param yamlContent the pipeline YAML content
+   * @param source      where the content was read from, used in log and error messages
+   * @return the parsed pipeline configuration
+   */
+  public Map<String, Object> parseAndValidatePipelineYamlContent(String yamlContent, String source) {
+    try {
+      PipelineLogger.info("Attempting to parse pipeline YAML from: " + source);
+      Map<String, Object> pipelineConfig = YamlPipelineUtils.parsePipelineYaml(yamlContent, source);
+
+      PipelineLogger.info("Successfully parsed pipeline YAML. Now validating...");
+      YamlPipelineUtils.validatePipelineConfig(pipelineConfig);
+
+      PipelineLogger.info("YAML validation completed for: " + source);
+      return pipelineConfig;
+    } catch (Exception e) {
+      PipelineLogger.error("ERROR reading pipeline YAML: " + e.getMessage());
+      throw new RuntimeException("YAML parsing failed: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Parses and validates pipeline YAML content read from a repository at a commit.
+   * The validated configuration is cached per repository, commit and path; the returned map is read-only.
+   *
+   * @param repo        the repository URL
+   * @param commitHash  the commit the content was read from
+   * @param yamlPath    the pipeline file path within the repository
+   * @param yamlContent the pipeline YAML content
+   * @return the parsed pipeline configuration
+   */
+  public Map<String, Object> parseAndValidatePipelineYamlContent(String repo, String commitHash, String yamlPath,
+      String yamlContent) {
+    return parsedPipelineCache.get(repo, commitHash, yamlPath,
+        () -> parseAndValidatePipelineYamlContent(yamlContent, yamlPath + "@" + commitHash));
+  }
+}
@@ -0,0 +1,109 @@
+package edu.neu.cs6510.sp25.t1.backend.service.report;
+
+import java.util.Arrays;
+
+/**
+ * Log-bucketed histogram of durations in milliseconds, in the spirit of an HDR histogram.
+ * <p>
+ * Bucket 0 holds zero durations; bucket {@code b > 0} holds durations in
+ * {@code [GAMMA^(b-1), GAMMA^b)}. With {@code GAMMA = 1.02} every percentile is reported
+ * within 1% of the exact value, and a whole day of millisecond durations fits in about
+ * 900 buckets, so recording is O(1) and memory does not grow with the number of samples.
+ * Only the buckets between the smallest and the largest recorded duration are allocated.
+ * <p>
+ * Not thread-safe; callers synchronize.
+ */
+final class DurationHistogram {
+  private static final double GAMMA = 1.02;
+  private static final double LOG_GAMMA = Math.log(GAMMA);
+
+  /** Counts of buckets {@code firstBucket} to {@code firstBucket + counts.length - 1}. */
+  private long[] counts = new long[0];
+  private int firstBucket;
+  private long count;
+  private long sum;
+  private long min = Long.MAX_VALUE;
+  private long max;
+
+  /**
+   * Records one duration; negative durations count as zero.
+   *
+   * @param millis the duration in milliseconds
+   */
+  void record(long millis) {
+    long value = Math.max(0, millis);
+    int bucket = bucketOf(value);
+    if (counts.length == 0) {
+      counts = new long[1];
+      firstBucket = bucket;
+    } else if (bucket < firstBucket) {
+      long[] grown = new long[counts.length + firstBucket - bucket];
+      System.arraycopy(counts, 0, grown, firstBucket - bucket, counts.length);
+      counts = grown;
+      firstBucket = bucket;
+    } else if (bucket >= firstBucket + counts.length) {
+      counts = Arrays.copyOf(counts, bucket - firstBucket + 1);
+    }
+    counts[bucket - firstBucket]++;
+    count++;
+    sum += value;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  long getCount() {
+    return count;
+  }
+
+  long getMean() {
+    return count == 0 ? 0 : Math.round((double) sum / count);
+  }
+
+  long getMin() {
+    return count == 0 ? 0 : min;
+  }
+
+  long getMax() {
+    return max;
+  }
+
+  /**
+   * Returns the duration at a percentile: the value of the bucket holding the sample of
+   * rank {@code ceil(percentile / 100 * count)}, clamped to the recorded range. The highest rank is
+   * reported exactly.
+   *
+   * @param percentile the percentile, between 0 and 100
+   * @return the approximate duration in milliseconds, or 0 if nothing was recorded
+   */
+  long getPercentile(double percentile) {
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+    if (rank >= count) {
+      return max;
+    }
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(max, Math.max(min, valueOf(firstBucket + i)));
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Returns the bucket of a non-negative duration.
+   */
+  static int bucketOf(long millis) {
+    return millis == 0 ? 0 : 1 + (int) Math.floor(Math.log(millis) / LOG_GAMMA);
+  }
+
+  /**
+   * Returns the representative value of a bucket, the midpoint of its range.
+   */
+  static long valueOf(int bucket) {
+    return bucket == 0 ? 0 : Math.round(Math.pow(GAMMA, bucket - 1) * (1 + GAMMA) / 2);
+  }
+}
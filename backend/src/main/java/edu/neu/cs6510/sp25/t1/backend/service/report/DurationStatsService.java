@@ -0,0 +1,271 @@
+package edu.neu.cs6510.sp25.t1.backend.service.report;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.neu.cs6510.sp25.t1.backend.database.projection.ExecutionDurationRow;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.JobExecutionRepository;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.PipelineExecutionRepository;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.StageExecutionRepository;
+import edu.neu.cs6510.sp25.t1.common.dto.DurationStatsDTO;
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
+
+/**
+ * Service keeping duration statistics (count, mean, min, max, p50/p95/p99) of the successful
+ * executions of every pipeline, stage and job, so they can be reported without scanning the history.
+ * <p>
+ * The statistics of a pipeline are built from the database the first time they are read, with one
+ * query per level, bounded to the most recent {@code report.stats.history-size} executions started in the
+ * last {@code report.stats.history-days} days. From then on
+ * every execution that completes successfully is added as it completes; pipelines whose statistics
+ * were never read are not tracked until they are. Pipeline durations are measured from when the first
+ * stage started running, so like stage and job durations they leave out the time spent waiting for admission.
+ */
+@Service
+public class DurationStatsService {
+  static final String SCOPE_PIPELINE = "pipeline";
+  static final String SCOPE_STAGE = "stage";
+  static final String SCOPE_JOB = "job";
+
+  /** Number of recently recorded execution IDs remembered per pipeline to drop repeated completions. */
+  private static final int RECENT_EXECUTIONS = 1024;
+
+  private final PipelineExecutionRepository pipelineExecutionRepository;
+  private final StageExecutionRepository stageExecutionRepository;
+  private final JobExecutionRepository jobExecutionRepository;
+  private final int historySize;
+  private final Duration historyWindow;
+
+  private final Map<String, PipelineStats> statsByPipeline = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor for DurationStatsService.
+   *
+   * @param pipelineExecutionRepository pipeline execution repository
+   * @param stageExecutionRepository    stage execution repository
+   * @param jobExecutionRepository      job execution repository
+   * @param historySize                 most recent executions per level loaded for a pipeline
+   * @param historyDays                 days back from now the loaded executions may have started
+   */
+  public DurationStatsService(PipelineExecutionRepository pipelineExecutionRepository,
+      StageExecutionRepository stageExecutionRepository,
+      JobExecutionRepository jobExecutionRepository,
+      @Value("${report.stats.history-size:10000}") int historySize,
+      @Value("${report.stats.history-days:90}") int historyDays) {
+    this.pipelineExecutionRepository = pipelineExecutionRepository;
+    this.stageExecutionRepository = stageExecutionRepository;
+    this.jobExecutionRepository = jobExecutionRepository;
+    this.historySize = Math.max(1, historySize);
+    this.historyWindow = Duration.ofDays(Math.max(1, historyDays));
+  }
+
+  /**
+   * Returns the duration statistics of a pipeline, its stages and its jobs.
+   * Without filters, the pipeline comes first, followed by its stages and then its jobs, each in name order.
+   * A stage filter keeps only that stage and its jobs; a job filter keeps only the jobs with that name.
+   *
+   * @param pipelineName the pipeline name
+   * @param stageName    the stage to report on, or null for every stage
+   * @param jobName      the job to report on, or null for every job
+   * @return the statistics, empty if nothing matches the filters
+   */
+  @Transactional(readOnly = true)
+  public List<DurationStatsDTO> getStats(String pipelineName, String stageName, String jobName) {
+    PipelineStats stats = statsOf(pipelineName);
+    List<DurationStatsDTO> result = new ArrayList<>();
+    synchronized (stats) {
+      if (stageName == null && jobName == null) {
+        result.add(toDto(new DurationStatsDTO(SCOPE_PIPELINE, null, null), stats.pipeline));
+      }
+      if (jobName == null) {
+        stats.stages.forEach((stage, histogram) -> {
+          if (stageName == null || stageName.equals(stage)) {
+            result.add(toDto(new DurationStatsDTO(SCOPE_STAGE, stage, null), histogram));
+          }
+        });
+      }
+      stats.jobs.forEach((stage, jobs) -> {
+        if (stageName == null || stageName.equals(stage)) {
+          jobs.forEach((job, histogram) -> {
+            if (jobName == null || jobName.equals(job)) {
+              result.add(toDto(new DurationStatsDTO(SCOPE_JOB, stage, job), histogram));
+            }
+          });
+        }
+      });
+    }
+    return result;
+  }
+
+  /**
+   * Records a successfully completed pipeline execution.
+   *
+   * @param pipelineName   the pipeline name
+   * @param executionId    the pipeline execution ID
+   * @param startTime      when the execution started
+   * @param completionTime when the execution completed
+   */
+  public void recordPipeline(String pipelineName, UUID executionId, Instant startTime, Instant completionTime) {
+    record(pipelineName, new ExecutionDurationRow(executionId, startTime, completionTime));
+  }
+
+  /**
+   * Records a successfully completed stage execution.
+   *
+   * @param pipelineName   the pipeline name
+   * @param stageName      the stage name
+   * @param executionId    the stage execution ID
+   * @param startTime      when the execution started running
+   * @param completionTime when the execution completed
+   */
+  public void recordStage(String pipelineName, String stageName, UUID executionId, Instant startTime,
+      Instant completionTime) {
+    if (stageName != null) {
+      record(pipelineName, new ExecutionDurationRow(executionId, stageName, startTime, completionTime));
+    }
+  }
+
+  /**
+   * Records a successfully completed job execution.
+   *
+   * @param pipelineName   the pipeline name
+   * @param stageName      the name of the stage the job ran in
+   * @param jobName        the job name
+   * @param executionId    the job execution ID
+   * @param startTime      when the execution started running
+   * @param completionTime when the execution completed
+   */
+  public void recordJob(String pipelineName, String stageName, String jobName, UUID executionId, Instant startTime,
+      Instant completionTime) {
+    if (stageName != null && jobName != null) {
+      record(pipelineName, new ExecutionDurationRow(executionId, stageName, jobName, startTime, completionTime));
+    }
+  }
+
+  /**
+   * Adds a completed execution to the statistics of its pipeline, if they are tracked.
+   * Executions recorded shortly before are ignored, so a repeated completion is only counted once.
+   */
+  private void record(String pipelineName, ExecutionDurationRow row) {
+    PipelineStats stats = statsByPipeline.get(pipelineName);
+    if (stats == null || row.startTime() == null || row.completionTime() == null) {
+      return;
+    }
+    synchronized (stats) {
+      if (row.executionId() == null || stats.recentExecutions.add(row.executionId())) {
+        stats.add(row);
+      }
+    }
+  }
+
+  /**
+   * Returns the statistics of a pipeline, loading them the first time they are read.
+   * The empty statistics are registered before the history is queried, outside any lock of the map, so
+   * executions completing during the load are recorded rather than lost. Concurrent readers wait for the
+   * load; if it fails the pipeline is dropped again and the next read retries.
+   */
+  private PipelineStats statsOf(String pipelineName) {
+    PipelineStats stats = statsByPipeline.get(pipelineName);
+    if (stats == null) {
+      PipelineStats created = new PipelineStats();
+      stats = statsByPipeline.putIfAbsent(pipelineName, created);
+      if (stats == null) {
+        stats = created;
+        try {
+          load(pipelineName, created);
+          created.loaded.complete(null);
+        } catch (RuntimeException e) {
+          statsByPipeline.remove(pipelineName, created);
+          created.loaded.completeExceptionally(e);
+          throw e;
+        }
+      }
+    }
+    try {
+      stats.loaded.join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException cause ? cause : e;
+    }
+    return stats;
+  }
+
+  /**
+   * Adds the most recent successful executions of a pipeline to its statistics, skipping the ones
+   * already recorded as they completed while the history was queried.
+   */
+  private void load(String pipelineName, PipelineStats stats) {
+    PageRequest page = PageRequest.of(0, historySize);
+    // Bounding the start time keeps the queries off the partitions older than the window
+    Instant startedSince = Instant.now().minus(historyWindow);
+    List<ExecutionDurationRow> rows = new ArrayList<>(pipelineExecutionRepository
+        .findRecentDurationRowsByPipelineName(pipelineName, ExecutionStatus.SUCCESS, startedSince, page));
+    rows.addAll(stageExecutionRepository
+        .findRecentDurationRowsByPipelineName(pipelineName, ExecutionStatus.SUCCESS, startedSince, page));
+    rows.addAll(jobExecutionRepository
+        .findRecentDurationRowsByPipelineName(pipelineName, ExecutionStatus.SUCCESS, startedSince, page));
+    synchronized (stats) {
+      rows.stream()
+          .filter(row -> row.executionId() == null || !stats.recentExecutions.contains(row.executionId()))
+          .forEach(stats::add);
+    }
+    PipelineLogger.debug("Loaded duration statistics of pipeline {} from {} runs", pipelineName,
+        stats.pipeline.getCount());
+  }
+
+  private static DurationStatsDTO toDto(DurationStatsDTO dto, DurationHistogram histogram) {
+    dto.setCount(histogram.getCount());
+    dto.setMeanMillis(histogram.getMean());
+    dto.setMinMillis(histogram.getMin());
+    dto.setP50Millis(histogram.getPercentile(50));
+    dto.setP95Millis(histogram.getPercentile(95));
+    dto.setP99Millis(histogram.getPercentile(99));
+    dto.setMaxMillis(histogram.getMax());
+    return dto;
+  }
+
+  /**
+   * Histograms of one pipeline, its stages by name and its jobs by stage and job name.
+   */
+  private static final class PipelineStats {
+    private final DurationHistogram pipeline = new DurationHistogram();
+    private final Map<String, DurationHistogram> stages = new TreeMap<>();
+    private final Map<String, Map<String, DurationHistogram>> jobs = new TreeMap<>();
+    /** Completes once the history is loaded; executions completing before that are already recorded. */
+    private final CompletableFuture<Void> loaded = new CompletableFuture<>();
+    private final Set<UUID> recentExecutions = Collections.newSetFromMap(new LinkedHashMap<>() {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<UUID, Boolean> eldest) {
+        return size() > RECENT_EXECUTIONS;
+      }
+    });
+
+    private void add(ExecutionDurationRow row) {
+      long millis = Duration.between(row.startTime(), row.completionTime()).toMillis();
+      if (row.stageName() == null) {
+        pipeline.record(millis);
+      } else if (row.jobName() == null) {
+        stages.computeIfAbsent(row.stageName(), stage -> new DurationHistogram()).record(millis);
+      } else {
+        jobs.computeIfAbsent(row.stageName(), stage -> new TreeMap<>())
+            .computeIfAbsent(row.jobName(), job -> new DurationHistogram()).record(millis);
+      }
+    }
+  }
+}
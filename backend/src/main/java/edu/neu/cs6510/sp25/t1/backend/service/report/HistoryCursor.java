@@ -0,0 +1,48 @@
+package edu.neu.cs6510.sp25.t1.backend.service.report;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in a pipeline's execution history: the (start time, ID) of the last
+ * execution on a page. Clients only ever see it as an opaque URL-safe token.
+ *
+ * @param startTime start time of the last execution returned
+ * @param id        ID of the last execution returned
+ */
+record HistoryCursor(Instant startTime, UUID id) {
+
+  /**
+   * Encodes the cursor as an opaque token.
+   *
+   * @return URL-safe token
+   */
+  String encode() {
+    String raw = startTime + "|" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a token produced by {@link #encode()}.
+   *
+   * @param token the cursor token
+   * @return the decoded cursor
+   * @throws IllegalArgumentException if the token is malformed
+   */
+  static HistoryCursor decode(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int separator = raw.indexOf('|');
+      if (separator < 0) {
+        throw new IllegalArgumentException("Invalid history cursor: " + token);
+      }
+      return new HistoryCursor(Instant.parse(raw.substring(0, separator)),
+          UUID.fromString(raw.substring(separator + 1)));
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid history cursor: " + token, e);
+    }
+  }
+}
@@ -1,21 +1,35 @@
 package edu.neu.cs6510.sp25.t1.backend.service.report;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import edu.neu.cs6510.sp25.t1.backend.database.entity.JobExecutionEntity;
 import edu.neu.cs6510.sp25.t1.backend.database.entity.PipelineExecutionEntity;
-import edu.neu.cs6510.sp25.t1.backend.database.entity.StageExecutionEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.JobReportRow;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.StageReportRow;
 import edu.neu.cs6510.sp25.t1.backend.database.repository.JobExecutionRepository;
 import edu.neu.cs6510.sp25.t1.backend.database.repository.PipelineExecutionRepository;
 import edu.neu.cs6510.sp25.t1.backend.database.repository.StageExecutionRepository;
 import edu.neu.cs6510.sp25.t1.common.dto.JobReportDTO;
+import edu.neu.cs6510.sp25.t1.common.dto.JobReportPageDTO;
 import edu.neu.cs6510.sp25.t1.common.dto.PipelineReportDTO;
+import edu.neu.cs6510.sp25.t1.common.dto.PipelineReportPageDTO;
 import edu.neu.cs6510.sp25.t1.common.dto.StageReportDTO;
+import edu.neu.cs6510.sp25.t1.common.dto.StageReportPageDTO;
 import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
 
 /**
@@ -29,6 +43,12 @@ public class ReportService {
   private final StageExecutionRepository stageExecutionRepository;
   private final JobExecutionRepository jobExecutionRepository;
 
+  @Value("${report.history.default-page-size:20}")
+  private int defaultPageSize = 20;
+
+  @Value("${report.history.max-page-size:100}")
+  private int maxPageSize = 100;
+
   /**
    * Constructor for **ReportService**.
    *
@@ -51,45 +71,50 @@ public class ReportService {
    */
   @Transactional(readOnly = true)
   public List<String> getAvailablePipelines() {
-    return pipelineExecutionRepository.findAll().stream()
-        .map(exec -> pipelineExecutionRepository.findPipelineNameByPipelineId(exec.getPipelineId())
-            .orElse("Unknown Pipeline"))
-        .distinct() // Ensures only unique pipeline names
-        .collect(Collectors.toList());
+    return pipelineExecutionRepository.findDistinctPipelineNames();
   }
 
   /**
-   * Get a list of all pipeline reports for a given pipeline name.
+   * Get one page of the pipeline reports for a given pipeline name, most recent run first.
+   * Pages are addressed by a keyset cursor on (start time, ID), so each page costs the same
+   * regardless of how deep into the history it is. The stages and jobs of the page's runs are
+   * fetched with one query per level.
    *
    * @param pipelineName pipeline name
-   * @return list of pipeline reports
+   * @param cursor       cursor returned with the previous page, or null for the first page
+   * @param limit        maximum number of runs on the page, or null for the default page size
+   * @param summaryOnly  if true, stage and job details are left out of the reports
+   * @return page of pipeline reports with the cursor of the next page, if any
+   * @throws IllegalArgumentException if the cursor is malformed
    */
   @Transactional(readOnly = true)
-  public List<PipelineReportDTO> getPipelineReports(String pipelineName) {
-    List<PipelineExecutionEntity> executions = pipelineExecutionRepository
-        .findByPipelineNameOrderByStartTimeDesc(pipelineName);
-
-    return executions.stream().map(exec -> {
-      String fetchedPipelineName = pipelineExecutionRepository.findPipelineNameByPipelineId(exec.getPipelineId())
-          .orElse(pipelineName);
-      List<StageExecutionEntity> stages = stageExecutionRepository.findByPipelineExecutionId(exec.getId());
-
-      List<StageReportDTO> stageReports = stages.stream()
-          .map(this::createStageReport)
-          .collect(Collectors.toList());
-
-      ExecutionStatus pipelineStatus = calculatePipelineStatus(stages);
-
-      return new PipelineReportDTO(
-          exec.getId(),
-          fetchedPipelineName,
-          exec.getRunNumber(),
-          exec.getCommitHash(),
-          pipelineStatus,
-          exec.getStartTime(),
-          exec.getCompletionTime(),
-          stageReports);
-    }).collect(Collectors.toList());
+  public PipelineReportPageDTO getPipelineReportPage(String pipelineName, String cursor, Integer limit,
+      boolean summaryOnly) {
+    RunPage page = findRunPage(pipelineName, cursor, limit);
+    List<PipelineExecutionEntity> executions = page.executions();
+    if (executions.isEmpty()) {
+      return new PipelineReportPageDTO(List.of(), null);
+    }
+
+    List<UUID> executionIds = executions.stream().map(PipelineExecutionEntity::getId).toList();
+    Instant startedSince = earliestChildStartTime(executions);
+    Map<UUID, List<StageReportRow>> stagesByExecution = groupBy(
+        stageExecutionRepository.findStageReportRowsByPipelineExecutionIdIn(executionIds, startedSince),
+        StageReportRow::pipelineExecutionId);
+    Map<UUID, List<JobReportRow>> jobsByStage = summaryOnly ? Map.of() : groupBy(
+        jobExecutionRepository.findJobReportRowsByPipelineExecutionIdIn(executionIds, startedSince),
+        JobReportRow::stageExecutionId);
+
+    List<PipelineReportDTO> reports = new ArrayList<>();
+    for (PipelineExecutionEntity exec : executions) {
+      PipelineReportDTO report = createPipelineReport(exec, pipelineName,
+          stagesByExecution.getOrDefault(exec.getId(), List.of()), jobsByStage);
+      if (summaryOnly) {
+        report.setStages(List.of());
+      }
+      reports.add(report);
+    }
+    return new PipelineReportPageDTO(reports, page.nextCursor());
   }
 
   /**
@@ -107,23 +132,14 @@ public class ReportService {
         runNumber)
         .orElseThrow(() -> new IllegalArgumentException("Pipeline execution not found for run: " + runNumber));
 
-    List<StageExecutionEntity> stages = stageExecutionRepository.findByPipelineExecutionId(pipelineExecution.getId());
+    Instant startedSince = pipelineExecution.earliestChildStartTime();
+    List<StageReportRow> stages = stageExecutionRepository
+        .findStageReportRowsByPipelineExecutionId(pipelineExecution.getId(), startedSince);
+    Map<UUID, List<JobReportRow>> jobsByStage = groupBy(
+        jobExecutionRepository.findJobReportRowsByPipelineExecutionId(pipelineExecution.getId(), startedSince),
+        JobReportRow::stageExecutionId);
 
-    List<StageReportDTO> stageReports = stages.stream()
-        .map(this::createStageReport)
-        .collect(Collectors.toList());
-
-    ExecutionStatus pipelineStatus = calculatePipelineStatus(stages);
-
-    return new PipelineReportDTO(
-        pipelineExecution.getId(),
-        pipelineName,
-        pipelineExecution.getRunNumber(),
-        pipelineExecution.getCommitHash(),
-        pipelineStatus,
-        pipelineExecution.getStartTime(),
-        pipelineExecution.getCompletionTime(),
-        stageReports);
+    return createPipelineReport(pipelineExecution, pipelineName, stages, jobsByStage);
   }
 
   /**
@@ -137,21 +153,18 @@ public class ReportService {
    */
   @Transactional(readOnly = true)
   public StageReportDTO getStageReport(String pipelineName, int runNumber, String stageName) {
-    UUID pipelineId = pipelineExecutionRepository.findPipelineIdByName(pipelineName)
-        .orElseThrow(() -> new IllegalArgumentException("Pipeline not found: " + pipelineName));
-
-    PipelineExecutionEntity pipelineExecution = pipelineExecutionRepository
-        .findByPipelineIdAndRunNumber(pipelineId, runNumber)
-        .orElseThrow(() -> new IllegalArgumentException("Pipeline execution not found for run: " + runNumber));
+    PipelineExecutionEntity pipelineExecution = findPipelineExecution(pipelineName, runNumber);
 
-    List<StageExecutionEntity> stages = stageExecutionRepository
-        .findByPipelineExecutionIdAndStageNameOrderByStartTimeDesc(pipelineExecution.getId(), stageName);
+    List<StageReportRow> stages = stageExecutionRepository
+        .findStageReportRowsByPipelineExecutionIdAndStageName(pipelineExecution.getId(), stageName);
 
     if (stages.isEmpty()) {
       throw new IllegalArgumentException("No executions found for stage: " + stageName);
     }
 
-    return createStageReport(stages.getFirst()); // Get the most recent execution
+    StageReportRow stage = stages.getFirst(); // Get the most recent execution
+    return createStageReport(stage, pipelineExecution, pipelineName,
+        jobExecutionRepository.findJobReportRowsByStageExecutionId(stage.id()));
   }
 
   /**
@@ -166,208 +179,279 @@ public class ReportService {
    */
   @Transactional(readOnly = true)
   public JobReportDTO getJobReport(String pipelineName, int runNumber, String stageName, String jobName) {
-    UUID pipelineId = pipelineExecutionRepository.findPipelineIdByName(pipelineName)
-        .orElseThrow(() -> new IllegalArgumentException("Pipeline not found: " + pipelineName));
-
-    PipelineExecutionEntity pipelineExecution = pipelineExecutionRepository
-        .findByPipelineIdAndRunNumber(pipelineId, runNumber)
-        .orElseThrow(() -> new IllegalArgumentException("Pipeline execution not found for run: " + runNumber));
+    PipelineExecutionEntity pipelineExecution = findPipelineExecution(pipelineName, runNumber);
 
-    List<StageExecutionEntity> stages = stageExecutionRepository
-        .findByPipelineExecutionIdAndStageNameOrderByStartTimeDesc(pipelineExecution.getId(), stageName);
+    List<StageReportRow> stages = stageExecutionRepository
+        .findStageReportRowsByPipelineExecutionIdAndStageName(pipelineExecution.getId(), stageName);
 
     if (stages.isEmpty()) {
       throw new IllegalArgumentException("Stage execution not found for stage: " + stageName);
     }
 
-    StageExecutionEntity stageExecution = stageExecutionRepository.findById(stages.getFirst().getId())
-        .orElseThrow(() -> new IllegalArgumentException("Stage Execution not found"));
-
-    List<JobExecutionEntity> jobs = jobExecutionRepository
-        .findByStageExecutionAndJobNameOrderByStartTimeDesc(stageExecution.getId(), jobName);
+    List<JobReportRow> jobs = jobExecutionRepository
+        .findJobReportRowsByStageExecutionIdAndJobName(stages.getFirst().id(), jobName);
 
     if (jobs.isEmpty()) {
       throw new IllegalArgumentException("Job execution not found for job: " + jobName);
     }
 
-    JobExecutionEntity job = jobs.getFirst(); // Get the most recent execution
-    JobReportDTO report = new JobReportDTO(
-        jobExecutionRepository.findJobNameByJobId(job.getJobId()).orElse(jobName),
-        List.of(new JobReportDTO.ExecutionRecord(
-            job.getId(),
-            job.getStatus(),
-            job.getStartTime(),
-            job.getCompletionTime(),
-            job.isAllowFailure())));
-
-    report.setPipelineName(pipelineName);
-    report.setRunNumber(runNumber);
-    report.setCommitHash(pipelineExecution.getCommitHash());
-    report.setStageName(stageName);
-
-    return report;
+    return createJobReport(jobs.getFirst(), pipelineExecution, pipelineName, stageName); // Most recent execution
   }
 
   /**
-   * Get all stage reports for a specific stage name across all pipeline runs.
+   * Get one page of the reports of a stage across pipeline runs, most recent run first.
+   * Pages hold the stage executions of up to {@code limit} runs and share the keyset cursor of
+   * {@link #getPipelineReportPage}.
    *
    * @param pipelineName pipeline name
    * @param stageName    stage name
-   * @return list of stage reports
+   * @param cursor       cursor returned with the previous page, or null for the first page
+   * @param limit        maximum number of runs on the page, or null for the default page size
+   * @return page of stage reports with the cursor of the next page, if any
+   * @throws IllegalArgumentException if the cursor is malformed
    */
   @Transactional(readOnly = true)
-  public List<StageReportDTO> getStageReports(String pipelineName, String stageName) {
-//    UUID pipelineId = pipelineExecutionRepository.findPipelineIdByName(pipelineName)
-//        .orElseThrow(() -> new IllegalArgumentException("Pipeline not found: " + pipelineName));
-
-    List<PipelineExecutionEntity> pipelineExecutions = pipelineExecutionRepository
-        .findByPipelineNameOrderByStartTimeDesc(pipelineName);
-
-    return pipelineExecutions.stream()
-        .flatMap(exec -> {
-          try {
-            List<StageExecutionEntity> stages = stageExecutionRepository
-                .findByPipelineExecutionIdAndStageNameOrderByStartTimeDesc(exec.getId(), stageName);
-            return stages.stream().map(this::createStageReport);
-          } catch (Exception e) {
-            return java.util.stream.Stream.empty();
-          }
-        })
-        .collect(Collectors.toList());
+  public StageReportPageDTO getStageReportPage(String pipelineName, String stageName, String cursor,
+      Integer limit) {
+    RunPage page = findRunPage(pipelineName, cursor, limit);
+    if (page.executions().isEmpty()) {
+      return new StageReportPageDTO(List.of(), null);
+    }
+
+    List<UUID> executionIds = page.executions().stream().map(PipelineExecutionEntity::getId).toList();
+    Instant startedSince = earliestChildStartTime(page.executions());
+    Map<UUID, List<StageReportRow>> stagesByExecution = groupBy(stageExecutionRepository
+        .findStageReportRowsByPipelineExecutionIdInAndStageName(executionIds, stageName, startedSince),
+        StageReportRow::pipelineExecutionId);
+    Map<UUID, List<JobReportRow>> jobsByStage = groupBy(jobExecutionRepository
+        .findJobReportRowsByPipelineExecutionIdInAndStageName(executionIds, stageName, startedSince),
+        JobReportRow::stageExecutionId);
+
+    List<StageReportDTO> reports = new ArrayList<>();
+    for (PipelineExecutionEntity exec : page.executions()) {
+      for (StageReportRow stage : stagesByExecution.getOrDefault(exec.getId(), List.of())) {
+        reports.add(createStageReport(stage, exec, pipelineName, jobsByStage.getOrDefault(stage.id(), List.of())));
+      }
+    }
+    return new StageReportPageDTO(reports, page.nextCursor());
   }
 
   /**
-   * Get all job reports for a specific job in a specific stage across all
-   * pipeline runs.
+   * Get one page of the reports of a job in a stage across pipeline runs, most recent run first.
+   * For each run, the most recent execution of the job in the most recent execution of the stage
+   * is reported. Pages share the keyset cursor of {@link #getPipelineReportPage}.
    *
    * @param pipelineName pipeline name
    * @param stageName    stage name
    * @param jobName      job name
-   * @return list of job reports
+   * @param cursor       cursor returned with the previous page, or null for the first page
+   * @param limit        maximum number of runs on the page, or null for the default page size
+   * @return page of job reports with the cursor of the next page, if any
+   * @throws IllegalArgumentException if the cursor is malformed
    */
   @Transactional(readOnly = true)
-  public List<JobReportDTO> getJobReportsForStage(String pipelineName, String stageName, String jobName) {
-//    UUID pipelineId = pipelineExecutionRepository.findPipelineIdByName(pipelineName)
-//        .orElseThrow(() -> new IllegalArgumentException("Pipeline not found: " + pipelineName));
-
-    // Get all pipeline executions
-    List<PipelineExecutionEntity> pipelineExecutions = pipelineExecutionRepository
-        .findByPipelineNameOrderByStartTimeDesc(pipelineName);
-
-    // For each pipeline execution find the specified stage and job
-    return pipelineExecutions.stream()
-        .flatMap(exec -> {
-          try {
-            List<StageExecutionEntity> stages = stageExecutionRepository
-                .findByPipelineExecutionIdAndStageNameOrderByStartTimeDesc(exec.getId(), stageName);
-            if (stages.isEmpty()) {
-              return java.util.stream.Stream.empty();
-            }
-
-            StageExecutionEntity stageExecution = stages.getFirst();
-            List<JobExecutionEntity> jobs = jobExecutionRepository
-                .findByStageExecutionAndJobNameOrderByStartTimeDesc(stageExecution.getId(), jobName);
-
-            if (jobs.isEmpty()) {
-              return java.util.stream.Stream.empty();
-            }
-
-            JobExecutionEntity job = jobs.getFirst();
-            JobReportDTO report = new JobReportDTO(
-                jobExecutionRepository.findJobNameByJobId(job.getJobId()).orElse(jobName),
-                List.of(new JobReportDTO.ExecutionRecord(
-                    job.getId(),
-                    job.getStatus(),
-                    job.getStartTime(),
-                    job.getCompletionTime(),
-                    job.isAllowFailure())));
-
-            // Set the additional fields
-            report.setPipelineName(pipelineName);
-            report.setRunNumber(exec.getRunNumber());
-            report.setCommitHash(exec.getCommitHash());
-            report.setStageName(stageName);
-
-            return java.util.stream.Stream.of(report);
-          } catch (Exception e) {
-            // Skip if any exception occurs
-            return java.util.stream.Stream.empty();
-          }
-        })
-        .collect(Collectors.toList());
+  public JobReportPageDTO getJobReportPage(String pipelineName, String stageName, String jobName, String cursor,
+      Integer limit) {
+    RunPage page = findRunPage(pipelineName, cursor, limit);
+    if (page.executions().isEmpty()) {
+      return new JobReportPageDTO(List.of(), null);
+    }
+
+    // Rows are ordered most recent first, so the first row per key is the latest execution
+    List<UUID> executionIds = page.executions().stream().map(PipelineExecutionEntity::getId).toList();
+    Instant startedSince = earliestChildStartTime(page.executions());
+    Map<UUID, StageReportRow> latestStageByExecution = new HashMap<>();
+    stageExecutionRepository
+        .findStageReportRowsByPipelineExecutionIdInAndStageName(executionIds, stageName, startedSince)
+        .forEach(stage -> latestStageByExecution.putIfAbsent(stage.pipelineExecutionId(), stage));
+    Map<UUID, JobReportRow> latestJobByStage = new HashMap<>();
+    jobExecutionRepository
+        .findJobReportRowsByPipelineExecutionIdInAndStageNameAndJobName(executionIds, stageName, jobName,
+            startedSince)
+        .forEach(job -> latestJobByStage.putIfAbsent(job.stageExecutionId(), job));
+
+    List<JobReportDTO> reports = new ArrayList<>();
+    for (PipelineExecutionEntity exec : page.executions()) {
+      StageReportRow stage = latestStageByExecution.get(exec.getId());
+      JobReportRow job = stage == null ? null : latestJobByStage.get(stage.id());
+      if (job != null) {
+        reports.add(createJobReport(job, exec, pipelineName, stageName));
+      }
+    }
+    return new JobReportPageDTO(reports, page.nextCursor());
   }
 
   /**
-   * Helper method to create a stage report from a stage execution entity.
+   * Fetches one page of the runs of a pipeline, most recent first, by a keyset cursor on (start time, ID),
+   * so each page costs the same regardless of how deep into the history it is.
    *
-   * @param stage stage execution entity
-   * @return stage report
+   * @param pipelineName pipeline name
+   * @param cursor       cursor returned with the previous page, or null for the first page
+   * @param limit        maximum number of runs on the page, or null for the default page size
+   * @return the runs of the page with the cursor of the next page, if any
+   * @throws IllegalArgumentException if the cursor is malformed
    */
-  private StageReportDTO createStageReport(StageExecutionEntity stage) {
-    StageExecutionEntity stageExecution = stageExecutionRepository.findById(stage.getId())
-        .orElseThrow(() -> new IllegalArgumentException("Stage Execution not found"));
+  private RunPage findRunPage(String pipelineName, String cursor, Integer limit) {
+    int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+    // Fetch one extra row to find out whether another page follows
+    Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+    List<PipelineExecutionEntity> executions;
+    if (cursor == null || cursor.isBlank()) {
+      executions = pipelineExecutionRepository.findHistoryPage(pipelineName, pageable);
+    } else {
+      HistoryCursor after = HistoryCursor.decode(cursor);
+      executions = pipelineExecutionRepository.findHistoryPageAfter(pipelineName, after.startTime(), after.id(),
+          pageable);
+    }
 
-    // Find the pipeline execution for this stage
-    UUID pipelineExecutionId = stage.getPipelineExecutionId();
-    PipelineExecutionEntity pipelineExecution = pipelineExecutionRepository.findById(pipelineExecutionId)
-        .orElseThrow(() -> new IllegalArgumentException("Pipeline Execution not found"));
+    String nextCursor = null;
+    if (executions.size() > pageSize) {
+      executions = executions.subList(0, pageSize);
+      PipelineExecutionEntity last = executions.getLast();
+      nextCursor = new HistoryCursor(last.getStartTime(), last.getId()).encode();
+    }
+    return new RunPage(executions, nextCursor);
+  }
 
-    // Get pipeline name from pipeline entity
-    String pipelineName = pipelineExecutionRepository.findPipelineNameByPipelineId(pipelineExecution.getPipelineId())
-        .orElse("Unknown Pipeline");
+  /**
+   * Helper method to look up a pipeline execution by pipeline name and run number.
+   *
+   * @param pipelineName pipeline name
+   * @param runNumber    run number
+   * @return pipeline execution entity
+   */
+  private PipelineExecutionEntity findPipelineExecution(String pipelineName, int runNumber) {
+    UUID pipelineId = pipelineExecutionRepository.findPipelineIdByName(pipelineName)
+        .orElseThrow(() -> new IllegalArgumentException("Pipeline not found: " + pipelineName));
+
+    return pipelineExecutionRepository
+        .findByPipelineIdAndRunNumber(pipelineId, runNumber)
+        .orElseThrow(() -> new IllegalArgumentException("Pipeline execution not found for run: " + runNumber));
+  }
+
+  /**
+   * Helper method to create a pipeline report from already fetched stage and job rows.
+   *
+   * @param pipelineExecution pipeline execution entity
+   * @param pipelineName      pipeline name
+   * @param stages            stage rows of the pipeline execution
+   * @param jobsByStage       job rows keyed by stage execution ID
+   * @return pipeline report
+   */
+  private PipelineReportDTO createPipelineReport(PipelineExecutionEntity pipelineExecution, String pipelineName,
+      List<StageReportRow> stages, Map<UUID, List<JobReportRow>> jobsByStage) {
+    List<StageReportDTO> stageReports = stages.stream()
+        .map(stage -> createStageReport(stage, pipelineExecution, pipelineName,
+            jobsByStage.getOrDefault(stage.id(), List.of())))
+        .collect(Collectors.toList());
 
-    // Get stage name
-    String stageName = stageExecutionRepository.findStageNameByStageId(stage.getStageId())
-        .orElse("Unknown Stage");
+    ExecutionStatus pipelineStatus = calculatePipelineStatus(
+        stages.stream().map(StageReportRow::status).collect(Collectors.toList()));
 
-    List<JobExecutionEntity> jobs = jobExecutionRepository.findByStageExecution(stageExecution);
+    return new PipelineReportDTO(
+        pipelineExecution.getId(),
+        pipelineName,
+        pipelineExecution.getRunNumber(),
+        pipelineExecution.getCommitHash(),
+        pipelineStatus,
+        pipelineExecution.getStartTime(),
+        pipelineExecution.getCompletionTime(),
+        stageReports);
+  }
+
+  /**
+   * Helper method to create a stage report from already fetched stage and job rows.
+   *
+   * @param stage             stage row
+   * @param pipelineExecution pipeline execution the stage belongs to
+   * @param pipelineName      pipeline name
+   * @param jobs              job rows of the stage execution
+   * @return stage report
+   */
+  private StageReportDTO createStageReport(StageReportRow stage, PipelineExecutionEntity pipelineExecution,
+      String pipelineName, List<JobReportRow> jobs) {
+    String stageName = stage.stageName() != null ? stage.stageName() : "Unknown Stage";
 
     List<JobReportDTO> jobReports = jobs.stream()
-        .map(job -> {
-          String jobName = jobExecutionRepository.findJobNameByJobId(job.getJobId()).orElse("Unknown Job");
-          JobReportDTO jobReport = new JobReportDTO(
-              jobName,
-              List.of(new JobReportDTO.ExecutionRecord(
-                  job.getId(),
-                  job.getStatus(),
-                  job.getStartTime(),
-                  job.getCompletionTime(),
-                  job.isAllowFailure())));
-
-          // Set the additional fields for each job
-          jobReport.setPipelineName(pipelineName);
-          jobReport.setRunNumber(pipelineExecution.getRunNumber());
-          jobReport.setCommitHash(pipelineExecution.getCommitHash());
-          jobReport.setStageName(stageName);
-
-          return jobReport;
-        }).toList();
+        .map(job -> createJobReport(job, pipelineExecution, pipelineName, stageName))
+        .toList();
 
     return new StageReportDTO(
-        stage.getId(),
+        stage.id(),
         stageName,
-        stage.getStatus(),
-        stage.getStartTime(),
-        stage.getCompletionTime(),
+        stage.status(),
+        stage.startTime(),
+        stage.completionTime(),
         jobReports);
   }
 
+  /**
+   * Helper method to create a job report from a job row.
+   *
+   * @param job               job row
+   * @param pipelineExecution pipeline execution the job belongs to
+   * @param pipelineName      pipeline name
+   * @param stageName         stage name
+   * @return job report
+   */
+  private JobReportDTO createJobReport(JobReportRow job, PipelineExecutionEntity pipelineExecution,
+      String pipelineName, String stageName) {
+    JobReportDTO jobReport = new JobReportDTO(
+        job.jobName() != null ? job.jobName() : "Unknown Job",
+        List.of(new JobReportDTO.ExecutionRecord(
+            job.id(),
+            job.status(),
+            job.startTime(),
+            job.completionTime(),
+            job.allowFailure())));
+
+    jobReport.setPipelineName(pipelineName);
+    jobReport.setRunNumber(pipelineExecution.getRunNumber());
+    jobReport.setCommitHash(pipelineExecution.getCommitHash());
+    jobReport.setStageName(stageName);
+
+    return jobReport;
+  }
+
+  /**
+   * Groups rows by a key, keeping the query order within each group.
+   *
+   * @param rows  rows to group
+   * @param key   key extractor
+   * @param <T>   row type
+   * @return rows keyed by the extracted key
+   */
+  private static <T> Map<UUID, List<T>> groupBy(List<T> rows, Function<T, UUID> key) {
+    return rows.stream().collect(Collectors.groupingBy(key, LinkedHashMap::new, Collectors.toList()));
+  }
+
+  /**
+   * Lower bound on the start time of the stage and job executions of the given pipeline executions,
+   * so the queries fetching them only scan the partitions those runs can be in.
+   *
+   * @param executions pipeline executions, not empty
+   * @return earliest child start time over the executions
+   */
+  private static Instant earliestChildStartTime(Collection<PipelineExecutionEntity> executions) {
+    return executions.stream().map(PipelineExecutionEntity::earliestChildStartTime)
+        .min(Comparator.naturalOrder()).orElseThrow();
+  }
+
   /**
    * Calculate the pipeline status based on the statuses of its stages.
    *
-   * @param stages list of stage execution entities
+   * @param stageStatuses statuses of the stage executions
    * @return pipeline status
    */
-  private ExecutionStatus calculatePipelineStatus(List<StageExecutionEntity> stages) {
+  private ExecutionStatus calculatePipelineStatus(List<ExecutionStatus> stageStatuses) {
     boolean hasFailed = false;
     boolean hasCanceled = false;
     boolean hasRunning = false;
     boolean hasPending = false;
     boolean hasSuccess = false;
 
-    for (StageExecutionEntity stage : stages) {
-      ExecutionStatus status = stage.getStatus();
-
+    for (ExecutionStatus status : stageStatuses) {
       switch (status) {
         case FAILED:
           hasFailed = true;
@@ -407,4 +491,13 @@ public class ReportService {
     // Default to PENDING if list is empty
     return ExecutionStatus.PENDING;
   }
-}
\ No newline at end of file
+
+  /**
+   * One page of the runs of a pipeline.
+   *
+   * @param executions the runs on the page, most recent first
+   * @param nextCursor cursor of the following page, or null on the last page
+   */
+  private record RunPage(List<PipelineExecutionEntity> executions, String nextCursor) {
+  }
+}
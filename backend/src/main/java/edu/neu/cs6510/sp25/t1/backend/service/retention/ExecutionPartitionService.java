@@ -0,0 +1,190 @@
+package edu.neu.cs6510.sp25.t1.backend.service.retention;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import edu.neu.cs6510.sp25.t1.backend.service.log.LogTieringService;
+import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
+
+/**
+ * Service maintaining the monthly partitions of the execution tables and applying the retention policy.
+ * <p>
+ * {@code pipeline_executions}, {@code stage_executions} and {@code job_executions} are partitioned by month of
+ * start time and {@code execution_logs} by month of timestamp, one partition per month named
+ * {@code <table>_pYYYYMM}. Partitions are created {@code execution.partitions.months-ahead} months in advance,
+ * so new rows never land in the default partition. With {@code execution.retention.months} set, the partitions
+ * of older months are dropped from every table, which removes their history without deleting row by row.
+ * The log chunks and segments of the job executions in a dropped month are deleted with them.
+ * <p>
+ * Each table is dropped by the month of its own rows. Stage and job executions start after their pipeline
+ * execution, usually in the same month, but a stage or job that started in the next month is only dropped
+ * one month after its pipeline execution.
+ */
+@Service
+public class ExecutionPartitionService {
+
+  /** Partitioned tables, children before parents. */
+  static final List<String> TABLES = List.of("execution_logs", "job_executions", "stage_executions",
+      "pipeline_executions");
+
+  private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("uuuuMM");
+
+  private static final String FIND_PARTITIONS = "SELECT child.relname FROM pg_inherits "
+      + "JOIN pg_class parent ON parent.oid = pg_inherits.inhparent "
+      + "JOIN pg_class child ON child.oid = pg_inherits.inhrelid WHERE parent.relname = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final LogTieringService logTieringService;
+  private final int monthsAhead;
+  private final int retentionMonths;
+
+  /**
+   * Constructor for ExecutionPartitionService.
+   *
+   * @param jdbcTemplate      template running the partition statements
+   * @param logTieringService service deleting the log segments of dropped job executions
+   * @param monthsAhead       number of months after the current one to create partitions for
+   * @param retentionMonths   number of months before the current one to keep, 0 to keep all history
+   */
+  public ExecutionPartitionService(JdbcTemplate jdbcTemplate, LogTieringService logTieringService,
+      @Value("${execution.partitions.months-ahead:3}") int monthsAhead,
+      @Value("${execution.retention.months:0}") int retentionMonths) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.logTieringService = logTieringService;
+    this.monthsAhead = Math.max(1, monthsAhead);
+    this.retentionMonths = Math.max(0, retentionMonths);
+  }
+
+  /**
+   * Creates the partitions of the coming months, then drops the partitions past the retention period.
+   */
+  @Scheduled(fixedDelayString = "${execution.partitions.interval-ms:3600000}")
+  public void maintainPartitions() {
+    try {
+      createPartitions();
+      dropExpiredPartitions();
+    } catch (DataAccessException e) {
+      PipelineLogger.warn("Execution partition maintenance failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Creates the missing partitions of every table from the current month to {@code months-ahead} months on.
+   * A partition cannot be created while the default partition holds rows of its month; that is logged and
+   * the rows stay in the default partition.
+   *
+   * @return the number of partitions created
+   */
+  public int createPartitions() {
+    YearMonth current = YearMonth.now();
+    int created = 0;
+    for (String table : TABLES) {
+      Set<String> existing = new HashSet<>(findPartitions(table));
+      for (int i = 0; i <= monthsAhead; i++) {
+        YearMonth month = current.plusMonths(i);
+        String partition = partitionName(table, month);
+        if (existing.contains(partition)) {
+          continue;
+        }
+        try {
+          jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + table
+              + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+          created++;
+        } catch (DataAccessException e) {
+          PipelineLogger.warn("Failed to create partition {}: {}", partition, e.getMessage());
+        }
+      }
+    }
+    if (created > 0) {
+      PipelineLogger.info("Created {} execution table partitions", created);
+    }
+    return created;
+  }
+
+  /**
+   * Drops the partitions of months before the retention period from every table, children first.
+   * The log chunks and segments of the job executions of a dropped month are deleted before their partition,
+   * then any log chunk written before the retention period.
+   *
+   * @return the number of partitions dropped, 0 if retention is disabled
+   */
+  public int dropExpiredPartitions() {
+    if (retentionMonths == 0) {
+      return 0;
+    }
+    YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+    int dropped = 0;
+    for (String table : TABLES) {
+      for (String partition : findPartitions(table)) {
+        YearMonth month = monthOf(table, partition);
+        if (month != null && month.isBefore(oldestKept)) {
+          if (table.equals("job_executions")) {
+            deleteJobLogs(partition);
+          }
+          jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+          dropped++;
+          PipelineLogger.info("Dropped partition {} of {}", partition, table);
+        }
+      }
+    }
+    if (dropped > 0) {
+      int chunks = jdbcTemplate.update("DELETE FROM execution_log_chunks WHERE created_at < ?",
+          Timestamp.valueOf(oldestKept.atDay(1).atStartOfDay()));
+      PipelineLogger.debug("Deleted {} log chunks older than {}", chunks, oldestKept);
+    }
+    return dropped;
+  }
+
+  /**
+   * Deletes the log chunks and segments of the job executions in a partition of job_executions. They are
+   * matched by job execution rather than by creation time, as a log is written and sealed after its job
+   * started, possibly in a later month.
+   */
+  private void deleteJobLogs(String partition) {
+    List<UUID> segmented = jdbcTemplate.queryForList("SELECT s.job_execution_id FROM execution_log_segments s "
+        + "JOIN " + partition + " j ON j.id = s.job_execution_id", UUID.class);
+    int segments = logTieringService.deleteSegments(segmented);
+    int chunks = jdbcTemplate.update("DELETE FROM execution_log_chunks WHERE job_execution_id IN (SELECT id FROM "
+        + partition + ")");
+    PipelineLogger.debug(() -> "Deleted " + segments + " log segments and " + chunks + " log chunks of "
+        + partition);
+  }
+
+  /**
+   * Lists the partitions of a table, including its default partition.
+   */
+  private List<String> findPartitions(String table) {
+    return jdbcTemplate.queryForList(FIND_PARTITIONS, String.class, table);
+  }
+
+  static String partitionName(String table, YearMonth month) {
+    return table + "_p" + PARTITION_MONTH.format(month);
+  }
+
+  /**
+   * Returns the month of a monthly partition of a table, or null for any other partition.
+   */
+  static YearMonth monthOf(String table, String partition) {
+    String prefix = table + "_p";
+    if (!partition.startsWith(prefix) || partition.length() != prefix.length() + 6) {
+      return null;
+    }
+    try {
+      return YearMonth.parse(partition.substring(prefix.length()), PARTITION_MONTH);
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package edu.neu.cs6510.sp25.t1.backend.service.status;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+
+/**
+ * A state transition of a pipeline, stage or job execution, pushed to status watchers.
+ *
+ * @param scope               whether the transition concerns the pipeline, a stage or a job
+ * @param pipelineName        the pipeline name
+ * @param pipelineExecutionId the pipeline execution the transition belongs to
+ * @param executionId         the ID of the pipeline, stage or job execution that changed
+ * @param name                the pipeline, stage or job name
+ * @param status              the new status
+ * @param timestamp           when the transition was observed
+ */
+public record StatusEvent(
+    Scope scope,
+    String pipelineName,
+    UUID pipelineExecutionId,
+    UUID executionId,
+    String name,
+    ExecutionStatus status,
+    Instant timestamp) {
+
+  /**
+   * Level of the execution hierarchy a status event concerns.
+   */
+  public enum Scope {
+    PIPELINE,
+    STAGE,
+    JOB
+  }
+}
@@ -0,0 +1,135 @@
+package edu.neu.cs6510.sp25.t1.backend.service.status;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import edu.neu.cs6510.sp25.t1.backend.config.KeyedSerialExecutor;
+import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * In-process publish/subscribe bus for status transitions.
+ * Each transition is computed once and handed to every watcher of the pipeline, so the
+ * cost of a transition does not grow with the number of watchers beyond the fan-out itself.
+ * <p>
+ * Transitions published inside a transaction are held back until it commits, so watchers never see a
+ * status that is rolled back or not yet readable, and are dropped if it rolls back. The fan-out runs on
+ * the status fan-out executor, one pipeline at a time in publication order, so slow watchers hold up
+ * neither the publisher nor its transaction.
+ */
+@Component
+public class StatusEventBus {
+
+  /** Watchers per pipeline name. */
+  private final Map<String, Set<Consumer<StatusEvent>>> subscribers = new ConcurrentHashMap<>();
+
+  private final KeyedSerialExecutor fanOutExecutor;
+
+  /**
+   * Constructs a new StatusEventBus.
+   *
+   * @param fanOutExecutor executor handing transitions to the watchers
+   */
+  public StatusEventBus(@Qualifier("statusFanOutExecutor") Executor fanOutExecutor) {
+    this.fanOutExecutor = new KeyedSerialExecutor(fanOutExecutor);
+  }
+
+  /**
+   * Registers a watcher for the status transitions of a pipeline.
+   *
+   * @param pipelineName the pipeline to watch
+   * @param subscriber   callback invoked for every transition of the pipeline
+   * @return action that unregisters the watcher
+   */
+  public Runnable subscribe(String pipelineName, Consumer<StatusEvent> subscriber) {
+    // Added inside compute, so a concurrent last unsubscribe cannot drop the set the watcher is added to
+    subscribers.compute(pipelineName, (name, watchers) -> {
+      Set<Consumer<StatusEvent>> updated = watchers == null ? new CopyOnWriteArraySet<>() : watchers;
+      updated.add(subscriber);
+      return updated;
+    });
+    return () -> subscribers.computeIfPresent(pipelineName, (name, watchers) -> {
+      watchers.remove(subscriber);
+      return watchers.isEmpty() ? null : watchers;
+    });
+  }
+
+  /**
+   * Hands a status transition to every watcher of its pipeline. Inside a transaction, the transition is
+   * delivered once the transaction commits, together with the others published by it.
+   *
+   * @param event the status transition
+   */
+  public void publish(StatusEvent event) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      fanOut(List.of(event));
+      return;
+    }
+    @SuppressWarnings("unchecked")
+    List<StatusEvent> pending = (List<StatusEvent>) TransactionSynchronizationManager.getResource(this);
+    if (pending == null) {
+      List<StatusEvent> events = new ArrayList<>();
+      TransactionSynchronizationManager.bindResource(this, events);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(StatusEventBus.this);
+          if (status == STATUS_COMMITTED) {
+            fanOut(events);
+          }
+        }
+      });
+      pending = events;
+    }
+    pending.add(event);
+  }
+
+  /**
+   * Schedules the delivery of transitions on the fan-out executor, after the transitions of the same
+   * pipeline published earlier.
+   */
+  private void fanOut(List<StatusEvent> events) {
+    for (StatusEvent event : events) {
+      fanOutExecutor.execute(event.pipelineName(), () -> deliver(event));
+    }
+  }
+
+  /**
+   * Hands a status transition to every watcher of its pipeline.
+   * A failing watcher is logged and does not prevent delivery to the others.
+   */
+  private void deliver(StatusEvent event) {
+    Set<Consumer<StatusEvent>> watchers = subscribers.get(event.pipelineName());
+    if (watchers == null) {
+      return;
+    }
+    for (Consumer<StatusEvent> watcher : watchers) {
+      try {
+        watcher.accept(event);
+      } catch (RuntimeException e) {
+        PipelineLogger.warn("Status watcher of pipeline {} failed: {}", event.pipelineName(), e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Returns the number of watchers of a pipeline.
+   *
+   * @param pipelineName the pipeline name
+   * @return watcher count
+   */
+  public int getSubscriberCount(String pipelineName) {
+    Set<Consumer<StatusEvent>> watchers = subscribers.get(pipelineName);
+    return watchers == null ? 0 : watchers.size();
+  }
+}
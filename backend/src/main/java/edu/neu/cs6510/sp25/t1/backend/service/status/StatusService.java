@@ -1,22 +1,24 @@
 package edu.neu.cs6510.sp25.t1.backend.service.status;
 
+import edu.neu.cs6510.sp25.t1.backend.database.entity.JobExecutionEntity;
 import edu.neu.cs6510.sp25.t1.backend.database.entity.PipelineEntity;
 import edu.neu.cs6510.sp25.t1.backend.database.entity.PipelineExecutionEntity;
-import edu.neu.cs6510.sp25.t1.backend.database.entity.StageEntity;
 import edu.neu.cs6510.sp25.t1.backend.database.entity.StageExecutionEntity;
-import edu.neu.cs6510.sp25.t1.backend.database.entity.JobEntity;
-import edu.neu.cs6510.sp25.t1.backend.database.entity.JobExecutionEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.JobStatusRow;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.StageStatusRow;
 import edu.neu.cs6510.sp25.t1.backend.database.repository.PipelineRepository;
 import edu.neu.cs6510.sp25.t1.backend.database.repository.PipelineExecutionRepository;
-import edu.neu.cs6510.sp25.t1.backend.database.repository.StageRepository;
 import edu.neu.cs6510.sp25.t1.backend.database.repository.StageExecutionRepository;
-import edu.neu.cs6510.sp25.t1.backend.database.repository.JobRepository;
 import edu.neu.cs6510.sp25.t1.backend.database.repository.JobExecutionRepository;
+import edu.neu.cs6510.sp25.t1.backend.service.report.DurationStatsService;
 import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
 import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,45 +30,59 @@ import java.util.UUID;
  * including its stages and jobs. This class aggregates the status hierarchy
  * from jobs to stages to the overall pipeline level.
  * <p>
- * It interacts with repositories to query the latest execution states and updates
- * them if any discrepancies are found between computed and persisted values.
+ * The whole status tree is read with a constant number of queries, independent of the
+ * number of stages and jobs. Persisted stage and pipeline statuses are only written
+ * when the computed value differs from the stored one, and every such change is
+ * published on the {@link StatusEventBus} for status watchers, which delivers it once the update commits.
+ * Jobs, stages and pipelines that complete successfully are added to the {@link DurationStatsService}.
+ * Stage and job durations are measured from when they were reported running, so time spent waiting for
+ * admission is left out.
  * <p>
  * Pipeline status resolution logic:
  * - If all jobs in a stage are successful, the stage is marked as SUCCESS.
  * - If any job fails, the stage and pipeline are marked accordingly.
- * - The most severe status among jobs determines the stage's and pipeline's status.
+ * - The most severe status among jobs determines the stage's and pipeline's status,
+ *   with severity SUCCESS &lt; PENDING &lt; RUNNING &lt; CANCELED &lt; FAILED.
  * <p>
  * Dependencies:
  * - {@link PipelineRepository}
  * - {@link PipelineExecutionRepository}
- * - {@link StageRepository}
  * - {@link StageExecutionRepository}
- * - {@link JobRepository}
  * - {@link JobExecutionRepository}
+ * - {@link StatusEventBus}
+ * - {@link DurationStatsService}
  *
  * Author: Mingtianfang Li
  */
 @Service
 public class StatusService {
+  /** Statuses ordered by severity; the index matches the rank computed by the stage status query. */
+  private static final List<ExecutionStatus> STATUS_PRECEDENCE = List.of(
+      ExecutionStatus.SUCCESS,
+      ExecutionStatus.PENDING,
+      ExecutionStatus.RUNNING,
+      ExecutionStatus.CANCELED,
+      ExecutionStatus.FAILED);
+
   private final PipelineRepository pipelineRepository;
   private final PipelineExecutionRepository pipelineExecutionRepository;
-  private final StageRepository stageRepository;
   private final StageExecutionRepository stageExecutionRepository;
-  private final JobRepository jobRepository;
   private final JobExecutionRepository jobExecutionRepository;
+  private final StatusEventBus statusEventBus;
+  private final DurationStatsService durationStatsService;
 
   public StatusService(PipelineRepository pipelineRepository,
       PipelineExecutionRepository pipelineExecutionRepository,
-      StageRepository stageRepository,
       StageExecutionRepository stageExecutionRepository,
-      JobRepository jobRepository,
-      JobExecutionRepository jobExecutionRepository) {
+      JobExecutionRepository jobExecutionRepository,
+      StatusEventBus statusEventBus,
+      DurationStatsService durationStatsService) {
     this.pipelineRepository = pipelineRepository;
     this.pipelineExecutionRepository = pipelineExecutionRepository;
-    this.stageRepository = stageRepository;
     this.stageExecutionRepository = stageExecutionRepository;
-    this.jobRepository = jobRepository;
     this.jobExecutionRepository = jobExecutionRepository;
+    this.statusEventBus = statusEventBus;
+    this.durationStatsService = durationStatsService;
   }
 
 
@@ -76,16 +92,15 @@ public class StatusService {
    * The method performs the following:
    * 1. Finds the pipeline by name.
    * 2. Retrieves the most recent pipeline execution.
-   * 3. Iterates through each stage:
-   *    - Retrieves its execution entity.
-   *    - Aggregates the job execution statuses.
-   *    - Determines and updates the stage execution status.
-   * 4. Aggregates all stage statuses to determine the pipeline status.
-   * 5. Updates and persists the pipeline execution status if necessary.
+   * 3. Aggregates the job execution statuses of every stage in a single grouped query.
+   * 4. Fetches the job execution statuses of the execution in a single query.
+   * 5. Aggregates all stage statuses to determine the pipeline status.
+   * 6. Persists the stage and pipeline statuses that changed, and nothing else.
    *
    * @param pipelineName the name of the pipeline whose status should be retrieved
    * @return a map containing:
    *         - "pipeline": String - pipeline name
+   *         - "pipelineExecution": UUID - ID of the pipeline execution the status belongs to
    *         - "pipelineStatus": ExecutionStatus - overall pipeline status
    *         - "stageResult": List of maps containing:
    *              - "stage": String - stage name
@@ -96,119 +111,169 @@ public class StatusService {
    *                   - "jobExecution": UUID
    *                   - "jobExecutionStatus": ExecutionStatus
    *
-   * @throws IllegalArgumentException if pipeline, stage, or job execution data is not found
+   * @throws IllegalArgumentException if the pipeline or its execution is not found
    */
+  @Transactional
   public Map<String, Object> getStatusForPipeline(String pipelineName) {
-    Map<String, Object> result = new LinkedHashMap<>();
-
     Optional<PipelineEntity> pipelineOpt = pipelineRepository.findByName(pipelineName);
     if (pipelineOpt.isEmpty()) {
       PipelineLogger.error("Pipeline not found: " + pipelineName);
       throw new IllegalArgumentException("Pipeline not found: " + pipelineName);
     }
 
-    UUID pipelineId = pipelineOpt.get().getId();
-
     // Fetch the latest execution for this pipeline
     Optional<PipelineExecutionEntity> executionOpt = pipelineExecutionRepository
-        .findByPipelineId(pipelineId);
+        .findFirstByPipelineIdOrderByStartTimeDesc(pipelineOpt.get().getId());
 
     if (executionOpt.isEmpty()) {
       PipelineLogger.error("PipelineExecution not found: " + pipelineName);
       throw new IllegalArgumentException("PipelineExecution not found: " + pipelineName);
     }
-    // retrieve pipeline execution ID for look up the status and set status
-    UUID pipelineExecutionId = executionOpt.get().getId();
+    return resolveStatus(pipelineName, executionOpt.get(), null, null);
+  }
+
+  /**
+   * Records a job status update reported by a worker: records when the job started running, publishes
+   * the job transition and re-resolves the stage and pipeline statuses of its execution, publishing any that
+   * changed. Updates for unknown job executions are ignored.
+   *
+   * @param jobExecutionId the job execution ID
+   * @param status         the status reported for the job
+   */
+  @Transactional
+  public void onJobStatusUpdate(UUID jobExecutionId, ExecutionStatus status) {
+    Optional<PipelineExecutionEntity> executionOpt = pipelineExecutionRepository.findByJobExecutionId(jobExecutionId);
+    if (executionOpt.isEmpty()) {
+      PipelineLogger.debug("Ignoring status update of unknown job execution: {}", jobExecutionId);
+      return;
+    }
+    if (status == ExecutionStatus.RUNNING) {
+      jobExecutionRepository.markRunStarted(jobExecutionId, Instant.now());
+    }
+    PipelineExecutionEntity pipelineExecution = executionOpt.get();
+    Optional<PipelineEntity> pipelineOpt = pipelineRepository.findById(pipelineExecution.getPipelineId());
+    if (pipelineOpt.isEmpty()) {
+      PipelineLogger.debug("Ignoring status update of job execution without pipeline: {}", jobExecutionId);
+      return;
+    }
+
+    resolveStatus(pipelineOpt.get().getName(), pipelineExecution, jobExecutionId, status);
+  }
+
+  /**
+   * Resolves the status tree of a pipeline execution, persists and publishes the stage and
+   * pipeline statuses that changed, and publishes the transition of the updated job, if any.
+   *
+   * @param pipelineName      the pipeline name
+   * @param pipelineExecution the pipeline execution
+   * @param updatedJobId      ID of the job execution whose update triggered the resolution, or null
+   * @param updatedJobStatus  status reported for that job, or null
+   * @return the status tree, as described in {@link #getStatusForPipeline(String)}
+   */
+  private Map<String, Object> resolveStatus(String pipelineName, PipelineExecutionEntity pipelineExecution,
+      UUID updatedJobId, ExecutionStatus updatedJobStatus) {
+    Map<String, Object> result = new LinkedHashMap<>();
+    UUID pipelineExecutionId = pipelineExecution.getId();
 
-    List<StageEntity> stages = stageRepository.findByPipelineId(pipelineId);
+    Instant startedSince = pipelineExecution.earliestChildStartTime();
+    List<StageStatusRow> stages = stageExecutionRepository
+        .findStageStatusRowsByPipelineExecutionId(pipelineExecutionId, startedSince);
+    Map<UUID, String> stageNames = new HashMap<>();
+    stages.forEach(stage -> stageNames.put(stage.stageExecutionId(), stage.stageName()));
+    Map<UUID, List<Map<String, Object>>> jobsByStage = new HashMap<>();
+    for (JobStatusRow job : jobExecutionRepository.findJobStatusRowsByPipelineExecutionId(pipelineExecutionId,
+        startedSince)) {
+      Map<String, Object> jobResult = new LinkedHashMap<>();
+      jobResult.put("job", job.jobName());
+      jobResult.put("jobExecution", job.jobExecutionId());
+      jobResult.put("jobExecutionStatus", job.status());
+      jobsByStage.computeIfAbsent(job.stageExecutionId(), id -> new ArrayList<>()).add(jobResult);
+
+      if (job.jobExecutionId().equals(updatedJobId)) {
+        publish(StatusEvent.Scope.JOB, pipelineName, pipelineExecutionId, updatedJobId, job.jobName(),
+            updatedJobStatus);
+        if (updatedJobStatus == ExecutionStatus.SUCCESS) {
+          recordJob(pipelineName, stageNames.get(job.stageExecutionId()), job.jobName(), updatedJobId);
+        }
+      }
+    }
 
     // put pipelineName
     result.put("pipeline", pipelineName);
-    // create List<Map<String, Object>> for all stages
+    result.put("pipelineExecution", pipelineExecutionId);
     List<Map<String, Object>> stageResults = new ArrayList<>();
+    Map<UUID, ExecutionStatus> changedStages = new HashMap<>();
+    int pipelineRank = 0;
 
-    // sum of the pipeline status
-    ExecutionStatus sumOfPipelineStatus = ExecutionStatus.SUCCESS;
+    for (StageStatusRow stage : stages) {
+      // A stage without jobs counts as successful
+      int stageRank = stage.jobStatusRank() == null ? 0 : stage.jobStatusRank();
+      ExecutionStatus stageStatus = STATUS_PRECEDENCE.get(stageRank);
+      pipelineRank = Math.max(pipelineRank, stageRank);
 
-    // look for each stage
-    for (StageEntity stage : stages) {
-      // Linked hash Map for each stage
       Map<String, Object> stageResult = new LinkedHashMap<>();
+      stageResult.put("stage", stage.stageName());
+      stageResult.put("stageExecution", stage.stageExecutionId());
+      stageResult.put("stageExecutionStatus", stageStatus);
+      stageResult.put("jobs", jobsByStage.getOrDefault(stage.stageExecutionId(), List.of()));
+      stageResults.add(stageResult);
 
-      UUID stageID = stage.getId();
-      Optional<StageExecutionEntity> stageExecution = stageExecutionRepository
-          .findByStageIdAndPipelineExecutionId(
-              stageID,
-              pipelineExecutionId);
-      // put stage Name
-      stageResult.put("stage", stage.getName());
-
-      List<JobEntity> jobs = jobRepository.findByStageId(stageID);
-      if (stageExecution.isPresent()) {
-        // put stage Execution ID
-        stageResult.put("stageExecution", stageExecution.get().getId());
-      } else {
-        PipelineLogger.error("StageExecution not found: " + pipelineName);
-        throw new IllegalArgumentException("StageExecution not found: " + pipelineName);
-      }
-      ExecutionStatus sumOfStatus = ExecutionStatus.SUCCESS;
-
-      // use List<Map<String, Object>> to save all jobs
-      List<Map<String, Object>> jobResults = new ArrayList<>();
-
-      for (JobEntity job : jobs) {
-        // create Linked Hash Map for each Job
-        Map<String, Object> jobResult = new LinkedHashMap<>();
-
-        // put job Name
-        jobResult.put("job", job.getName());
-
-        UUID jobID = job.getId();
-        Optional<JobExecutionEntity> jobExecute = jobExecutionRepository.findByJobId(jobID);
-        ExecutionStatus jobStatus;
-        if (jobExecute.isPresent()) {
-          jobStatus = jobExecute.get().getStatus();
-          // put job Execution ID
-          jobResult.put("jobExecution", jobExecute.get().getId());
-          // put Job Status
-          jobResult.put("jobExecutionStatus", jobStatus);
-
-        } else {
-          PipelineLogger.error("JobExecution not found: " + pipelineName);
-          throw new IllegalArgumentException("JobExecution not found: " + pipelineName);
-        }
-        if (!jobStatus.equals(ExecutionStatus.SUCCESS)) {
-          sumOfStatus = jobStatus;
-        }
-        jobResults.add(jobResult);
-      }
-      // sum all job status and put to the map
-      stageResult.put("stageExecutionStatus", sumOfStatus);
-      // put all jobResult to the map
-      stageResult.put("jobs", jobResults);
-      // update Stage Execution
-      if (!sumOfStatus.equals(stageExecution.get().getStatus())) {
-        stageExecution.get().updateState(sumOfStatus);
-      }
-
-      if (!sumOfStatus.equals(sumOfPipelineStatus)) {
-        sumOfPipelineStatus = sumOfStatus;
+      if (stageStatus != stage.status()) {
+        changedStages.put(stage.stageExecutionId(), stageStatus);
+        publish(StatusEvent.Scope.STAGE, pipelineName, pipelineExecutionId, stage.stageExecutionId(),
+            stage.stageName(), stageStatus);
       }
-      stageResults.add(stageResult);
-      // save and flush the stage repository
-      stageExecutionRepository.saveAndFlush(stageExecution.get());
     }
 
-    // put all stage Result to the pipeline Map
-    result.put("pipelineStatus", sumOfPipelineStatus);
-    // put all stage result to the map
+    ExecutionStatus pipelineStatus = STATUS_PRECEDENCE.get(pipelineRank);
+    result.put("pipelineStatus", pipelineStatus);
     result.put("stageResult", stageResults);
 
-    // save to pipeline repo
-    executionOpt.get().setStatus(sumOfPipelineStatus);
-    // save and flush the pipeline execution repository
-    pipelineExecutionRepository.saveAndFlush(executionOpt.get());
+    if (!changedStages.isEmpty()) {
+      List<StageExecutionEntity> stageExecutions = stageExecutionRepository.findAllById(changedStages.keySet());
+      stageExecutions.forEach(stageExecution -> stageExecution.updateState(changedStages.get(stageExecution.getId())));
+      stageExecutionRepository.saveAll(stageExecutions);
+      stageExecutions.stream()
+          .filter(stageExecution -> stageExecution.getStatus() == ExecutionStatus.SUCCESS)
+          .forEach(stageExecution -> durationStatsService.recordStage(pipelineName,
+              stageNames.get(stageExecution.getId()), stageExecution.getId(), stageExecution.runningSince(),
+              stageExecution.getCompletionTime()));
+      PipelineLogger.info("Updated status of {} stages of pipeline: {}", stageExecutions.size(), pipelineName);
+    }
+    if (pipelineStatus != pipelineExecution.getStatus()) {
+      pipelineExecution.updateState(pipelineStatus);
+      pipelineExecutionRepository.save(pipelineExecution);
+      if (pipelineStatus == ExecutionStatus.SUCCESS) {
+        // Measured from the first stage run, so time spent waiting for admission is left out like for stages and jobs
+        Instant runningSince = stageExecutionRepository
+            .findFirstRunStartTimeByPipelineExecutionId(pipelineExecutionId, pipelineExecution.earliestChildStartTime())
+            .orElse(pipelineExecution.getStartTime());
+        durationStatsService.recordPipeline(pipelineName, pipelineExecutionId, runningSince,
+            pipelineExecution.getCompletionTime());
+      }
+      publish(StatusEvent.Scope.PIPELINE, pipelineName, pipelineExecutionId, pipelineExecutionId, pipelineName,
+          pipelineStatus);
+    }
 
     return result;
   }
+
+  /**
+   * Adds a successfully completed job execution to the duration statistics. The worker records the job's
+   * completion time, so it is read back from the job execution with the time the job was reported running.
+   */
+  private void recordJob(String pipelineName, String stageName, String jobName, UUID jobExecutionId) {
+    Optional<JobExecutionEntity> jobExecution = jobExecutionRepository.findById(jobExecutionId);
+    jobExecution.ifPresent(execution -> durationStatsService.recordJob(pipelineName, stageName, jobName,
+        jobExecutionId, execution.runningSince(), execution.getCompletionTime()));
+  }
+
+  /**
+   * Publishes a status transition on the status event bus.
+   */
+  private void publish(StatusEvent.Scope scope, String pipelineName, UUID pipelineExecutionId, UUID executionId,
+      String name, ExecutionStatus status) {
+    statusEventBus.publish(new StatusEvent(scope, pipelineName, pipelineExecutionId, executionId, name, status,
+        Instant.now()));
+  }
 }
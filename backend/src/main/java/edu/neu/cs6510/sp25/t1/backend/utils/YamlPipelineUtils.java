@@ -15,6 +15,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 
+import edu.neu.cs6510.sp25.t1.common.graph.Dag;
 import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
 
 /**
@@ -75,6 +76,32 @@ public class YamlPipelineUtils {
     }
   }
 
+  /**
+   * Parses pipeline YAML content that is already in memory.
+   *
+   * @param yamlContent The pipeline YAML content.
+   * @param source Where the content was read from, used in log and error messages.
+   * @return Parsed YAML as a Map.
+   * @throws IOException If the content cannot be parsed or is empty.
+   */
+  public static Map<String, Object> parsePipelineYaml(String yamlContent, String source) throws IOException {
+    try {
+      Yaml yaml = new Yaml();
+      Map<String, Object> pipelineConfig = yaml.load(yamlContent);
+
+      if (pipelineConfig == null || pipelineConfig.isEmpty()) {
+        PipelineLogger.error("Pipeline configuration is empty or malformed.");
+        throw new IllegalArgumentException("Pipeline configuration is empty or malformed.");
+      }
+
+      PipelineLogger.info("Pipeline configuration successfully loaded from: " + source);
+      return pipelineConfig;
+    } catch (Exception e) {
+      PipelineLogger.error("Error parsing pipeline YAML: " + e.getMessage());
+      throw new IOException("Error parsing pipeline YAML: " + e.getMessage(), e);
+    }
+  }
+
   /**
    * Performs comprehensive validation of the pipeline YAML structure.
    * This enhanced version is designed to support the queue-based execution system.
@@ -596,6 +623,8 @@ public class YamlPipelineUtils {
 
   /**
    * Validates job dependencies to ensure they reference existing jobs and don't create circular dependencies.
+   * The dependencies are collected into a {@link Dag} as they are checked, so the cycle check is a single
+   * linear, non-recursive pass even for pipelines with thousands of jobs.
    *
    * @param jobs The list of jobs.
    * @param stageName The name of the stage (optional for top-level format).
@@ -603,10 +632,13 @@ public class YamlPipelineUtils {
    */
   @SuppressWarnings("unchecked")
   private static void validateJobDependencies(List<Map<String, Object>> jobs, String stageName) {
-    // First, build a map of job names for quick lookup
-    Map<String, Integer> jobNameMap = new HashMap<>();
-    for (int i = 0; i < jobs.size(); i++) {
-      jobNameMap.put((String) jobs.get(i).get(NAME_KEY), i);
+    // First, register every job name as a graph node for quick lookup
+    Dag.Builder<String> dependencyGraph = Dag.builder();
+    for (Map<String, Object> job : jobs) {
+      String jobName = (String) job.get(NAME_KEY);
+      if (jobName != null) {
+        dependencyGraph.addNode(jobName);
+      }
     }
 
     // Then check dependencies
@@ -644,7 +676,7 @@ public class YamlPipelineUtils {
 
         // Validate each dependency references an existing job
         for (String dependency : dependencyList) {
-          if (!jobNameMap.containsKey(dependency)) {
+          if (!dependencyGraph.contains(dependency)) {
             PipelineLogger.error("Invalid pipeline.yaml: Job '" + jobName + "' in stage '" + currentStageName + "' depends on non-existent job '" + dependency + "'.");
             throw new IllegalArgumentException("Invalid pipeline.yaml: Job '" + jobName + "' in stage '" + currentStageName + "' depends on non-existent job '" + dependency + "'.");
           }
@@ -653,13 +685,16 @@ public class YamlPipelineUtils {
             PipelineLogger.error("Invalid pipeline.yaml: Job '" + jobName + "' in stage '" + currentStageName + "' cannot depend on itself.");
             throw new IllegalArgumentException("Invalid pipeline.yaml: Job '" + jobName + "' in stage '" + currentStageName + "' cannot depend on itself.");
           }
+
+          if (jobName != null) {
+            dependencyGraph.addDependency(jobName, dependency);
+          }
         }
       }
     }
 
     // Check for circular dependencies
-    Map<String, List<String>> dependencyGraph = buildDependencyGraph(jobs);
-    if (hasCycle(dependencyGraph)) {
+    if (!dependencyGraph.build().sort().isAcyclic()) {
       String errorMessage = stageName != null ?
               "Invalid pipeline.yaml: Circular dependency detected in stage '" + stageName + "'." :
               "Invalid pipeline.yaml: Circular dependency detected between jobs.";
@@ -678,88 +713,6 @@ public class YamlPipelineUtils {
     validateJobDependencies(jobs, null);
   }
   
-  /**
-   * Builds a dependency graph for cycle detection.
-   *
-   * @param jobs The list of jobs.
-   * @return A map representing the dependency graph.
-   */
-  @SuppressWarnings("unchecked")
-  private static Map<String, List<String>> buildDependencyGraph(List<Map<String, Object>> jobs) {
-    Map<String, List<String>> graph = new HashMap<>();
-    
-    for (Map<String, Object> job : jobs) {
-      String jobName = (String) job.get(NAME_KEY);
-      graph.put(jobName, new ArrayList<>());
-      
-      if (job.containsKey(DEPENDENCIES_KEY)) {
-        Object dependencies = job.get(DEPENDENCIES_KEY);
-        
-        if (dependencies instanceof String) {
-          graph.get(jobName).add((String) dependencies);
-        } else if (dependencies instanceof List) {
-          for (Object dep : (List<?>) dependencies) {
-            if (dep instanceof String) {
-              graph.get(jobName).add((String) dep);
-            }
-          }
-        }
-      }
-    }
-    
-    return graph;
-  }
-  
-  /**
-   * Detects cycles in the dependency graph using DFS.
-   *
-   * @param graph The dependency graph.
-   * @return true if a cycle is detected, false otherwise.
-   */
-  private static boolean hasCycle(Map<String, List<String>> graph) {
-    Set<String> visited = new HashSet<>();
-    Set<String> recStack = new HashSet<>();
-    
-    for (String node : graph.keySet()) {
-      if (hasCycleDFS(graph, node, visited, recStack)) {
-        return true;
-      }
-    }
-    
-    return false;
-  }
-  
-  /**
-   * DFS helper for cycle detection.
-   *
-   * @param graph The dependency graph.
-   * @param node The current node.
-   * @param visited Set of visited nodes.
-   * @param recStack Set of nodes in the current recursion stack.
-   * @return true if a cycle is detected, false otherwise.
-   */
-  private static boolean hasCycleDFS(Map<String, List<String>> graph, String node, Set<String> visited, Set<String> recStack) {
-    if (recStack.contains(node)) {
-      return true;
-    }
-    
-    if (visited.contains(node)) {
-      return false;
-    }
-    
-    visited.add(node);
-    recStack.add(node);
-
-    for (String neighbor : graph.get(node)) {
-      if (hasCycleDFS(graph, neighbor, visited, recStack)) {
-        return true;
-      }
-    }
-    
-    recStack.remove(node);
-    return false;
-  }
-  
   /**
    * A custom implementation of a HashSet that extends the standard Java HashSet.
    *
@@ -0,0 +1,45 @@
+--  V7 dropped unique_pipeline_run (pipeline_id, run_number): a unique index on a partitioned table must contain
+--  the partition key, and with start_time added it would no longer stop two executions from sharing a run number.
+--  pipeline_runs holds one row per numbered run instead, claimed by a trigger whenever an execution gets its
+--  pipeline, so a second execution with the same pipeline and run number fails as it did with the index.
+--  Dropping a month of executions fires no row trigger, so the run numbers of expired history stay claimed and
+--  are never handed out again; deleting the pipeline releases them.
+
+CREATE TABLE IF NOT EXISTS pipeline_runs (
+    pipeline_id UUID NOT NULL,
+    run_number INT NOT NULL,
+    pipeline_execution_id UUID NOT NULL,
+    PRIMARY KEY (pipeline_id, run_number),
+    FOREIGN KEY (pipeline_id) REFERENCES pipelines(id) ON DELETE CASCADE
+    );
+
+-- Runs copied by V7 were unique; only those created since may collide, and the oldest of them keeps the number
+INSERT INTO pipeline_runs (pipeline_id, run_number, pipeline_execution_id)
+SELECT DISTINCT ON (pipeline_id, run_number) pipeline_id, run_number, id
+FROM pipeline_executions
+WHERE pipeline_id IS NOT NULL
+ORDER BY pipeline_id, run_number, start_time
+ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION claim_pipeline_run() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        IF OLD.pipeline_id IS NOT DISTINCT FROM NEW.pipeline_id AND OLD.run_number = NEW.run_number THEN
+            RETURN NULL;
+        END IF;
+        DELETE FROM pipeline_runs
+        WHERE pipeline_id = OLD.pipeline_id AND run_number = OLD.run_number AND pipeline_execution_id = OLD.id;
+    END IF;
+    IF NEW.pipeline_id IS NOT NULL THEN
+        INSERT INTO pipeline_runs (pipeline_id, run_number, pipeline_execution_id)
+        VALUES (NEW.pipeline_id, NEW.run_number, NEW.id);
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+-- Row triggers on the partitioned table apply to every partition, including those created later
+DROP TRIGGER IF EXISTS pipeline_executions_claim_run ON pipeline_executions;
+CREATE TRIGGER pipeline_executions_claim_run
+    AFTER INSERT OR UPDATE OF pipeline_id, run_number ON pipeline_executions
+    FOR EACH ROW EXECUTE FUNCTION claim_pipeline_run();
@@ -0,0 +1,4 @@
+--  Adds the definition hash used to reuse unchanged pipeline definitions across runs.
+ALTER TABLE pipelines ADD COLUMN IF NOT EXISTS definition_hash VARCHAR(64) DEFAULT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_pipeline_definition ON pipelines(name, definition_hash);
@@ -0,0 +1,2 @@
+--  Supports looking up the recent successful runs of a job to estimate its duration when dispatching.
+CREATE INDEX IF NOT EXISTS idx_job_executions_duration ON job_executions(job_id, status, completion_time DESC);
@@ -0,0 +1,15 @@
+--  Job logs are stored append-only as compressed chunks of whole lines, numbered per job execution.
+CREATE TABLE IF NOT EXISTS execution_log_chunks (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    job_execution_id UUID NOT NULL,
+    sequence_number BIGINT NOT NULL,
+    first_line BIGINT NOT NULL,
+    line_count INT NOT NULL,
+    byte_offset BIGINT NOT NULL,
+    byte_length INT NOT NULL,
+    data BYTEA NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (job_execution_id) REFERENCES job_executions(id) ON DELETE CASCADE
+    );
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_execution_log_chunks_sequence ON execution_log_chunks(job_execution_id, sequence_number);
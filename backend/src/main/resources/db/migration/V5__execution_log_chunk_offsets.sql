@@ -0,0 +1,2 @@
+--  Supports finding the log chunk holding a byte offset when reading a range of a job log.
+CREATE INDEX IF NOT EXISTS idx_execution_log_chunks_offset ON execution_log_chunks(job_execution_id, byte_offset);
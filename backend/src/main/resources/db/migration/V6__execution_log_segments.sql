@@ -0,0 +1,13 @@
+--  Logs of finished jobs are moved out of execution_log_chunks into one segment file per job; this is their index.
+CREATE TABLE IF NOT EXISTS execution_log_segments (
+    job_execution_id UUID PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL,
+    chunk_count INT NOT NULL,
+    line_count BIGINT NOT NULL,
+    byte_length BIGINT NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (job_execution_id) REFERENCES job_executions(id) ON DELETE CASCADE
+    );
+
+CREATE INDEX IF NOT EXISTS idx_execution_log_segments_created_at ON execution_log_segments(created_at);
@@ -0,0 +1,136 @@
+--  Partitions the execution tables by month of start_time (timestamp for execution_logs), so old history is
+--  removed by dropping whole partitions instead of deleting rows. Postgres requires the partition key in the
+--  primary key, so foreign keys can no longer point at these tables: the links between executions and to the
+--  log tables are kept by the application, and ExecutionPartitionService drops the same months of every table.
+--  Existing rows are copied into monthly partitions. ExecutionPartitionService creates the partitions of the
+--  coming months; rows outside every month partition land in a default partition per table.
+--  The unique index unique_pipeline_run (pipeline_id, run_number) cannot be kept, since a unique index on a
+--  partitioned table must contain start_time; V10 enforces it through the pipeline_runs lookup table instead.
+
+ALTER SEQUENCE pipeline_run_seq OWNED BY NONE;
+
+ALTER TABLE execution_logs RENAME TO execution_logs_unpartitioned;
+ALTER TABLE job_executions RENAME TO job_executions_unpartitioned;
+ALTER TABLE stage_executions RENAME TO stage_executions_unpartitioned;
+ALTER TABLE pipeline_executions RENAME TO pipeline_executions_unpartitioned;
+ALTER INDEX execution_logs_pkey RENAME TO execution_logs_unpartitioned_pkey;
+ALTER INDEX job_executions_pkey RENAME TO job_executions_unpartitioned_pkey;
+ALTER INDEX stage_executions_pkey RENAME TO stage_executions_unpartitioned_pkey;
+ALTER INDEX pipeline_executions_pkey RENAME TO pipeline_executions_unpartitioned_pkey;
+
+CREATE TABLE pipeline_executions (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    pipeline_id UUID,
+    run_number INT NOT NULL DEFAULT nextval('pipeline_run_seq'),
+    commit_hash VARCHAR(40),
+    is_local BOOLEAN DEFAULT FALSE,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('PENDING', 'RUNNING', 'SUCCESS', 'FAILED', 'CANCELED')),
+    start_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completion_time TIMESTAMP DEFAULT NULL,
+    PRIMARY KEY (id, start_time),
+    FOREIGN KEY (pipeline_id) REFERENCES pipelines(id) ON DELETE CASCADE
+    ) PARTITION BY RANGE (start_time);
+
+CREATE TABLE stage_executions (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    pipeline_execution_id UUID NOT NULL,
+    stage_id UUID NOT NULL,
+    execution_order INT NOT NULL,
+    commit_hash VARCHAR(40) NOT NULL,
+    is_local BOOLEAN DEFAULT FALSE,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('PENDING', 'RUNNING', 'SUCCESS', 'FAILED', 'CANCELED')),
+    start_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completion_time TIMESTAMP DEFAULT NULL,
+    PRIMARY KEY (id, start_time),
+    FOREIGN KEY (stage_id) REFERENCES stages(id) ON DELETE CASCADE
+    ) PARTITION BY RANGE (start_time);
+
+CREATE TABLE job_executions (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    stage_execution_id UUID NOT NULL,
+    job_id UUID NOT NULL,
+    commit_hash VARCHAR(40) NOT NULL,
+    is_local BOOLEAN DEFAULT FALSE,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('PENDING', 'RUNNING', 'SUCCESS', 'FAILED', 'CANCELED')),
+    allows_failure BOOLEAN NOT NULL DEFAULT FALSE,
+    start_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completion_time TIMESTAMP DEFAULT NULL,
+    PRIMARY KEY (id, start_time),
+    FOREIGN KEY (job_id) REFERENCES jobs(id) ON DELETE CASCADE
+    ) PARTITION BY RANGE (start_time);
+
+CREATE TABLE execution_logs (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    pipeline_execution_id UUID NULL,
+    stage_execution_id UUID NULL,
+    job_execution_id UUID NULL,
+    log_text TEXT NOT NULL,
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, timestamp)
+    ) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE pipeline_run_seq OWNED BY pipeline_executions.run_number;
+
+-- One partition per month from the oldest row to three months ahead, and a default partition per table
+DO $$
+DECLARE
+    partitioned RECORD;
+    oldest DATE;
+    month DATE;
+BEGIN
+    FOR partitioned IN SELECT * FROM (VALUES
+        ('pipeline_executions', 'start_time'),
+        ('stage_executions', 'start_time'),
+        ('job_executions', 'start_time'),
+        ('execution_logs', 'timestamp')) AS t(name, key)
+    LOOP
+        EXECUTE format('SELECT date_trunc(''month'', MIN(%I))::date FROM %I', partitioned.key,
+            partitioned.name || '_unpartitioned') INTO oldest;
+        month := LEAST(COALESCE(oldest, CURRENT_DATE), CURRENT_DATE);
+        month := date_trunc('month', month)::date;
+        WHILE month <= (date_trunc('month', CURRENT_DATE) + INTERVAL '3 months')::date LOOP
+            EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                partitioned.name || '_p' || to_char(month, 'YYYYMM'), partitioned.name,
+                month, (month + INTERVAL '1 month')::date);
+            month := (month + INTERVAL '1 month')::date;
+        END LOOP;
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I DEFAULT', partitioned.name || '_default',
+            partitioned.name);
+    END LOOP;
+END $$;
+
+INSERT INTO pipeline_executions (id, pipeline_id, run_number, commit_hash, is_local, status, start_time,
+                                 completion_time)
+SELECT id, pipeline_id, run_number, commit_hash, is_local, status,
+       COALESCE(start_time, completion_time, CURRENT_TIMESTAMP), completion_time
+FROM pipeline_executions_unpartitioned;
+
+INSERT INTO stage_executions (id, pipeline_execution_id, stage_id, execution_order, commit_hash, is_local, status,
+                              start_time, completion_time)
+SELECT id, pipeline_execution_id, stage_id, execution_order, commit_hash, is_local, status,
+       COALESCE(start_time, completion_time, CURRENT_TIMESTAMP), completion_time
+FROM stage_executions_unpartitioned;
+
+INSERT INTO job_executions (id, stage_execution_id, job_id, commit_hash, is_local, status, allows_failure,
+                            start_time, completion_time)
+SELECT id, stage_execution_id, job_id, commit_hash, is_local, status, allows_failure,
+       COALESCE(start_time, completion_time, CURRENT_TIMESTAMP), completion_time
+FROM job_executions_unpartitioned;
+
+INSERT INTO execution_logs (id, pipeline_execution_id, stage_execution_id, job_execution_id, log_text, timestamp)
+SELECT id, pipeline_execution_id, stage_execution_id, job_execution_id, log_text,
+       COALESCE(timestamp, CURRENT_TIMESTAMP)
+FROM execution_logs_unpartitioned;
+
+-- Also drops the foreign keys of execution_log_chunks and execution_log_segments
+DROP TABLE execution_logs_unpartitioned CASCADE;
+DROP TABLE job_executions_unpartitioned CASCADE;
+DROP TABLE stage_executions_unpartitioned CASCADE;
+DROP TABLE pipeline_executions_unpartitioned CASCADE;
+
+-- Indexes are created on every partition, including those created later; the primary keys serve lookups by id
+CREATE INDEX IF NOT EXISTS idx_pipeline_executions ON pipeline_executions(pipeline_id, run_number, commit_hash, is_local);
+CREATE INDEX IF NOT EXISTS idx_stage_executions ON stage_executions(pipeline_execution_id, stage_id, commit_hash, is_local);
+CREATE INDEX IF NOT EXISTS idx_job_executions ON job_executions(stage_execution_id, job_id, commit_hash, is_local);
+CREATE INDEX IF NOT EXISTS idx_job_executions_duration ON job_executions(job_id, status, completion_time DESC);
+CREATE INDEX IF NOT EXISTS idx_execution_logs ON execution_logs(pipeline_execution_id, stage_execution_id, job_execution_id);
@@ -0,0 +1,4 @@
+--  A pipeline execution is reserved before its repository is read, so its pipeline and commit are only
+--  filled in once the definition is materialized. Until then both columns are NULL.
+ALTER TABLE pipeline_executions ALTER COLUMN pipeline_id DROP NOT NULL;
+ALTER TABLE pipeline_executions ALTER COLUMN commit_hash DROP NOT NULL;
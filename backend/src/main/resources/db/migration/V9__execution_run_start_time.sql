@@ -0,0 +1,4 @@
+--  Stage and job executions are created when their pipeline is materialized, then wait for admission and a worker.
+--  run_start_time records when a worker reported them running, so their durations leave that wait out.
+ALTER TABLE stage_executions ADD COLUMN IF NOT EXISTS run_start_time TIMESTAMP DEFAULT NULL;
+ALTER TABLE job_executions ADD COLUMN IF NOT EXISTS run_start_time TIMESTAMP DEFAULT NULL;
@@ -0,0 +1,76 @@
+package edu.neu.cs6510.sp25.t1.backend.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import edu.neu.cs6510.sp25.t1.backend.service.log.LogReadService;
+import edu.neu.cs6510.sp25.t1.common.dto.LogRangeDTO;
+
+@ExtendWith(MockitoExtension.class)
+public class LogControllerTest {
+
+  @Mock
+  private LogReadService logReadService;
+
+  @InjectMocks
+  private LogController logController;
+
+  private final UUID jobId = UUID.randomUUID();
+
+  @Test
+  public void testGetLogs_readsFromOffset() {
+    LogRangeDTO range = new LogRangeDTO(jobId, 10, 20, 2, "a\nb\n", false);
+    when(logReadService.read(jobId, 10, 2)).thenReturn(range);
+
+    ResponseEntity<?> response = logController.getLogs(jobId, 10, 2, null);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(range, response.getBody());
+  }
+
+  @Test
+  public void testGetLogs_tailIgnoresOffset() {
+    LogRangeDTO range = new LogRangeDTO(jobId, 500, 600, 100, "...", true);
+    when(logReadService.tail(jobId, 100)).thenReturn(range);
+
+    ResponseEntity<?> response = logController.getLogs(jobId, 0, null, 100);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(range, response.getBody());
+    verify(logReadService).tail(jobId, 100);
+    verifyNoMoreInteractions(logReadService);
+  }
+
+  @Test
+  public void testGetLogs_invalidRequest() {
+    when(logReadService.read(jobId, -1, null)).thenThrow(new IllegalArgumentException("Log offset cannot be negative: -1"));
+
+    ResponseEntity<?> response = logController.getLogs(jobId, -1, null, null);
+
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    assertEquals(Map.of("error", "Log offset cannot be negative: -1"), response.getBody());
+  }
+
+  @Test
+  public void testGetLogs_readFailure() {
+    when(logReadService.read(jobId, 0, null)).thenThrow(new IllegalStateException("Corrupt log chunk"));
+
+    ResponseEntity<?> response = logController.getLogs(jobId, 0, null, null);
+
+    assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    assertEquals(Map.of("error", "Failed to retrieve logs: Corrupt log chunk"), response.getBody());
+  }
+}
@@ -1,8 +1,10 @@
 package edu.neu.cs6510.sp25.t1.backend.api.controller;
 
 import edu.neu.cs6510.sp25.t1.backend.error.ApiError;
-import edu.neu.cs6510.sp25.t1.backend.messaging.StageQueuePublisher;
-import edu.neu.cs6510.sp25.t1.backend.service.execution.PipelineExecutionService;
+import edu.neu.cs6510.sp25.t1.backend.messaging.AdmissionRejectedException;
+import edu.neu.cs6510.sp25.t1.backend.messaging.ExecutionAdmissionController;
+import edu.neu.cs6510.sp25.t1.backend.service.execution.PipelineTriggerService;
+import edu.neu.cs6510.sp25.t1.backend.service.execution.TriggerProgress;
 import edu.neu.cs6510.sp25.t1.backend.service.status.StatusService;
 import edu.neu.cs6510.sp25.t1.common.api.request.PipelineExecutionRequest;
 import edu.neu.cs6510.sp25.t1.common.api.response.PipelineExecutionResponse;
@@ -10,14 +12,18 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -25,7 +31,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -35,15 +42,14 @@ import static org.mockito.Mockito.when;
 public class PipelineControllerTest {
 
     @Mock
-    private PipelineExecutionService pipelineExecutionService;
+    private PipelineTriggerService pipelineTriggerService;
 
     @Mock
-    private StageQueuePublisher stageQueuePublisher;
+    private StatusService statusService;
 
     @Mock
-    private StatusService statusService;
+    private ExecutionAdmissionController admissionController;
 
-    @InjectMocks
     private PipelineController pipelineController;
 
     private PipelineExecutionRequest validRequest;
@@ -52,6 +58,8 @@ public class PipelineControllerTest {
 
     @BeforeEach
     public void setUp() {
+        pipelineController = new PipelineController(pipelineTriggerService, statusService, admissionController);
+
         // Set up a valid pipeline execution request
         UUID pipelineId = UUID.randomUUID();
         String repo = "https://github.com/example/repo";
@@ -83,26 +91,134 @@ public class PipelineControllerTest {
     @Test
     public void testRunPipeline_Success() {
         // Arrange
-        when(pipelineExecutionService.startPipelineExecution(any(PipelineExecutionRequest.class), any()))
-                .thenReturn(successResponse);
-        doNothing().when(stageQueuePublisher).dispatchStageQueue(any());
+        when(pipelineTriggerService.trigger(any(PipelineExecutionRequest.class))).thenReturn(successResponse);
 
         // Act
         ResponseEntity<?> response = pipelineController.runPipeline(validRequest);
 
         // Assert
-        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
         assertEquals(successResponse, response.getBody());
+        assertEquals("/api/pipeline/executions/" + successResponse.getExecutionId() + "/progress",
+                response.getHeaders().getFirst(HttpHeaders.LOCATION));
+
+        // Verify a slot was reserved before the trigger and released after it
+        InOrder inOrder = inOrder(admissionController, pipelineTriggerService);
+        inOrder.verify(admissionController).tryReserve();
+        inOrder.verify(pipelineTriggerService).trigger(eq(validRequest));
+        inOrder.verify(admissionController).releaseReservation();
+    }
+
+    @Test
+    public void testRunPipeline_QueueFullReturnsTooManyRequests() {
+        // Arrange
+        doThrow(new AdmissionRejectedException("Too many pipeline executions waiting (50), retry later", 30))
+                .when(admissionController).tryReserve();
+
+        // Act
+        ResponseEntity<?> response = pipelineController.runPipeline(validRequest);
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("30", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getBody() instanceof ApiError);
+        assertEquals("Pipeline Execution Queue Full", ((ApiError) response.getBody()).getMessage());
+        verify(pipelineTriggerService, never()).trigger(any());
+        verify(admissionController, never()).releaseReservation();
+    }
+
+    @Test
+    public void testRunPipeline_FailedTriggerReleasesReservation() {
+        // Arrange
+        when(pipelineTriggerService.trigger(any(PipelineExecutionRequest.class)))
+                .thenThrow(new RuntimeException("Database unavailable"));
 
-        // Verify the service and publisher were called correctly
-        verify(pipelineExecutionService, times(1)).startPipelineExecution(eq(validRequest), any());
-        verify(stageQueuePublisher, times(1)).dispatchStageQueue(any());
+        // Act
+        ResponseEntity<?> response = pipelineController.runPipeline(validRequest);
+
+        // Assert
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        verify(admissionController, times(1)).tryReserve();
+        verify(admissionController, times(1)).releaseReservation();
+    }
+
+    @Test
+    public void testRunAllPipelines_Success() throws Exception {
+        // Arrange
+        PipelineExecutionResponse second = new PipelineExecutionResponse(UUID.randomUUID().toString(), "PENDING");
+        when(pipelineTriggerService.triggerAll(validRequest, List.of("build.yaml", "test.yaml")))
+                .thenReturn(List.of(successResponse, second));
+
+        // Act
+        ResponseEntity<?> response = pipelineController.runAllPipelines(validRequest, List.of("build.yaml", "test.yaml"));
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(List.of(successResponse, second), response.getBody());
+        verify(admissionController, times(1)).tryReserve();
+        verify(admissionController, times(1)).releaseReservation();
+    }
+
+    @Test
+    public void testRunAllPipelines_MissingRepoReturnsBadRequest() throws Exception {
+        // Arrange
+        PipelineExecutionRequest noRepo = new PipelineExecutionRequest(null, null, "main", null, false, 0, null);
+
+        // Act
+        ResponseEntity<?> response = pipelineController.runAllPipelines(noRepo, null);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(pipelineTriggerService, never()).triggerAll(any(), any());
+    }
+
+    @Test
+    public void testRunAllPipelines_ReadFailureReturnsServerError() throws Exception {
+        // Arrange
+        when(pipelineTriggerService.triggerAll(validRequest, null))
+                .thenThrow(new IOException("Pipeline file not found: deploy.yaml at commit c0ffee"));
+
+        // Act
+        ResponseEntity<?> response = pipelineController.runAllPipelines(validRequest, null);
+
+        // Assert
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("Pipeline file not found: deploy.yaml at commit c0ffee", ((ApiError) response.getBody()).getDetail());
+    }
+
+    @Test
+    public void testGetTriggerProgress_Found() {
+        // Arrange
+        UUID executionId = UUID.randomUUID();
+        TriggerProgress progress = new TriggerProgress(executionId);
+        when(pipelineTriggerService.getProgress(executionId)).thenReturn(Optional.of(progress));
+
+        // Act
+        ResponseEntity<?> response = pipelineController.getTriggerProgress(executionId);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(progress, response.getBody());
+    }
+
+    @Test
+    public void testGetTriggerProgress_NotFound() {
+        // Arrange
+        UUID executionId = UUID.randomUUID();
+        when(pipelineTriggerService.getProgress(executionId)).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<?> response = pipelineController.getTriggerProgress(executionId);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertTrue(response.getBody() instanceof ApiError);
     }
 
     @Test
     public void testRunPipeline_ServiceThrowsException() {
         // Arrange
-        when(pipelineExecutionService.startPipelineExecution(any(PipelineExecutionRequest.class), any()))
+        when(pipelineTriggerService.trigger(any(PipelineExecutionRequest.class)))
                 .thenThrow(new RuntimeException("Service error"));
 
         // Act
@@ -22,10 +22,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import edu.neu.cs6510.sp25.t1.backend.service.report.DurationStatsService;
 import edu.neu.cs6510.sp25.t1.backend.service.report.ReportService;
+import edu.neu.cs6510.sp25.t1.common.dto.DurationStatsDTO;
 import edu.neu.cs6510.sp25.t1.common.dto.JobReportDTO;
+import edu.neu.cs6510.sp25.t1.common.dto.JobReportPageDTO;
 import edu.neu.cs6510.sp25.t1.common.dto.PipelineReportDTO;
+import edu.neu.cs6510.sp25.t1.common.dto.PipelineReportPageDTO;
 import edu.neu.cs6510.sp25.t1.common.dto.StageReportDTO;
+import edu.neu.cs6510.sp25.t1.common.dto.StageReportPageDTO;
 import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +39,9 @@ public class ReportControllerTest {
   @Mock
   private ReportService reportService;
 
+  @Mock
+  private DurationStatsService durationStatsService;
+
   @InjectMocks
   private ReportController reportController;
 
@@ -101,15 +109,16 @@ public class ReportControllerTest {
   public void testGetPipelineExecutionHistory_NullStageAndJob() {
     // Arrange
     String pipelineName = "pipeline1";
-    when(reportService.getPipelineReports(pipelineName)).thenReturn(pipelineReports);
+    PipelineReportPageDTO page = new PipelineReportPageDTO(pipelineReports, null);
+    when(reportService.getPipelineReportPage(pipelineName, null, null, false)).thenReturn(page);
 
     // Act
-    ResponseEntity<?> response = reportController.getPipelineExecutionHistory(pipelineName, null, null);
+    ResponseEntity<?> response = reportController.getPipelineExecutionHistory(pipelineName, null, null, null, null, false);
 
     // Assert
     assertEquals(HttpStatus.OK, response.getStatusCode());
-    assertEquals(pipelineReports, response.getBody());
-    verify(reportService).getPipelineReports(pipelineName);
+    assertEquals(page, response.getBody());
+    verify(reportService).getPipelineReportPage(pipelineName, null, null, false);
   }
 
   @Test
@@ -117,15 +126,16 @@ public class ReportControllerTest {
     // Arrange
     String pipelineName = "pipeline1";
     String stageName = "build";
-    when(reportService.getStageReports(pipelineName, stageName)).thenReturn(stageReports);
+    StageReportPageDTO page = new StageReportPageDTO(stageReports, "next");
+    when(reportService.getStageReportPage(pipelineName, stageName, "cursor", 5)).thenReturn(page);
 
     // Act
-    ResponseEntity<?> response = reportController.getPipelineExecutionHistory(pipelineName, stageName, null);
+    ResponseEntity<?> response = reportController.getPipelineExecutionHistory(pipelineName, stageName, null, 5, "cursor", false);
 
     // Assert
     assertEquals(HttpStatus.OK, response.getStatusCode());
-    assertEquals(stageReports, response.getBody());
-    verify(reportService).getStageReports(pipelineName, stageName);
+    assertEquals(page, response.getBody());
+    verify(reportService).getStageReportPage(pipelineName, stageName, "cursor", 5);
   }
 
   @Test
@@ -134,25 +144,58 @@ public class ReportControllerTest {
     String pipelineName = "pipeline1";
     String stageName = "build";
     String jobName = "compile";
-    when(reportService.getJobReportsForStage(pipelineName, stageName, jobName)).thenReturn(jobReports);
+    JobReportPageDTO page = new JobReportPageDTO(jobReports, null);
+    when(reportService.getJobReportPage(pipelineName, stageName, jobName, null, null)).thenReturn(page);
+
+    // Act
+    ResponseEntity<?> response = reportController.getPipelineExecutionHistory(pipelineName, stageName, jobName, null, null, false);
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(page, response.getBody());
+    verify(reportService).getJobReportPage(pipelineName, stageName, jobName, null, null);
+  }
+
+  @Test
+  public void testGetPipelineExecutionHistory_WithLimitReturnsPage() {
+    // Arrange
+    String pipelineName = "pipeline1";
+    PipelineReportPageDTO page = new PipelineReportPageDTO(pipelineReports, "next");
+    when(reportService.getPipelineReportPage(pipelineName, null, 10, true)).thenReturn(page);
 
     // Act
-    ResponseEntity<?> response = reportController.getPipelineExecutionHistory(pipelineName, stageName, jobName);
+    ResponseEntity<?> response = reportController.getPipelineExecutionHistory(pipelineName, null, null, 10, null, true);
 
     // Assert
     assertEquals(HttpStatus.OK, response.getStatusCode());
-    assertEquals(jobReports, response.getBody());
-    verify(reportService).getJobReportsForStage(pipelineName, stageName, jobName);
+    assertEquals(page, response.getBody());
+  }
+
+  @Test
+  public void testGetPipelineExecutionHistory_InvalidCursorReturnsBadRequest() {
+    // Arrange
+    String pipelineName = "pipeline1";
+    when(reportService.getPipelineReportPage(pipelineName, "bogus", null, false))
+        .thenThrow(new IllegalArgumentException("Invalid history cursor: bogus"));
+
+    // Act
+    ResponseEntity<?> response = reportController.getPipelineExecutionHistory(pipelineName, null, null, null, "bogus", false);
+
+    // Assert
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    Map<String, String> errorMap = (Map<String, String>) response.getBody();
+    assertTrue(errorMap.get("error").contains("bogus"));
   }
 
   @Test
   public void testGetPipelineExecutionHistory_ThrowsException() {
     // Arrange
     String pipelineName = "pipeline1";
-    when(reportService.getPipelineReports(pipelineName)).thenThrow(new RuntimeException("Test error"));
+    when(reportService.getPipelineReportPage(pipelineName, null, null, false))
+        .thenThrow(new RuntimeException("Test error"));
 
     // Act
-    ResponseEntity<?> response = reportController.getPipelineExecutionHistory(pipelineName, null, null);
+    ResponseEntity<?> response = reportController.getPipelineExecutionHistory(pipelineName, null, null, null, null, false);
 
     // Assert
     assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -209,4 +252,32 @@ public class ReportControllerTest {
     assertEquals(jobReport, result);
     verify(reportService).getJobReport(pipelineName, runNumber, stageName, jobName);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testGetDurationStats() {
+    // Arrange
+    DurationStatsDTO stats = new DurationStatsDTO("job", "build", "compile");
+    stats.setCount(3);
+    when(durationStatsService.getStats("pipeline1", "build", null)).thenReturn(List.of(stats));
+
+    // Act
+    ResponseEntity<?> response = reportController.getDurationStats("pipeline1", "build", null);
+
+    // Assert
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(List.of(stats), response.getBody());
+  }
+
+  @Test
+  public void testGetDurationStats_failure() {
+    // Arrange
+    when(durationStatsService.getStats("pipeline1", null, null)).thenThrow(new RuntimeException("Database down"));
+
+    // Act
+    ResponseEntity<?> response = reportController.getDurationStats("pipeline1", null, null);
+
+    // Assert
+    assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    assertTrue(((Map<?, ?>) response.getBody()).get("error").toString().contains("Database down"));
+  }
+}
@@ -0,0 +1,73 @@
+package edu.neu.cs6510.sp25.t1.backend.api.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import edu.neu.cs6510.sp25.t1.backend.service.status.StatusEvent;
+import edu.neu.cs6510.sp25.t1.backend.service.status.StatusEventBus;
+import edu.neu.cs6510.sp25.t1.backend.service.status.StatusService;
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Unit test for {@link StatusStreamController}.
+ */
+class StatusStreamControllerTest {
+
+  private StatusService statusService;
+  private StatusEventBus statusEventBus;
+  private StatusStreamController controller;
+
+  @BeforeEach
+  void setUp() {
+    statusService = mock(StatusService.class);
+    statusEventBus = new StatusEventBus(Runnable::run);
+    controller = new StatusStreamController(statusService, statusEventBus);
+  }
+
+  @Test
+  void testStreamPipelineStatus_subscribesAndSendsSnapshot() {
+    when(statusService.getStatusForPipeline("demo")).thenReturn(Map.of("pipeline", "demo"));
+
+    SseEmitter emitter = controller.streamPipelineStatus("demo");
+
+    assertNotNull(emitter);
+    assertEquals(1, statusEventBus.getSubscriberCount("demo"));
+    verify(statusService).getStatusForPipeline("demo");
+  }
+
+  @Test
+  void testStreamPipelineStatus_watchesPipelineWithoutExecutions() {
+    when(statusService.getStatusForPipeline("demo"))
+        .thenThrow(new IllegalArgumentException("PipelineExecution not found: demo"));
+
+    controller.streamPipelineStatus("demo");
+
+    assertEquals(1, statusEventBus.getSubscriberCount("demo"));
+  }
+
+  @Test
+  void testStreamPipelineStatus_forwardsTransitions() {
+    when(statusService.getStatusForPipeline("demo")).thenReturn(Map.of("pipeline", "demo"));
+    controller.streamPipelineStatus("demo");
+    controller.streamPipelineStatus("demo");
+
+    UUID executionId = UUID.randomUUID();
+    StatusEvent event = new StatusEvent(StatusEvent.Scope.PIPELINE, "demo", executionId, executionId, "demo",
+        ExecutionStatus.SUCCESS, Instant.now());
+
+    assertDoesNotThrow(() -> statusEventBus.publish(event));
+    assertEquals(2, statusEventBus.getSubscriberCount("demo"));
+  }
+}
@@ -0,0 +1,82 @@
+package edu.neu.cs6510.sp25.t1.backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class KeyedSerialExecutorTest {
+
+  @Test
+  void testExecute_runsTasksOfAKeyInSubmissionOrder() throws Exception {
+    List<Integer> order = new CopyOnWriteArrayList<>();
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch finished = new CountDownLatch(3);
+    try (ExecutorService delegate = Executors.newVirtualThreadPerTaskExecutor()) {
+      KeyedSerialExecutor executor = new KeyedSerialExecutor(delegate);
+      executor.execute("a", () -> {
+        awaitQuietly(release);
+        order.add(1);
+        finished.countDown();
+      });
+      executor.execute("a", () -> {
+        order.add(2);
+        finished.countDown();
+      });
+      executor.execute("a", () -> {
+        order.add(3);
+        finished.countDown();
+      });
+
+      // The later tasks wait for the first one even though the delegate could run them at once
+      assertFalse(finished.await(200, TimeUnit.MILLISECONDS));
+      release.countDown();
+      assertTrue(finished.await(5, TimeUnit.SECONDS));
+    }
+    assertEquals(List.of(1, 2, 3), order);
+  }
+
+  @Test
+  void testExecute_keysDoNotWaitForEachOther() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch other = new CountDownLatch(1);
+    try (ExecutorService delegate = Executors.newVirtualThreadPerTaskExecutor()) {
+      KeyedSerialExecutor executor = new KeyedSerialExecutor(delegate);
+      executor.execute("a", () -> awaitQuietly(release));
+      executor.execute("b", other::countDown);
+
+      assertTrue(other.await(5, TimeUnit.SECONDS));
+      release.countDown();
+    }
+  }
+
+  @Test
+  void testExecute_failingTaskDoesNotHoldUpTheNextAndKeyIsForgotten() {
+    List<String> ran = new CopyOnWriteArrayList<>();
+    KeyedSerialExecutor executor = new KeyedSerialExecutor(Runnable::run);
+
+    executor.execute("a", () -> {
+      throw new IllegalStateException("boom");
+    });
+    executor.execute("a", () -> ran.add("second"));
+
+    assertEquals(List.of("second"), ran);
+    assertEquals(0, executor.getPendingKeyCount());
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package edu.neu.cs6510.sp25.t1.backend.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class MeteredVirtualThreadExecutorTest {
+
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  void testExecute_runsOnNamedVirtualThread() throws Exception {
+    try (MeteredVirtualThreadExecutor executor = new MeteredVirtualThreadExecutor("test-io", 0, meterRegistry)) {
+      CompletableFuture<Thread> thread = CompletableFuture.supplyAsync(Thread::currentThread, executor);
+
+      assertTrue(thread.get(5, TimeUnit.SECONDS).isVirtual());
+      assertTrue(thread.get().getName().startsWith("test-io-"));
+    }
+  }
+
+  @Test
+  void testExecute_queuesTasksBeyondConcurrencyLimit() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try (MeteredVirtualThreadExecutor executor = new MeteredVirtualThreadExecutor("test-io", 1, meterRegistry)) {
+      executor.execute(() -> {
+        started.countDown();
+        awaitQuietly(release);
+      });
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+
+      CountDownLatch second = new CountDownLatch(1);
+      executor.execute(second::countDown);
+      assertEquals(1, executor.getActiveCount());
+      assertEquals(1, waitForQueued(executor, 1));
+
+      release.countDown();
+      assertTrue(second.await(5, TimeUnit.SECONDS));
+    }
+    assertEquals(2, meterRegistry.get("pipeline.executor.completion").tag("name", "test-io").timer().count());
+  }
+
+  @Test
+  void testExecute_failingTaskDoesNotStopExecutor() throws Exception {
+    try (MeteredVirtualThreadExecutor executor = new MeteredVirtualThreadExecutor("test-io", 1, meterRegistry)) {
+      executor.execute(() -> {
+        throw new IllegalStateException("boom");
+      });
+      CountDownLatch ran = new CountDownLatch(1);
+      executor.execute(ran::countDown);
+
+      assertTrue(ran.await(5, TimeUnit.SECONDS));
+    }
+  }
+
+  private static int waitForQueued(MeteredVirtualThreadExecutor executor, int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (executor.getQueuedCount() != expected && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    return executor.getQueuedCount();
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -2,13 +2,16 @@ package edu.neu.cs6510.sp25.t1.backend.config;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -27,8 +30,20 @@ class RabbitMQConfigTest {
       var field = RabbitMQConfig.class.getDeclaredField("jobQueueName");
       field.setAccessible(true);
       field.set(config, "test.queue");
+
+      var statusField = RabbitMQConfig.class.getDeclaredField("statusQueueName");
+      statusField.setAccessible(true);
+      statusField.set(config, "test.status.queue");
+
+      var exchangeField = RabbitMQConfig.class.getDeclaredField("jobExchangeName");
+      exchangeField.setAccessible(true);
+      exchangeField.set(config, "test.exchange");
+
+      var priorityField = RabbitMQConfig.class.getDeclaredField("jobQueueMaxPriority");
+      priorityField.setAccessible(true);
+      priorityField.set(config, 9);
     } catch (Exception e) {
-      throw new RuntimeException("Failed to set jobQueueName via reflection", e);
+      throw new RuntimeException("Failed to set queue names via reflection", e);
     }
   }
 
@@ -38,6 +53,40 @@ class RabbitMQConfigTest {
     assertNotNull(queue);
     assertEquals("test.queue", queue.getName());
     assertTrue(queue.isDurable());
+    assertEquals(9, queue.getArguments().get("x-max-priority"));
+  }
+
+  @Test
+  void testJobQueueWithoutPriorities() throws Exception {
+    var priorityField = RabbitMQConfig.class.getDeclaredField("jobQueueMaxPriority");
+    priorityField.setAccessible(true);
+    priorityField.set(config, 0);
+
+    Queue queue = config.jobQueue();
+    assertFalse(queue.getArguments().containsKey("x-max-priority"));
+  }
+
+  @Test
+  void testJobStatusQueueCreation() {
+    Queue queue = config.jobStatusQueue();
+    assertNotNull(queue);
+    assertEquals("test.status.queue", queue.getName());
+    assertTrue(queue.isDurable());
+  }
+
+  @Test
+  void testJobExchangeCreation() {
+    TopicExchange exchange = config.jobExchange();
+    assertEquals("test.exchange", exchange.getName());
+    assertTrue(exchange.isDurable());
+  }
+
+  @Test
+  void testJobQueueBoundToAllExecutions() {
+    Binding binding = config.jobQueueBinding();
+    assertEquals("test.queue", binding.getDestination());
+    assertEquals("test.exchange", binding.getExchange());
+    assertEquals("job.#", binding.getRoutingKey());
   }
 
   @Test
@@ -0,0 +1,121 @@
+package edu.neu.cs6510.sp25.t1.backend.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Replays the column constraints the migration scripts declare, in version order, to check the schema
+ * they build accepts the rows the application writes.
+ */
+class MigrationScriptsTest {
+
+  private static final Pattern VERSION = Pattern.compile("V(\\d+)__.+\\.sql");
+
+  @Test
+  void testReservedPipelineExecutionMayHaveNoPipelineOrCommit() throws Exception {
+    // A reserved execution is saved before its pipeline definition and commit are known
+    Map<String, Boolean> nullable = replayNullability("pipeline_executions", List.of("pipeline_id", "commit_hash"));
+
+    assertEquals(Map.of("pipeline_id", true, "commit_hash", true), nullable);
+  }
+
+  @Test
+  void testRunNumbersStayUniquePerPipelineAfterPartitioning() throws Exception {
+    // Partitioning dropped unique_pipeline_run; a later migration must claim runs in a lookup table instead
+    String lastPartitioning = null;
+    String claimedAfter = null;
+    for (Path migration : migrations()) {
+      String sql = withoutComments(Files.readString(migration));
+      if (sql.contains("PARTITION BY RANGE")) {
+        lastPartitioning = migration.getFileName().toString();
+        claimedAfter = null;
+      }
+      if (sql.contains("PRIMARY KEY (pipeline_id, run_number)")
+          && sql.contains("AFTER INSERT OR UPDATE OF pipeline_id, run_number ON pipeline_executions")) {
+        claimedAfter = migration.getFileName().toString();
+      }
+    }
+
+    assertTrue(lastPartitioning != null && claimedAfter != null,
+        "No migration after " + lastPartitioning + " keeps (pipeline_id, run_number) unique");
+  }
+
+  @Test
+  void testMigrationsAreNumberedWithoutGaps() throws Exception {
+    List<Integer> versions = migrations().stream().map(MigrationScriptsTest::versionOf).toList();
+
+    assertTrue(versions.size() > 1);
+    for (int i = 0; i < versions.size(); i++) {
+      assertEquals(i + 1, versions.get(i));
+    }
+  }
+
+  /**
+   * Tracks whether columns of a table accept NULL across every migration, following CREATE TABLE
+   * definitions, ALTER COLUMN ... SET/DROP NOT NULL and renames of the table.
+   *
+   * @return whether each column accepts NULL after the last migration
+   */
+  private static Map<String, Boolean> replayNullability(String table, List<String> columns) throws Exception {
+    Pattern create = Pattern.compile("CREATE TABLE (IF NOT EXISTS )?" + table + "\\s*\\((.*)\\)",
+        Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    Pattern alter = Pattern.compile("ALTER TABLE (IF EXISTS )?(ONLY )?" + table
+        + "\\s+ALTER COLUMN (\\w+) (SET|DROP) NOT NULL", Pattern.CASE_INSENSITIVE);
+    Pattern rename = Pattern.compile("ALTER TABLE (IF EXISTS )?" + table + "\\s+RENAME TO", Pattern.CASE_INSENSITIVE);
+
+    Map<String, Boolean> nullable = new HashMap<>();
+    for (Path migration : migrations()) {
+      for (String statement : withoutComments(Files.readString(migration)).split(";")) {
+        String trimmed = statement.trim();
+        Matcher created = create.matcher(trimmed);
+        Matcher altered = alter.matcher(trimmed);
+        if (created.lookingAt()) {
+          nullable.clear();
+          for (String line : created.group(2).split("\n")) {
+            String definition = line.trim();
+            columns.stream()
+                .filter(column -> definition.startsWith(column + " "))
+                .forEach(column -> nullable.put(column, !definition.toUpperCase().contains("NOT NULL")
+                    && !definition.toUpperCase().contains("PRIMARY KEY")));
+          }
+        } else if (altered.lookingAt() && columns.contains(altered.group(3))) {
+          nullable.put(altered.group(3), altered.group(4).equalsIgnoreCase("DROP"));
+        } else if (rename.matcher(trimmed).lookingAt()) {
+          nullable.clear();
+        }
+      }
+    }
+    return nullable;
+  }
+
+  private static List<Path> migrations() throws Exception {
+    Path dir = Path.of(MigrationScriptsTest.class.getClassLoader().getResource("db/migration").toURI());
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.filter(file -> VERSION.matcher(file.getFileName().toString()).matches())
+          .sorted(Comparator.comparingInt(MigrationScriptsTest::versionOf))
+          .toList();
+    }
+  }
+
+  private static int versionOf(Path migration) {
+    Matcher matcher = VERSION.matcher(migration.getFileName().toString());
+    matcher.matches();
+    return Integer.parseInt(matcher.group(1));
+  }
+
+  private static String withoutComments(String sql) {
+    return sql.replaceAll("--[^\n]*", "");
+  }
+}
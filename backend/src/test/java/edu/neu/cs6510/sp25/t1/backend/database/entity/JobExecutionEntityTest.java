@@ -76,4 +76,14 @@ class JobExecutionEntityTest {
     assertEquals(ExecutionStatus.PENDING, entity.getStatus());
     assertNull(entity.getCompletionTime());
   }
+
+  @Test
+  void testRunningSince_fallsBackToStartTime() {
+    Instant created = Instant.parse("2025-01-01T10:00:00Z");
+    JobExecutionEntity entity = JobExecutionEntity.builder().startTime(created).build();
+    assertEquals(created, entity.runningSince());
+
+    entity.setRunStartTime(created.plusSeconds(45));
+    assertEquals(created.plusSeconds(45), entity.runningSince());
+  }
 }
@@ -90,4 +90,15 @@ class PipelineExecutionEntityTest {
     entity.setId(id);
     assertEquals(id, entity.getId());
   }
+
+  @Test
+  void testEarliestChildStartTimeIsBeforeStartTime() {
+    PipelineExecutionEntity entity = new PipelineExecutionEntity();
+    assertEquals(Instant.EPOCH, entity.earliestChildStartTime());
+
+    Instant start = Instant.parse("2025-03-01T00:30:00Z");
+    entity.setStartTime(start);
+
+    assertEquals(Instant.parse("2025-02-28T23:30:00Z"), entity.earliestChildStartTime());
+  }
 }
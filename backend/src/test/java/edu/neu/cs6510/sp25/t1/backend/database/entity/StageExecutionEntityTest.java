@@ -96,6 +96,23 @@ class StageExecutionEntityTest {
     assertNull(entity.getCompletionTime());
   }
 
+  @Test
+  void testUpdateStateRecordsFirstRunStart() {
+    StageExecutionEntity entity = new StageExecutionEntity();
+    Instant created = Instant.parse("2025-01-01T10:00:00Z");
+    entity.setStartTime(created);
+    assertEquals(created, entity.runningSince());
+
+    entity.updateState(ExecutionStatus.RUNNING);
+    Instant runStart = entity.getRunStartTime();
+    assertNotNull(runStart);
+    assertEquals(runStart, entity.runningSince());
+
+    entity.updateState(ExecutionStatus.PENDING);
+    entity.updateState(ExecutionStatus.RUNNING);
+    assertEquals(runStart, entity.getRunStartTime());
+  }
+
   @Test
   void testSettersAndGetters() {
     StageExecutionEntity entity = new StageExecutionEntity();
@@ -0,0 +1,19 @@
+package edu.neu.cs6510.sp25.t1.backend.info;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+
+class PipelineSourceInfoTest {
+
+  @Test
+  void testPipelineSourceInfoInitialization() {
+    PipelineSourceInfo info = new PipelineSourceInfo(".pipelines/test.yaml", "name: test", "abc123");
+
+    assertEquals(".pipelines/test.yaml", info.getYamlPath());
+    assertEquals("name: test", info.getYamlContent());
+    assertEquals("abc123", info.getCommitHash());
+  }
+}
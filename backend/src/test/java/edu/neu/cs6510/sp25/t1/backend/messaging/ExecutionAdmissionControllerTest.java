@@ -0,0 +1,208 @@
+package edu.neu.cs6510.sp25.t1.backend.messaging;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+class ExecutionAdmissionControllerTest {
+
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  void testDrain_respectsJobLimitAndReleasesSlots() {
+    ExecutionAdmissionController controller = controller(10, 10, 2, 10);
+    UUID execution = UUID.randomUUID();
+    List<UUID> jobs = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+    register(controller, execution, "a.yaml", jobs, 0);
+
+    controller.enqueue(execution, jobs);
+    assertEquals(2, controller.drain().size());
+    assertEquals(1, controller.getQueuedJobCount());
+
+    controller.release(jobs.get(0));
+    assertEquals(List.of(new ExecutionAdmissionController.Admission(execution, jobs.get(2))), controller.drain());
+  }
+
+  @Test
+  void testReleaseExpired_freesSlotsHeldLongerThanLease() {
+    ExecutionAdmissionController controller = controller(10, 10, 1, 10);
+    UUID execution = UUID.randomUUID();
+    List<UUID> jobs = List.of(UUID.randomUUID(), UUID.randomUUID());
+    register(controller, execution, "a.yaml", jobs, 0);
+    controller.enqueue(execution, jobs);
+    assertEquals(1, controller.drain().size());
+
+    assertTrue(controller.releaseExpired(Duration.ofHours(1)).isEmpty());
+    assertEquals(List.of(jobs.get(0)), controller.getInFlightJobIds());
+
+    assertEquals(List.of(jobs.get(0)), controller.releaseExpired(Duration.ZERO));
+    assertEquals(0, controller.getRunningStageCount());
+    assertEquals(List.of(new ExecutionAdmissionController.Admission(execution, jobs.get(1))), controller.drain());
+
+    // A late completion of the expired job does not free the slot taken since
+    controller.release(jobs.get(0));
+    assertEquals(1, controller.getRunningJobCount());
+  }
+
+  @Test
+  void testDrain_interleavesPipelinesFairly() {
+    ExecutionAdmissionController controller = controller(10, 10, 2, 10);
+    UUID burst = UUID.randomUUID();
+    UUID other = UUID.randomUUID();
+    List<UUID> burstJobs = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+    List<UUID> otherJobs = List.of(UUID.randomUUID());
+    register(controller, burst, "burst.yaml", burstJobs, 0);
+    register(controller, other, "other.yaml", otherJobs, 0);
+
+    controller.enqueue(burst, burstJobs);
+    controller.enqueue(other, otherJobs);
+
+    List<ExecutionAdmissionController.Admission> admitted = controller.drain();
+    assertEquals(burst, admitted.get(0).pipelineExecutionId());
+    assertEquals(other, admitted.get(1).pipelineExecutionId());
+  }
+
+  @Test
+  void testDrain_holdsExecutionUntilPipelineSlotFrees() {
+    ExecutionAdmissionController controller = controller(1, 10, 10, 10);
+    UUID running = UUID.randomUUID();
+    UUID waiting = UUID.randomUUID();
+    UUID runningJob = UUID.randomUUID();
+    UUID waitingJob = UUID.randomUUID();
+    register(controller, running, "a.yaml", List.of(runningJob), 0);
+    register(controller, waiting, "b.yaml", List.of(waitingJob), 0);
+
+    controller.enqueue(running, List.of(runningJob));
+    controller.enqueue(waiting, List.of(waitingJob));
+    assertEquals(1, controller.drain().size());
+    assertEquals(1, controller.getQueuedPipelineCount());
+
+    controller.release(runningJob);
+    assertTrue(controller.drain().isEmpty());
+
+    controller.finishExecution(running);
+    assertEquals(List.of(new ExecutionAdmissionController.Admission(waiting, waitingJob)), controller.drain());
+    assertEquals(1, controller.getRunningPipelineCount());
+  }
+
+  @Test
+  void testDrain_letsRunningStageGrowBeyondStageLimit() {
+    ExecutionAdmissionController controller = controller(10, 1, 10, 10);
+    UUID execution = UUID.randomUUID();
+    UUID first = UUID.randomUUID();
+    UUID sibling = UUID.randomUUID();
+    UUID nextStage = UUID.randomUUID();
+    controller.registerExecution(execution, "a.yaml", Map.of(first, 0, sibling, 0, nextStage, 1));
+
+    controller.enqueue(execution, List.of(first));
+    controller.drain();
+    controller.enqueue(execution, List.of(nextStage, sibling));
+
+    assertEquals(List.of(new ExecutionAdmissionController.Admission(execution, sibling)), controller.drain());
+    assertEquals(1, controller.getRunningStageCount());
+  }
+
+  @Test
+  void testTryReserve_rejectsWhenWaitingQueueIsFull() {
+    ExecutionAdmissionController controller = controller(1, 10, 10, 1);
+    UUID running = UUID.randomUUID();
+    UUID waiting = UUID.randomUUID();
+    UUID runningJob = UUID.randomUUID();
+    register(controller, running, "a.yaml", List.of(runningJob), 0);
+    controller.enqueue(running, List.of(runningJob));
+    controller.drain();
+    controller.tryReserve();
+    controller.releaseReservation();
+
+    register(controller, waiting, "a.yaml", List.of(UUID.randomUUID()), 0);
+    AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class, controller::tryReserve);
+    assertEquals(30, e.getRetryAfterSeconds());
+    assertEquals(1.0, meterRegistry.get("execution.queue.rejected").counter().count());
+  }
+
+  @Test
+  void testTryReserve_countsPendingTriggersBeforeTheirExecutionsExist() {
+    ExecutionAdmissionController controller = controller(1, 10, 10, 1);
+    UUID running = UUID.randomUUID();
+    UUID runningJob = UUID.randomUUID();
+    register(controller, running, "a.yaml", List.of(runningJob), 0);
+    controller.enqueue(running, List.of(runningJob));
+    controller.drain();
+
+    // The second trigger is rejected although the first one has not reserved its execution yet
+    controller.tryReserve();
+    assertThrows(AdmissionRejectedException.class, controller::tryReserve);
+
+    controller.releaseReservation();
+    controller.tryReserve();
+  }
+
+  @Test
+  void testReserveExecution_countsSetupAsWaitingUntilRegistered() {
+    ExecutionAdmissionController controller = controller(10, 10, 10, 10);
+    UUID execution = UUID.randomUUID();
+    UUID job = UUID.randomUUID();
+
+    controller.reserveExecution(execution, "a.yaml");
+    assertEquals(1, controller.getQueuedPipelineCount());
+
+    register(controller, execution, "a.yaml", List.of(job), 0);
+    controller.enqueue(execution, List.of(job));
+    assertEquals(List.of(new ExecutionAdmissionController.Admission(execution, job)), controller.drain());
+    assertEquals(0, controller.getQueuedPipelineCount());
+
+    UUID abandoned = UUID.randomUUID();
+    controller.reserveExecution(abandoned, "a.yaml");
+    controller.finishExecution(abandoned);
+    assertEquals(0, controller.getQueuedPipelineCount());
+  }
+
+  @Test
+  void testMetrics_reportQueueDepthAndWaitTime() {
+    ExecutionAdmissionController controller = controller(10, 10, 1, 10);
+    UUID execution = UUID.randomUUID();
+    List<UUID> jobs = List.of(UUID.randomUUID(), UUID.randomUUID());
+    register(controller, execution, "a.yaml", jobs, 0);
+    controller.enqueue(execution, jobs);
+    controller.drain();
+
+    assertEquals(1.0, meterRegistry.get("execution.queue.depth").tag("level", "jobs").gauge().value());
+    assertEquals(1.0, meterRegistry.get("execution.queue.running").tag("level", "jobs").gauge().value());
+    assertEquals(1, meterRegistry.get("execution.queue.wait").tag("level", "jobs").timer().count());
+    assertEquals(1, meterRegistry.get("execution.queue.wait").tag("level", "pipelines").timer().count());
+  }
+
+  @Test
+  void testParseWeights_readsPairsAndRejectsMalformedOnes() {
+    assertEquals(Map.of("a.yaml", 3, "b.yaml", 1), ExecutionAdmissionController.parseWeights("a.yaml=3, b.yaml=1"));
+    assertTrue(ExecutionAdmissionController.parseWeights("").isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> ExecutionAdmissionController.parseWeights("a.yaml"));
+  }
+
+  private ExecutionAdmissionController controller(int maxPipelines, int maxStages, int maxJobs, int maxQueued) {
+    return new ExecutionAdmissionController(maxPipelines, maxStages, maxJobs, maxQueued, 30, "", meterRegistry);
+  }
+
+  private static void register(ExecutionAdmissionController controller, UUID execution, String pipeline,
+      List<UUID> jobs, int stage) {
+    Map<UUID, Integer> stageByJob = new HashMap<>();
+    jobs.forEach(job -> stageByJob.put(job, stage));
+    controller.registerExecution(execution, pipeline, stageByJob);
+  }
+}
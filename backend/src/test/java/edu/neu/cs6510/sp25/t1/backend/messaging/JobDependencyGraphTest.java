@@ -0,0 +1,107 @@
+package edu.neu.cs6510.sp25.t1.backend.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+class JobDependencyGraphTest {
+
+  private final UUID a = UUID.randomUUID();
+  private final UUID b = UUID.randomUUID();
+  private final UUID c = UUID.randomUUID();
+  private final UUID d = UUID.randomUUID();
+
+  @Test
+  void testReleaseReady_returnsRootsOnce() {
+    JobDependencyGraph graph = new JobDependencyGraph();
+    graph.addJob(a, List.of());
+    graph.addJob(b, List.of());
+    graph.addJob(c, List.of(a, b));
+    graph.link();
+
+    assertEquals(List.of(a, b), graph.releaseReady());
+    assertTrue(graph.releaseReady().isEmpty());
+  }
+
+  @Test
+  void testComplete_releasesDiamondJoinWhenAllBranchesSucceed() {
+    JobDependencyGraph graph = new JobDependencyGraph();
+    graph.addJob(a, List.of());
+    graph.addJob(b, List.of(a));
+    graph.addJob(c, List.of(a));
+    graph.addJob(d, List.of(b, c));
+    graph.link();
+    graph.releaseReady();
+
+    assertEquals(List.of(b, c), graph.complete(a, ExecutionStatus.SUCCESS).released());
+    assertTrue(graph.complete(b, ExecutionStatus.SUCCESS).released().isEmpty());
+    assertEquals(List.of(d), graph.complete(c, ExecutionStatus.SUCCESS).released());
+    graph.complete(d, ExecutionStatus.SUCCESS);
+
+    assertTrue(graph.isFinished());
+  }
+
+  @Test
+  void testComplete_failureCancelsTransitiveDependants() {
+    JobDependencyGraph graph = new JobDependencyGraph();
+    graph.addJob(a, List.of());
+    graph.addJob(b, List.of(a));
+    graph.addJob(c, List.of(b));
+    graph.addJob(d, List.of());
+    graph.link();
+    graph.releaseReady();
+
+    JobDependencyGraph.Completion completion = graph.complete(a, ExecutionStatus.FAILED);
+
+    assertTrue(completion.released().isEmpty());
+    assertEquals(List.of(b, c), completion.canceled());
+    assertEquals(1, graph.getJobIds().size());
+  }
+
+  @Test
+  void testComplete_allowedFailureSatisfiesDependants() {
+    JobDependencyGraph graph = new JobDependencyGraph();
+    graph.addJob(a, List.of());
+    graph.addJob(b, List.of(a));
+    graph.markAllowFailure(a);
+    graph.link();
+    graph.releaseReady();
+
+    assertEquals(List.of(b), graph.complete(a, ExecutionStatus.FAILED).released());
+  }
+
+  @Test
+  void testLink_dropsUnknownDependencies() {
+    UUID outside = UUID.randomUUID();
+    JobDependencyGraph graph = new JobDependencyGraph();
+    graph.addJob(a, List.of(outside));
+
+    assertEquals(List.of(outside), graph.link());
+    assertEquals(List.of(a), graph.releaseReady());
+  }
+
+  @Test
+  void testRemainingPathLengths_addsLongestDependantChain() {
+    JobDependencyGraph graph = new JobDependencyGraph();
+    graph.addJob(a, List.of());
+    graph.addJob(b, List.of(a));
+    graph.addJob(c, List.of(a));
+    graph.addJob(d, List.of(b));
+    graph.link();
+    Map<UUID, Long> durations = Map.of(a, 5L, b, 1L, c, 10L, d, 3L);
+
+    Map<UUID, Long> lengths = graph.remainingPathLengths(durations::get);
+
+    assertEquals(15L, lengths.get(a));
+    assertEquals(4L, lengths.get(b));
+    assertEquals(10L, lengths.get(c));
+    assertEquals(3L, lengths.get(d));
+  }
+}
@@ -0,0 +1,93 @@
+package edu.neu.cs6510.sp25.t1.backend.messaging;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import edu.neu.cs6510.sp25.t1.backend.database.entity.JobExecutionEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.JobDurationRow;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.JobExecutionRepository;
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+class JobDurationEstimatorTest {
+
+  private final Instant start = Instant.parse("2025-01-01T00:00:00Z");
+  private JobExecutionRepository jobExecutionRepository;
+  private JobDurationEstimator estimator;
+
+  @BeforeEach
+  void setUp() {
+    jobExecutionRepository = mock(JobExecutionRepository.class);
+    estimator = new JobDurationEstimator(jobExecutionRepository, 3, 30, 60);
+  }
+
+  @Test
+  void testEstimateMillis_usesMedianOfRecentRuns() {
+    UUID definition = UUID.randomUUID();
+    JobExecutionEntity execution = JobExecutionEntity.builder().id(UUID.randomUUID()).jobId(definition).build();
+    when(jobExecutionRepository.findRecentDurationRowsByJobIdIn(anyCollection(), eq(ExecutionStatus.SUCCESS), any(),
+        anyInt()))
+        .thenReturn(List.of(
+            row(definition, 30),
+            row(definition, 10),
+            row(definition, 20)));
+
+    Map<UUID, Long> estimates = estimator.estimateMillis(List.of(execution));
+
+    assertEquals(20_000L, estimates.get(execution.getId()));
+    // The query caps the history of every job and only reads runs started in the history window
+    ArgumentCaptor<Instant> startedSince = ArgumentCaptor.forClass(Instant.class);
+    verify(jobExecutionRepository).findRecentDurationRowsByJobIdIn(eq(Set.of(definition)),
+        eq(ExecutionStatus.SUCCESS), startedSince.capture(), eq(3));
+    Instant expected = Instant.now().minus(Duration.ofDays(30));
+    assertTrue(Duration.between(startedSince.getValue(), expected).abs().toSeconds() < 60);
+  }
+
+  @Test
+  void testEstimateMillis_defaultsJobsWithoutHistory() {
+    JobExecutionEntity execution = JobExecutionEntity.builder().id(UUID.randomUUID()).jobId(UUID.randomUUID()).build();
+    when(jobExecutionRepository.findRecentDurationRowsByJobIdIn(anyCollection(), any(), any(), anyInt())).thenReturn(List.of());
+
+    assertEquals(60_000L, estimator.estimateMillis(List.of(execution)).get(execution.getId()));
+  }
+
+  @Test
+  void testEstimateMillis_defaultsWhenHistoryCannotBeRead() {
+    JobExecutionEntity execution = JobExecutionEntity.builder().id(UUID.randomUUID()).jobId(UUID.randomUUID()).build();
+    when(jobExecutionRepository.findRecentDurationRowsByJobIdIn(anyCollection(), any(), any(), anyInt()))
+        .thenThrow(new DataAccessResourceFailureException("down"));
+
+    assertEquals(60_000L, estimator.estimateMillis(List.of(execution)).get(execution.getId()));
+  }
+
+  @Test
+  void testEstimateMillis_skipsQueryWithoutJobDefinitions() {
+    JobExecutionEntity execution = JobExecutionEntity.builder().id(UUID.randomUUID()).build();
+
+    assertEquals(60_000L, estimator.estimateMillis(List.of(execution)).get(execution.getId()));
+    verifyNoInteractions(jobExecutionRepository);
+  }
+
+  private JobDurationRow row(UUID jobId, long seconds) {
+    return new JobDurationRow(jobId, start, start.plusSeconds(seconds));
+  }
+}
@@ -0,0 +1,147 @@
+package edu.neu.cs6510.sp25.t1.backend.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import edu.neu.cs6510.sp25.t1.backend.service.log.LogIngestionService;
+import edu.neu.cs6510.sp25.t1.backend.service.status.StatusService;
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class JobStatusListenerTest {
+
+  private StageQueuePublisher stageQueuePublisher;
+  private StatusService statusService;
+  private LogIngestionService logIngestionService;
+  private JobStatusListener listener;
+
+  @BeforeEach
+  void setUp() {
+    stageQueuePublisher = mock(StageQueuePublisher.class);
+    statusService = mock(StatusService.class);
+    logIngestionService = mock(LogIngestionService.class);
+    listener = new JobStatusListener(stageQueuePublisher, statusService, logIngestionService, new ObjectMapper(),
+        Runnable::run);
+  }
+
+  @Test
+  void testOnStatusUpdate_forwardsCompletion() {
+    UUID jobId = UUID.randomUUID();
+
+    listener.onStatusUpdate(message("{\"jobExecutionId\":\"" + jobId + "\",\"status\":\"SUCCESS\"}"));
+
+    verify(stageQueuePublisher).onJobCompleted(jobId, ExecutionStatus.SUCCESS);
+    verify(statusService).onJobStatusUpdate(jobId, ExecutionStatus.SUCCESS);
+  }
+
+  @Test
+  void testOnStatusUpdate_statusFailureDoesNotBreakDispatch() {
+    UUID jobId = UUID.randomUUID();
+    doThrow(new IllegalStateException("db down")).when(statusService).onJobStatusUpdate(jobId, ExecutionStatus.RUNNING);
+
+    listener.onStatusUpdate(message("{\"jobExecutionId\":\"" + jobId + "\",\"status\":\"RUNNING\"}"));
+
+    verify(stageQueuePublisher).onJobCompleted(jobId, ExecutionStatus.RUNNING);
+  }
+
+  @Test
+  void testOnStatusUpdate_appendsLogsAndCompletesFinishedJob() {
+    UUID jobId = UUID.randomUUID();
+
+    listener.onStatusUpdate(message("{\"jobExecutionId\":\"" + jobId + "\",\"status\":\"RUNNING\",\"logs\":\"step 1\\n\"}"));
+    listener.onStatusUpdate(message("{\"jobExecutionId\":\"" + jobId + "\",\"status\":\"FAILED\",\"logs\":\"step 2\\n\"}"));
+
+    verify(logIngestionService).append(jobId, "step 1\n");
+    verify(logIngestionService).append(jobId, "step 2\n");
+    verify(logIngestionService).complete(jobId);
+  }
+
+  @Test
+  void testOnStatusUpdate_logFailureDoesNotBreakStatus() {
+    UUID jobId = UUID.randomUUID();
+    doThrow(new IllegalStateException("db down")).when(logIngestionService).append(jobId, "line\n");
+
+    listener.onStatusUpdate(message("{\"jobExecutionId\":\"" + jobId + "\",\"status\":\"SUCCESS\",\"logs\":\"line\\n\"}"));
+
+    verify(logIngestionService, never()).complete(jobId);
+    verify(statusService).onJobStatusUpdate(jobId, ExecutionStatus.SUCCESS);
+  }
+
+  @Test
+  void testOnStatusUpdate_discardsMalformedMessage() {
+    listener.onStatusUpdate(message("not-json"));
+
+    verifyNoInteractions(stageQueuePublisher, statusService, logIngestionService);
+  }
+
+  @Test
+  void testOnStatusUpdate_discardsMessageWithoutStatus() {
+    listener.onStatusUpdate(message("{\"jobExecutionId\":\"" + UUID.randomUUID() + "\"}"));
+
+    verifyNoInteractions(stageQueuePublisher);
+  }
+
+  @Test
+  void testOnStatusUpdate_appliesUpdatesOfAnExecutionInArrivalOrder() throws Exception {
+    UUID executionId = UUID.randomUUID();
+    UUID buildId = UUID.randomUUID();
+    UUID testId = UUID.randomUUID();
+    when(stageQueuePublisher.findPipelineExecutionId(buildId)).thenReturn(Optional.of(executionId));
+    when(stageQueuePublisher.findPipelineExecutionId(testId)).thenReturn(Optional.of(executionId));
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch applied = new CountDownLatch(2);
+    List<UUID> order = new CopyOnWriteArrayList<>();
+    doAnswer(invocation -> {
+      release.await(5, TimeUnit.SECONDS);
+      order.add(buildId);
+      applied.countDown();
+      return null;
+    }).when(statusService).onJobStatusUpdate(buildId, ExecutionStatus.RUNNING);
+    doAnswer(invocation -> {
+      order.add(testId);
+      applied.countDown();
+      return null;
+    }).when(statusService).onJobStatusUpdate(testId, ExecutionStatus.SUCCESS);
+
+    try (ExecutorService statusExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+      listener = new JobStatusListener(stageQueuePublisher, statusService, logIngestionService, new ObjectMapper(),
+          statusExecutor);
+      listener.onStatusUpdate(message("{\"jobExecutionId\":\"" + buildId + "\",\"status\":\"RUNNING\"}"));
+      listener.onStatusUpdate(message("{\"jobExecutionId\":\"" + testId + "\",\"status\":\"SUCCESS\"}"));
+
+      // The second update waits for the first even though the executor could run both at once
+      assertFalse(applied.await(200, TimeUnit.MILLISECONDS));
+      release.countDown();
+      assertTrue(applied.await(5, TimeUnit.SECONDS));
+    }
+    assertEquals(List.of(buildId, testId), order);
+  }
+
+  private static Message message(String body) {
+    return new Message(body.getBytes(StandardCharsets.UTF_8), new MessageProperties());
+  }
+}
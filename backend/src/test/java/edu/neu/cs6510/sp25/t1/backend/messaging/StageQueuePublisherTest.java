@@ -2,22 +2,48 @@ package edu.neu.cs6510.sp25.t1.backend.messaging;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.amqp.core.QueueInformation;
-import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.verification.VerificationMode;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import edu.neu.cs6510.sp25.t1.backend.database.entity.JobExecutionEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.JobDependencyRow;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.JobDurationRow;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.JobExecutionRepository;
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.junit.jupiter.api.Assertions.fail;
-import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Field;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
 
 
@@ -25,46 +51,32 @@ import java.util.UUID;
 class StageQueuePublisherTest {
 
   private RabbitTemplate rabbitTemplate;
-  private RabbitAdmin rabbitAdmin;
+  private JobExecutionRepository jobExecutionRepository;
   private StageQueuePublisher publisher;
+  private final UUID executionId = UUID.randomUUID();
 
   @BeforeEach
   void setUp() throws Exception {
     rabbitTemplate = mock(RabbitTemplate.class);
-    rabbitAdmin = mock(RabbitAdmin.class);
+    jobExecutionRepository = mock(JobExecutionRepository.class);
 
-    publisher = new StageQueuePublisher(rabbitTemplate, rabbitAdmin);
+    when(jobExecutionRepository.findDependencyRowsByJobIdIn(anyCollection())).thenReturn(List.of());
+    when(jobExecutionRepository.findAllById(anyCollection())).thenReturn(List.of());
 
-    // Use reflection to inject private field
-    Field field = StageQueuePublisher.class.getDeclaredField("jobQueueName");
-    field.setAccessible(true);
-    field.set(publisher, "job.queue.test");
+    publisher = publisher(100, 100, 100);
   }
 
   @Test
-  void testDispatchStageQueue_sendsJobsAndWaitsUntilQueueEmpty() {
-    // Arrange
+  void testDispatchStageQueue_sendsFirstStageImmediately() {
     UUID job1 = UUID.randomUUID();
     UUID job2 = UUID.randomUUID();
+    UUID job3 = UUID.randomUUID();
 
-    Queue<UUID> jobQueue = new LinkedList<>();
-    jobQueue.add(job1);
-    jobQueue.add(job2);
-
-    Queue<Queue<UUID>> stageQueue = new LinkedList<>();
-    stageQueue.add(jobQueue);
-
-    QueueInformation queueInfo = mock(QueueInformation.class);
-    when(queueInfo.getMessageCount()).thenReturn(1, 1, 0); // simulate queue draining
-    when(rabbitAdmin.getQueueInfo("job.queue.test")).thenReturn(queueInfo);
-
-    // Act
-    publisher.dispatchStageQueue(stageQueue);
+    publisher.dispatchStageQueue(executionId, stages(List.of(job1, job2), List.of(job3)));
 
-    // Assert
-    verify(rabbitTemplate).convertAndSend("job.queue.test", job1.toString());
-    verify(rabbitTemplate).convertAndSend("job.queue.test", job2.toString());
-    verify(rabbitAdmin, atLeastOnce()).getQueueInfo("job.queue.test");
+    verifySent(job1, times(1));
+    verifySent(job2, times(1));
+    verifySent(job3, never());
   }
 
   @Test
@@ -72,65 +84,385 @@ class StageQueuePublisherTest {
     Queue<Queue<UUID>> stageQueue = new LinkedList<>();
     stageQueue.add(new LinkedList<>()); // empty stage
 
-    publisher.dispatchStageQueue(stageQueue);
+    publisher.dispatchStageQueue(executionId, stageQueue);
 
     verifyNoInteractions(rabbitTemplate);
   }
 
   @Test
-  void testDispatchStageQueue_throwsIfQueueNotFound() {
-    Queue<UUID> jobQueue = new LinkedList<>();
-    jobQueue.add(UUID.randomUUID());
+  void testOnJobCompleted_releasesNextStageOnlyAfterWholeStageSucceeds() {
+    UUID job1 = UUID.randomUUID();
+    UUID job2 = UUID.randomUUID();
+    UUID job3 = UUID.randomUUID();
 
-    Queue<Queue<UUID>> stageQueue = new LinkedList<>();
-    stageQueue.add(jobQueue);
+    publisher.dispatchStageQueue(executionId, stages(List.of(job1, job2), List.of(job3)));
 
-    when(rabbitAdmin.getQueueInfo("job.queue.test")).thenReturn(null);
+    publisher.onJobCompleted(job1, ExecutionStatus.SUCCESS);
+    verifySent(job3, never());
 
-    try {
-      publisher.dispatchStageQueue(stageQueue);
-      fail("Expected IllegalStateException to be thrown");
-    } catch (IllegalStateException e) {
-      assertTrue(e.getMessage().contains("RabbitMQ queue not found"));
-    }
+    publisher.onJobCompleted(job2, ExecutionStatus.SUCCESS);
+    verifySent(job3, times(1));
   }
 
   @Test
-  void testDispatchStageQueue_triggersInterruption() throws Exception {
-    UUID jobId = UUID.randomUUID();
+  void testOnJobCompleted_explicitDependencyBypassesStageBarrier() {
+    UUID build = UUID.randomUUID();
+    UUID lint = UUID.randomUUID();
+    UUID test = UUID.randomUUID();
+    Map<UUID, UUID> definitions = stubDefinitions(build, lint, test);
+    stubDependencies(new JobDependencyRow(definitions.get(test), definitions.get(build)));
 
-    Queue<UUID> jobQueue = new LinkedList<>();
-    jobQueue.add(jobId);
+    publisher.dispatchStageQueue(executionId, stages(List.of(build, lint), List.of(test)));
+    publisher.onJobCompleted(build, ExecutionStatus.SUCCESS);
 
-    Queue<Queue<UUID>> stageQueue = new LinkedList<>();
-    stageQueue.add(jobQueue);
+    verifySent(test, times(1));
+  }
+
+  @Test
+  void testOnJobCompleted_dependencyOnEarlierStageReleasesAcrossStages() {
+    UUID build = UUID.randomUUID();
+    UUID lint = UUID.randomUUID();
+    UUID test = UUID.randomUUID();
+    UUID deploy = UUID.randomUUID();
+    Map<UUID, UUID> definitions = stubDefinitions(build, lint, test, deploy);
+    stubDependencies(new JobDependencyRow(definitions.get(deploy), definitions.get(build)));
+
+    publisher.dispatchStageQueue(executionId, stages(List.of(build, lint), List.of(test), List.of(deploy)));
+    verifySent(deploy, never());
+
+    // lint and test are still running; deploy only needs build
+    publisher.onJobCompleted(build, ExecutionStatus.SUCCESS);
+    verifySent(deploy, times(1));
+    verifySent(test, never());
+    verify(jobExecutionRepository, times(1)).findDependencyRowsByJobIdIn(Set.copyOf(definitions.values()));
+  }
+
+  @Test
+  void testDispatchStageQueue_ignoresDependencyOutsideExecution() {
+    UUID build = UUID.randomUUID();
+    UUID test = UUID.randomUUID();
+    Map<UUID, UUID> definitions = stubDefinitions(build, test);
+    stubDependencies(new JobDependencyRow(definitions.get(test), UUID.randomUUID()));
+
+    publisher.dispatchStageQueue(executionId, stages(List.of(build), List.of(test)));
+    verifySent(test, never());
+
+    publisher.onJobCompleted(build, ExecutionStatus.SUCCESS);
+    verifySent(test, times(1));
+  }
+
+  @Test
+  void testOnJobCompleted_failureCancelsDependants() {
+    UUID job1 = UUID.randomUUID();
+    UUID job2 = UUID.randomUUID();
+    UUID job3 = UUID.randomUUID();
+    JobExecutionEntity downstream = JobExecutionEntity.builder().id(job2).status(ExecutionStatus.PENDING).build();
+    JobExecutionEntity transitive = JobExecutionEntity.builder().id(job3).status(ExecutionStatus.PENDING).build();
+    when(jobExecutionRepository.findAllById(List.of(job2, job3))).thenReturn(List.of(downstream, transitive));
+
+    publisher.dispatchStageQueue(executionId, stages(List.of(job1), List.of(job2), List.of(job3)));
+    publisher.onJobCompleted(job1, ExecutionStatus.FAILED);
+
+    verify(rabbitTemplate, times(1)).convertAndSend(anyString(), anyString(), any(), any(MessagePostProcessor.class));
+    assertEquals(ExecutionStatus.CANCELED, downstream.getStatus());
+    assertEquals(ExecutionStatus.CANCELED, transitive.getStatus());
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<JobExecutionEntity>> saved = ArgumentCaptor.forClass(List.class);
+    verify(jobExecutionRepository).saveAll(saved.capture());
+    assertEquals(2, saved.getValue().size());
+  }
+
+  @Test
+  void testOnJobCompleted_allowedFailureReleasesDependants() {
+    UUID job1 = UUID.randomUUID();
+    UUID job2 = UUID.randomUUID();
+    JobExecutionEntity flaky = JobExecutionEntity.builder().id(job1).allowFailure(true).build();
+    when(jobExecutionRepository.findAllById(anyCollection())).thenReturn(List.of(flaky));
+
+    publisher.dispatchStageQueue(executionId, stages(List.of(job1), List.of(job2)));
+    publisher.onJobCompleted(job1, ExecutionStatus.FAILED);
+
+    verifySent(job2, times(1));
+    verify(jobExecutionRepository, never()).saveAll(any());
+  }
+
+  @Test
+  void testOnJobCompleted_ignoresNonTerminalAndDuplicateUpdates() {
+    UUID job1 = UUID.randomUUID();
+    UUID job2 = UUID.randomUUID();
+
+    publisher.dispatchStageQueue(executionId, stages(List.of(job1), List.of(job2)));
+    publisher.onJobCompleted(job1, ExecutionStatus.RUNNING);
+    verifySent(job2, never());
+
+    publisher.onJobCompleted(job1, ExecutionStatus.SUCCESS);
+    publisher.onJobCompleted(job1, ExecutionStatus.SUCCESS);
+    verifySent(job2, times(1));
+  }
+
+  @Test
+  void testReconcileInFlightJobs_completesJobsWhoseStatusMessageWasLost() throws Exception {
+    publisher = publisher(10, 10, 1);
+    UUID job1 = UUID.randomUUID();
+    UUID job2 = UUID.randomUUID();
+    UUID next = UUID.randomUUID();
+
+    publisher.dispatchStageQueue(executionId, stages(List.of(job1, job2), List.of(next)));
+    verifySent(job2, never());
+
+    // job1 finished but its status message never arrived
+    when(jobExecutionRepository.findAllById(List.of(job1))).thenReturn(List.of(
+        JobExecutionEntity.builder().id(job1).status(ExecutionStatus.SUCCESS).build()));
+    publisher.reconcileInFlightJobs();
+    verifySent(job2, times(1));
+
+    // job2 is still running, and its row is reported as such
+    when(jobExecutionRepository.findAllById(List.of(job2))).thenReturn(List.of(
+        JobExecutionEntity.builder().id(job2).status(ExecutionStatus.RUNNING).build()));
+    publisher.reconcileInFlightJobs();
+    verifySent(next, never());
+
+    publisher.onJobCompleted(job2, ExecutionStatus.SUCCESS);
+    verifySent(next, times(1));
+  }
+
+  @Test
+  void testReconcileInFlightJobs_freesSlotOfJobWithoutRow() throws Exception {
+    publisher = publisher(10, 10, 1);
+    UUID gone = UUID.randomUUID();
+    UUID waiting = UUID.randomUUID();
 
-    RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
-    RabbitAdmin rabbitAdmin = mock(RabbitAdmin.class);
+    publisher.dispatchStageQueue(executionId, stages(List.of(gone, waiting)));
+    verifySent(waiting, never());
 
-    QueueInformation queueInfo = mock(QueueInformation.class);
-    when(queueInfo.getMessageCount()).thenReturn(1); // force sleep
-    when(rabbitAdmin.getQueueInfo("job.queue.test")).thenReturn(queueInfo);
+    publisher.reconcileInFlightJobs();
+    verifySent(waiting, times(1));
+  }
+
+  @Test
+  void testPublish_failedSendQueuesRestOfBatchAgain() throws Exception {
+    publisher = publisher(10, 10, 2);
+    UUID job1 = UUID.randomUUID();
+    UUID job2 = UUID.randomUUID();
+    doThrow(new AmqpException("broker unavailable")).doNothing().when(rabbitTemplate)
+        .convertAndSend(eq("job.exchange.test"), eq("job." + executionId), eq(job1.toString()),
+            any(MessagePostProcessor.class));
+
+    publisher.dispatchStageQueue(executionId, stages(List.of(job1, job2)));
+    verifySent(job1, times(1));
+    verifySent(job2, never());
+
+    // The slots were given back, so the retry is not held up by the job limit
+    publisher.reconcileInFlightJobs();
+    InOrder inOrder = inOrder(rabbitTemplate);
+    inOrder.verify(rabbitTemplate, times(2)).convertAndSend(eq("job.exchange.test"), eq("job." + executionId),
+        eq(job1.toString()), any(MessagePostProcessor.class));
+    inOrder.verify(rabbitTemplate).convertAndSend(eq("job.exchange.test"), eq("job." + executionId),
+        eq(job2.toString()), any(MessagePostProcessor.class));
+  }
+
+  @Test
+  void testOnJobCompleted_ignoresUnknownJob() {
+    publisher.onJobCompleted(UUID.randomUUID(), ExecutionStatus.SUCCESS);
+
+    verifyNoInteractions(rabbitTemplate);
+  }
+
+  @Test
+  void testDispatchStageQueue_routesJobsByPipelineExecution() {
+    UUID job = UUID.randomUUID();
 
-    StageQueuePublisher publisher = new StageQueuePublisher(rabbitTemplate, rabbitAdmin);
-    setPrivateField(publisher, "jobQueueName", "job.queue.test");
+    publisher.dispatchStageQueue(executionId, stages(List.of(job)));
 
-    // Simulate thread interruption
-    Thread.currentThread().interrupt();
+    ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+    verify(rabbitTemplate).convertAndSend(eq("job.exchange.test"), eq("job." + executionId),
+        eq(job.toString()), postProcessor.capture());
+
+    Message message = postProcessor.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+    assertEquals(executionId.toString(),
+        message.getMessageProperties().getHeader(StageQueuePublisher.PIPELINE_EXECUTION_HEADER));
+  }
+
+  @Test
+  void testOnJobCompleted_executionsDoNotWaitOnEachOther() {
+    UUID otherExecution = UUID.randomUUID();
+    UUID slow = UUID.randomUUID();
+    UUID fast = UUID.randomUUID();
+    UUID next = UUID.randomUUID();
+
+    publisher.dispatchStageQueue(otherExecution, stages(List.of(slow)));
+    publisher.dispatchStageQueue(executionId, stages(List.of(fast), List.of(next)));
+    publisher.onJobCompleted(fast, ExecutionStatus.SUCCESS);
+
+    verifySent(next, times(1));
+    assertEquals(1, publisher.getOutstandingJobCount(otherExecution));
+    assertEquals(1, publisher.getOutstandingJobCount(executionId));
+
+    publisher.onJobCompleted(next, ExecutionStatus.SUCCESS);
+    assertEquals(0, publisher.getOutstandingJobCount(executionId));
+  }
+
+  @Test
+  void testDispatchStageQueue_rejectsDuplicateDispatch() {
+    publisher.dispatchStageQueue(executionId, stages(List.of(UUID.randomUUID())));
+
+    assertThrows(IllegalStateException.class,
+        () -> publisher.dispatchStageQueue(executionId, stages(List.of(UUID.randomUUID()))));
+  }
+
+  @Test
+  void testDispatchStageQueue_holdsJobsBeyondJobLimitUntilSlotFrees() throws Exception {
+    publisher = publisher(10, 10, 2);
+    UUID job1 = UUID.randomUUID();
+    UUID job2 = UUID.randomUUID();
+    UUID job3 = UUID.randomUUID();
 
-    RuntimeException ex = assertThrows(RuntimeException.class, () ->
-        publisher.dispatchStageQueue(stageQueue)
-    );
+    publisher.dispatchStageQueue(executionId, stages(List.of(job1, job2, job3)));
+    verifySent(job1, times(1));
+    verifySent(job2, times(1));
+    verifySent(job3, never());
 
-    assertTrue(ex.getMessage().contains("Interrupted"));
+    publisher.onJobCompleted(job1, ExecutionStatus.SUCCESS);
+    verifySent(job3, times(1));
   }
 
-  private void setPrivateField(Object target, String fieldName, Object value) throws Exception {
-    Field field = target.getClass().getDeclaredField(fieldName);
+  @Test
+  void testDispatchStageQueue_holdsExecutionsBeyondPipelineLimit() throws Exception {
+    publisher = publisher(1, 10, 10);
+    UUID otherExecution = UUID.randomUUID();
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+
+    publisher.dispatchStageQueue(otherExecution, "a.yaml", stages(List.of(first)));
+    publisher.dispatchStageQueue(executionId, "b.yaml", stages(List.of(second)));
+    verifySent(second, never());
+
+    publisher.onJobCompleted(first, ExecutionStatus.SUCCESS);
+    verifySent(second, times(1));
+  }
+
+  @Test
+  void testOnJobCompleted_holdsStagesBeyondStageLimit() throws Exception {
+    publisher = publisher(10, 1, 10);
+    UUID build = UUID.randomUUID();
+    UUID lint = UUID.randomUUID();
+    UUID test = UUID.randomUUID();
+    Map<UUID, UUID> definitions = stubDefinitions(build, lint, test);
+    stubDependencies(new JobDependencyRow(definitions.get(test), definitions.get(build)));
+
+    publisher.dispatchStageQueue(executionId, stages(List.of(build, lint), List.of(test)));
+    publisher.onJobCompleted(build, ExecutionStatus.SUCCESS);
+    verifySent(test, never());
+
+    publisher.onJobCompleted(lint, ExecutionStatus.SUCCESS);
+    verifySent(test, times(1));
+  }
+
+  private StageQueuePublisher publisher(int maxPipelines, int maxStages, int maxJobs) throws Exception {
+    ExecutionAdmissionController admissionController = new ExecutionAdmissionController(
+        maxPipelines, maxStages, maxJobs, 10, 30, "", new SimpleMeterRegistry());
+    StageQueuePublisher created = new StageQueuePublisher(rabbitTemplate, jobExecutionRepository, admissionController,
+        new JobDurationEstimator(jobExecutionRepository, 20, 30, 60), Runnable::run);
+
+    // Use reflection to inject private fields
+    Field field = StageQueuePublisher.class.getDeclaredField("jobExchangeName");
     field.setAccessible(true);
-    field.set(target, value);
+    field.set(created, "job.exchange.test");
+    Field priorityField = StageQueuePublisher.class.getDeclaredField("maxPriority");
+    priorityField.setAccessible(true);
+    priorityField.set(created, 9);
+    return created;
   }
 
+  @Test
+  void testDispatchStageQueue_publishesLongestRemainingPathFirst() throws Exception {
+    publisher = publisher(10, 10, 1);
+    UUID shortJob = UUID.randomUUID();
+    UUID longJob = UUID.randomUUID();
+    UUID after = UUID.randomUUID();
+    UUID shortDefinition = UUID.randomUUID();
+    UUID longDefinition = UUID.randomUUID();
+    UUID afterDefinition = UUID.randomUUID();
+    when(jobExecutionRepository.findAllById(anyCollection())).thenReturn(List.of(
+        JobExecutionEntity.builder().id(shortJob).jobId(shortDefinition).build(),
+        JobExecutionEntity.builder().id(longJob).jobId(longDefinition).build(),
+        JobExecutionEntity.builder().id(after).jobId(afterDefinition).build()));
+    stubDependencies(new JobDependencyRow(afterDefinition, longDefinition));
+    Instant start = Instant.parse("2025-01-01T00:00:00Z");
+    when(jobExecutionRepository.findRecentDurationRowsByJobIdIn(anyCollection(), eq(ExecutionStatus.SUCCESS), any(),
+        anyInt()))
+        .thenReturn(List.of(
+            new JobDurationRow(shortDefinition, start, start.plusSeconds(10)),
+            new JobDurationRow(longDefinition, start, start.plusSeconds(300))));
+
+    publisher.dispatchStageQueue(executionId, stages(List.of(shortJob, longJob), List.of(after)));
+
+    // Only one job slot: the job on the critical path goes first with the highest priority
+    verifySent(longJob, times(1));
+    verifySent(shortJob, never());
+    assertEquals(9, sentPriority(longJob));
+
+    publisher.onJobCompleted(longJob, ExecutionStatus.SUCCESS);
+    verifySent(shortJob, times(1));
+    verifySent(after, never());
+    assertEquals(0, sentPriority(shortJob));
+  }
+
+  @Test
+  void testDispatchStageQueue_withoutHistoryPrioritizesLongerChains() {
+    UUID leaf = UUID.randomUUID();
+    UUID root = UUID.randomUUID();
+    UUID next = UUID.randomUUID();
+    Map<UUID, UUID> definitions = stubDefinitions(leaf, root, next);
+    stubDependencies(new JobDependencyRow(definitions.get(next), definitions.get(root)));
+
+    publisher.dispatchStageQueue(executionId, stages(List.of(leaf, root), List.of(next)));
 
+    assertEquals(9, sentPriority(root));
+    assertEquals(5, sentPriority(leaf));
+  }
 
+  /**
+   * Stubs one job execution per ID, each running its own job definition.
+   *
+   * @return the job definition ID of every job execution
+   */
+  private Map<UUID, UUID> stubDefinitions(UUID... jobIds) {
+    Map<UUID, UUID> definitions = new HashMap<>();
+    List<JobExecutionEntity> jobs = new ArrayList<>();
+    for (UUID jobId : jobIds) {
+      UUID definition = UUID.randomUUID();
+      definitions.put(jobId, definition);
+      jobs.add(JobExecutionEntity.builder().id(jobId).jobId(definition).build());
+    }
+    when(jobExecutionRepository.findAllById(anyCollection())).thenReturn(jobs);
+    return definitions;
+  }
+
+  private void stubDependencies(JobDependencyRow... rows) {
+    when(jobExecutionRepository.findDependencyRowsByJobIdIn(anyCollection())).thenReturn(List.of(rows));
+  }
+
+  private int sentPriority(UUID jobId) {
+    ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+    verify(rabbitTemplate).convertAndSend(eq("job.exchange.test"), eq("job." + executionId),
+        eq(jobId.toString()), postProcessor.capture());
+    Message message = postProcessor.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+    return message.getMessageProperties().getPriority();
+  }
+
+  private void verifySent(UUID jobId, VerificationMode mode) {
+    verify(rabbitTemplate, mode).convertAndSend(eq("job.exchange.test"), eq("job." + executionId),
+        eq(jobId.toString()), any(MessagePostProcessor.class));
+  }
+
+  @SafeVarargs
+  private static Queue<Queue<UUID>> stages(List<UUID>... stages) {
+    Queue<Queue<UUID>> stageQueue = new LinkedList<>();
+    for (List<UUID> stage : stages) {
+      stageQueue.add(new LinkedList<>(stage));
+    }
+    return stageQueue;
+  }
 }
@@ -0,0 +1,68 @@
+package edu.neu.cs6510.sp25.t1.backend.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class WeightedFairQueueTest {
+
+  @Test
+  void testPollFirst_interleavesFlowsInsteadOfDrainingBurst() {
+    WeightedFairQueue<String> queue = new WeightedFairQueue<>();
+    for (int i = 1; i <= 3; i++) {
+      queue.add("burst", 1, "burst-" + i);
+    }
+    queue.add("other", 1, "other-1");
+
+    assertEquals(List.of("burst-1", "other-1", "burst-2", "burst-3"), drain(queue));
+  }
+
+  @Test
+  void testPollFirst_servesFlowsInProportionToWeight() {
+    WeightedFairQueue<String> queue = new WeightedFairQueue<>();
+    for (int i = 1; i <= 4; i++) {
+      queue.add("heavy", 2, "heavy-" + i);
+      queue.add("light", 1, "light-" + i);
+    }
+
+    List<String> firstSix = drain(queue).subList(0, 6);
+    assertEquals(4, firstSix.stream().filter(item -> item.startsWith("heavy")).count());
+  }
+
+  @Test
+  void testPollFirst_skipsIneligibleItemsWithoutLosingThem() {
+    WeightedFairQueue<String> queue = new WeightedFairQueue<>();
+    queue.add("a", 1, "blocked");
+    queue.add("b", 1, "ready");
+
+    assertEquals("ready", queue.pollFirst(item -> !item.equals("blocked")));
+    assertNull(queue.pollFirst(item -> !item.equals("blocked")));
+    assertEquals("blocked", queue.pollFirst(item -> true));
+  }
+
+  @Test
+  void testRemoveIf_dropsMatchingItems() {
+    WeightedFairQueue<String> queue = new WeightedFairQueue<>();
+    queue.add("a", 1, "a-1");
+    queue.add("a", 1, "a-2");
+    queue.add("b", 1, "b-1");
+
+    assertTrue(queue.removeIf(item -> item.startsWith("a")));
+    assertEquals(1, queue.size());
+    assertEquals(List.of("b-1"), drain(queue));
+  }
+
+  private static List<String> drain(WeightedFairQueue<String> queue) {
+    List<String> items = new ArrayList<>();
+    String item;
+    while ((item = queue.pollFirst(candidate -> true)) != null) {
+      items.add(item);
+    }
+    return items;
+  }
+}
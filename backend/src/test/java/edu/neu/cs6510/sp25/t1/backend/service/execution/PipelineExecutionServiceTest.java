@@ -1,13 +1,13 @@
 package edu.neu.cs6510.sp25.t1.backend.service.execution;
 
 import edu.neu.cs6510.sp25.t1.backend.database.entity.PipelineExecutionEntity;
-import edu.neu.cs6510.sp25.t1.backend.info.ClonedPipelineInfo;
+import edu.neu.cs6510.sp25.t1.backend.info.PipelineSourceInfo;
 import edu.neu.cs6510.sp25.t1.backend.service.pipeline.GitPipelineService;
 import edu.neu.cs6510.sp25.t1.backend.service.pipeline.PipelineDefinitionService;
 import edu.neu.cs6510.sp25.t1.backend.service.pipeline.PipelineExecutionCreationService;
 import edu.neu.cs6510.sp25.t1.backend.service.pipeline.YamlConfigurationService;
 import edu.neu.cs6510.sp25.t1.common.api.request.PipelineExecutionRequest;
-import edu.neu.cs6510.sp25.t1.common.api.response.PipelineExecutionResponse;
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,27 +15,25 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Queue;
 import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
-import static org.mockito.Mockito.doThrow;
 
 
 @ExtendWith(MockitoExtension.class)
@@ -61,9 +59,9 @@ public class PipelineExecutionServiceTest {
     private Map<String, Object> pipelineConfig;
     private UUID pipelineId;
     private PipelineExecutionEntity pipelineExecution;
-    private Path resolvedPath;
-    private ClonedPipelineInfo clonedPipelineInfo;
-    private String pipelineExecutionId;
+    private PipelineSourceInfo pipelineSourceInfo;
+    private UUID pipelineExecutionId;
+    private TriggerProgress progress;
 
     @BeforeEach
     public void setUp() {
@@ -97,150 +95,162 @@ public class PipelineExecutionServiceTest {
         pipelineExecution = new PipelineExecutionEntity();
         pipelineExecution.setId(UUID.randomUUID());
 
-        resolvedPath = Paths.get("/mnt/pipeline/uuid/repo/.pipelines/pipeline.yaml");
-
-        clonedPipelineInfo = new ClonedPipelineInfo(
-                "/mnt/pipeline/uuid/repo/.pipelines/pipeline.yaml",
-                UUID.randomUUID()
+        pipelineSourceInfo = new PipelineSourceInfo(
+                ".pipelines/pipeline.yaml",
+                "name: test-pipeline",
+                "abc123"
         );
 
-        pipelineExecutionId = pipelineExecution.getId().toString();
+        pipelineExecutionId = pipelineExecution.getId();
+        progress = new TriggerProgress(pipelineExecutionId);
     }
 
     @Test
-    public void testStartPipelineExecution_Success() throws Exception {
+    public void testReservePipelineExecution_SavesPendingExecutionWithoutDefinition() {
         // Arrange
-        when(gitPipelineService.cloneRepoAndLocatePipelineFile(any(PipelineExecutionRequest.class)))
-                .thenReturn(clonedPipelineInfo);
+        when(pipelineExecutionCreationService.createPipelineExecution(request, null)).thenReturn(pipelineExecution);
+        when(pipelineExecutionCreationService.savePipelineExecution(pipelineExecution)).thenReturn(pipelineExecution);
+
+        // Act
+        UUID reservedId = pipelineExecutionService.reservePipelineExecution(request);
 
-        when(yamlConfigurationService.resolveAndValidatePipelinePath(anyString()))
-                .thenReturn(resolvedPath);
+        // Assert
+        assertEquals(pipelineExecutionId, reservedId);
+        verify(pipelineExecutionCreationService).createPipelineExecution(eq(request), isNull());
+        verifyNoInteractions(gitPipelineService, yamlConfigurationService, pipelineDefinitionService);
+    }
+
+    @Test
+    public void testPreparePipelineExecution_Success() throws Exception {
+        // Arrange
+        when(gitPipelineService.readPipelineFile(any(PipelineExecutionRequest.class)))
+                .thenReturn(pipelineSourceInfo);
 
-        when(yamlConfigurationService.parseAndValidatePipelineYaml(anyString()))
+        when(yamlConfigurationService.parseAndValidatePipelineYamlContent(anyString(), anyString(), anyString(), anyString()))
                 .thenReturn(pipelineConfig);
 
-        when(pipelineDefinitionService.createOrGetPipelineEntity(
-                any(PipelineExecutionRequest.class), anyMap()))
+        when(pipelineDefinitionService.createOrReusePipelineDefinition(
+                any(PipelineExecutionRequest.class), anyMap(), anyString()))
                 .thenReturn(pipelineId);
 
-        when(pipelineExecutionCreationService.createPipelineExecution(
-                any(PipelineExecutionRequest.class), any(UUID.class)))
-                .thenReturn(pipelineExecution);
+        doNothing().when(pipelineExecutionCreationService).materializePipelineExecution(
+                any(UUID.class), any(UUID.class), anyString(), anyMap(), any(Queue.class));
 
-        when(pipelineExecutionCreationService.savePipelineExecution(any(PipelineExecutionEntity.class)))
-                .thenReturn(pipelineExecution);
+        // Act
+        pipelineExecutionService.preparePipelineExecution(pipelineExecutionId, request, stageQueue, progress);
 
-        doNothing().when(pipelineDefinitionService).createPipelineDefinition(
-                any(UUID.class), anyMap(), anyString());
+        // Assert - every step ran, and the last one is still open for the caller
+        assertEquals(ExecutionStatus.SUCCESS, progress.getSteps().get(0).status());
+        assertEquals(ExecutionStatus.SUCCESS, progress.getSteps().get(1).status());
+        assertEquals(ExecutionStatus.RUNNING, progress.getSteps().get(2).status());
 
-        doNothing().when(pipelineExecutionCreationService).createAndSaveStageExecutions(
-                any(UUID.class), anyMap(), any(Queue.class));
+        // Verify all interactions
+        verify(gitPipelineService).readPipelineFile(request);
+        verify(yamlConfigurationService).parseAndValidatePipelineYamlContent(
+                request.getRepo(), "abc123", ".pipelines/pipeline.yaml", "name: test-pipeline");
+        verify(pipelineDefinitionService).createOrReusePipelineDefinition(request, pipelineConfig, request.getFilePath());
+        verify(pipelineExecutionCreationService).materializePipelineExecution(
+                pipelineExecutionId, pipelineId, "abc123", pipelineConfig, stageQueue);
+        verify(pipelineExecutionCreationService).verifyEntitiesSaved(pipelineId, pipelineExecutionId);
+    }
 
-        doNothing().when(pipelineExecutionCreationService).verifyEntitiesSaved(
-                any(UUID.class), any(UUID.class));
+    @Test
+    public void testPreparePipelineExecution_PreloadedSourceSkipsFetch() throws Exception {
+        // Arrange
+        when(yamlConfigurationService.parseAndValidatePipelineYamlContent(anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(pipelineConfig);
+        when(pipelineDefinitionService.createOrReusePipelineDefinition(any(), any(), anyString())).thenReturn(pipelineId);
 
         // Act
-        PipelineExecutionResponse response = pipelineExecutionService.startPipelineExecution(request, stageQueue);
+        pipelineExecutionService.preparePipelineExecution(pipelineExecutionId, request, pipelineSourceInfo, stageQueue, progress);
 
         // Assert
-        assertNotNull(response);
-
-        // Since we're not sure which method or field to use for the ID,
-        // let's just check that the response is not null and status is correct
-        assertEquals("PENDING", response.getStatus());
-
-        // Verify all interactions
-        verify(gitPipelineService).cloneRepoAndLocatePipelineFile(request);
-        verify(yamlConfigurationService).resolveAndValidatePipelinePath(clonedPipelineInfo.getYamlPath());
-        verify(yamlConfigurationService).parseAndValidatePipelineYaml(resolvedPath.toString());
-        verify(pipelineDefinitionService).createOrGetPipelineEntity(request, pipelineConfig);
-        verify(pipelineDefinitionService).createPipelineDefinition(pipelineId, pipelineConfig, request.getFilePath());
-        verify(pipelineExecutionCreationService).createPipelineExecution(request, pipelineId);
-        verify(pipelineExecutionCreationService).savePipelineExecution(pipelineExecution);
-        verify(pipelineExecutionCreationService).createAndSaveStageExecutions(
-                pipelineExecution.getId(), pipelineConfig, stageQueue);
-        verify(pipelineExecutionCreationService).verifyEntitiesSaved(pipelineId, pipelineExecution.getId());
+        assertEquals(ExecutionStatus.SUCCESS, progress.getSteps().get(0).status());
+        verifyNoInteractions(gitPipelineService);
+        verify(yamlConfigurationService).parseAndValidatePipelineYamlContent(
+                request.getRepo(), "abc123", ".pipelines/pipeline.yaml", "name: test-pipeline");
+        verify(pipelineExecutionCreationService).materializePipelineExecution(
+                pipelineExecutionId, pipelineId, "abc123", pipelineConfig, stageQueue);
     }
 
     @Test
-    public void testStartPipelineExecution_GitCloneFailure() throws Exception {
+    public void testPreparePipelineExecution_GitCloneFailure() throws Exception {
         // Arrange
-        when(gitPipelineService.cloneRepoAndLocatePipelineFile(any(PipelineExecutionRequest.class)))
+        when(gitPipelineService.readPipelineFile(any(PipelineExecutionRequest.class)))
                 .thenThrow(new RuntimeException("Failed to clone repository"));
 
         // Act & Assert
         Exception exception = assertThrows(RuntimeException.class, () -> {
-            pipelineExecutionService.startPipelineExecution(request, stageQueue);
+            pipelineExecutionService.preparePipelineExecution(pipelineExecutionId, request, stageQueue, progress);
         });
 
         assertTrue(exception.getMessage().contains("Pipeline execution failed"));
 
         // Verify interactions
-        verify(gitPipelineService).cloneRepoAndLocatePipelineFile(request);
+        verify(gitPipelineService).readPipelineFile(request);
         verifyNoInteractions(yamlConfigurationService);
         verifyNoInteractions(pipelineDefinitionService);
         verifyNoInteractions(pipelineExecutionCreationService);
     }
 
     @Test
-    public void testStartPipelineExecution_YamlValidationFailure() throws Exception {
+    public void testPreparePipelineExecution_YamlValidationFailure() throws Exception {
         // Arrange
-        when(gitPipelineService.cloneRepoAndLocatePipelineFile(any(PipelineExecutionRequest.class)))
-                .thenReturn(clonedPipelineInfo);
-
-        when(yamlConfigurationService.resolveAndValidatePipelinePath(anyString()))
-                .thenReturn(resolvedPath);
+        when(gitPipelineService.readPipelineFile(any(PipelineExecutionRequest.class)))
+                .thenReturn(pipelineSourceInfo);
 
-        when(yamlConfigurationService.parseAndValidatePipelineYaml(anyString()))
+        when(yamlConfigurationService.parseAndValidatePipelineYamlContent(anyString(), anyString(), anyString(), anyString()))
                 .thenThrow(new IllegalArgumentException("Invalid YAML: Missing required fields"));
 
         // Act & Assert
         Exception exception = assertThrows(RuntimeException.class, () -> {
-            pipelineExecutionService.startPipelineExecution(request, stageQueue);
+            pipelineExecutionService.preparePipelineExecution(pipelineExecutionId, request, stageQueue, progress);
         });
 
         assertTrue(exception.getMessage().contains("Pipeline execution failed"));
 
         // Verify interactions
-        verify(gitPipelineService).cloneRepoAndLocatePipelineFile(request);
-        verify(yamlConfigurationService).resolveAndValidatePipelinePath(clonedPipelineInfo.getYamlPath());
-        verify(yamlConfigurationService).parseAndValidatePipelineYaml(resolvedPath.toString());
+        verify(gitPipelineService).readPipelineFile(request);
+        verify(yamlConfigurationService).parseAndValidatePipelineYamlContent(
+                request.getRepo(), "abc123", ".pipelines/pipeline.yaml", "name: test-pipeline");
         verifyNoInteractions(pipelineDefinitionService);
         verifyNoInteractions(pipelineExecutionCreationService);
     }
 
     @Test
-    public void testStartPipelineExecution_EntityCreationFailure() throws Exception {
+    public void testPreparePipelineExecution_EntityCreationFailure() throws Exception {
         // Arrange
-        when(gitPipelineService.cloneRepoAndLocatePipelineFile(any(PipelineExecutionRequest.class)))
-                .thenReturn(clonedPipelineInfo);
+        when(gitPipelineService.readPipelineFile(any(PipelineExecutionRequest.class)))
+                .thenReturn(pipelineSourceInfo);
 
-        when(yamlConfigurationService.resolveAndValidatePipelinePath(anyString()))
-                .thenReturn(resolvedPath);
-
-        when(yamlConfigurationService.parseAndValidatePipelineYaml(anyString()))
+        when(yamlConfigurationService.parseAndValidatePipelineYamlContent(anyString(), anyString(), anyString(), anyString()))
                 .thenReturn(pipelineConfig);
 
-        when(pipelineDefinitionService.createOrGetPipelineEntity(
-                any(PipelineExecutionRequest.class), anyMap()))
-                .thenReturn(pipelineId);
-
-        doThrow(new RuntimeException("Database error")).when(pipelineDefinitionService)
-                .createPipelineDefinition(any(UUID.class), anyMap(), anyString());
+        when(pipelineDefinitionService.createOrReusePipelineDefinition(
+                any(PipelineExecutionRequest.class), anyMap(), anyString()))
+                .thenThrow(new RuntimeException("Database error"));
 
         // Act & Assert
         Exception exception = assertThrows(RuntimeException.class, () -> {
-            pipelineExecutionService.startPipelineExecution(request, stageQueue);
+            pipelineExecutionService.preparePipelineExecution(pipelineExecutionId, request, stageQueue, progress);
         });
 
         assertTrue(exception.getMessage().contains("Pipeline execution failed"));
 
         // Verify interactions
-        verify(gitPipelineService).cloneRepoAndLocatePipelineFile(request);
-        verify(yamlConfigurationService).resolveAndValidatePipelinePath(clonedPipelineInfo.getYamlPath());
-        verify(yamlConfigurationService).parseAndValidatePipelineYaml(resolvedPath.toString());
-        verify(pipelineDefinitionService).createOrGetPipelineEntity(request, pipelineConfig);
-        verify(pipelineDefinitionService).createPipelineDefinition(pipelineId, pipelineConfig, request.getFilePath());
+        verify(gitPipelineService).readPipelineFile(request);
+        verify(yamlConfigurationService).parseAndValidatePipelineYamlContent(
+                request.getRepo(), "abc123", ".pipelines/pipeline.yaml", "name: test-pipeline");
+        verify(pipelineDefinitionService).createOrReusePipelineDefinition(request, pipelineConfig, request.getFilePath());
         verifyNoInteractions(pipelineExecutionCreationService);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFailPipelineExecution_MarksExecutionFailed() {
+        // Act
+        pipelineExecutionService.failPipelineExecution(pipelineExecutionId);
+
+        // Assert
+        verify(pipelineExecutionCreationService).markPipelineExecutionFailed(pipelineExecutionId);
+    }
+}
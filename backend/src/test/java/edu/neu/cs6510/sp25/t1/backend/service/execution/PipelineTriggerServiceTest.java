@@ -0,0 +1,289 @@
+package edu.neu.cs6510.sp25.t1.backend.service.execution;
+
+import edu.neu.cs6510.sp25.t1.backend.info.PipelineSourceInfo;
+import edu.neu.cs6510.sp25.t1.backend.messaging.ExecutionAdmissionController;
+import edu.neu.cs6510.sp25.t1.backend.messaging.StageQueuePublisher;
+import edu.neu.cs6510.sp25.t1.backend.service.pipeline.GitPipelineService;
+import edu.neu.cs6510.sp25.t1.common.api.request.PipelineExecutionRequest;
+import edu.neu.cs6510.sp25.t1.common.api.response.PipelineExecutionResponse;
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PipelineTriggerServiceTest {
+
+    @Mock
+    private PipelineExecutionService pipelineExecutionService;
+
+    @Mock
+    private GitPipelineService gitPipelineService;
+
+    @Mock
+    private StageQueuePublisher stageQueuePublisher;
+
+    @Mock
+    private ExecutionAdmissionController admissionController;
+
+    private final List<Runnable> backgroundTasks = new ArrayList<>();
+    private PipelineTriggerService triggerService;
+    private PipelineExecutionRequest request;
+    private UUID executionId;
+
+    @BeforeEach
+    public void setUp() {
+        triggerService = new PipelineTriggerService(pipelineExecutionService, gitPipelineService,
+                stageQueuePublisher, admissionController, backgroundTasks::add);
+        request = new PipelineExecutionRequest(UUID.randomUUID(), "https://github.com/test/repo", "main",
+                null, false, 0, ".pipelines/pipeline.yaml");
+        executionId = UUID.randomUUID();
+        lenient().when(pipelineExecutionService.reservePipelineExecution(request)).thenReturn(executionId);
+    }
+
+    @Test
+    public void testTrigger_returnsReservedIdBeforeSetupRuns() {
+        PipelineExecutionResponse response = triggerService.trigger(request);
+
+        assertEquals(executionId.toString(), response.getExecutionId());
+        assertEquals("PENDING", response.getStatus());
+        assertEquals(1, backgroundTasks.size());
+        assertEquals(ExecutionStatus.PENDING, triggerService.getProgress(executionId).orElseThrow().getStatus());
+        verify(admissionController).reserveExecution(executionId, ".pipelines/pipeline.yaml");
+        verifyNoInteractions(stageQueuePublisher);
+    }
+
+    @Test
+    public void testTrigger_backgroundSetupDispatchesStages() {
+        doAnswer(invocation -> {
+            TriggerProgress progress = invocation.getArgument(3);
+            progress.begin(TriggerProgress.Step.FETCH);
+            progress.begin(TriggerProgress.Step.PARSE);
+            progress.begin(TriggerProgress.Step.MATERIALIZE);
+            return null;
+        }).when(pipelineExecutionService).preparePipelineExecution(eq(executionId), eq(request), any(), any());
+
+        triggerService.trigger(request);
+        backgroundTasks.forEach(Runnable::run);
+
+        TriggerProgress progress = triggerService.getProgress(executionId).orElseThrow();
+        assertEquals(ExecutionStatus.SUCCESS, progress.getStatus());
+        assertTrue(progress.getSteps().stream().allMatch(step -> step.status() == ExecutionStatus.SUCCESS));
+        verify(stageQueuePublisher).dispatchStageQueue(eq(executionId), eq(".pipelines/pipeline.yaml"), any(Queue.class));
+        verify(pipelineExecutionService, never()).failPipelineExecution(any());
+    }
+
+    @Test
+    public void testTrigger_failedStepMarksExecutionFailed() {
+        doAnswer(invocation -> {
+            TriggerProgress progress = invocation.getArgument(3);
+            progress.begin(TriggerProgress.Step.FETCH);
+            throw new RuntimeException("Pipeline execution failed: repository not found");
+        }).when(pipelineExecutionService).preparePipelineExecution(eq(executionId), eq(request), any(), any());
+
+        triggerService.trigger(request);
+        backgroundTasks.forEach(Runnable::run);
+
+        TriggerProgress progress = triggerService.getProgress(executionId).orElseThrow();
+        assertEquals(ExecutionStatus.FAILED, progress.getStatus());
+        TriggerProgress.StepProgress fetch = progress.getSteps().get(0);
+        assertEquals(ExecutionStatus.FAILED, fetch.status());
+        assertEquals("Pipeline execution failed: repository not found", fetch.error());
+        assertEquals(ExecutionStatus.PENDING, progress.getSteps().get(1).status());
+        verify(pipelineExecutionService).failPipelineExecution(executionId);
+        verify(admissionController).finishExecution(executionId);
+        verifyNoInteractions(stageQueuePublisher);
+    }
+
+    @Test
+    public void testTrigger_failureToMarkExecutionIsContained() {
+        doThrow(new RuntimeException("boom")).when(pipelineExecutionService)
+                .preparePipelineExecution(eq(executionId), eq(request), any(), any());
+        doThrow(new RuntimeException("db down")).when(pipelineExecutionService).failPipelineExecution(executionId);
+
+        triggerService.trigger(request);
+        backgroundTasks.forEach(Runnable::run);
+
+        assertEquals(ExecutionStatus.FAILED, triggerService.getProgress(executionId).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testTriggerAll_reservesSelectedPipelinesBeforeFetching() throws Exception {
+        PipelineSourceInfo build = new PipelineSourceInfo(".pipelines/build.yaml", "name: build", "c0ffee");
+        PipelineSourceInfo test = new PipelineSourceInfo(".pipelines/test.yaml", "name: test", "c0ffee");
+        UUID buildId = UUID.randomUUID();
+        UUID testId = UUID.randomUUID();
+        when(pipelineExecutionService.reservePipelineExecution(any(PipelineExecutionRequest.class)))
+                .thenReturn(buildId, testId);
+
+        List<PipelineExecutionResponse> responses = triggerService.triggerAll(request,
+                List.of("test.yaml", ".pipelines/build.yaml", "build.yaml"));
+
+        // The request thread only reserves; the fetch is left to the git executor
+        assertEquals(List.of(buildId.toString(), testId.toString()),
+                responses.stream().map(PipelineExecutionResponse::getExecutionId).toList());
+        assertEquals(1, backgroundTasks.size());
+        verify(gitPipelineService, never()).readPipelineFiles(any(), any());
+        verify(admissionController).reserveExecution(buildId, ".pipelines/build.yaml");
+        verify(admissionController).reserveExecution(testId, ".pipelines/test.yaml");
+
+        when(gitPipelineService.readPipelineFiles(eq(request), any())).thenReturn(List.of(build, test));
+        runBackgroundTasks();
+
+        verify(gitPipelineService, times(1)).readPipelineFiles(eq(request), any());
+        verify(pipelineExecutionService).preparePipelineExecution(eq(buildId), any(), eq(build), any(), any());
+        ArgumentCaptor<PipelineExecutionRequest> prepared = ArgumentCaptor.forClass(PipelineExecutionRequest.class);
+        verify(pipelineExecutionService).preparePipelineExecution(eq(testId), prepared.capture(), eq(test), any(),
+                any());
+        assertEquals("c0ffee", prepared.getValue().getCommitHash());
+        assertEquals(".pipelines/test.yaml", prepared.getValue().getFilePath());
+        verify(stageQueuePublisher).dispatchStageQueue(eq(testId), eq(".pipelines/test.yaml"), any(Queue.class));
+        assertEquals(ExecutionStatus.SUCCESS, triggerService.getProgress(buildId).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testTriggerAll_reservesEveryPipelineOfLastFetchBeforeFetching() throws Exception {
+        when(gitPipelineService.listCachedPipelineFiles(request))
+                .thenReturn(Optional.of(List.of(".pipelines/build.yaml")));
+        UUID buildId = UUID.randomUUID();
+        when(pipelineExecutionService.reservePipelineExecution(any(PipelineExecutionRequest.class)))
+                .thenReturn(buildId);
+
+        List<PipelineExecutionResponse> responses = triggerService.triggerAll(request, List.of());
+
+        assertEquals(List.of(buildId.toString()),
+                responses.stream().map(PipelineExecutionResponse::getExecutionId).toList());
+        assertEquals(1, backgroundTasks.size());
+        verify(gitPipelineService, never()).readPipelineFiles(any(), any());
+        verify(admissionController).reserveExecution(buildId, ".pipelines/build.yaml");
+    }
+
+    @Test
+    public void testTriggerAll_reconcilesLastFetchWithFetchedPipelineFiles() throws Exception {
+        when(gitPipelineService.listCachedPipelineFiles(request))
+                .thenReturn(Optional.of(List.of(".pipelines/build.yaml", ".pipelines/old.yaml")));
+        UUID buildId = UUID.randomUUID();
+        UUID oldId = UUID.randomUUID();
+        UUID addedId = UUID.randomUUID();
+        when(pipelineExecutionService.reservePipelineExecution(any(PipelineExecutionRequest.class)))
+                .thenReturn(buildId, oldId, addedId);
+        PipelineSourceInfo build = new PipelineSourceInfo(".pipelines/build.yaml", "name: build", "c0ffee");
+        PipelineSourceInfo added = new PipelineSourceInfo(".pipelines/added.yaml", "name: added", "c0ffee");
+        when(gitPipelineService.readPipelineFiles(request, List.of())).thenReturn(List.of(added, build));
+
+        triggerService.triggerAll(request, List.of());
+        runBackgroundTasks();
+
+        // The file deleted upstream only fails its own execution
+        assertEquals(ExecutionStatus.FAILED, triggerService.getProgress(oldId).orElseThrow().getStatus());
+        verify(pipelineExecutionService).failPipelineExecution(oldId);
+        assertEquals(ExecutionStatus.SUCCESS, triggerService.getProgress(buildId).orElseThrow().getStatus());
+        verify(pipelineExecutionService).preparePipelineExecution(eq(buildId), any(), eq(build), any(), any());
+
+        // The file added upstream gets an execution of its own
+        verify(admissionController).reserveExecution(addedId, ".pipelines/added.yaml");
+        verify(pipelineExecutionService).preparePipelineExecution(eq(addedId), any(), eq(added), any(), any());
+        verify(pipelineExecutionService, never()).failPipelineExecution(buildId);
+    }
+
+    @Test
+    public void testTriggerAll_readFailureFailsEveryReservedExecution() throws Exception {
+        UUID deployId = UUID.randomUUID();
+        when(pipelineExecutionService.reservePipelineExecution(any(PipelineExecutionRequest.class)))
+                .thenReturn(deployId);
+        when(gitPipelineService.readPipelineFiles(eq(request), any()))
+                .thenThrow(new IOException("Pipeline file not found: deploy.yaml at commit c0ffee"));
+
+        triggerService.triggerAll(request, List.of("deploy.yaml"));
+        runBackgroundTasks();
+
+        TriggerProgress progress = triggerService.getProgress(deployId).orElseThrow();
+        assertEquals(ExecutionStatus.FAILED, progress.getStatus());
+        assertEquals(TriggerProgress.Step.FETCH, progress.getSteps().stream()
+                .filter(step -> step.status() == ExecutionStatus.FAILED).findFirst().orElseThrow().step());
+        verify(admissionController).finishExecution(deployId);
+        verify(pipelineExecutionService).failPipelineExecution(deployId);
+        verifyNoInteractions(stageQueuePublisher);
+    }
+
+    @Test
+    public void testTriggerAll_firstTriggerOfRepositoryReadsBeforeReserving() throws Exception {
+        PipelineTriggerService inlineService = new PipelineTriggerService(pipelineExecutionService,
+                gitPipelineService, stageQueuePublisher, admissionController, Runnable::run);
+        when(gitPipelineService.listCachedPipelineFiles(request)).thenReturn(Optional.empty());
+        PipelineSourceInfo build = new PipelineSourceInfo(".pipelines/build.yaml", "name: build", "c0ffee");
+        PipelineSourceInfo test = new PipelineSourceInfo(".pipelines/test.yaml", "name: test", "c0ffee");
+        when(gitPipelineService.readPipelineFiles(request, List.of())).thenReturn(List.of(build, test));
+        UUID buildId = UUID.randomUUID();
+        UUID testId = UUID.randomUUID();
+        when(pipelineExecutionService.reservePipelineExecution(any(PipelineExecutionRequest.class)))
+                .thenReturn(buildId, testId);
+
+        List<PipelineExecutionResponse> responses = inlineService.triggerAll(request, List.of());
+
+        assertEquals(List.of(buildId.toString(), testId.toString()),
+                responses.stream().map(PipelineExecutionResponse::getExecutionId).toList());
+        verify(gitPipelineService, times(1)).readPipelineFiles(request, List.of());
+
+        ArgumentCaptor<PipelineExecutionRequest> requests = ArgumentCaptor.forClass(PipelineExecutionRequest.class);
+        verify(pipelineExecutionService, times(2)).reservePipelineExecution(requests.capture());
+        assertEquals(".pipelines/build.yaml", requests.getAllValues().get(0).getFilePath());
+        assertEquals(".pipelines/test.yaml", requests.getAllValues().get(1).getFilePath());
+        assertEquals("c0ffee", requests.getAllValues().get(1).getCommitHash());
+        assertEquals("https://github.com/test/repo", requests.getAllValues().get(1).getRepo());
+
+        // Each setup reuses the file that was already read instead of fetching again
+        verify(pipelineExecutionService).preparePipelineExecution(eq(buildId), any(), eq(build), any(), any());
+        verify(pipelineExecutionService).preparePipelineExecution(eq(testId), any(), eq(test), any(), any());
+        verify(pipelineExecutionService, never()).preparePipelineExecution(any(), any(), any(Queue.class), any());
+        verify(admissionController).reserveExecution(buildId, ".pipelines/build.yaml");
+        verify(admissionController).reserveExecution(testId, ".pipelines/test.yaml");
+        verify(stageQueuePublisher).dispatchStageQueue(eq(testId), eq(".pipelines/test.yaml"), any(Queue.class));
+    }
+
+    @Test
+    public void testTriggerAll_firstTriggerReadFailureReservesNothing() throws Exception {
+        PipelineTriggerService inlineService = new PipelineTriggerService(pipelineExecutionService,
+                gitPipelineService, stageQueuePublisher, admissionController, Runnable::run);
+        when(gitPipelineService.listCachedPipelineFiles(request)).thenReturn(Optional.empty());
+        when(gitPipelineService.readPipelineFiles(request, List.of()))
+                .thenThrow(new IOException("'.pipelines' directory not found at commit c0ffee"));
+
+        Exception exception = assertThrows(IOException.class, () -> inlineService.triggerAll(request, List.of()));
+
+        assertEquals("'.pipelines' directory not found at commit c0ffee", exception.getMessage());
+        verify(pipelineExecutionService, never()).reservePipelineExecution(any());
+        verifyNoInteractions(admissionController);
+    }
+
+    private void runBackgroundTasks() {
+        // Tasks may schedule further tasks, which run as well
+        for (int i = 0; i < backgroundTasks.size(); i++) {
+            backgroundTasks.get(i).run();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package edu.neu.cs6510.sp25.t1.backend.service.log;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+class LogChunkCodecTest {
+
+  @Test
+  void testCompress_roundTripsPartOfArray() {
+    byte[] bytes = "xx[INFO] Compiling 42 source files\n[INFO] BUILD SUCCESS\nyy".getBytes(StandardCharsets.UTF_8);
+
+    byte[] compressed = LogChunkCodec.compress(bytes, 2, bytes.length - 4);
+
+    assertEquals("[INFO] Compiling 42 source files\n[INFO] BUILD SUCCESS\n",
+        new String(LogChunkCodec.decompress(compressed, bytes.length - 4), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void testCompress_shrinksRepetitiveLogs() {
+    StringBuilder log = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      log.append("[12:00:").append(i % 60).append("] Running test ").append(i).append(" ... ok\n");
+    }
+    byte[] bytes = log.toString().getBytes(StandardCharsets.UTF_8);
+
+    byte[] compressed = LogChunkCodec.compress(bytes, 0, bytes.length);
+
+    assertTrue(compressed.length * 4 < bytes.length);
+    assertArrayEquals(bytes, LogChunkCodec.decompress(compressed, bytes.length));
+  }
+
+  @Test
+  void testDecompress_emptyChunk() {
+    byte[] compressed = LogChunkCodec.compress(new byte[0], 0, 0);
+
+    assertEquals(0, LogChunkCodec.decompress(compressed, 0).length);
+  }
+
+  @Test
+  void testDecompress_rejectsCorruptOrShortChunk() {
+    byte[] bytes = "some log line\n".getBytes(StandardCharsets.UTF_8);
+    byte[] compressed = LogChunkCodec.compress(bytes, 0, bytes.length);
+
+    assertThrows(IllegalStateException.class, () -> LogChunkCodec.decompress(new byte[] {1, 2, 3, 4}, 10));
+    assertThrows(IllegalStateException.class, () -> LogChunkCodec.decompress(compressed, bytes.length + 5));
+  }
+}
@@ -0,0 +1,112 @@
+package edu.neu.cs6510.sp25.t1.backend.service.log;
+
+import edu.neu.cs6510.sp25.t1.backend.database.entity.ExecutionLogChunkEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.ExecutionLogChunkRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Replays a one-million-line job log through {@link LogIngestionService} the way workers send it,
+ * a hundred lines per status update, and reports the ingestion throughput, the number of insert
+ * batches and the compression ratio. The repository only collects the batches, so the figures cover
+ * buffering, chunking and compression, not the database round trips.
+ * <p>
+ * Run with {@code ./gradlew :backend:benchmark}.
+ */
+@Tag("benchmark")
+class LogIngestionBenchmark {
+
+  private static final int LINES = 1_000_000;
+  private static final int LINES_PER_UPDATE = 100;
+  private static final int WARMUP_ROUNDS = 2;
+
+  @Test
+  void replayMillionLineLog() {
+    List<String> updates = buildUpdates();
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      replay(updates);
+    }
+
+    Result result = replay(updates);
+
+    long rawBytes = 0;
+    long compressedBytes = 0;
+    long lines = 0;
+    for (ExecutionLogChunkEntity chunk : result.chunks) {
+      rawBytes += chunk.getByteLength();
+      compressedBytes += chunk.getData().length;
+      lines += chunk.getLineCount();
+    }
+    double seconds = result.nanos / 1e9;
+    System.out.printf("Ingested %,d lines (%.1f MB) in %.3f s: %,.0f lines/s, %.1f MB/s%n",
+        lines, rawBytes / 1e6, seconds, lines / seconds, rawBytes / 1e6 / seconds);
+    System.out.printf("%,d chunks in %,d insert batches, %.1f MB stored, compression ratio %.1fx%n",
+        result.chunks.size(), result.batches, compressedBytes / 1e6, (double) rawBytes / compressedBytes);
+
+    assertEquals(LINES, lines);
+  }
+
+  private static Result replay(List<String> updates) {
+    Result result = new Result();
+    ExecutionLogChunkRepository repository = mock(ExecutionLogChunkRepository.class);
+    when(repository.findFirstByJobExecutionIdOrderBySequenceNumberDesc(any())).thenReturn(Optional.empty());
+    when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+      List<ExecutionLogChunkEntity> batch = invocation.getArgument(0);
+      result.batches++;
+      result.chunks.addAll(batch);
+      return batch;
+    });
+    LogIngestionService service = new LogIngestionService(repository, 65536, 50, 1000);
+    UUID jobId = UUID.randomUUID();
+
+    long start = System.nanoTime();
+    for (String update : updates) {
+      service.append(jobId, update);
+    }
+    service.complete(jobId);
+    result.nanos = System.nanoTime() - start;
+    return result;
+  }
+
+  /**
+   * Builds a build log with the usual mix of timestamps, progress lines and test results.
+   */
+  private static List<String> buildUpdates() {
+    List<String> updates = new ArrayList<>(LINES / LINES_PER_UPDATE);
+    StringBuilder update = new StringBuilder();
+    for (int i = 0; i < LINES; i++) {
+      update.append(String.format("[%02d:%02d:%02d] ", i / 360_000 % 24, i / 6000 % 60, i / 100 % 60));
+      switch (i % 4) {
+        case 0 -> update.append("[INFO] Compiling src/main/java/com/example/module").append(i % 97)
+            .append("/Service").append(i % 1013).append(".java\n");
+        case 1 -> update.append("[INFO] Tests run: ").append(i % 50).append(", Failures: 0, Errors: 0, Skipped: ")
+            .append(i % 3).append(", Time elapsed: ").append(i % 1000 / 100.0).append(" s\n");
+        case 2 -> update.append("Downloading https://repo.maven.apache.org/maven2/org/example/lib")
+            .append(i % 211).append("/1.").append(i % 9).append("/lib-1.").append(i % 9).append(".jar\n");
+        default -> update.append("step ").append(i).append(": ok (").append(i * 31 % 997).append(" ms)\n");
+      }
+      if ((i + 1) % LINES_PER_UPDATE == 0) {
+        updates.add(update.toString());
+        update.setLength(0);
+      }
+    }
+    return updates;
+  }
+
+  private static final class Result {
+    private final List<ExecutionLogChunkEntity> chunks = new ArrayList<>();
+    private int batches;
+    private long nanos;
+  }
+}
@@ -0,0 +1,188 @@
+package edu.neu.cs6510.sp25.t1.backend.service.log;
+
+import edu.neu.cs6510.sp25.t1.backend.database.entity.ExecutionLogChunkEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.ExecutionLogChunkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+class LogIngestionServiceTest {
+
+  private ExecutionLogChunkRepository chunkRepository;
+  private List<ExecutionLogChunkEntity> stored;
+  private List<Integer> batchSizes;
+
+  @BeforeEach
+  void setUp() {
+    chunkRepository = mock(ExecutionLogChunkRepository.class);
+    stored = new ArrayList<>();
+    batchSizes = new ArrayList<>();
+    when(chunkRepository.findFirstByJobExecutionIdOrderBySequenceNumberDesc(any())).thenReturn(Optional.empty());
+    when(chunkRepository.saveAll(anyList())).thenAnswer(invocation -> {
+      List<ExecutionLogChunkEntity> batch = invocation.getArgument(0);
+      batchSizes.add(batch.size());
+      stored.addAll(batch);
+      return batch;
+    });
+  }
+
+  @Test
+  void testAppend_buffersUntilJobCompletes() {
+    LogIngestionService service = new LogIngestionService(chunkRepository, 65536, 50, 1000);
+    UUID jobId = UUID.randomUUID();
+
+    service.append(jobId, "Cloning repository\n");
+    service.append(jobId, "Running build\n");
+    verify(chunkRepository, never()).saveAll(anyList());
+
+    service.complete(jobId);
+
+    assertEquals(1, stored.size());
+    ExecutionLogChunkEntity chunk = stored.get(0);
+    assertEquals(jobId, chunk.getJobExecutionId());
+    assertEquals(0, chunk.getSequenceNumber());
+    assertEquals(0, chunk.getFirstLine());
+    assertEquals(2, chunk.getLineCount());
+    assertEquals(0, chunk.getByteOffset());
+    assertEquals("Cloning repository\nRunning build\n", text(chunk));
+  }
+
+  @Test
+  void testAppend_sealsChunksAtLineBreaksAndWritesInBatches() {
+    LogIngestionService service = new LogIngestionService(chunkRepository, 1024, 3, 1000);
+    UUID jobId = UUID.randomUUID();
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 500; i++) {
+      String line = "step " + i + " finished\n";
+      expected.append(line);
+      service.append(jobId, line);
+    }
+
+    service.complete(jobId);
+
+    StringBuilder actual = new StringBuilder();
+    long nextLine = 0;
+    long nextOffset = 0;
+    for (int i = 0; i < stored.size(); i++) {
+      ExecutionLogChunkEntity chunk = stored.get(i);
+      String text = text(chunk);
+      assertEquals(i, chunk.getSequenceNumber());
+      assertEquals(nextLine, chunk.getFirstLine());
+      assertEquals(nextOffset, chunk.getByteOffset());
+      assertTrue(chunk.getByteLength() <= 1024);
+      assertTrue(text.endsWith("\n"));
+      nextLine += chunk.getLineCount();
+      nextOffset += chunk.getByteLength();
+      actual.append(text);
+    }
+    assertEquals(expected.toString(), actual.toString());
+    assertEquals(500, nextLine);
+    assertTrue(stored.size() > 3);
+    assertTrue(batchSizes.stream().allMatch(size -> size <= 3));
+  }
+
+  @Test
+  void testAppend_splitsLongLineWithoutBreakingCharacters() {
+    LogIngestionService service = new LogIngestionService(chunkRepository, 1024, 50, 1000);
+    UUID jobId = UUID.randomUUID();
+    String line = "a" + "\u00e9".repeat(1000) + "\n";
+
+    service.append(jobId, line);
+    service.complete(jobId);
+
+    assertEquals(2, stored.size());
+    assertEquals(1023, stored.get(0).getByteLength());
+    assertEquals(0, stored.get(0).getLineCount());
+    assertEquals(1, stored.get(1).getLineCount());
+    assertFalse(text(stored.get(0)).contains("\uFFFD"));
+    assertEquals(line, text(stored.get(0)) + text(stored.get(1)));
+  }
+
+  @Test
+  void testAppend_continuesAfterStoredChunks() {
+    UUID jobId = UUID.randomUUID();
+    when(chunkRepository.findFirstByJobExecutionIdOrderBySequenceNumberDesc(jobId)).thenReturn(Optional.of(
+        ExecutionLogChunkEntity.builder().jobExecutionId(jobId).sequenceNumber(4).firstLine(100).lineCount(10)
+            .byteOffset(5000).byteLength(300).build()));
+    LogIngestionService service = new LogIngestionService(chunkRepository, 65536, 50, 1000);
+
+    service.append(jobId, "resumed\n");
+    service.complete(jobId);
+
+    assertEquals(5, stored.get(0).getSequenceNumber());
+    assertEquals(110, stored.get(0).getFirstLine());
+    assertEquals(5300, stored.get(0).getByteOffset());
+  }
+
+  @Test
+  void testFlushIdle_storesPartialChunks() {
+    LogIngestionService service = new LogIngestionService(chunkRepository, 65536, 50, 0);
+    UUID jobId = UUID.randomUUID();
+
+    service.append(jobId, "still running\n");
+    service.flushIdle();
+    service.append(jobId, "done\n");
+    service.complete(jobId);
+
+    assertEquals(2, stored.size());
+    assertEquals("still running\n", text(stored.get(0)));
+    assertEquals(1, stored.get(1).getSequenceNumber());
+    assertEquals(1, stored.get(1).getFirstLine());
+  }
+
+  @Test
+  void testComplete_failedWriteIsDropped() {
+    when(chunkRepository.saveAll(anyList())).thenThrow(new IllegalStateException("db down"));
+    LogIngestionService service = new LogIngestionService(chunkRepository, 65536, 50, 1000);
+    UUID jobId = UUID.randomUUID();
+
+    service.append(jobId, "lost line\n");
+
+    assertDoesNotThrow(() -> service.complete(jobId));
+    assertDoesNotThrow(service::flush);
+  }
+
+  @Test
+  void testIsBuffering_untilJobCompletes() {
+    LogIngestionService service = new LogIngestionService(chunkRepository, 65536, 50, 1000);
+    UUID jobId = UUID.randomUUID();
+
+    service.append(jobId, "running\n");
+    assertTrue(service.isBuffering(jobId));
+
+    service.complete(jobId);
+    assertFalse(service.isBuffering(jobId));
+  }
+
+  @Test
+  void testAppend_ignoresEmptyText() {
+    LogIngestionService service = new LogIngestionService(chunkRepository, 65536, 50, 1000);
+    UUID jobId = UUID.randomUUID();
+
+    service.append(jobId, null);
+    service.append(jobId, "");
+    service.complete(jobId);
+
+    verify(chunkRepository, never()).saveAll(anyList());
+  }
+
+  private static String text(ExecutionLogChunkEntity chunk) {
+    return new String(LogChunkCodec.decompress(chunk.getData(), chunk.getByteLength()), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,228 @@
+package edu.neu.cs6510.sp25.t1.backend.service.log;
+
+import edu.neu.cs6510.sp25.t1.backend.database.entity.ExecutionLogChunkEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.entity.JobExecutionEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.ExecutionLogChunkRepository;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.JobExecutionRepository;
+import edu.neu.cs6510.sp25.t1.common.dto.LogRangeDTO;
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+class LogReadServiceTest {
+
+  private ExecutionLogChunkRepository chunkRepository;
+  private JobExecutionRepository jobExecutionRepository;
+  private LogIngestionService logIngestionService;
+  private LogTieringService logTieringService;
+  private LogReadService logReadService;
+  private JobExecutionEntity jobExecution;
+  private UUID jobId;
+  private List<ExecutionLogChunkEntity> chunks;
+
+  @BeforeEach
+  void setUp() {
+    chunkRepository = mock(ExecutionLogChunkRepository.class);
+    jobExecutionRepository = mock(JobExecutionRepository.class);
+    logIngestionService = mock(LogIngestionService.class);
+    logTieringService = mock(LogTieringService.class);
+    logReadService = new LogReadService(chunkRepository, jobExecutionRepository, logIngestionService,
+        logTieringService, 1000, 10000);
+
+    jobId = UUID.randomUUID();
+    jobExecution = JobExecutionEntity.builder().id(jobId).status(ExecutionStatus.RUNNING).build();
+    when(jobExecutionRepository.findById(jobId)).thenReturn(Optional.of(jobExecution));
+    chunks = new ArrayList<>();
+
+    when(chunkRepository.findFirstByJobExecutionIdOrderBySequenceNumberDesc(jobId)).thenAnswer(invocation ->
+        chunks.isEmpty() ? Optional.empty() : Optional.of(chunks.get(chunks.size() - 1)));
+    when(chunkRepository.findFirstByJobExecutionIdAndByteOffsetLessThanEqualOrderByByteOffsetDesc(eq(jobId), anyLong()))
+        .thenAnswer(invocation -> {
+          long offset = invocation.getArgument(1);
+          return chunks.stream().filter(chunk -> chunk.getByteOffset() <= offset).reduce((first, second) -> second);
+        });
+    when(chunkRepository.findFirstByJobExecutionIdAndFirstLineLessThanOrderBySequenceNumberDesc(eq(jobId), anyLong()))
+        .thenAnswer(invocation -> {
+          long line = invocation.getArgument(1);
+          return chunks.stream().filter(chunk -> chunk.getFirstLine() < line).reduce((first, second) -> second);
+        });
+    when(chunkRepository.findByJobExecutionIdAndSequenceNumberGreaterThanOrderBySequenceNumberAsc(eq(jobId), anyLong(),
+        any(Pageable.class))).thenAnswer(invocation -> {
+          long sequence = invocation.getArgument(1);
+          Pageable page = invocation.getArgument(2);
+          return chunks.stream().filter(chunk -> chunk.getSequenceNumber() > sequence).limit(page.getPageSize())
+              .toList();
+        });
+  }
+
+  @Test
+  void testRead_spansChunksUpToLimit() {
+    store("a\nb\n", "c\nd\n", "e\n");
+
+    LogRangeDTO range = logReadService.read(jobId, 0, 3);
+
+    assertEquals("a\nb\nc\n", range.getText());
+    assertEquals(0, range.getFrom());
+    assertEquals(6, range.getNext());
+    assertEquals(3, range.getLineCount());
+    assertFalse(range.isComplete());
+  }
+
+  @Test
+  void testRead_continuesFromNextOffsetAndCompletes() {
+    store("a\nb\n", "c\nd\n", "e\n");
+    jobExecution.setStatus(ExecutionStatus.SUCCESS);
+
+    LogRangeDTO range = logReadService.read(jobId, 6, null);
+
+    assertEquals("d\ne\n", range.getText());
+    assertEquals(10, range.getNext());
+    assertTrue(range.isComplete());
+  }
+
+  @Test
+  void testRead_notCompleteWhileLogIsBuffered() {
+    store("a\n");
+    jobExecution.setStatus(ExecutionStatus.FAILED);
+    when(logIngestionService.isBuffering(jobId)).thenReturn(true);
+
+    LogRangeDTO range = logReadService.read(jobId, 0, null);
+
+    assertEquals("a\n", range.getText());
+    assertFalse(range.isComplete());
+  }
+
+  @Test
+  void testRead_pastEndIsEmpty() {
+    store("a\n");
+
+    LogRangeDTO range = logReadService.read(jobId, 2, null);
+
+    assertEquals("", range.getText());
+    assertEquals(2, range.getNext());
+    assertEquals(0, range.getLineCount());
+  }
+
+  @Test
+  void testRead_rejectsInvalidRequests() {
+    assertThrows(IllegalArgumentException.class, () -> logReadService.read(UUID.randomUUID(), 0, null));
+    assertThrows(IllegalArgumentException.class, () -> logReadService.read(jobId, -1, null));
+    assertThrows(IllegalArgumentException.class, () -> logReadService.read(jobId, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> logReadService.tail(jobId, 0));
+  }
+
+  @Test
+  void testTail_readsOnlyLastChunkWhenItHoldsTheLines() {
+    store("l1\nl2\n", "l3\nl4\nl5");
+
+    LogRangeDTO range = logReadService.tail(jobId, 2);
+
+    assertEquals("l4\nl5", range.getText());
+    assertEquals(14, range.getNext());
+    verify(chunkRepository, never()).findFirstByJobExecutionIdAndFirstLineLessThanOrderBySequenceNumberDesc(any(),
+        anyLong());
+  }
+
+  @Test
+  void testTail_startsInChunkHoldingFirstLine() {
+    store("l1\nl2\nl3\n", "l4\n", "l5\n");
+
+    LogRangeDTO range = logReadService.tail(jobId, 4);
+
+    assertEquals("l2\nl3\nl4\nl5\n", range.getText());
+    assertEquals(3, range.getFrom());
+    assertEquals(4, range.getLineCount());
+  }
+
+  @Test
+  void testTail_wholeLogWhenShorter() {
+    store("only\n");
+
+    assertEquals("only\n", logReadService.tail(jobId, 100).getText());
+  }
+
+  @Test
+  void testTail_emptyLog() {
+    LogRangeDTO range = logReadService.tail(jobId, 10);
+
+    assertEquals("", range.getText());
+    assertEquals(0, range.getNext());
+  }
+
+  @Test
+  void testRead_skipsTextOfMissingChunk() {
+    store("a\nb\n", "lost\n", "c\n");
+    chunks.remove(1);
+
+    LogRangeDTO range = logReadService.read(jobId, 0, null);
+
+    assertEquals("a\nb\nc\n", range.getText());
+    assertEquals(11, range.getNext());
+  }
+
+  @Test
+  void testReadAndTail_fromSegment(@TempDir Path dir) throws IOException {
+    store("l1\nl2\n", "l3\nl4\n", "l5\n");
+    Path file = dir.resolve(jobId + LogSegment.FILE_SUFFIX);
+    try (LogSegment.Writer writer = LogSegment.create(file)) {
+      for (ExecutionLogChunkEntity chunk : chunks) {
+        writer.add(LogChunk.of(chunk));
+      }
+      writer.finish();
+    }
+    chunks.clear();
+    when(logTieringService.openSegment(jobId)).thenAnswer(invocation -> Optional.of(LogSegment.open(file)));
+    jobExecution.setStatus(ExecutionStatus.SUCCESS);
+
+    LogRangeDTO range = logReadService.read(jobId, 3, 3);
+    LogRangeDTO tail = logReadService.tail(jobId, 4);
+
+    assertEquals("l2\nl3\nl4\n", range.getText());
+    assertEquals(12, range.getNext());
+    assertEquals("l2\nl3\nl4\nl5\n", tail.getText());
+    assertTrue(tail.isComplete());
+    verify(chunkRepository, never()).findFirstByJobExecutionIdOrderBySequenceNumberDesc(any());
+  }
+
+  private void store(String... texts) {
+    long line = 0;
+    long offset = 0;
+    for (String text : texts) {
+      byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+      int lines = (int) text.chars().filter(c -> c == '\n').count();
+      chunks.add(ExecutionLogChunkEntity.builder()
+          .jobExecutionId(jobId)
+          .sequenceNumber(chunks.size())
+          .firstLine(line)
+          .lineCount(lines)
+          .byteOffset(offset)
+          .byteLength(bytes.length)
+          .data(LogChunkCodec.compress(bytes, 0, bytes.length))
+          .build());
+      line += lines;
+      offset += bytes.length;
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package edu.neu.cs6510.sp25.t1.backend.service.log;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+class LogSegmentTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void testWriteAndOpen_looksUpChunksByOffsetAndLine() throws IOException {
+    List<LogChunk> chunks = chunks(200);
+    Path file = dir.resolve("job" + LogSegment.FILE_SUFFIX);
+
+    LogSegment.Summary summary;
+    try (LogSegment.Writer writer = LogSegment.create(file)) {
+      for (LogChunk chunk : chunks) {
+        writer.add(chunk);
+      }
+      summary = writer.finish();
+    }
+    LogSegment segment = LogSegment.open(file);
+
+    assertEquals(200, summary.chunkCount());
+    assertEquals(400, summary.lineCount());
+    assertEquals(chunks.get(199).end(), summary.byteLength());
+    assertEquals(Files.size(file), summary.sizeBytes());
+    assertEquals(200, segment.chunkCount());
+    assertEquals(199, segment.last().orElseThrow().sequenceNumber());
+    assertArrayEquals(chunks.get(199).decompress(), segment.last().orElseThrow().decompress());
+
+    LogChunk third = chunks.get(3);
+    assertEquals(3, segment.atOffset(third.byteOffset()).orElseThrow().sequenceNumber());
+    assertEquals(3, segment.atOffset(third.end() - 1).orElseThrow().sequenceNumber());
+    assertEquals(4, segment.atOffset(third.end()).orElseThrow().sequenceNumber());
+    assertEquals(199, segment.atOffset(Long.MAX_VALUE).orElseThrow().sequenceNumber());
+    assertEquals(0, segment.atLine(1).orElseThrow().sequenceNumber());
+    assertEquals(3, segment.atLine(8).orElseThrow().sequenceNumber());
+    assertTrue(segment.atLine(0).isEmpty());
+
+    List<LogChunk> following = segment.following(197, 10);
+    assertEquals(2, following.size());
+    assertEquals(198, following.get(0).sequenceNumber());
+    assertArrayEquals(chunks.get(198).decompress(), following.get(0).decompress());
+    assertTrue(segment.following(199, 10).isEmpty());
+  }
+
+  @Test
+  void testOpen_emptySegment() throws IOException {
+    Path file = dir.resolve("empty" + LogSegment.FILE_SUFFIX);
+    try (LogSegment.Writer writer = LogSegment.create(file)) {
+      writer.finish();
+    }
+
+    LogSegment segment = LogSegment.open(file);
+
+    assertEquals(0, segment.chunkCount());
+    assertTrue(segment.last().isEmpty());
+    assertTrue(segment.atOffset(0).isEmpty());
+  }
+
+  @Test
+  void testOpen_rejectsOtherFiles() throws IOException {
+    Path file = dir.resolve("other" + LogSegment.FILE_SUFFIX);
+    Files.write(file, "not a segment, just some text".getBytes(StandardCharsets.UTF_8));
+
+    assertThrows(IOException.class, () -> LogSegment.open(file));
+  }
+
+  @Test
+  void testClose_unfinishedWriterLeavesNoFile() throws IOException {
+    Path file = dir.resolve("partial" + LogSegment.FILE_SUFFIX);
+
+    try (LogSegment.Writer writer = LogSegment.create(file)) {
+      writer.add(chunks(1).get(0));
+    }
+
+    assertFalse(Files.exists(file));
+    try (var files = Files.list(dir)) {
+      assertEquals(0, files.count());
+    }
+  }
+
+  /**
+   * Builds chunks of two lines each, numbered from 0.
+   */
+  private static List<LogChunk> chunks(int count) {
+    List<LogChunk> chunks = new ArrayList<>();
+    long offset = 0;
+    for (int i = 0; i < count; i++) {
+      byte[] bytes = ("line " + (2 * i) + "\nline " + (2 * i + 1) + "\n").getBytes(StandardCharsets.UTF_8);
+      chunks.add(new LogChunk(i, 2L * i, 2, offset, bytes.length,
+          LogChunkCodec.compress(bytes, 0, bytes.length)));
+      offset += bytes.length;
+    }
+    return chunks;
+  }
+}
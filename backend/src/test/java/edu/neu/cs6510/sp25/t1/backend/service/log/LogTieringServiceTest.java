@@ -0,0 +1,200 @@
+package edu.neu.cs6510.sp25.t1.backend.service.log;
+
+import edu.neu.cs6510.sp25.t1.backend.database.entity.ExecutionLogChunkEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.entity.ExecutionLogSegmentEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.ExecutionLogChunkRepository;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.ExecutionLogSegmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+class LogTieringServiceTest {
+
+  @TempDir
+  Path dir;
+
+  private ExecutionLogChunkRepository chunkRepository;
+  private ExecutionLogSegmentRepository segmentRepository;
+  private LogIngestionService logIngestionService;
+  private LogTieringService logTieringService;
+  private UUID jobId;
+  private List<ExecutionLogChunkEntity> chunks;
+
+  @BeforeEach
+  void setUp() {
+    chunkRepository = mock(ExecutionLogChunkRepository.class);
+    segmentRepository = mock(ExecutionLogSegmentRepository.class);
+    logIngestionService = mock(LogIngestionService.class);
+    logTieringService = new LogTieringService(chunkRepository, segmentRepository, logIngestionService,
+        dir.toString(), 2, 30, 10, 100);
+
+    jobId = UUID.randomUUID();
+    chunks = new ArrayList<>();
+    when(chunkRepository.findJobExecutionIdsWithChunksCompletedBefore(any(), any(Pageable.class)))
+        .thenReturn(List.of(jobId));
+    when(chunkRepository.findByJobExecutionIdAndSequenceNumberGreaterThanOrderBySequenceNumberAsc(eq(jobId), anyLong(),
+        any(Pageable.class))).thenAnswer(invocation -> {
+          long sequence = invocation.getArgument(1);
+          Pageable page = invocation.getArgument(2);
+          return chunks.stream().filter(chunk -> chunk.getSequenceNumber() > sequence).limit(page.getPageSize())
+              .toList();
+        });
+  }
+
+  @Test
+  void testSealFinishedLogs_movesChunksToSegment() throws IOException {
+    store(300);
+
+    assertEquals(1, logTieringService.sealFinishedLogs());
+
+    ArgumentCaptor<ExecutionLogSegmentEntity> captor = ArgumentCaptor.forClass(ExecutionLogSegmentEntity.class);
+    verify(segmentRepository).save(captor.capture());
+    ExecutionLogSegmentEntity segment = captor.getValue();
+    Path file = dir.resolve(segment.getFileName());
+    assertEquals(jobId, segment.getJobExecutionId());
+    assertEquals(300, segment.getChunkCount());
+    assertEquals(300, segment.getLineCount());
+    assertEquals(Files.size(file), segment.getSizeBytes());
+    verify(chunkRepository).deleteByJobExecutionId(jobId);
+
+    LogSegment written = LogSegment.open(file);
+    assertEquals(300, written.chunkCount());
+    assertEquals("line 299\n", new String(written.last().orElseThrow().decompress(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void testSealFinishedLogs_skipsLogsStillBuffered() {
+    store(1);
+    when(logIngestionService.isBuffering(jobId)).thenReturn(true);
+
+    assertEquals(0, logTieringService.sealFinishedLogs());
+
+    verify(segmentRepository, never()).save(any());
+    verify(chunkRepository, never()).deleteByJobExecutionId(any());
+  }
+
+  @Test
+  void testSealFinishedLogs_onlyDeletesChunksWhenSegmentExists() throws IOException {
+    store(1);
+    when(segmentRepository.existsById(jobId)).thenReturn(true);
+
+    assertEquals(1, logTieringService.sealFinishedLogs());
+
+    verify(segmentRepository, never()).save(any());
+    verify(chunkRepository).deleteByJobExecutionId(jobId);
+    try (var files = Files.list(dir)) {
+      assertEquals(0, files.count());
+    }
+  }
+
+  @Test
+  void testSealFinishedLogs_keepsChunksWhenIndexCannotBeSaved() throws IOException {
+    store(1);
+    when(segmentRepository.save(any())).thenThrow(new RuntimeException("database unavailable"));
+
+    assertEquals(0, logTieringService.sealFinishedLogs());
+
+    verify(chunkRepository, never()).deleteByJobExecutionId(any());
+    try (var files = Files.list(dir)) {
+      assertEquals(0, files.count());
+    }
+  }
+
+  @Test
+  void testEvictSegments_removesExpiredSegments() throws IOException {
+    ExecutionLogSegmentEntity expired = segment("expired", 10, Instant.now().minus(40, ChronoUnit.DAYS));
+    when(segmentRepository.findByCreatedAtBeforeOrderByCreatedAtAsc(any(), any(Pageable.class)))
+        .thenReturn(List.of(expired));
+
+    assertEquals(1, logTieringService.evictSegments());
+
+    verify(segmentRepository).delete(expired);
+    assertFalse(Files.exists(dir.resolve(expired.getFileName())));
+  }
+
+  @Test
+  void testEvictSegments_removesOldestUntilWithinDiskBudget() throws IOException {
+    long mb = 1024 * 1024;
+    ExecutionLogSegmentEntity oldest = segment("oldest", mb, Instant.now().minus(3, ChronoUnit.DAYS));
+    ExecutionLogSegmentEntity older = segment("older", mb, Instant.now().minus(2, ChronoUnit.DAYS));
+    ExecutionLogSegmentEntity newest = segment("newest", mb, Instant.now().minus(1, ChronoUnit.DAYS));
+    when(segmentRepository.sumSizeBytes()).thenReturn(3 * mb);
+    when(segmentRepository.findByOrderByCreatedAtAsc(any(Pageable.class))).thenReturn(List.of(oldest, older, newest));
+
+    assertEquals(1, logTieringService.evictSegments());
+
+    verify(segmentRepository).delete(oldest);
+    verify(segmentRepository, never()).delete(older);
+    assertFalse(Files.exists(dir.resolve(oldest.getFileName())));
+    assertTrue(Files.exists(dir.resolve(newest.getFileName())));
+  }
+
+  @Test
+  void testDeleteSegments_removesIndexAndFiles() throws IOException {
+    ExecutionLogSegmentEntity dropped = segment("dropped", 10, Instant.now());
+    when(segmentRepository.findAllById(List.of(dropped.getJobExecutionId()))).thenReturn(List.of(dropped));
+
+    assertEquals(1, logTieringService.deleteSegments(List.of(dropped.getJobExecutionId())));
+
+    verify(segmentRepository).delete(dropped);
+    assertFalse(Files.exists(dir.resolve(dropped.getFileName())));
+  }
+
+  @Test
+  void testOpenSegment_emptyWhileLogIsInDatabase() {
+    when(segmentRepository.findById(jobId)).thenReturn(Optional.empty());
+
+    assertTrue(logTieringService.openSegment(jobId).isEmpty());
+  }
+
+  private void store(int count) {
+    for (int i = 0; i < count; i++) {
+      byte[] bytes = ("line " + i + "\n").getBytes(StandardCharsets.UTF_8);
+      long offset = chunks.isEmpty() ? 0 : chunks.get(i - 1).getByteOffset() + chunks.get(i - 1).getByteLength();
+      chunks.add(ExecutionLogChunkEntity.builder()
+          .jobExecutionId(jobId)
+          .sequenceNumber(i)
+          .firstLine(i)
+          .lineCount(1)
+          .byteOffset(offset)
+          .byteLength(bytes.length)
+          .data(LogChunkCodec.compress(bytes, 0, bytes.length))
+          .build());
+    }
+  }
+
+  private ExecutionLogSegmentEntity segment(String name, long sizeBytes, Instant createdAt) throws IOException {
+    String fileName = name + LogSegment.FILE_SUFFIX;
+    Files.createFile(dir.resolve(fileName));
+    return ExecutionLogSegmentEntity.builder()
+        .jobExecutionId(UUID.randomUUID())
+        .fileName(fileName)
+        .sizeBytes(sizeBytes)
+        .createdAt(createdAt)
+        .build();
+  }
+}
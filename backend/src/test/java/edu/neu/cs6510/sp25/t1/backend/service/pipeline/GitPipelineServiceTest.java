@@ -1,6 +1,6 @@
 package edu.neu.cs6510.sp25.t1.backend.service.pipeline;
 
-import edu.neu.cs6510.sp25.t1.backend.info.ClonedPipelineInfo;
+import edu.neu.cs6510.sp25.t1.backend.info.PipelineSourceInfo;
 import edu.neu.cs6510.sp25.t1.common.api.request.PipelineExecutionRequest;
 import edu.neu.cs6510.sp25.t1.common.utils.GitCloneUtil;
 
@@ -10,291 +10,199 @@ import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 
 import static org.mockito.ArgumentMatchers.eq;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 
 
 class GitPipelineServiceTest {
 
+  private static final File MIRROR_DIR = new File("/tmp/fakeMirror.git");
+
+  private RepositoryMirrorService repositoryMirrorService;
   private GitPipelineService service;
 
   @BeforeEach
-  void setUp() {
-    service = new GitPipelineService();
+  void setUp() throws Exception {
+    repositoryMirrorService = mock(RepositoryMirrorService.class);
+    when(repositoryMirrorService.withMirror(eq("https://example.com/repo.git"), any()))
+        .thenAnswer(invocation -> invocation.<RepositoryMirrorService.MirrorAction<?>>getArgument(1)
+            .apply(MIRROR_DIR));
+    service = new GitPipelineService(repositoryMirrorService);
   }
 
   @Test
-  void testCloneRepoAndLocatePipelineFile_success() throws Exception {
-    // Arrange: Create request with full constructor
+  void testReadPipelineFile_readsFirstTopLevelYamlInMemory() throws Exception {
     PipelineExecutionRequest request = new PipelineExecutionRequest(
         UUID.randomUUID(),
         "https://example.com/repo.git",
-        "main",         // test with branch
+        "main",
         "abc123",
         false,
         1,
         null
     );
 
-    // Create fake directory for .pipelines and a fake YAML file
-    File fakeCloneDir = new File("/tmp/fakeRepo-success");
-    File pipelinesDir = new File(fakeCloneDir, ".pipelines");
-    pipelinesDir.mkdirs();
-
-    File fakeYaml = new File(pipelinesDir, "pipeline.yaml");
-    fakeYaml.createNewFile();
-
-    // Mock GitCloneUtil with ALL parameters using matchers
-    try (MockedStatic<GitCloneUtil> mockStatic = org.mockito.Mockito.mockStatic(GitCloneUtil.class)) {
-      mockStatic.when(() ->
-          GitCloneUtil.cloneRepository(
-              eq(request.getRepo()),
-              any(File.class),
-              eq("main")
-          )).thenReturn(fakeCloneDir);
-
-      // Act
-      ClonedPipelineInfo result = service.cloneRepoAndLocatePipelineFile(request);
-
-      // Assert
-      assertNotNull(result);
-      assertTrue(result.getYamlPath().endsWith("pipeline.yaml"));
-      assertNotNull(result.getUuid());
-    }
+    try (MockedStatic<GitCloneUtil> mockStatic = Mockito.mockStatic(GitCloneUtil.class)) {
+      mockStatic.when(() -> GitCloneUtil.resolveCommit(MIRROR_DIR, "main")).thenReturn("c0ffee");
+      mockStatic.when(() -> GitCloneUtil.listFiles(MIRROR_DIR, "c0ffee", ".pipelines"))
+          .thenReturn(List.of(".pipelines/README.md", ".pipelines/nested/other.yaml", ".pipelines/build.yml"));
+      mockStatic.when(() -> GitCloneUtil.readFile(MIRROR_DIR, "c0ffee", ".pipelines/build.yml"))
+          .thenReturn("name: build");
 
-    // Cleanup
-    fakeYaml.delete();
-    pipelinesDir.delete();
-    fakeCloneDir.delete();
-  }
+      PipelineSourceInfo info = service.readPipelineFile(request);
 
+      assertEquals(".pipelines/build.yml", info.getYamlPath());
+      assertEquals("name: build", info.getYamlContent());
+      assertEquals("c0ffee", info.getCommitHash());
+    }
+  }
 
   @Test
-  void testThrowsWhenNoPipelineDir() {
-    // Arrange: use valid constructor
+  void testReadPipelineFile_throwsWhenNoPipelineDir() {
     PipelineExecutionRequest request = new PipelineExecutionRequest(
         UUID.randomUUID(),
         "https://example.com/repo.git",
-        null,          // no branch
+        null,
         "abc123",
         false,
         1,
         null
     );
 
-    File fakeCloneDir = new File("/tmp/fakeRepo-no-pipeline");
-    fakeCloneDir.mkdirs();
-
-    try (MockedStatic<GitCloneUtil> mockStatic = org.mockito.Mockito.mockStatic(GitCloneUtil.class)) {
-      mockStatic.when(() ->
-              GitCloneUtil.cloneRepository(eq(request.getRepo()), any(File.class)))
-          .thenReturn(fakeCloneDir);
+    try (MockedStatic<GitCloneUtil> mockStatic = Mockito.mockStatic(GitCloneUtil.class)) {
+      mockStatic.when(() -> GitCloneUtil.resolveCommit(MIRROR_DIR, null)).thenReturn("c0ffee");
+      mockStatic.when(() -> GitCloneUtil.listFiles(MIRROR_DIR, "c0ffee", ".pipelines")).thenReturn(List.of());
 
-      // Act + Assert
-      Exception ex = assertThrows(Exception.class, () ->
-          service.cloneRepoAndLocatePipelineFile(request));
+      Exception ex = assertThrows(IOException.class, () -> service.readPipelineFile(request));
       assertTrue(ex.getMessage().contains(".pipelines"));
     }
-
-    // Clean up
-    fakeCloneDir.delete();
   }
 
   @Test
-  void testThrowsWhenNoYamlFile() throws Exception {
-    // Construct request with required 7-arg constructor
+  void testReadPipelineFile_throwsWhenNoYamlFile() {
     PipelineExecutionRequest request = new PipelineExecutionRequest(
         UUID.randomUUID(),
         "https://example.com/repo.git",
-        null,          // no branch
+        null,
         "abc123",
         false,
         1,
         null
     );
 
-    // Create fake .pipelines directory without any YAML files
-    File fakeCloneDir = new File("/tmp/fakeRepo-empty-yaml");
-    File pipelinesDir = new File(fakeCloneDir, ".pipelines");
-    pipelinesDir.mkdirs();
-
-    try (MockedStatic<GitCloneUtil> mockStatic = org.mockito.Mockito.mockStatic(GitCloneUtil.class)) {
-      mockStatic.when(() ->
-              GitCloneUtil.cloneRepository(eq(request.getRepo()), any(File.class)))
-          .thenReturn(fakeCloneDir);
+    try (MockedStatic<GitCloneUtil> mockStatic = Mockito.mockStatic(GitCloneUtil.class)) {
+      mockStatic.when(() -> GitCloneUtil.resolveCommit(MIRROR_DIR, null)).thenReturn("c0ffee");
+      mockStatic.when(() -> GitCloneUtil.listFiles(MIRROR_DIR, "c0ffee", ".pipelines"))
+          .thenReturn(List.of(".pipelines/notes.txt"));
 
-      // Act + Assert
-      Exception ex = assertThrows(Exception.class, () ->
-          service.cloneRepoAndLocatePipelineFile(request));
-      assertTrue(ex.getMessage().contains("No YAML"));
+      Exception ex = assertThrows(IOException.class, () -> service.readPipelineFile(request));
+      assertTrue(ex.getMessage().contains("No YAML file found in"));
     }
-
-    // Cleanup
-    pipelinesDir.delete();
-    fakeCloneDir.delete();
   }
 
   @Test
-  void testCloneRepoWithoutBranch_usesTwoArgClone() throws Exception {
+  void testListCachedPipelineFiles_listsLastFetchWithoutFetching() throws Exception {
     PipelineExecutionRequest request = new PipelineExecutionRequest(
-        UUID.randomUUID(),
-        "https://example.com/repo.git",
-        "",              // empty branch
-        "commit123",
-        false,
-        1,
-        null
-    );
-
-    File fakeCloneDir = new File("/tmp/fakeRepo-nobranch");
-    File pipelinesDir = new File(fakeCloneDir, ".pipelines");
-    pipelinesDir.mkdirs();
-
-    File fakeYaml = new File(pipelinesDir, "build.yaml");
-    fakeYaml.createNewFile();
+        UUID.randomUUID(), "https://example.com/repo.git", "main", null, false, 1, null);
+    when(repositoryMirrorService.withCachedMirror(eq("https://example.com/repo.git"), any()))
+        .thenAnswer(invocation -> Optional.ofNullable(invocation.<RepositoryMirrorService.MirrorAction<?>>getArgument(1)
+            .apply(MIRROR_DIR)));
 
     try (MockedStatic<GitCloneUtil> mockStatic = Mockito.mockStatic(GitCloneUtil.class)) {
-      mockStatic.when(() ->
-              GitCloneUtil.cloneRepository(eq(request.getRepo()), any(File.class)))
-          .thenReturn(fakeCloneDir);
+      mockStatic.when(() -> GitCloneUtil.resolveCommit(MIRROR_DIR, "main")).thenReturn("c0ffee");
+      mockStatic.when(() -> GitCloneUtil.listFiles(MIRROR_DIR, "c0ffee", ".pipelines"))
+          .thenReturn(List.of(".pipelines/test.yaml", ".pipelines/nested/other.yaml", ".pipelines/build.yml"));
 
-      ClonedPipelineInfo info = service.cloneRepoAndLocatePipelineFile(request);
+      assertEquals(Optional.of(List.of(".pipelines/build.yml", ".pipelines/test.yaml")),
+          service.listCachedPipelineFiles(request));
 
-      assertTrue(info.getYamlPath().endsWith("build.yaml"));
-      assertNotNull(info.getUuid());
+      mockStatic.when(() -> GitCloneUtil.resolveCommit(MIRROR_DIR, "main")).thenThrow(new IOException("unknown"));
+      assertTrue(service.listCachedPipelineFiles(request).isEmpty());
     }
+    verify(repositoryMirrorService, never()).withMirror(any(), any());
+  }
 
-    // Cleanup
-    fakeYaml.delete();
-    pipelinesDir.delete();
-    fakeCloneDir.delete();
+  @Test
+  void testPipelinePath_acceptsPathOrFileName() {
+    assertEquals(".pipelines/build.yaml", GitPipelineService.pipelinePath("build.yaml"));
+    assertEquals(".pipelines/build.yaml", GitPipelineService.pipelinePath(".pipelines/build.yaml"));
   }
 
   @Test
-  void testThrowsWhenPipelineDirIsFile() throws Exception {
+  void testReadPipelineFiles_readsEveryTopLevelYamlFromOneFetch() throws Exception {
     PipelineExecutionRequest request = new PipelineExecutionRequest(
-        UUID.randomUUID(),
-        "https://example.com/repo.git",
-        null,
-        "abc123",
-        false,
-        1,
-        null
-    );
-
-    File fakeCloneDir = new File("/tmp/fakeRepo-pipelines-not-dir");
-    fakeCloneDir.mkdirs();
-
-    // Create a file named `.pipelines` instead of a directory
-    File pipelinesFile = new File(fakeCloneDir, ".pipelines");
-    pipelinesFile.createNewFile();
+        null, "https://example.com/repo.git", "main", null, false, 1, null);
 
     try (MockedStatic<GitCloneUtil> mockStatic = Mockito.mockStatic(GitCloneUtil.class)) {
-      mockStatic.when(() ->
-              GitCloneUtil.cloneRepository(eq(request.getRepo()), any(File.class)))
-          .thenReturn(fakeCloneDir);
-
-      Exception ex = assertThrows(IOException.class, () ->
-          service.cloneRepoAndLocatePipelineFile(request));
-      assertTrue(ex.getMessage().contains(".pipelines"));
+      mockStatic.when(() -> GitCloneUtil.resolveCommit(MIRROR_DIR, "main")).thenReturn("c0ffee");
+      mockStatic.when(() -> GitCloneUtil.listFiles(MIRROR_DIR, "c0ffee", ".pipelines"))
+          .thenReturn(List.of(".pipelines/build.yml", ".pipelines/nested/other.yaml", ".pipelines/deploy.yaml",
+              ".pipelines/README.md"));
+      mockStatic.when(() -> GitCloneUtil.readFile(MIRROR_DIR, "c0ffee", ".pipelines/build.yml"))
+          .thenReturn("name: build");
+      mockStatic.when(() -> GitCloneUtil.readFile(MIRROR_DIR, "c0ffee", ".pipelines/deploy.yaml"))
+          .thenReturn("name: deploy");
+
+      List<PipelineSourceInfo> sources = service.readPipelineFiles(request, List.of());
+
+      assertEquals(2, sources.size());
+      assertEquals(".pipelines/build.yml", sources.get(0).getYamlPath());
+      assertEquals("name: deploy", sources.get(1).getYamlContent());
+      assertTrue(sources.stream().allMatch(source -> "c0ffee".equals(source.getCommitHash())));
+      Mockito.verify(repositoryMirrorService, Mockito.times(1)).withMirror(eq("https://example.com/repo.git"), any());
+      mockStatic.verify(() -> GitCloneUtil.resolveCommit(MIRROR_DIR, "main"), Mockito.times(1));
     }
-
-    // Cleanup
-    pipelinesFile.delete();
-    fakeCloneDir.delete();
   }
 
   @Test
-  void testThrowsWhenYamlFilesIsNull() throws Exception {
-    // Arrange: construct request with all required fields
+  void testReadPipelineFiles_readsOnlySelectedFiles() throws Exception {
     PipelineExecutionRequest request = new PipelineExecutionRequest(
-        UUID.randomUUID(),
-        "https://example.com/repo.git",
-        null,          // no branch
-        "abc123",
-        false,
-        1,
-        null
-    );
-
-    // Create fake cloned directory and a .pipelines directory (as a file to simulate failure)
-    File cloneDir = new File("/tmp/fakeRepo-yaml-null");
-    cloneDir.mkdirs();
-
-    // Simulate a non-directory .pipelines entry to trigger the YAML search error
-    File pipelinesDir = new File(cloneDir, ".pipelines");
-    pipelinesDir.createNewFile(); // NOT a directory, will cause yamlFiles == null
+        null, "https://example.com/repo.git", "main", null, false, 1, null);
 
     try (MockedStatic<GitCloneUtil> mockStatic = Mockito.mockStatic(GitCloneUtil.class)) {
-      mockStatic.when(() ->
-              GitCloneUtil.cloneRepository(eq(request.getRepo()), any(File.class)))
-          .thenReturn(cloneDir);
-
-      // Act + Assert with message inspection
-      Exception ex = assertThrows(IOException.class, () ->
-          service.cloneRepoAndLocatePipelineFile(request));
-
-      // 👀 Print the actual exception message
-      System.out.println("❗ Exception message: " + ex.getMessage());
-
-      // Adjust this assertion once you see actual output
-      assertTrue(
-          ex.getMessage().toLowerCase().contains("yaml"),
-          "Expected message to mention missing YAML file"
-      );
+      mockStatic.when(() -> GitCloneUtil.resolveCommit(MIRROR_DIR, "main")).thenReturn("c0ffee");
+      mockStatic.when(() -> GitCloneUtil.listFiles(MIRROR_DIR, "c0ffee", ".pipelines"))
+          .thenReturn(List.of(".pipelines/build.yml", ".pipelines/deploy.yaml", ".pipelines/test.yaml"));
+      mockStatic.when(() -> GitCloneUtil.readFile(MIRROR_DIR, "c0ffee", ".pipelines/deploy.yaml"))
+          .thenReturn("name: deploy");
+      mockStatic.when(() -> GitCloneUtil.readFile(MIRROR_DIR, "c0ffee", ".pipelines/test.yaml"))
+          .thenReturn("name: test");
+
+      List<PipelineSourceInfo> sources = service.readPipelineFiles(request,
+          List.of("test.yaml", ".pipelines/deploy.yaml", "deploy.yaml"));
+
+      assertEquals(List.of(".pipelines/deploy.yaml", ".pipelines/test.yaml"),
+          sources.stream().map(PipelineSourceInfo::getYamlPath).toList());
+      mockStatic.verify(() -> GitCloneUtil.readFile(MIRROR_DIR, "c0ffee", ".pipelines/build.yml"), Mockito.never());
     }
-
-    // Cleanup
-    pipelinesDir.delete();
-    cloneDir.delete();
   }
 
   @Test
-  void testYamlFilesEmptyButNotNull() throws Exception {
+  void testReadPipelineFiles_throwsWhenSelectedFileMissing() {
     PipelineExecutionRequest request = new PipelineExecutionRequest(
-        UUID.randomUUID(),
-        "https://example.com/repo.git",
-        null,
-        "abc123",
-        false,
-        1,
-        null
-    );
-
-    File cloneDir = new File("/tmp/fakeRepo-empty-nonyaml");
-    File pipelinesDir = new File(cloneDir, ".pipelines");
-    pipelinesDir.mkdirs();
-
-    // Create a file that does NOT match *.yaml or *.yml
-    File nonYaml = new File(pipelinesDir, "not-a-pipeline.txt");
-    nonYaml.createNewFile(); // will be filtered out
+        null, "https://example.com/repo.git", "main", null, false, 1, null);
 
     try (MockedStatic<GitCloneUtil> mockStatic = Mockito.mockStatic(GitCloneUtil.class)) {
-      mockStatic.when(() ->
-              GitCloneUtil.cloneRepository(eq(request.getRepo()), any(File.class)))
-          .thenReturn(cloneDir);
-
-      Exception ex = assertThrows(IOException.class, () ->
-          service.cloneRepoAndLocatePipelineFile(request));
+      mockStatic.when(() -> GitCloneUtil.resolveCommit(MIRROR_DIR, "main")).thenReturn("c0ffee");
+      mockStatic.when(() -> GitCloneUtil.listFiles(MIRROR_DIR, "c0ffee", ".pipelines"))
+          .thenReturn(List.of(".pipelines/build.yml"));
 
-      assertTrue(
-          ex.getMessage().contains("No YAML file found in"),
-          "Expected message to mention missing YAML file"
-      );
+      Exception ex = assertThrows(IOException.class,
+          () -> service.readPipelineFiles(request, List.of("release.yaml")));
+      assertTrue(ex.getMessage().contains("Pipeline file not found: release.yaml"));
     }
-
-    // Cleanup
-    nonYaml.delete();
-    pipelinesDir.delete();
-    cloneDir.delete();
   }
-
-
 }
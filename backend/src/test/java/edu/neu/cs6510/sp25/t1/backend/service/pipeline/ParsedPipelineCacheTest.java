@@ -0,0 +1,122 @@
+package edu.neu.cs6510.sp25.t1.backend.service.pipeline;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ParsedPipelineCacheTest {
+
+    private static final String REPO = "https://github.com/test/repo";
+    private static final String PATH = ".pipelines/pipeline.yaml";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ParsedPipelineCache cache;
+    private AtomicInteger parses;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ParsedPipelineCache(2, meterRegistry);
+        parses = new AtomicInteger();
+    }
+
+    private Supplier<Map<String, Object>> parser(String name) {
+        return () -> {
+            parses.incrementAndGet();
+            Map<String, Object> config = new HashMap<>();
+            config.put("name", name);
+            return config;
+        };
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("pipeline.parse.cache").tag("result", result).counter().count();
+    }
+
+    @Test
+    public void testGet_HitSkipsParser() {
+        Map<String, Object> first = cache.get(REPO, "abc123", PATH, parser("p"));
+        Map<String, Object> second = cache.get(REPO, "abc123", PATH, parser("p"));
+
+        assertSame(first, second);
+        assertEquals(1, parses.get());
+        assertEquals(1.0, count("hit"));
+        assertEquals(1.0, count("miss"));
+        assertEquals(1.0, meterRegistry.get("pipeline.parse.cache.size").gauge().value());
+    }
+
+    @Test
+    public void testGet_KeyedByRepoCommitAndPath() {
+        cache.get(REPO, "abc123", PATH, parser("p"));
+        cache.get(REPO, "def456", PATH, parser("p"));
+        cache.get(REPO, "abc123", ".pipelines/other.yaml", parser("p"));
+
+        assertEquals(3, parses.get());
+        assertEquals(0.0, count("hit"));
+    }
+
+    @Test
+    public void testGet_EvictsLeastRecentlyUsed() {
+        cache.get(REPO, "a", PATH, parser("a"));
+        cache.get(REPO, "b", PATH, parser("b"));
+        cache.get(REPO, "a", PATH, parser("a"));
+        cache.get(REPO, "c", PATH, parser("c"));
+
+        assertEquals(2, cache.size());
+        assertEquals(1.0, meterRegistry.get("pipeline.parse.cache.evictions").counter().count());
+
+        cache.get(REPO, "a", PATH, parser("a"));
+        assertEquals(3, parses.get());
+        cache.get(REPO, "b", PATH, parser("b"));
+        assertEquals(4, parses.get());
+    }
+
+    @Test
+    public void testGet_WithoutCommitNotCached() {
+        cache.get(REPO, null, PATH, parser("p"));
+        cache.get(REPO, "", PATH, parser("p"));
+
+        assertEquals(2, parses.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testGet_FailedParseNotCached() {
+        assertThrows(IllegalArgumentException.class, () -> cache.get(REPO, "abc123", PATH, () -> {
+            throw new IllegalArgumentException("invalid");
+        }));
+
+        assertEquals(0, cache.size());
+        cache.get(REPO, "abc123", PATH, parser("p"));
+        assertEquals(1, parses.get());
+    }
+
+    @Test
+    public void testGet_ReturnsReadOnlyCopy() {
+        Map<String, Object> config = new HashMap<>();
+        List<Object> stages = new ArrayList<>();
+        stages.add(new HashMap<>(Map.of("name", "build")));
+        config.put("stages", stages);
+
+        Map<String, Object> cached = cache.get(REPO, "abc123", PATH, () -> config);
+        stages.clear();
+
+        List<?> cachedStages = (List<?>) cached.get("stages");
+        assertEquals(1, cachedStages.size());
+        assertThrows(UnsupportedOperationException.class, () -> cached.put("name", "changed"));
+        assertThrows(UnsupportedOperationException.class, cachedStages::clear);
+        assertThrows(UnsupportedOperationException.class,
+                () -> ((Map<?, ?>) cachedStages.get(0)).clear());
+    }
+}
@@ -189,6 +189,82 @@ public class PipelineDefinitionServiceTest {
         assertEquals(request.getCommitHash(), capturedPipeline.getCommitHash());
     }
 
+    @Test
+    public void testComputeDefinitionHash_IgnoresKeyOrder() {
+        // Arrange
+        Map<String, Object> reordered = new java.util.LinkedHashMap<>();
+        reordered.put("stages", pipelineConfig.get("stages"));
+        reordered.put("name", "test-pipeline");
+
+        // Act
+        String hash = pipelineDefinitionService.computeDefinitionHash(request, pipelineConfig, "/root/path");
+        String reorderedHash = pipelineDefinitionService.computeDefinitionHash(request, reordered, "/root/path");
+
+        // Assert
+        assertEquals(64, hash.length());
+        assertEquals(hash, reorderedHash);
+    }
+
+    @Test
+    public void testComputeDefinitionHash_ChangesWithDefinition() {
+        // Arrange
+        String hash = pipelineDefinitionService.computeDefinitionHash(request, pipelineConfig, "/root/path");
+        Map<String, Object> changed = new HashMap<>(pipelineConfig);
+        changed.put("stages", List.of(Map.of("name", "build")));
+
+        // Act & Assert
+        assertNotEquals(hash, pipelineDefinitionService.computeDefinitionHash(request, changed, "/root/path"));
+        assertNotEquals(hash, pipelineDefinitionService.computeDefinitionHash(request, pipelineConfig, "/other/path"));
+    }
+
+    @Test
+    public void testCreateOrReusePipelineDefinition_ReusesUnchangedDefinition() {
+        // Arrange
+        request = spy(request);
+        when(request.getPipelineId()).thenReturn(null);
+
+        PipelineEntity existing = new PipelineEntity();
+        existing.setId(pipelineId);
+        String hash = pipelineDefinitionService.computeDefinitionHash(request, pipelineConfig, "/root/path");
+        when(pipelineRepository.findFirstByNameAndDefinitionHashOrderByCreatedAtDesc("test-pipeline", hash))
+                .thenReturn(Optional.of(existing));
+
+        // Act
+        UUID result = pipelineDefinitionService.createOrReusePipelineDefinition(request, pipelineConfig, "/root/path");
+
+        // Assert - a single lookup, no definition rows written
+        assertEquals(pipelineId, result);
+        verify(pipelineRepository).findFirstByNameAndDefinitionHashOrderByCreatedAtDesc("test-pipeline", hash);
+        verifyNoMoreInteractions(pipelineRepository);
+        verifyNoInteractions(stageRepository, jobRepository, jobScriptRepository);
+    }
+
+    @Test
+    public void testCreateOrReusePipelineDefinition_CreatesChangedDefinition() {
+        // Arrange
+        request = spy(request);
+        when(request.getPipelineId()).thenReturn(null);
+        PipelineDefinitionService service = spy(pipelineDefinitionService);
+
+        when(pipelineRepository.findFirstByNameAndDefinitionHashOrderByCreatedAtDesc(eq("test-pipeline"), anyString()))
+                .thenReturn(Optional.empty());
+        PipelineEntity savedPipeline = new PipelineEntity();
+        savedPipeline.setId(pipelineId);
+        when(pipelineRepository.saveAndFlush(any(PipelineEntity.class))).thenReturn(savedPipeline);
+        when(pipelineRepository.existsById(pipelineId)).thenReturn(true);
+        doNothing().when(service).createPipelineDefinition(pipelineId, pipelineConfig, "/root/path");
+
+        // Act
+        UUID result = service.createOrReusePipelineDefinition(request, pipelineConfig, "/root/path");
+
+        // Assert
+        assertEquals(pipelineId, result);
+        verify(pipelineRepository).saveAndFlush(pipelineCaptor.capture());
+        assertEquals(service.computeDefinitionHash(request, pipelineConfig, "/root/path"),
+                pipelineCaptor.getValue().getDefinitionHash());
+        verify(service).createPipelineDefinition(pipelineId, pipelineConfig, "/root/path");
+    }
+
     @Test
     public void testCreatePipelineDefinition_NestedFormat() {
         // Arrange
@@ -353,6 +429,87 @@ public class PipelineDefinitionServiceTest {
         verify(jobScriptRepository, times(2)).saveScript(any(UUID.class), anyString());
     }
 
+    @Test
+    void testCreatePipelineDefinition_SavesDependenciesBetweenJobDefinitions() {
+        // Arrange
+        Map<String, Object> config = new HashMap<>();
+        config.put("name", "test-pipeline");
+        config.put("stages", List.of("build", "test", "deploy"));
+
+        Map<String, Object> compile = new HashMap<>();
+        compile.put("name", "compile");
+        compile.put("stage", "build");
+        Map<String, Object> unitTest = new HashMap<>();
+        unitTest.put("name", "unit-test");
+        unitTest.put("stage", "test");
+        Map<String, Object> deploy = new HashMap<>();
+        deploy.put("name", "deploy");
+        deploy.put("stage", "deploy");
+        deploy.put("dependencies", List.of("compile"));
+        config.put("jobs", List.of(deploy, compile, unitTest));
+
+        PipelineEntity pipeline = new PipelineEntity();
+        pipeline.setId(pipelineId);
+        when(pipelineRepository.findById(pipelineId)).thenReturn(Optional.of(pipeline));
+
+        StageEntity stage = new StageEntity();
+        stage.setId(UUID.randomUUID());
+        when(stageRepository.save(any(StageEntity.class))).thenReturn(stage);
+        when(stageRepository.existsById(any(UUID.class))).thenReturn(true);
+
+        JobEntity deployEntity = new JobEntity();
+        deployEntity.setId(UUID.randomUUID());
+        JobEntity compileEntity = new JobEntity();
+        compileEntity.setId(UUID.randomUUID());
+        JobEntity unitTestEntity = new JobEntity();
+        unitTestEntity.setId(UUID.randomUUID());
+        when(jobRepository.save(any(JobEntity.class)))
+                .thenReturn(deployEntity)
+                .thenReturn(compileEntity)
+                .thenReturn(unitTestEntity);
+        when(jobRepository.existsById(any(UUID.class))).thenReturn(true);
+
+        // Act
+        pipelineDefinitionService.createPipelineDefinition(pipelineId, config, "/root/path");
+
+        // Assert: the dependency on a job declared later is resolved to its definition ID
+        verify(jobRepository).saveAll(List.of(deployEntity));
+        assertEquals(List.of(compileEntity.getId()), deployEntity.getDependencies());
+        assertNull(unitTestEntity.getDependencies());
+    }
+
+    @Test
+    void testCreatePipelineDefinition_UnknownDependencyThrows() {
+        Map<String, Object> config = new HashMap<>();
+        config.put("stages", List.of("build"));
+
+        Map<String, Object> job = new HashMap<>();
+        job.put("name", "compile");
+        job.put("stage", "build");
+        job.put("needs", "missing");
+        config.put("jobs", List.of(job));
+
+        PipelineEntity pipeline = new PipelineEntity();
+        pipeline.setId(pipelineId);
+        when(pipelineRepository.findById(pipelineId)).thenReturn(Optional.of(pipeline));
+
+        StageEntity stage = new StageEntity();
+        stage.setId(UUID.randomUUID());
+        when(stageRepository.save(any(StageEntity.class))).thenReturn(stage);
+        when(stageRepository.existsById(any(UUID.class))).thenReturn(true);
+
+        JobEntity jobEntity = new JobEntity();
+        jobEntity.setId(UUID.randomUUID());
+        when(jobRepository.save(any(JobEntity.class))).thenReturn(jobEntity);
+        when(jobRepository.existsById(any(UUID.class))).thenReturn(true);
+
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> pipelineDefinitionService.createPipelineDefinition(pipelineId, config, "/root/path"));
+
+        assertTrue(ex.getMessage().contains("missing"));
+        verify(jobRepository, never()).saveAll(any());
+    }
+
     @Test
     public void testCreatePipelineDefinition_PipelineNotFound() {
         // Arrange
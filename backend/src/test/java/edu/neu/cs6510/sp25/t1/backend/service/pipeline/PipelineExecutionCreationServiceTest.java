@@ -13,6 +13,7 @@ import edu.neu.cs6510.sp25.t1.backend.database.repository.StageExecutionReposito
 import edu.neu.cs6510.sp25.t1.backend.database.repository.StageRepository;
 import edu.neu.cs6510.sp25.t1.common.api.request.PipelineExecutionRequest;
 import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,7 +36,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -142,7 +142,6 @@ public class PipelineExecutionCreationServiceTest {
 
         // Configure mock with specific behavior for this exact entity and ID
         when(pipelineExecutionRepository.saveAndFlush(eq(entity))).thenReturn(entity);
-        when(pipelineExecutionRepository.findById(eq(entity.getId()))).thenReturn(Optional.of(entity));
 
         // Act
         PipelineExecutionEntity result = service.savePipelineExecution(entity);
@@ -151,7 +150,7 @@ public class PipelineExecutionCreationServiceTest {
         assertNotNull(result);
         assertEquals(entity, result);
         verify(pipelineExecutionRepository).saveAndFlush(eq(entity));
-        verify(pipelineExecutionRepository).findById(eq(entity.getId()));
+        verify(pipelineExecutionRepository, never()).findById(any());
     }
 
     @Test
@@ -196,52 +195,114 @@ public class PipelineExecutionCreationServiceTest {
         when(stageRepository.findByPipelineId(eq(pipelineId))).thenReturn(stageEntities);
 
         // Setup job entities for each stage
+        List<JobEntity> jobEntities = new ArrayList<>();
         for (StageEntity stage : stageEntities) {
-            List<JobEntity> jobEntities = createJobEntities(2, stage.getId());
-            when(jobRepository.findByStageId(eq(stage.getId()))).thenReturn(jobEntities);
-
-            // Make sure existsById returns true for all job IDs
-            for (JobEntity job : jobEntities) {
-                when(jobRepository.existsById(eq(job.getId()))).thenReturn(true);
-            }
+            jobEntities.addAll(createJobEntities(2, stage.getId()));
         }
+        when(jobRepository.findByStageIdIn(anyCollection())).thenReturn(jobEntities);
 
-        // Setup stage execution responses
-        when(stageExecutionRepository.saveAndFlush(any(StageExecutionEntity.class)))
+        // Persisting assigns client-side IDs
+        when(stageExecutionRepository.saveAll(anyList()))
                 .thenAnswer(invocation -> {
-                    StageExecutionEntity stage = invocation.getArgument(0);
-                    if (stage.getId() == null) {
-                        stage.setId(UUID.randomUUID());
-                    }
-                    return stage;
+                    List<StageExecutionEntity> stages = invocation.getArgument(0);
+                    stages.forEach(stage -> stage.setId(UUID.randomUUID()));
+                    return stages;
                 });
-
-        // Setup job execution responses
         when(jobExecutionRepository.saveAll(anyList()))
                 .thenAnswer(invocation -> {
                     List<JobExecutionEntity> jobs = invocation.getArgument(0);
-                    return jobs.stream()
-                            .peek(job -> {
-                                if (job.getId() == null) {
-                                    job.setId(UUID.randomUUID());
-                                }
-                            })
-                            .collect(Collectors.toList());
+                    jobs.forEach(job -> job.setId(UUID.randomUUID()));
+                    return jobs;
                 });
 
         // Act
         service.createAndSaveStageExecutions(pipelineExecutionId, pipelineConfig, stageQueue);
 
-        // Assert
+        // Assert - one query for all jobs, one write per table and a single flush regardless of pipeline size
         verify(pipelineExecutionRepository).findById(eq(pipelineExecutionId));
         verify(stageRepository).findByPipelineId(eq(pipelineId));
-        verify(stageExecutionRepository, times(3)).saveAndFlush(any(StageExecutionEntity.class));
-        verify(jobRepository, times(3)).flush();
-        verify(jobExecutionRepository, times(3)).saveAll(anyList());
-        verify(jobExecutionRepository, times(3)).flush();
-
-        // Verify stage queue size
+        verify(jobRepository).findByStageIdIn(anyCollection());
+        verify(jobRepository, never()).findByStageId(any());
+        verify(jobRepository, never()).existsById(any());
+        verify(stageExecutionRepository, never()).saveAndFlush(any(StageExecutionEntity.class));
+        verify(stageExecutionRepository).saveAll(anyList());
+        verify(jobExecutionRepository).saveAll(jobExecutionsCaptor.capture());
+        verify(jobExecutionRepository).flush();
+        assertEquals(6, jobExecutionsCaptor.getValue().size());
+
+        // Verify stage queue follows execution order and holds the persisted job IDs
         assertEquals(3, stageQueue.size());
+        for (int i = 0; i < stageEntities.size(); i++) {
+            Queue<UUID> jobQueue = stageQueue.poll();
+            assertNotNull(jobQueue);
+            assertEquals(2, jobQueue.size());
+            jobQueue.forEach(Assertions::assertNotNull);
+        }
+    }
+
+    @Test
+    public void testMaterializePipelineExecution_AttachesDefinitionToReservedExecution() {
+        // Arrange
+        UUID pipelineExecutionId = UUID.randomUUID();
+        PipelineExecutionEntity reserved = new PipelineExecutionEntity();
+        reserved.setId(pipelineExecutionId);
+        reserved.setStatus(ExecutionStatus.PENDING);
+
+        when(pipelineExecutionRepository.findById(eq(pipelineExecutionId))).thenReturn(Optional.of(reserved));
+        List<StageEntity> stageEntities = createStageEntities(1);
+        when(stageRepository.findByPipelineId(eq(pipelineId))).thenReturn(stageEntities);
+        when(jobRepository.findByStageIdIn(anyCollection()))
+                .thenReturn(createJobEntities(1, stageEntities.get(0).getId()));
+
+        // Act
+        service.materializePipelineExecution(pipelineExecutionId, pipelineId, "def456", pipelineConfig, stageQueue);
+
+        // Assert
+        assertEquals(pipelineId, reserved.getPipelineId());
+        assertEquals("def456", reserved.getCommitHash());
+        verify(pipelineExecutionRepository).save(reserved);
+        verify(stageExecutionRepository).saveAll(anyList());
+        assertEquals(1, stageQueue.size());
+    }
+
+    @Test
+    public void testMarkPipelineExecutionFailed() {
+        // Arrange
+        UUID pipelineExecutionId = UUID.randomUUID();
+        PipelineExecutionEntity reserved = new PipelineExecutionEntity();
+        reserved.setId(pipelineExecutionId);
+        reserved.setStatus(ExecutionStatus.PENDING);
+        when(pipelineExecutionRepository.findById(eq(pipelineExecutionId))).thenReturn(Optional.of(reserved));
+
+        // Act
+        service.markPipelineExecutionFailed(pipelineExecutionId);
+
+        // Assert
+        assertEquals(ExecutionStatus.FAILED, reserved.getStatus());
+        assertNotNull(reserved.getCompletionTime());
+        verify(pipelineExecutionRepository).save(reserved);
+    }
+
+    @Test
+    public void testCreateAndSaveStageExecutions_WithEntitySkipsLookup() {
+        // Arrange
+        PipelineExecutionEntity pipelineExecution = new PipelineExecutionEntity();
+        pipelineExecution.setId(UUID.randomUUID());
+        pipelineExecution.setPipelineId(pipelineId);
+
+        List<StageEntity> stageEntities = createStageEntities(2);
+        when(stageRepository.findByPipelineId(eq(pipelineId))).thenReturn(stageEntities);
+        when(jobRepository.findByStageIdIn(anyCollection()))
+                .thenReturn(createJobEntities(1, stageEntities.get(1).getId()));
+
+        // Act
+        service.createAndSaveStageExecutions(pipelineExecution, pipelineConfig, stageQueue);
+
+        // Assert - stage without jobs still gets an (empty) queue entry
+        verify(pipelineExecutionRepository, never()).findById(any());
+        assertEquals(2, stageQueue.size());
+        assertTrue(stageQueue.poll().isEmpty());
+        assertEquals(1, stageQueue.poll().size());
     }
 
     @Test
@@ -286,7 +347,7 @@ public class PipelineExecutionCreationServiceTest {
         when(stageRepository.findByPipelineId(eq(pipelineId))).thenReturn(stageEntities);
 
         // Setup stage execution to fail
-        when(stageExecutionRepository.saveAndFlush(any(StageExecutionEntity.class)))
+        when(stageExecutionRepository.saveAll(anyList()))
                 .thenThrow(new RuntimeException("Database error"));
 
         // Act & Assert
@@ -297,7 +358,8 @@ public class PipelineExecutionCreationServiceTest {
         assertTrue(exception.getMessage().contains("Database error"));
         verify(pipelineExecutionRepository).findById(eq(pipelineExecutionId));
         verify(stageRepository).findByPipelineId(eq(pipelineId));
-        verify(stageExecutionRepository).saveAndFlush(any(StageExecutionEntity.class));
+        verify(stageExecutionRepository).saveAll(anyList());
+        verify(jobExecutionRepository, never()).flush();
     }
 
     @Test
@@ -310,30 +372,22 @@ public class PipelineExecutionCreationServiceTest {
 
         List<StageEntity> stages = createStageEntities(2);
         when(stageRepository.findByPipelineId(eq(pipelineId))).thenReturn(stages);
-
-        List<JobEntity> jobs1 = createJobEntities(2, stages.get(0).getId());
-        List<JobEntity> jobs2 = createJobEntities(1, stages.get(1).getId());
-        when(jobRepository.findByStageId(eq(stages.get(0).getId()))).thenReturn(jobs1);
-        when(jobRepository.findByStageId(eq(stages.get(1).getId()))).thenReturn(jobs2);
-
-        List<StageExecutionEntity> stageExecutions = createStageExecutionEntities(2, pipelineExecutionId);
-        when(stageExecutionRepository.findByPipelineExecutionId(eq(pipelineExecutionId))).thenReturn(stageExecutions);
-
-        List<JobExecutionEntity> jobExecutions1 = createJobExecutionEntities(2, stageExecutions.get(0));
-        List<JobExecutionEntity> jobExecutions2 = createJobExecutionEntities(1, stageExecutions.get(1));
-        when(jobExecutionRepository.findByStageExecution(eq(stageExecutions.get(0)))).thenReturn(jobExecutions1);
-        when(jobExecutionRepository.findByStageExecution(eq(stageExecutions.get(1)))).thenReturn(jobExecutions2);
+        when(jobRepository.countByStageIdIn(anyCollection())).thenReturn(3L);
+        when(stageExecutionRepository.countByPipelineExecutionId(eq(pipelineExecutionId))).thenReturn(2L);
+        when(jobExecutionRepository.countByStageExecution_PipelineExecutionId(eq(pipelineExecutionId))).thenReturn(3L);
 
         // Act - Should not throw any exceptions
         service.verifyEntitiesSaved(pipelineId, pipelineExecutionId);
 
-        // Assert
+        // Assert - a constant number of queries, independent of the number of stages
         verify(pipelineRepository).existsById(eq(pipelineId));
         verify(pipelineExecutionRepository).existsById(eq(pipelineExecutionId));
         verify(stageRepository).findByPipelineId(eq(pipelineId));
-        verify(jobRepository, times(2)).findByStageId(any(UUID.class));
-        verify(stageExecutionRepository).findByPipelineExecutionId(eq(pipelineExecutionId));
-        verify(jobExecutionRepository, times(2)).findByStageExecution(any(StageExecutionEntity.class));
+        verify(jobRepository).countByStageIdIn(anyCollection());
+        verify(jobRepository, never()).findByStageId(any(UUID.class));
+        verify(stageExecutionRepository).countByPipelineExecutionId(eq(pipelineExecutionId));
+        verify(jobExecutionRepository).countByStageExecution_PipelineExecutionId(eq(pipelineExecutionId));
+        verify(jobExecutionRepository, never()).findByStageExecution(any(StageExecutionEntity.class));
     }
 
     @Test
@@ -344,7 +398,6 @@ public class PipelineExecutionCreationServiceTest {
         when(pipelineRepository.existsById(eq(pipelineId))).thenReturn(false);
         when(pipelineExecutionRepository.existsById(eq(pipelineExecutionId))).thenReturn(true);
         when(stageRepository.findByPipelineId(eq(pipelineId))).thenReturn(Collections.emptyList());
-        when(stageExecutionRepository.findByPipelineExecutionId(eq(pipelineExecutionId))).thenReturn(Collections.emptyList());
 
         // Act - Should log an error but not throw an exception
         service.verifyEntitiesSaved(pipelineId, pipelineExecutionId);
@@ -353,7 +406,7 @@ public class PipelineExecutionCreationServiceTest {
         verify(pipelineRepository).existsById(eq(pipelineId));
         verify(pipelineExecutionRepository).existsById(eq(pipelineExecutionId));
         verify(stageRepository).findByPipelineId(eq(pipelineId));
-        verify(stageExecutionRepository).findByPipelineExecutionId(eq(pipelineExecutionId));
+        verify(stageExecutionRepository).countByPipelineExecutionId(eq(pipelineExecutionId));
     }
 
     // Helper methods to create test entities
@@ -384,33 +437,4 @@ public class PipelineExecutionCreationServiceTest {
         }
         return jobs;
     }
-
-    private List<StageExecutionEntity> createStageExecutionEntities(int count, UUID pipelineExecutionId) {
-        List<StageExecutionEntity> stageExecutions = new ArrayList<>();
-        for (int i = 0; i < count; i++) {
-            StageExecutionEntity stageExecution = new StageExecutionEntity();
-            stageExecution.setId(UUID.randomUUID());
-            stageExecution.setPipelineExecutionId(pipelineExecutionId);
-            stageExecution.setStageId(UUID.randomUUID());
-            stageExecution.setExecutionOrder(i);
-            stageExecution.setStatus(ExecutionStatus.PENDING);
-            stageExecution.setStartTime(Instant.now());
-            stageExecutions.add(stageExecution);
-        }
-        return stageExecutions;
-    }
-
-    private List<JobExecutionEntity> createJobExecutionEntities(int count, StageExecutionEntity stageExecution) {
-        List<JobExecutionEntity> jobExecutions = new ArrayList<>();
-        for (int i = 0; i < count; i++) {
-            JobExecutionEntity jobExecution = new JobExecutionEntity();
-            jobExecution.setId(UUID.randomUUID());
-            jobExecution.setStageExecution(stageExecution);
-            jobExecution.setJobId(UUID.randomUUID());
-            jobExecution.setStatus(ExecutionStatus.PENDING);
-            jobExecution.setStartTime(Instant.now());
-            jobExecutions.add(jobExecution);
-        }
-        return jobExecutions;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,159 @@
+package edu.neu.cs6510.sp25.t1.backend.service.pipeline;
+
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class RepositoryMirrorServiceTest {
+
+  @TempDir
+  Path tempDir;
+
+  private RepositoryMirrorService service;
+  private File mirrorBaseDir;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    mirrorBaseDir = tempDir.resolve("mirrors").toFile();
+    service = new RepositoryMirrorService();
+    setField("mirrorBaseDir", mirrorBaseDir.getAbsolutePath());
+    setField("maxDiskMb", 1024L);
+  }
+
+  @Test
+  void testWithMirror_clonesOnceAndReusesMirror() throws Exception {
+    String repoUrl = createRepository("repo").toURI().toString();
+
+    File first = service.withMirror(repoUrl, mirrorDir -> mirrorDir);
+    File second = service.withMirror(repoUrl, mirrorDir -> mirrorDir);
+
+    assertEquals(first, second);
+    assertTrue(new File(first, "HEAD").isFile());
+    assertEquals(1, mirrorBaseDir.listFiles().length);
+  }
+
+  @Test
+  void testWithMirror_fetchesNewCommits() throws Exception {
+    File sourceDir = createRepository("repo");
+    String repoUrl = sourceDir.toURI().toString();
+    service.withMirror(repoUrl, mirrorDir -> null);
+
+    String newHead;
+    try (Git git = Git.open(sourceDir)) {
+      commit(git, "second.txt");
+      newHead = git.getRepository().resolve("HEAD").getName();
+    }
+
+    String mirroredHead = service.withMirror(repoUrl, mirrorDir -> {
+      try (Git mirror = Git.open(mirrorDir)) {
+        return mirror.getRepository().resolve("refs/heads/main").getName();
+      }
+    });
+    assertEquals(newHead, mirroredHead);
+  }
+
+  @Test
+  void testWithCachedMirror_readsLastFetchWithoutFetching() throws Exception {
+    File sourceDir = createRepository("repo");
+    String repoUrl = sourceDir.toURI().toString();
+
+    assertTrue(service.withCachedMirror(repoUrl, mirrorDir -> mirrorDir).isEmpty());
+
+    String fetchedHead = service.withMirror(repoUrl, mirrorDir -> {
+      try (Git mirror = Git.open(mirrorDir)) {
+        return mirror.getRepository().resolve("refs/heads/main").getName();
+      }
+    });
+    try (Git git = Git.open(sourceDir)) {
+      commit(git, "second.txt");
+    }
+
+    String cachedHead = service.withCachedMirror(repoUrl, mirrorDir -> {
+      try (Git mirror = Git.open(mirrorDir)) {
+        return mirror.getRepository().resolve("refs/heads/main").getName();
+      }
+    }).orElseThrow();
+    assertEquals(fetchedHead, cachedHead);
+  }
+
+  @Test
+  void testWithMirror_evictsLeastRecentlyUsedMirrorOverBudget() throws Exception {
+    setField("maxDiskMb", 0L);
+    String oldUrl = createRepository("old").toURI().toString();
+    String newUrl = createRepository("new").toURI().toString();
+
+    File oldMirror = service.withMirror(oldUrl, mirrorDir -> mirrorDir);
+    File newMirror = service.withMirror(newUrl, mirrorDir -> mirrorDir);
+
+    assertFalse(oldMirror.exists());
+    assertTrue(newMirror.exists());
+  }
+
+  @Test
+  void testWithMirror_evictsMirrorsLeftByAnEarlierRun() throws Exception {
+    setField("maxDiskMb", 0L);
+    File leftover = new File(mirrorBaseDir, "leftover.git");
+    Files.createDirectories(leftover.toPath());
+    Files.writeString(leftover.toPath().resolve("HEAD"), "ref: refs/heads/main\n");
+    leftover.setLastModified(0);
+    String repoUrl = createRepository("repo").toURI().toString();
+
+    File mirror = service.withMirror(repoUrl, mirrorDir -> mirrorDir);
+
+    // Never fetched by this service, so its size is measured when first seen
+    assertFalse(leftover.exists());
+    assertTrue(mirror.exists());
+  }
+
+  @Test
+  void testWithMirror_propagatesActionFailure() throws Exception {
+    String repoUrl = createRepository("repo").toURI().toString();
+
+    assertThrows(IllegalStateException.class, () -> service.withMirror(repoUrl, mirrorDir -> {
+      throw new IllegalStateException("boom");
+    }));
+  }
+
+  @Test
+  void testMirrorKey_isStablePerUrl() {
+    assertEquals(RepositoryMirrorService.mirrorKey("https://example.com/a.git"),
+        RepositoryMirrorService.mirrorKey("https://example.com/a.git"));
+    assertNotEquals(RepositoryMirrorService.mirrorKey("https://example.com/a.git"),
+        RepositoryMirrorService.mirrorKey("https://example.com/b.git"));
+  }
+
+  private File createRepository(String name) throws Exception {
+    File dir = tempDir.resolve(name).toFile();
+    try (Git git = Git.init().setDirectory(dir).setInitialBranch("main").call()) {
+      commit(git, ".pipelines/pipeline.yaml");
+    }
+    return dir;
+  }
+
+  private static void commit(Git git, String path) throws Exception {
+    Path file = git.getRepository().getWorkTree().toPath().resolve(path);
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, path);
+    git.add().addFilepattern(path).call();
+    git.commit().setMessage("Add " + path).setAuthor("test", "test@example.com")
+        .setCommitter("test", "test@example.com").call();
+  }
+
+  private void setField(String name, Object value) throws Exception {
+    Field field = RepositoryMirrorService.class.getDeclaredField(name);
+    field.setAccessible(true);
+    field.set(service, value);
+  }
+}
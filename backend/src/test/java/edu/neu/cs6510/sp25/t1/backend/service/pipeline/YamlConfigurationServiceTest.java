@@ -7,8 +7,11 @@ import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -16,15 +19,21 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
 
 @ExtendWith(MockitoExtension.class)
 public class YamlConfigurationServiceTest {
 
+    @Spy
+    private ParsedPipelineCache parsedPipelineCache = new ParsedPipelineCache(16, new SimpleMeterRegistry());
+
     @InjectMocks
     private YamlConfigurationService yamlConfigurationService;
 
@@ -202,4 +211,51 @@ public class YamlConfigurationServiceTest {
             assertEquals(errorMessage, exception.getCause().getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParseAndValidatePipelineYamlContent_Success() {
+        Map<String, Object> result = yamlConfigurationService.parseAndValidatePipelineYamlContent(
+                "name: test-pipeline\nstages:\n  - name: build\n    jobs:\n      - name: compile\n"
+                        + "        image: gradle:jdk17\n        script: ./gradlew build\n",
+                ".pipelines/pipeline.yaml@abc123");
+
+        assertEquals("test-pipeline", result.get("name"));
+    }
+
+    @Test
+    public void testParseAndValidatePipelineYamlContent_InvalidContent() {
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                yamlConfigurationService.parseAndValidatePipelineYamlContent("name: no-stages\n", "memory"));
+
+        assertTrue(exception.getMessage().contains("YAML parsing failed"));
+        assertTrue(exception.getCause() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void testParseAndValidatePipelineYamlContent_CachedPerCommit() {
+        String yaml = "name: test-pipeline\nstages:\n  - name: build\n    jobs:\n      - name: compile\n"
+                + "        image: gradle:jdk17\n        script: ./gradlew build\n";
+
+        try (MockedStatic<YamlPipelineUtils> utils = mockStatic(YamlPipelineUtils.class, CALLS_REAL_METHODS)) {
+            Map<String, Object> first = yamlConfigurationService.parseAndValidatePipelineYamlContent(
+                    "https://github.com/test/repo", "abc123", ".pipelines/pipeline.yaml", yaml);
+            Map<String, Object> second = yamlConfigurationService.parseAndValidatePipelineYamlContent(
+                    "https://github.com/test/repo", "abc123", ".pipelines/pipeline.yaml", yaml);
+            yamlConfigurationService.parseAndValidatePipelineYamlContent(
+                    "https://github.com/test/repo", "def456", ".pipelines/pipeline.yaml", yaml);
+
+            assertSame(first, second);
+            assertEquals("test-pipeline", first.get("name"));
+            utils.verify(() -> YamlPipelineUtils.parsePipelineYaml(anyString(), anyString()), times(2));
+            utils.verify(() -> YamlPipelineUtils.validatePipelineConfig(any()), times(2));
+        }
+    }
+
+    @Test
+    public void testParseAndValidatePipelineYamlContent_FailureNotCached() {
+        assertThrows(RuntimeException.class, () -> yamlConfigurationService.parseAndValidatePipelineYamlContent(
+                "https://github.com/test/repo", "abc123", ".pipelines/pipeline.yaml", "name: no-stages\n"));
+
+        assertEquals(0, parsedPipelineCache.size());
+    }
+}
@@ -0,0 +1,79 @@
+package edu.neu.cs6510.sp25.t1.backend.service.report;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+class DurationHistogramTest {
+
+  @Test
+  void testEmptyHistogram() {
+    DurationHistogram histogram = new DurationHistogram();
+
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMean());
+    assertEquals(0, histogram.getMin());
+    assertEquals(0, histogram.getMax());
+    assertEquals(0, histogram.getPercentile(99));
+  }
+
+  @Test
+  void testSingleValueIsReportedExactly() {
+    DurationHistogram histogram = new DurationHistogram();
+    histogram.record(1234);
+
+    assertEquals(1, histogram.getCount());
+    assertEquals(1234, histogram.getMean());
+    assertEquals(1234, histogram.getPercentile(50));
+    assertEquals(1234, histogram.getPercentile(99));
+  }
+
+  @Test
+  void testPercentilesWithinOnePercent() {
+    Random random = new Random(42);
+    long[] values = new long[10_000];
+    DurationHistogram histogram = new DurationHistogram();
+    for (int i = 0; i < values.length; i++) {
+      values[i] = 100 + (long) (random.nextDouble() * random.nextDouble() * 600_000);
+      histogram.record(values[i]);
+    }
+    Arrays.sort(values);
+
+    for (double percentile : new double[] {50, 95, 99}) {
+      long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+      long estimate = histogram.getPercentile(percentile);
+      assertTrue(Math.abs(estimate - exact) <= exact * 0.01,
+          "p" + percentile + " estimate " + estimate + " too far from " + exact);
+    }
+    assertEquals(values[0], histogram.getMin());
+    assertEquals(values[values.length - 1], histogram.getMax());
+    assertEquals(values.length, histogram.getCount());
+  }
+
+  @Test
+  void testValuesRecordedBelowFirstBucket() {
+    DurationHistogram histogram = new DurationHistogram();
+    histogram.record(60_000);
+    histogram.record(10);
+    histogram.record(0);
+    histogram.record(-5);
+
+    assertEquals(4, histogram.getCount());
+    assertEquals(0, histogram.getMin());
+    assertEquals(0, histogram.getPercentile(50));
+    assertEquals(60_000, histogram.getPercentile(100));
+    assertEquals(15_003, histogram.getMean());
+  }
+
+  @Test
+  void testBucketValueLiesInBucket() {
+    for (long millis : new long[] {1, 2, 99, 1_000, 3_600_000}) {
+      assertEquals(DurationHistogram.bucketOf(millis),
+          DurationHistogram.bucketOf(DurationHistogram.valueOf(DurationHistogram.bucketOf(millis))));
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package edu.neu.cs6510.sp25.t1.backend.service.report;
+
+import edu.neu.cs6510.sp25.t1.backend.database.projection.ExecutionDurationRow;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.JobExecutionRepository;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.PipelineExecutionRepository;
+import edu.neu.cs6510.sp25.t1.backend.database.repository.StageExecutionRepository;
+import edu.neu.cs6510.sp25.t1.common.dto.DurationStatsDTO;
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+class DurationStatsServiceTest {
+
+  private static final Instant START = Instant.parse("2025-01-01T10:00:00Z");
+
+  private PipelineExecutionRepository pipelineExecutionRepository;
+  private StageExecutionRepository stageExecutionRepository;
+  private JobExecutionRepository jobExecutionRepository;
+  private DurationStatsService durationStatsService;
+
+  @BeforeEach
+  void setUp() {
+    pipelineExecutionRepository = mock(PipelineExecutionRepository.class);
+    stageExecutionRepository = mock(StageExecutionRepository.class);
+    jobExecutionRepository = mock(JobExecutionRepository.class);
+
+    durationStatsService = new DurationStatsService(
+        pipelineExecutionRepository,
+        stageExecutionRepository,
+        jobExecutionRepository,
+        500,
+        30
+    );
+
+    when(pipelineExecutionRepository.findRecentDurationRowsByPipelineName(eq("demo"), eq(ExecutionStatus.SUCCESS),
+        any(), any())).thenReturn(List.of(
+            new ExecutionDurationRow(UUID.randomUUID(), START, START.plusSeconds(100)),
+            new ExecutionDurationRow(UUID.randomUUID(), START, START.plusSeconds(300))));
+    when(stageExecutionRepository.findRecentDurationRowsByPipelineName(eq("demo"), eq(ExecutionStatus.SUCCESS),
+        any(), any())).thenReturn(List.of(
+            new ExecutionDurationRow(UUID.randomUUID(), "test", START, START.plusSeconds(80)),
+            new ExecutionDurationRow(UUID.randomUUID(), "build", START, START.plusSeconds(20))));
+    when(jobExecutionRepository.findRecentDurationRowsByPipelineName(eq("demo"), eq(ExecutionStatus.SUCCESS),
+        any(), any())).thenReturn(List.of(
+            new ExecutionDurationRow(UUID.randomUUID(), "build", "compile", START, START.plusSeconds(20)),
+            new ExecutionDurationRow(UUID.randomUUID(), "test", "unit", START, START.plusSeconds(80))));
+  }
+
+  @Test
+  void testGetStats_loadsHistoryOnceWithBoundedQueries() {
+    List<DurationStatsDTO> stats = durationStatsService.getStats("demo", null, null);
+    durationStatsService.getStats("demo", "build", null);
+
+    assertEquals(List.of("pipeline", "stage", "stage", "job", "job"),
+        stats.stream().map(DurationStatsDTO::getScope).toList());
+    assertEquals("build", stats.get(1).getStageName());
+    assertEquals("test", stats.get(2).getStageName());
+    assertEquals(2, stats.get(0).getCount());
+    assertEquals(200_000, stats.get(0).getMeanMillis());
+    assertEquals(100_000, stats.get(0).getMinMillis());
+    assertEquals(300_000, stats.get(0).getMaxMillis());
+    assertEquals(300_000, stats.get(0).getP99Millis());
+
+    ArgumentCaptor<Instant> startedSince = ArgumentCaptor.forClass(Instant.class);
+    verify(pipelineExecutionRepository, times(1)).findRecentDurationRowsByPipelineName(eq("demo"),
+        eq(ExecutionStatus.SUCCESS), startedSince.capture(), eq(PageRequest.of(0, 500)));
+    Instant window = Instant.now().minus(Duration.ofDays(30));
+    assertTrue(Duration.between(startedSince.getValue(), window).abs().compareTo(Duration.ofMinutes(1)) < 0);
+    verify(stageExecutionRepository, times(1)).findRecentDurationRowsByPipelineName(any(), any(),
+        eq(startedSince.getValue()), any());
+    verify(jobExecutionRepository, times(1)).findRecentDurationRowsByPipelineName(any(), any(),
+        eq(startedSince.getValue()), any());
+  }
+
+  @Test
+  void testGetStats_filtersByStageAndJob() {
+    List<DurationStatsDTO> stageStats = durationStatsService.getStats("demo", "build", null);
+    List<DurationStatsDTO> jobStats = durationStatsService.getStats("demo", null, "unit");
+
+    assertEquals(2, stageStats.size());
+    assertEquals("stage", stageStats.get(0).getScope());
+    assertEquals("compile", stageStats.get(1).getJobName());
+    assertEquals(1, jobStats.size());
+    assertEquals("test", jobStats.get(0).getStageName());
+    assertEquals(80_000, jobStats.get(0).getP50Millis());
+    assertTrue(durationStatsService.getStats("demo", "deploy", null).isEmpty());
+  }
+
+  @Test
+  void testRecord_updatesLoadedStatsIncrementally() {
+    durationStatsService.getStats("demo", null, null);
+    UUID jobExecutionId = UUID.randomUUID();
+
+    durationStatsService.recordJob("demo", "build", "compile", jobExecutionId, START, START.plusSeconds(40));
+    durationStatsService.recordJob("demo", "build", "compile", jobExecutionId, START, START.plusSeconds(40));
+    durationStatsService.recordStage("demo", "deploy", UUID.randomUUID(), START, START.plusSeconds(5));
+    durationStatsService.recordPipeline("demo", UUID.randomUUID(), START, START.plusSeconds(200));
+
+    DurationStatsDTO compile = durationStatsService.getStats("demo", "build", "compile").get(0);
+    assertEquals(2, compile.getCount());
+    assertEquals(30_000, compile.getMeanMillis());
+    assertEquals(40_000, compile.getMaxMillis());
+    assertEquals(1, durationStatsService.getStats("demo", "deploy", null).get(0).getCount());
+    assertEquals(3, durationStatsService.getStats("demo", null, null).get(0).getCount());
+  }
+
+  @Test
+  void testRecord_ignoresPipelinesNotReadYet() {
+    durationStatsService.recordPipeline("demo", UUID.randomUUID(), START, START.plusSeconds(200));
+    durationStatsService.recordJob("demo", "build", "compile", UUID.randomUUID(), START, null);
+
+    // The history query already holds completed executions, so nothing is counted twice
+    assertEquals(2, durationStatsService.getStats("demo", null, null).get(0).getCount());
+  }
+
+  @Test
+  void testGetStats_keepsCompletionsRecordedWhileLoading() {
+    UUID alreadyQueried = UUID.randomUUID();
+    when(jobExecutionRepository.findRecentDurationRowsByPipelineName(eq("demo"), eq(ExecutionStatus.SUCCESS),
+        any(), any())).thenAnswer(invocation -> {
+          // Both jobs complete while the history is read; the query already sees the first one
+          durationStatsService.recordJob("demo", "build", "compile", alreadyQueried, START, START.plusSeconds(20));
+          durationStatsService.recordJob("demo", "build", "compile", UUID.randomUUID(), START, START.plusSeconds(50));
+          return List.of(new ExecutionDurationRow(alreadyQueried, "build", "compile", START, START.plusSeconds(20)));
+        });
+
+    DurationStatsDTO compile = durationStatsService.getStats("demo", "build", "compile").get(0);
+
+    assertEquals(2, compile.getCount());
+    assertEquals(50_000, compile.getMaxMillis());
+  }
+
+  @Test
+  void testGetStats_retriesLoadAfterFailure() {
+    when(pipelineExecutionRepository.findRecentDurationRowsByPipelineName(eq("flaky"), any(), any(), any()))
+        .thenThrow(new IllegalStateException("down"))
+        .thenReturn(List.of(new ExecutionDurationRow(UUID.randomUUID(), START, START.plusSeconds(10))));
+
+    assertThrows(IllegalStateException.class, () -> durationStatsService.getStats("flaky", null, null));
+    assertEquals(1, durationStatsService.getStats("flaky", null, null).get(0).getCount());
+  }
+
+  @Test
+  void testGetStats_pipelineWithoutHistory() {
+    List<DurationStatsDTO> stats = durationStatsService.getStats("unknown", null, null);
+
+    assertEquals(1, stats.size());
+    assertEquals(0, stats.get(0).getCount());
+    assertEquals(0, stats.get(0).getP95Millis());
+  }
+}
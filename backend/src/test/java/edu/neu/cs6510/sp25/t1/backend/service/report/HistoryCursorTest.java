@@ -0,0 +1,37 @@
+package edu.neu.cs6510.sp25.t1.backend.service.report;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+class HistoryCursorTest {
+
+  @Test
+  void testEncodeDecode_roundTrips() {
+    HistoryCursor cursor = new HistoryCursor(Instant.parse("2024-04-01T10:00:00.123456Z"), UUID.randomUUID());
+
+    String token = cursor.encode();
+
+    assertFalse(token.contains("|"));
+    assertEquals(cursor, HistoryCursor.decode(token));
+  }
+
+  @Test
+  void testDecode_rejectsMalformedTokens() {
+    assertThrows(IllegalArgumentException.class, () -> HistoryCursor.decode("***"));
+    assertThrows(IllegalArgumentException.class, () -> HistoryCursor.decode(encode("no-separator")));
+    assertThrows(IllegalArgumentException.class, () -> HistoryCursor.decode(encode("yesterday|" + UUID.randomUUID())));
+    assertThrows(IllegalArgumentException.class, () -> HistoryCursor.decode(encode(Instant.now() + "|not-a-uuid")));
+  }
+
+  private static String encode(String raw) {
+    return Base64.getUrlEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
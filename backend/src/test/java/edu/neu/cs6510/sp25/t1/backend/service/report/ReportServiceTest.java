@@ -2,29 +2,42 @@
 package edu.neu.cs6510.sp25.t1.backend.service.report;
 
 
-import edu.neu.cs6510.sp25.t1.backend.database.entity.JobExecutionEntity;
 import edu.neu.cs6510.sp25.t1.backend.database.entity.PipelineExecutionEntity;
 import edu.neu.cs6510.sp25.t1.backend.database.entity.StageExecutionEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.JobReportRow;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.StageReportRow;
 import edu.neu.cs6510.sp25.t1.backend.database.repository.JobExecutionRepository;
 import edu.neu.cs6510.sp25.t1.backend.database.repository.PipelineExecutionRepository;
 import edu.neu.cs6510.sp25.t1.backend.database.repository.StageExecutionRepository;
 import edu.neu.cs6510.sp25.t1.common.dto.JobReportDTO;
 import edu.neu.cs6510.sp25.t1.common.dto.PipelineReportDTO;
+import edu.neu.cs6510.sp25.t1.common.dto.PipelineReportPageDTO;
 import edu.neu.cs6510.sp25.t1.common.dto.StageReportDTO;
+import edu.neu.cs6510.sp25.t1.common.dto.StageReportPageDTO;
 import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Method;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -55,11 +68,7 @@ class ReportServiceTest {
 
   @Test
   void testGetAvailablePipelines() {
-    PipelineExecutionEntity execution = new PipelineExecutionEntity();
-    execution.setPipelineId(UUID.randomUUID());
-
-    when(pipelineExecutionRepository.findAll()).thenReturn(List.of(execution));
-    when(pipelineExecutionRepository.findPipelineNameByPipelineId(any())).thenReturn(Optional.of("DemoPipeline"));
+    when(pipelineExecutionRepository.findDistinctPipelineNames()).thenReturn(List.of("DemoPipeline"));
 
     List<String> result = reportService.getAvailablePipelines();
     assertEquals(1, result.size());
@@ -68,12 +77,11 @@ class ReportServiceTest {
 
 
   @Test
-  void testGetPipelineReports() {
+  void testGetPipelineReportPage() {
     // Use fixed UUIDs for matching
     UUID pipelineId = UUID.fromString("11111111-1111-1111-1111-111111111111");
     UUID pipelineExecId = UUID.fromString("22222222-2222-2222-2222-222222222222");
     UUID stageExecId = UUID.fromString("33333333-3333-3333-3333-333333333333");
-    UUID stageId = UUID.fromString("44444444-4444-4444-4444-444444444444");
 
     // Create pipeline execution
     PipelineExecutionEntity exec = new PipelineExecutionEntity();
@@ -86,33 +94,23 @@ class ReportServiceTest {
     exec.setStartTime(start);
     exec.setCompletionTime(end);
 
-    // Create stage execution
-    StageExecutionEntity stage = new StageExecutionEntity();
-    stage.setId(stageExecId);
-    stage.setStageId(stageId);
-    stage.setPipelineExecutionId(pipelineExecId);
-    stage.setStatus(ExecutionStatus.SUCCESS);
-    stage.setStartTime(start);
-    stage.setCompletionTime(end);
+    // Create stage row
+    StageReportRow stage = new StageReportRow(stageExecId, pipelineExecId, "Build",
+        ExecutionStatus.SUCCESS, start, end);
 
     // Mocking repository calls
-    when(pipelineExecutionRepository.findByPipelineNameOrderByStartTimeDesc("DemoPipeline"))
+    when(pipelineExecutionRepository.findHistoryPage(eq("DemoPipeline"), any(Pageable.class)))
         .thenReturn(List.of(exec));
-    when(pipelineExecutionRepository.findPipelineNameByPipelineId(pipelineId))
-        .thenReturn(Optional.of("DemoPipeline"));
-    when(stageExecutionRepository.findByPipelineExecutionId(pipelineExecId))
+    when(stageExecutionRepository.findStageReportRowsByPipelineExecutionIdIn(List.of(pipelineExecId),
+        exec.earliestChildStartTime()))
         .thenReturn(List.of(stage));
-    when(stageExecutionRepository.findById(stageExecId))
-        .thenReturn(Optional.of(stage));
-    when(pipelineExecutionRepository.findById(pipelineExecId))
-        .thenReturn(Optional.of(exec));
-    when(stageExecutionRepository.findStageNameByStageId(stageId))
-        .thenReturn(Optional.of("Build"));
-    when(jobExecutionRepository.findByStageExecution(stage))
+    when(jobExecutionRepository.findJobReportRowsByPipelineExecutionIdIn(List.of(pipelineExecId),
+        exec.earliestChildStartTime()))
         .thenReturn(List.of());
 
     // Act
-    List<PipelineReportDTO> reports = reportService.getPipelineReports("DemoPipeline");
+    PipelineReportPageDTO page = reportService.getPipelineReportPage("DemoPipeline", null, null, false);
+    List<PipelineReportDTO> reports = page.getItems();
 
     // Assert
     assertEquals(1, reports.size());
@@ -130,7 +128,127 @@ class ReportServiceTest {
     assertTrue(stages.get(0).getJobs().isEmpty());
   }
 
+  @Test
+  void testGetPipelineReportPage_groupsStagesAndJobsPerRun() {
+    UUID run1 = UUID.randomUUID();
+    UUID run2 = UUID.randomUUID();
+    UUID stage1 = UUID.randomUUID();
+    UUID stage2 = UUID.randomUUID();
+
+    PipelineExecutionEntity exec1 = PipelineExecutionEntity.builder().id(run1).runNumber(1).commitHash("a").build();
+    PipelineExecutionEntity exec2 = PipelineExecutionEntity.builder().id(run2).runNumber(2).commitHash("b").build();
+
+    when(pipelineExecutionRepository.findHistoryPage(eq("DemoPipeline"), any(Pageable.class)))
+        .thenReturn(List.of(exec2, exec1));
+    when(stageExecutionRepository.findStageReportRowsByPipelineExecutionIdIn(any(), any())).thenReturn(List.of(
+        new StageReportRow(stage2, run2, "Build", ExecutionStatus.FAILED, null, null),
+        new StageReportRow(stage1, run1, "Build", ExecutionStatus.SUCCESS, null, null)));
+    when(jobExecutionRepository.findJobReportRowsByPipelineExecutionIdIn(any(), any())).thenReturn(List.of(
+        new JobReportRow(UUID.randomUUID(), stage1, "Compile", ExecutionStatus.SUCCESS, null, null, false),
+        new JobReportRow(UUID.randomUUID(), stage2, "Compile", ExecutionStatus.FAILED, null, null, false),
+        new JobReportRow(UUID.randomUUID(), stage2, null, ExecutionStatus.SUCCESS, null, null, false)));
+
+    List<PipelineReportDTO> reports = reportService.getPipelineReportPage("DemoPipeline", null, null, false)
+        .getItems();
+
+    assertEquals(2, reports.size());
+    assertEquals(2, reports.get(0).getRunNumber());
+    assertEquals(ExecutionStatus.FAILED, reports.get(0).getStatus());
+    assertEquals(2, reports.get(0).getStages().get(0).getJobs().size());
+    assertEquals("Unknown Job", reports.get(0).getStages().get(0).getJobs().get(1).getName());
+    assertEquals("b", reports.get(0).getStages().get(0).getJobs().get(0).getCommitHash());
+    assertEquals(1, reports.get(1).getStages().get(0).getJobs().size());
+    assertEquals(ExecutionStatus.SUCCESS, reports.get(1).getStatus());
+  }
+
+  @Test
+  void testGetPipelineReportPage_repositoryCallsIndependentOfRunCount() {
+    assertEquals(countRepositoryCalls(1), countRepositoryCalls(100));
+    assertEquals(3, countRepositoryCalls(100));
+  }
+
+  @Test
+  void testGetPipelineReportPage_returnsCursorWhenMoreRunsFollow() {
+    List<PipelineExecutionEntity> executions = historyExecutions(3);
+    when(pipelineExecutionRepository.findHistoryPage(eq("Bench"), any(Pageable.class))).thenReturn(executions);
+
+    PipelineReportPageDTO page = reportService.getPipelineReportPage("Bench", null, 2, false);
+
+    assertEquals(2, page.getItems().size());
+    assertEquals(executions.get(0).getId(), page.getItems().get(0).getId());
+    assertNotNull(page.getNextCursor());
+
+    ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+    verify(pipelineExecutionRepository).findHistoryPage(eq("Bench"), pageable.capture());
+    assertEquals(3, pageable.getValue().getPageSize());
+
+    HistoryCursor cursor = HistoryCursor.decode(page.getNextCursor());
+    assertEquals(executions.get(1).getStartTime(), cursor.startTime());
+    assertEquals(executions.get(1).getId(), cursor.id());
+  }
+
+  @Test
+  void testGetPipelineReportPage_boundsStageAndJobQueriesByOldestRunOnPage() {
+    List<PipelineExecutionEntity> executions = historyExecutions(3);
+    when(pipelineExecutionRepository.findHistoryPage(eq("Bench"), any(Pageable.class))).thenReturn(executions);
+
+    reportService.getPipelineReportPage("Bench", null, 2, false);
+
+    Instant startedSince = executions.get(1).earliestChildStartTime();
+    List<UUID> executionIds = List.of(executions.get(0).getId(), executions.get(1).getId());
+    verify(stageExecutionRepository).findStageReportRowsByPipelineExecutionIdIn(executionIds, startedSince);
+    verify(jobExecutionRepository).findJobReportRowsByPipelineExecutionIdIn(executionIds, startedSince);
+  }
+
+  @Test
+  void testGetPipelineReportPage_continuesAfterCursor() {
+    List<PipelineExecutionEntity> executions = historyExecutions(1);
+    PipelineExecutionEntity previous = historyExecutions(1).getFirst();
+    String cursor = new HistoryCursor(previous.getStartTime(), previous.getId()).encode();
+    when(pipelineExecutionRepository.findHistoryPageAfter(eq("Bench"), eq(previous.getStartTime()),
+        eq(previous.getId()), any(Pageable.class))).thenReturn(executions);
+
+    PipelineReportPageDTO page = reportService.getPipelineReportPage("Bench", cursor, 2, false);
+
+    assertEquals(1, page.getItems().size());
+    assertNull(page.getNextCursor());
+  }
+
+  @Test
+  void testGetPipelineReportPage_summarySkipsJobs() {
+    List<PipelineExecutionEntity> executions = historyExecutions(1);
+    UUID execId = executions.getFirst().getId();
+    when(pipelineExecutionRepository.findHistoryPage(eq("Bench"), any(Pageable.class))).thenReturn(executions);
+    when(stageExecutionRepository.findStageReportRowsByPipelineExecutionIdIn(List.of(execId),
+        executions.getFirst().earliestChildStartTime()))
+        .thenReturn(List.of(new StageReportRow(UUID.randomUUID(), execId, "build", ExecutionStatus.FAILED, null, null)));
+
+    PipelineReportPageDTO page = reportService.getPipelineReportPage("Bench", null, null, true);
+
+    PipelineReportDTO report = page.getItems().getFirst();
+    assertEquals(ExecutionStatus.FAILED, report.getStatus());
+    assertTrue(report.getStages().isEmpty());
+    verify(jobExecutionRepository, never()).findJobReportRowsByPipelineExecutionIdIn(any(), any());
+  }
+
+  @Test
+  void testGetPipelineReportPage_clampsLimit() {
+    when(pipelineExecutionRepository.findHistoryPage(eq("Bench"), any(Pageable.class))).thenReturn(List.of());
+
+    reportService.getPipelineReportPage("Bench", null, 100_000, false);
+    reportService.getPipelineReportPage("Bench", null, 0, false);
+
+    ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+    verify(pipelineExecutionRepository, times(2)).findHistoryPage(eq("Bench"), pageable.capture());
+    assertEquals(101, pageable.getAllValues().get(0).getPageSize());
+    assertEquals(2, pageable.getAllValues().get(1).getPageSize());
+  }
 
+  @Test
+  void testGetPipelineReportPage_invalidCursor() {
+    assertThrows(IllegalArgumentException.class,
+        () -> reportService.getPipelineReportPage("Bench", "not-a-cursor", 10, false));
+  }
 
   @Test
   void testGetPipelineRunSummary_pipelineNotFound() {
@@ -151,7 +269,7 @@ class ReportServiceTest {
 
     when(pipelineExecutionRepository.findPipelineIdByName("Demo")).thenReturn(Optional.of(pipelineId));
     when(pipelineExecutionRepository.findByPipelineIdAndRunNumber(pipelineId, 1)).thenReturn(Optional.of(exec));
-    when(stageExecutionRepository.findByPipelineExecutionIdAndStageNameOrderByStartTimeDesc(execId, "Build")).thenReturn(List.of());
+    when(stageExecutionRepository.findStageReportRowsByPipelineExecutionIdAndStageName(execId, "Build")).thenReturn(List.of());
 
     assertThrows(IllegalArgumentException.class,
         () -> reportService.getStageReport("Demo", 1, "Build"));
@@ -169,26 +287,22 @@ class ReportServiceTest {
     exec.setRunNumber(1);
     exec.setCommitHash("abc");
 
-    StageExecutionEntity stage = new StageExecutionEntity();
-    stage.setId(stageExecId);
-    stage.setPipelineExecutionId(execId);
+    StageReportRow stage = new StageReportRow(stageExecId, execId, "Build", ExecutionStatus.SUCCESS, null, null);
 
     when(pipelineExecutionRepository.findPipelineIdByName("Demo")).thenReturn(Optional.of(pipelineId));
     when(pipelineExecutionRepository.findByPipelineIdAndRunNumber(pipelineId, 1)).thenReturn(Optional.of(exec));
-    when(stageExecutionRepository.findByPipelineExecutionIdAndStageNameOrderByStartTimeDesc(execId, "Build")).thenReturn(List.of(stage));
-    when(stageExecutionRepository.findById(stageExecId)).thenReturn(Optional.of(stage));
-    when(jobExecutionRepository.findByStageExecutionAndJobNameOrderByStartTimeDesc(stageExecId, "Compile")).thenReturn(List.of());
+    when(stageExecutionRepository.findStageReportRowsByPipelineExecutionIdAndStageName(execId, "Build")).thenReturn(List.of(stage));
+    when(jobExecutionRepository.findJobReportRowsByStageExecutionIdAndJobName(stageExecId, "Compile")).thenReturn(List.of());
 
     assertThrows(IllegalArgumentException.class,
         () -> reportService.getJobReport("Demo", 1, "Build", "Compile"));
   }
 
   @Test
-  void testGetStageReports() {
+  void testGetStageReportPage() {
     UUID pipelineId = UUID.fromString("11111111-1111-1111-1111-111111111111");
     UUID execId = UUID.fromString("22222222-2222-2222-2222-222222222222");
     UUID stageExecId = UUID.fromString("33333333-3333-3333-3333-333333333333");
-    UUID stageId = UUID.fromString("44444444-4444-4444-4444-444444444444");
 
     PipelineExecutionEntity exec = new PipelineExecutionEntity();
     exec.setId(execId);
@@ -200,30 +314,21 @@ class ReportServiceTest {
     exec.setStartTime(start);
     exec.setCompletionTime(end);
 
-    StageExecutionEntity stage = new StageExecutionEntity();
-    stage.setId(stageExecId);
-    stage.setStageId(stageId);
-    stage.setPipelineExecutionId(execId);
-    stage.setStatus(ExecutionStatus.SUCCESS);
-    stage.setStartTime(start);
-    stage.setCompletionTime(end);
-
-    when(pipelineExecutionRepository.findByPipelineNameOrderByStartTimeDesc("DemoPipeline"))
+    StageReportRow stage = new StageReportRow(stageExecId, execId, "Build", ExecutionStatus.SUCCESS, start, end);
+
+    when(pipelineExecutionRepository.findHistoryPage(eq("DemoPipeline"), any(Pageable.class)))
         .thenReturn(List.of(exec));
-    when(stageExecutionRepository.findByPipelineExecutionIdAndStageNameOrderByStartTimeDesc(execId, "Build"))
+    when(stageExecutionRepository.findStageReportRowsByPipelineExecutionIdInAndStageName(List.of(execId), "Build",
+        exec.earliestChildStartTime()))
         .thenReturn(List.of(stage));
-    when(stageExecutionRepository.findById(stageExecId))
-        .thenReturn(Optional.of(stage));
-    when(pipelineExecutionRepository.findById(execId))
-        .thenReturn(Optional.of(exec));
-    when(pipelineExecutionRepository.findPipelineNameByPipelineId(pipelineId))
-        .thenReturn(Optional.of("DemoPipeline"));
-    when(stageExecutionRepository.findStageNameByStageId(stageId))
-        .thenReturn(Optional.of("Build"));
-    when(jobExecutionRepository.findByStageExecution(stage))
+    when(jobExecutionRepository.findJobReportRowsByPipelineExecutionIdInAndStageName(List.of(execId), "Build",
+        exec.earliestChildStartTime()))
         .thenReturn(List.of());
 
-    List<StageReportDTO> reports = reportService.getStageReports("DemoPipeline", "Build");
+    StageReportPageDTO page = reportService.getStageReportPage("DemoPipeline", "Build", null, null);
+    List<StageReportDTO> reports = page.getItems();
+
+    assertNull(page.getNextCursor());
 
     assertEquals(1, reports.size());
     assertEquals("Build", reports.get(0).getName());
@@ -231,12 +336,31 @@ class ReportServiceTest {
   }
 
   @Test
-  void testGetJobReportsForStage() {
+  void testGetStageReportPage_listsStagesInRunOrderWithCursor() {
+    List<PipelineExecutionEntity> executions = historyExecutions(3);
+    UUID newest = executions.get(0).getId();
+    UUID older = executions.get(1).getId();
+    when(pipelineExecutionRepository.findHistoryPage(eq("Bench"), any(Pageable.class))).thenReturn(executions);
+    when(stageExecutionRepository.findStageReportRowsByPipelineExecutionIdInAndStageName(List.of(newest, older),
+        "build", executions.get(1).earliestChildStartTime()))
+        .thenReturn(List.of(
+            new StageReportRow(UUID.randomUUID(), older, "build", ExecutionStatus.FAILED, null, null),
+            new StageReportRow(UUID.randomUUID(), newest, "build", ExecutionStatus.SUCCESS, null, null)));
+
+    StageReportPageDTO page = reportService.getStageReportPage("Bench", "build", null, 2);
+
+    // The newest run comes first even though the query returned its stage last
+    assertEquals(List.of(ExecutionStatus.SUCCESS, ExecutionStatus.FAILED),
+        page.getItems().stream().map(StageReportDTO::getStatus).toList());
+    assertEquals(executions.get(1).getId(), HistoryCursor.decode(page.getNextCursor()).id());
+  }
+
+  @Test
+  void testGetJobReportPage() {
     UUID pipelineId = UUID.fromString("11111111-1111-1111-1111-111111111111");
     UUID execId = UUID.fromString("22222222-2222-2222-2222-222222222222");
     UUID stageExecId = UUID.fromString("33333333-3333-3333-3333-333333333333");
-    UUID stageId = UUID.fromString("44444444-4444-4444-4444-444444444444");
-    UUID jobId = UUID.fromString("55555555-5555-5555-5555-555555555555");
+    UUID olderStageExecId = UUID.fromString("44444444-4444-4444-4444-444444444444");
 
     PipelineExecutionEntity exec = new PipelineExecutionEntity();
     exec.setId(execId);
@@ -244,32 +368,25 @@ class ReportServiceTest {
     exec.setRunNumber(1);
     exec.setCommitHash("abc123");
 
-    StageExecutionEntity stage = new StageExecutionEntity();
-    stage.setId(stageExecId);
-    stage.setStageId(stageId);
-    stage.setPipelineExecutionId(execId);
-    stage.setStatus(ExecutionStatus.SUCCESS);
-
-    JobExecutionEntity job = new JobExecutionEntity();
-    job.setId(UUID.randomUUID());
-    job.setJobId(jobId);
-    job.setStatus(ExecutionStatus.SUCCESS);
-    job.setStartTime(Instant.parse("2024-04-01T10:00:00Z"));
-    job.setCompletionTime(Instant.parse("2024-04-01T10:01:00Z"));
-    job.setAllowFailure(false);
-
-    when(pipelineExecutionRepository.findByPipelineNameOrderByStartTimeDesc("DemoPipeline"))
+    StageReportRow stage = new StageReportRow(stageExecId, execId, "Build", ExecutionStatus.SUCCESS, null, null);
+    StageReportRow olderStage = new StageReportRow(olderStageExecId, execId, "Build", ExecutionStatus.FAILED, null, null);
+
+    JobReportRow job = new JobReportRow(UUID.randomUUID(), stageExecId, "Compile", ExecutionStatus.SUCCESS,
+        Instant.parse("2024-04-01T10:00:00Z"), Instant.parse("2024-04-01T10:01:00Z"), false);
+    JobReportRow olderJob = new JobReportRow(UUID.randomUUID(), olderStageExecId, "Compile", ExecutionStatus.FAILED,
+        null, null, false);
+
+    when(pipelineExecutionRepository.findHistoryPage(eq("DemoPipeline"), any(Pageable.class)))
         .thenReturn(List.of(exec));
-    when(stageExecutionRepository.findByPipelineExecutionIdAndStageNameOrderByStartTimeDesc(execId, "Build"))
-        .thenReturn(List.of(stage));
-    when(stageExecutionRepository.findById(stageExecId))
-        .thenReturn(Optional.of(stage));
-    when(jobExecutionRepository.findByStageExecutionAndJobNameOrderByStartTimeDesc(stageExecId, "Compile"))
-        .thenReturn(List.of(job));
-    when(jobExecutionRepository.findJobNameByJobId(jobId))
-        .thenReturn(Optional.of("Compile"));
+    when(stageExecutionRepository.findStageReportRowsByPipelineExecutionIdInAndStageName(List.of(execId), "Build",
+        exec.earliestChildStartTime()))
+        .thenReturn(List.of(stage, olderStage));
+    when(jobExecutionRepository.findJobReportRowsByPipelineExecutionIdInAndStageNameAndJobName(List.of(execId),
+        "Build", "Compile", exec.earliestChildStartTime()))
+        .thenReturn(List.of(olderJob, job));
 
-    List<JobReportDTO> reports = reportService.getJobReportsForStage("DemoPipeline", "Build", "Compile");
+    List<JobReportDTO> reports = reportService.getJobReportPage("DemoPipeline", "Build", "Compile", null, null)
+        .getItems();
 
     assertEquals(1, reports.size());
     JobReportDTO report = reports.get(0);
@@ -287,7 +404,6 @@ class ReportServiceTest {
     UUID pipelineId = UUID.fromString("11111111-1111-1111-1111-111111111111");
     UUID pipelineExecId = UUID.fromString("22222222-2222-2222-2222-222222222222");
     UUID stageExecId = UUID.fromString("33333333-3333-3333-3333-333333333333");
-    UUID stageId = UUID.fromString("44444444-4444-4444-4444-444444444444");
 
     // Setup execution time
     Instant start = Instant.parse("2024-04-01T10:00:00Z");
@@ -302,31 +418,20 @@ class ReportServiceTest {
     pipelineExecution.setStartTime(start);
     pipelineExecution.setCompletionTime(end);
 
-    // Stage execution entity
-    StageExecutionEntity stageExecution = new StageExecutionEntity();
-    stageExecution.setId(stageExecId);
-    stageExecution.setStageId(stageId);
-    stageExecution.setPipelineExecutionId(pipelineExecId);
-    stageExecution.setStatus(ExecutionStatus.SUCCESS);
-    stageExecution.setStartTime(start);
-    stageExecution.setCompletionTime(end);
+    // Stage row
+    StageReportRow stageExecution = new StageReportRow(stageExecId, pipelineExecId, "Build",
+        ExecutionStatus.SUCCESS, start, end);
 
     // Mocking
     when(pipelineExecutionRepository.findPipelineIdByName("DemoPipeline"))
         .thenReturn(Optional.of(pipelineId));
     when(pipelineExecutionRepository.findByPipelineIdAndRunNumber(pipelineId, 1))
         .thenReturn(Optional.of(pipelineExecution));
-    when(stageExecutionRepository.findByPipelineExecutionId(pipelineExecId))
+    when(stageExecutionRepository.findStageReportRowsByPipelineExecutionId(pipelineExecId,
+        pipelineExecution.earliestChildStartTime()))
         .thenReturn(List.of(stageExecution));
-    when(stageExecutionRepository.findById(stageExecId))
-        .thenReturn(Optional.of(stageExecution));
-    when(pipelineExecutionRepository.findById(pipelineExecId))
-        .thenReturn(Optional.of(pipelineExecution));
-    when(pipelineExecutionRepository.findPipelineNameByPipelineId(pipelineId))
-        .thenReturn(Optional.of("DemoPipeline"));
-    when(stageExecutionRepository.findStageNameByStageId(stageId))
-        .thenReturn(Optional.of("Build"));
-    when(jobExecutionRepository.findByStageExecution(stageExecution))
+    when(jobExecutionRepository.findJobReportRowsByPipelineExecutionId(pipelineExecId,
+        pipelineExecution.earliestChildStartTime()))
         .thenReturn(List.of());
 
     // Execute
@@ -350,9 +455,7 @@ class ReportServiceTest {
   void testGetJobReport_success() {
     UUID pipelineId = UUID.fromString("11111111-1111-1111-1111-111111111111");
     UUID execId = UUID.fromString("22222222-2222-2222-2222-222222222222");
-    UUID stageId = UUID.fromString("33333333-3333-3333-3333-333333333333");
     UUID stageExecId = UUID.fromString("44444444-4444-4444-4444-444444444444");
-    UUID jobId = UUID.fromString("55555555-5555-5555-5555-555555555555");
 
     Instant start = Instant.parse("2024-04-01T10:00:00Z");
     Instant end = Instant.parse("2024-04-01T10:01:00Z");
@@ -364,34 +467,20 @@ class ReportServiceTest {
     pipelineExecution.setRunNumber(7);
     pipelineExecution.setCommitHash("abcd1234");
 
-    // Stage Execution
-    StageExecutionEntity stageExecution = new StageExecutionEntity();
-    stageExecution.setId(stageExecId);
-    stageExecution.setStageId(stageId);
-    stageExecution.setPipelineExecutionId(execId);
-
-    // Job Execution
-    JobExecutionEntity jobExecution = new JobExecutionEntity();
-    jobExecution.setId(UUID.randomUUID());
-    jobExecution.setJobId(jobId);
-    jobExecution.setStatus(ExecutionStatus.SUCCESS);
-    jobExecution.setStartTime(start);
-    jobExecution.setCompletionTime(end);
-    jobExecution.setAllowFailure(true);
+    // Stage and job rows
+    StageReportRow stageExecution = new StageReportRow(stageExecId, execId, "Build", null, null, null);
+    JobReportRow jobExecution = new JobReportRow(UUID.randomUUID(), stageExecId, "Compile",
+        ExecutionStatus.SUCCESS, start, end, true);
 
     // Mock behavior
     when(pipelineExecutionRepository.findPipelineIdByName("DemoPipeline"))
         .thenReturn(Optional.of(pipelineId));
     when(pipelineExecutionRepository.findByPipelineIdAndRunNumber(pipelineId, 7))
         .thenReturn(Optional.of(pipelineExecution));
-    when(stageExecutionRepository.findByPipelineExecutionIdAndStageNameOrderByStartTimeDesc(execId, "Build"))
+    when(stageExecutionRepository.findStageReportRowsByPipelineExecutionIdAndStageName(execId, "Build"))
         .thenReturn(List.of(stageExecution));
-    when(stageExecutionRepository.findById(stageExecId))
-        .thenReturn(Optional.of(stageExecution));
-    when(jobExecutionRepository.findByStageExecutionAndJobNameOrderByStartTimeDesc(stageExecId, "Compile"))
+    when(jobExecutionRepository.findJobReportRowsByStageExecutionIdAndJobName(stageExecId, "Compile"))
         .thenReturn(List.of(jobExecution));
-    when(jobExecutionRepository.findJobNameByJobId(jobId))
-        .thenReturn(Optional.of("Compile"));
 
     // Call service
     JobReportDTO report = reportService.getJobReport("DemoPipeline", 7, "Build", "Compile");
@@ -416,8 +505,6 @@ class ReportServiceTest {
     UUID pipelineId = UUID.fromString("11111111-1111-1111-1111-111111111111");
     UUID execId = UUID.fromString("22222222-2222-2222-2222-222222222222");
     UUID stageExecId = UUID.fromString("33333333-3333-3333-3333-333333333333");
-    UUID stageId = UUID.fromString("44444444-4444-4444-4444-444444444444");
-    UUID jobId = UUID.fromString("55555555-5555-5555-5555-555555555555");
 
     Instant start = Instant.parse("2024-04-01T10:00:00Z");
     Instant end = Instant.parse("2024-04-01T10:01:00Z");
@@ -429,23 +516,11 @@ class ReportServiceTest {
     pipelineExecution.setRunNumber(3);
     pipelineExecution.setCommitHash("def456");
 
-    // Setup stage execution
-    StageExecutionEntity stageExecution = new StageExecutionEntity();
-    stageExecution.setId(stageExecId);
-    stageExecution.setStageId(stageId);
-    stageExecution.setPipelineExecutionId(execId);
-    stageExecution.setStatus(ExecutionStatus.SUCCESS);
-    stageExecution.setStartTime(start);
-    stageExecution.setCompletionTime(end);
-
-    // Setup job execution
-    JobExecutionEntity job = new JobExecutionEntity();
-    job.setId(UUID.randomUUID());
-    job.setJobId(jobId);
-    job.setStatus(ExecutionStatus.SUCCESS);
-    job.setStartTime(start);
-    job.setCompletionTime(end);
-    job.setAllowFailure(false);
+    // Setup stage and job rows
+    StageReportRow stageExecution = new StageReportRow(stageExecId, execId, "TestStage",
+        ExecutionStatus.SUCCESS, start, end);
+    JobReportRow job = new JobReportRow(UUID.randomUUID(), stageExecId, "RunJob",
+        ExecutionStatus.SUCCESS, start, end, false);
 
     // Mock behavior
     when(pipelineExecutionRepository.findPipelineIdByName("PipelineX"))
@@ -454,27 +529,12 @@ class ReportServiceTest {
     when(pipelineExecutionRepository.findByPipelineIdAndRunNumber(pipelineId, 3))
         .thenReturn(Optional.of(pipelineExecution));
 
-    when(stageExecutionRepository.findByPipelineExecutionIdAndStageNameOrderByStartTimeDesc(execId, "TestStage"))
+    when(stageExecutionRepository.findStageReportRowsByPipelineExecutionIdAndStageName(execId, "TestStage"))
         .thenReturn(List.of(stageExecution));
 
-    when(stageExecutionRepository.findById(stageExecId))
-        .thenReturn(Optional.of(stageExecution));
-
-    when(pipelineExecutionRepository.findById(execId))
-        .thenReturn(Optional.of(pipelineExecution));
-
-    when(pipelineExecutionRepository.findPipelineNameByPipelineId(pipelineId))
-        .thenReturn(Optional.of("PipelineX"));
-
-    when(stageExecutionRepository.findStageNameByStageId(stageId))
-        .thenReturn(Optional.of("TestStage"));
-
-    when(jobExecutionRepository.findByStageExecution(stageExecution))
+    when(jobExecutionRepository.findJobReportRowsByStageExecutionId(stageExecId))
         .thenReturn(List.of(job));
 
-    when(jobExecutionRepository.findJobNameByJobId(jobId))
-        .thenReturn(Optional.of("RunJob"));
-
     // Call the public method
     StageReportDTO report = reportService.getStageReport("PipelineX", 3, "TestStage");
 
@@ -508,13 +568,6 @@ class ReportServiceTest {
     StageExecutionEntity stage2 = new StageExecutionEntity();
     stage2.setStatus(ExecutionStatus.FAILED);
 
-    // Assume repo returns these stages
-    when(stageExecutionRepository.findByPipelineExecutionId(any()))
-        .thenReturn(List.of(stage1, stage2));
-
-    // All other repo mocks needed for getPipelineReports()...
-    // You can copy base from earlier examples
-
     ExecutionStatus result = invokeStatusCalculation(List.of(stage1, stage2));
     assertEquals(ExecutionStatus.FAILED, result);
   }
@@ -568,9 +621,55 @@ class ReportServiceTest {
     try {
       Method method = ReportService.class.getDeclaredMethod("calculatePipelineStatus", List.class);
       method.setAccessible(true);
-      return (ExecutionStatus) method.invoke(reportService, stages);
+      return (ExecutionStatus) method.invoke(reportService,
+          stages.stream().map(StageExecutionEntity::getStatus).toList());
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
   }
+
+  /**
+   * Builds pipeline executions one minute apart, most recent first.
+   */
+  private static List<PipelineExecutionEntity> historyExecutions(int runs) {
+    Instant latest = Instant.parse("2024-04-01T10:00:00Z");
+    List<PipelineExecutionEntity> executions = new ArrayList<>();
+    for (int run = runs; run >= 1; run--) {
+      executions.add(PipelineExecutionEntity.builder().id(UUID.randomUUID()).runNumber(run)
+          .startTime(latest.minusSeconds(60L * (runs - run))).build());
+    }
+    return executions;
+  }
+
+  /**
+   * Runs getPipelineReportPage over a page of the given number of runs, each with
+   * two stages of three jobs, and counts the repository calls it makes.
+   */
+  private int countRepositoryCalls(int runs) {
+    setUp();
+    List<PipelineExecutionEntity> executions = new ArrayList<>();
+    List<StageReportRow> stages = new ArrayList<>();
+    List<JobReportRow> jobs = new ArrayList<>();
+    for (int run = 1; run <= runs; run++) {
+      UUID execId = UUID.randomUUID();
+      executions.add(PipelineExecutionEntity.builder().id(execId).runNumber(run).build());
+      for (int s = 0; s < 2; s++) {
+        UUID stageExecId = UUID.randomUUID();
+        stages.add(new StageReportRow(stageExecId, execId, "stage" + s, ExecutionStatus.SUCCESS, null, null));
+        for (int j = 0; j < 3; j++) {
+          jobs.add(new JobReportRow(UUID.randomUUID(), stageExecId, "job" + j, ExecutionStatus.SUCCESS,
+              null, null, false));
+        }
+      }
+    }
+    when(pipelineExecutionRepository.findHistoryPage(eq("Bench"), any(Pageable.class))).thenReturn(executions);
+    when(stageExecutionRepository.findStageReportRowsByPipelineExecutionIdIn(any(), any())).thenReturn(stages);
+    when(jobExecutionRepository.findJobReportRowsByPipelineExecutionIdIn(any(), any())).thenReturn(jobs);
+
+    assertEquals(runs, reportService.getPipelineReportPage("Bench", null, runs, false).getItems().size());
+
+    return mockingDetails(pipelineExecutionRepository).getInvocations().size()
+        + mockingDetails(stageExecutionRepository).getInvocations().size()
+        + mockingDetails(jobExecutionRepository).getInvocations().size();
+  }
 }
@@ -0,0 +1,124 @@
+package edu.neu.cs6510.sp25.t1.backend.service.retention;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import edu.neu.cs6510.sp25.t1.backend.service.log.LogTieringService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+class ExecutionPartitionServiceTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private LogTieringService logTieringService;
+  private YearMonth current;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate = mock(JdbcTemplate.class);
+    logTieringService = mock(LogTieringService.class);
+    current = YearMonth.now();
+  }
+
+  @Test
+  void testCreatePartitions_createsMissingMonthsOfEveryTable() {
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("job_executions")))
+        .thenReturn(List.of("job_executions_default",
+            ExecutionPartitionService.partitionName("job_executions", current)));
+    ExecutionPartitionService service = new ExecutionPartitionService(jdbcTemplate, logTieringService, 2, 0);
+
+    assertEquals(11, service.createPartitions());
+
+    YearMonth next = current.plusMonths(1);
+    verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS " + ExecutionPartitionService.partitionName(
+        "pipeline_executions", next) + " PARTITION OF pipeline_executions FOR VALUES FROM ('" + next.atDay(1)
+        + "') TO ('" + next.plusMonths(1).atDay(1) + "')");
+    verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE IF NOT EXISTS "
+        + ExecutionPartitionService.partitionName("job_executions", current) + " "));
+  }
+
+  @Test
+  void testCreatePartitions_continuesAfterFailure() {
+    doThrow(new DataIntegrityViolationException("default partition holds rows of this month"))
+        .when(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS execution_logs_"));
+    ExecutionPartitionService service = new ExecutionPartitionService(jdbcTemplate, logTieringService, 1, 0);
+
+    assertEquals(6, service.createPartitions());
+  }
+
+  @Test
+  void testDropExpiredPartitions_dropsMonthsBeforeRetentionPeriod() {
+    String expired = ExecutionPartitionService.partitionName("stage_executions", current.minusMonths(4));
+    String kept = ExecutionPartitionService.partitionName("stage_executions", current.minusMonths(3));
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("stage_executions")))
+        .thenReturn(List.of("stage_executions_default", expired, kept));
+    ExecutionPartitionService service = new ExecutionPartitionService(jdbcTemplate, logTieringService, 3, 3);
+
+    assertEquals(1, service.dropExpiredPartitions());
+
+    verify(jdbcTemplate).execute("DROP TABLE IF EXISTS " + expired);
+    verify(jdbcTemplate, times(1)).execute(startsWith("DROP TABLE"));
+    verify(jdbcTemplate).update(eq("DELETE FROM execution_log_chunks WHERE created_at < ?"), any(Timestamp.class));
+    verify(logTieringService, never()).deleteSegments(any());
+  }
+
+  @Test
+  void testDropExpiredPartitions_deletesLogsOfDroppedJobExecutions() {
+    String expired = ExecutionPartitionService.partitionName("job_executions", current.minusMonths(4));
+    String kept = ExecutionPartitionService.partitionName("job_executions", current.minusMonths(3));
+    List<UUID> segmented = List.of(UUID.randomUUID());
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("job_executions")))
+        .thenReturn(List.of(expired, kept));
+    when(jdbcTemplate.queryForList(contains(expired), eq(UUID.class))).thenReturn(segmented);
+    ExecutionPartitionService service = new ExecutionPartitionService(jdbcTemplate, logTieringService, 3, 3);
+
+    assertEquals(1, service.dropExpiredPartitions());
+
+    InOrder inOrder = inOrder(logTieringService, jdbcTemplate);
+    inOrder.verify(logTieringService).deleteSegments(segmented);
+    inOrder.verify(jdbcTemplate).update("DELETE FROM execution_log_chunks WHERE job_execution_id IN (SELECT id FROM "
+        + expired + ")");
+    inOrder.verify(jdbcTemplate).execute("DROP TABLE IF EXISTS " + expired);
+    verify(jdbcTemplate, never()).queryForList(contains(kept), eq(UUID.class));
+  }
+
+  @Test
+  void testDropExpiredPartitions_keepsEverythingWithoutRetention() {
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class), anyString()))
+        .thenReturn(List.of(ExecutionPartitionService.partitionName("job_executions", current.minusYears(5))));
+    ExecutionPartitionService service = new ExecutionPartitionService(jdbcTemplate, logTieringService, 3, 0);
+
+    assertEquals(0, service.dropExpiredPartitions());
+
+    verify(jdbcTemplate, never()).execute(anyString());
+  }
+
+  @Test
+  void testMonthOf_onlyMonthlyPartitionsOfTable() {
+    assertEquals(YearMonth.of(2025, 2), ExecutionPartitionService.monthOf("job_executions", "job_executions_p202502"));
+    assertNull(ExecutionPartitionService.monthOf("job_executions", "job_executions_default"));
+    assertNull(ExecutionPartitionService.monthOf("job_executions", "job_executions_p202513"));
+    assertNull(ExecutionPartitionService.monthOf("stage_executions", "job_executions_p202502"));
+  }
+}
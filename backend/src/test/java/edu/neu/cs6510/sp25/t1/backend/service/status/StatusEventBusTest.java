@@ -0,0 +1,130 @@
+package edu.neu.cs6510.sp25.t1.backend.service.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+class StatusEventBusTest {
+
+  private final StatusEventBus bus = new StatusEventBus(Runnable::run);
+
+  @Test
+  void testPublish_deliversToEveryWatcherOfThePipeline() {
+    List<StatusEvent> first = new ArrayList<>();
+    List<StatusEvent> second = new ArrayList<>();
+    List<StatusEvent> other = new ArrayList<>();
+    bus.subscribe("demo", first::add);
+    bus.subscribe("demo", second::add);
+    bus.subscribe("other", other::add);
+
+    StatusEvent event = event("demo");
+    bus.publish(event);
+
+    assertEquals(List.of(event), first);
+    assertEquals(List.of(event), second);
+    assertTrue(other.isEmpty());
+  }
+
+  @Test
+  void testSubscribe_unsubscribeStopsDelivery() {
+    List<StatusEvent> received = new ArrayList<>();
+    Runnable unsubscribe = bus.subscribe("demo", received::add);
+
+    unsubscribe.run();
+    bus.publish(event("demo"));
+
+    assertTrue(received.isEmpty());
+    assertEquals(0, bus.getSubscriberCount("demo"));
+  }
+
+  @Test
+  void testPublish_failingWatcherDoesNotBlockOthers() {
+    List<StatusEvent> received = new ArrayList<>();
+    bus.subscribe("demo", event -> {
+      throw new IllegalStateException("disconnected");
+    });
+    bus.subscribe("demo", received::add);
+
+    bus.publish(event("demo"));
+
+    assertEquals(1, received.size());
+  }
+
+  @Test
+  void testPublish_insideTransactionDeliversAfterCommit() {
+    List<StatusEvent> received = new ArrayList<>();
+    bus.subscribe("demo", received::add);
+    StatusEvent running = event("demo");
+    StatusEvent success = event("demo");
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      bus.publish(running);
+      bus.publish(success);
+      assertTrue(received.isEmpty());
+
+      completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertEquals(List.of(running, success), received);
+    assertFalse(TransactionSynchronizationManager.hasResource(bus));
+  }
+
+  @Test
+  void testPublish_insideRolledBackTransactionDeliversNothing() {
+    List<StatusEvent> received = new ArrayList<>();
+    bus.subscribe("demo", received::add);
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      bus.publish(event("demo"));
+      completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertTrue(received.isEmpty());
+    assertFalse(TransactionSynchronizationManager.hasResource(bus));
+  }
+
+  @Test
+  void testSubscribe_afterLastUnsubscribeKeepsNewWatcher() {
+    List<StatusEvent> received = new ArrayList<>();
+    Runnable unsubscribe = bus.subscribe("demo", event -> { });
+
+    unsubscribe.run();
+    bus.subscribe("demo", received::add);
+    bus.publish(event("demo"));
+
+    assertEquals(1, bus.getSubscriberCount("demo"));
+    assertEquals(1, received.size());
+  }
+
+  private static void completeTransaction(int status) {
+    List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+    if (status == TransactionSynchronization.STATUS_COMMITTED) {
+      TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+    }
+    TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+  }
+
+  private static StatusEvent event(String pipelineName) {
+    UUID executionId = UUID.randomUUID();
+    return new StatusEvent(StatusEvent.Scope.PIPELINE, pipelineName, executionId, executionId, pipelineName,
+        ExecutionStatus.RUNNING, Instant.now());
+  }
+}
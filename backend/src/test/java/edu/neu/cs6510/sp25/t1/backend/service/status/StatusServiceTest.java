@@ -1,223 +1,436 @@
 package edu.neu.cs6510.sp25.t1.backend.service.status;
 
-import edu.neu.cs6510.sp25.t1.backend.database.entity.JobEntity;
 import edu.neu.cs6510.sp25.t1.backend.database.entity.JobExecutionEntity;
 import edu.neu.cs6510.sp25.t1.backend.database.entity.PipelineEntity;
 import edu.neu.cs6510.sp25.t1.backend.database.entity.PipelineExecutionEntity;
-import edu.neu.cs6510.sp25.t1.backend.database.entity.StageEntity;
 import edu.neu.cs6510.sp25.t1.backend.database.entity.StageExecutionEntity;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.JobStatusRow;
+import edu.neu.cs6510.sp25.t1.backend.database.projection.StageStatusRow;
 import edu.neu.cs6510.sp25.t1.backend.database.repository.JobExecutionRepository;
-import edu.neu.cs6510.sp25.t1.backend.database.repository.JobRepository;
 import edu.neu.cs6510.sp25.t1.backend.database.repository.PipelineExecutionRepository;
 import edu.neu.cs6510.sp25.t1.backend.database.repository.PipelineRepository;
 import edu.neu.cs6510.sp25.t1.backend.database.repository.StageExecutionRepository;
-import edu.neu.cs6510.sp25.t1.backend.database.repository.StageRepository;
+import edu.neu.cs6510.sp25.t1.backend.service.report.DurationStatsService;
 import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class StatusServiceTest {
 
   private PipelineRepository pipelineRepository;
   private PipelineExecutionRepository pipelineExecutionRepository;
-  private StageRepository stageRepository;
   private StageExecutionRepository stageExecutionRepository;
-  private JobRepository jobRepository;
   private JobExecutionRepository jobExecutionRepository;
+  private StatusEventBus statusEventBus;
+  private DurationStatsService durationStatsService;
+  private List<StatusEvent> events;
   private StatusService statusService;
 
+  private final UUID pipelineId = UUID.randomUUID();
+  private final UUID pipelineExecutionId = UUID.randomUUID();
+  private PipelineExecutionEntity pipelineExecution;
+
   @BeforeEach
   void setUp() {
     pipelineRepository = mock(PipelineRepository.class);
     pipelineExecutionRepository = mock(PipelineExecutionRepository.class);
-    stageRepository = mock(StageRepository.class);
     stageExecutionRepository = mock(StageExecutionRepository.class);
-    jobRepository = mock(JobRepository.class);
     jobExecutionRepository = mock(JobExecutionRepository.class);
+    statusEventBus = new StatusEventBus(Runnable::run);
+    events = new ArrayList<>();
+    statusEventBus.subscribe("demo", events::add);
+    durationStatsService = mock(DurationStatsService.class);
 
     statusService = new StatusService(
         pipelineRepository,
         pipelineExecutionRepository,
-        stageRepository,
         stageExecutionRepository,
-        jobRepository,
-        jobExecutionRepository
+        jobExecutionRepository,
+        statusEventBus,
+        durationStatsService
     );
-  }
-
-  @Test
-  void testGetStatusForPipeline_success() {
-    // Arrange
-    UUID pipelineId = UUID.randomUUID();
-    UUID pipelineExecutionId = UUID.randomUUID();
-    UUID stageId = UUID.randomUUID();
-    UUID jobId = UUID.randomUUID();
 
     PipelineEntity pipeline = new PipelineEntity();
     pipeline.setId(pipelineId);
     pipeline.setName("demo");
 
-    PipelineExecutionEntity pipelineExecution = new PipelineExecutionEntity();
+    pipelineExecution = new PipelineExecutionEntity();
     pipelineExecution.setId(pipelineExecutionId);
     pipelineExecution.setPipelineId(pipelineId);
 
-    StageEntity stage = new StageEntity();
-    stage.setId(stageId);
-    stage.setName("Build");
-    stage.setPipelineId(pipelineId);
-
-    StageExecutionEntity stageExecution = new StageExecutionEntity();
-    stageExecution.setId(UUID.randomUUID());
-    stageExecution.setStageId(stageId);
-    stageExecution.setPipelineExecutionId(pipelineExecutionId);
-    stageExecution.setStatus(ExecutionStatus.SUCCESS);
-
-    JobEntity job = new JobEntity();
-    job.setId(jobId);
-    job.setName("Compile");
-    job.setStageId(stageId);
+    when(pipelineRepository.findByName("demo")).thenReturn(Optional.of(pipeline));
+    when(pipelineRepository.findById(pipelineId)).thenReturn(Optional.of(pipeline));
+    when(pipelineExecutionRepository.findFirstByPipelineIdOrderByStartTimeDesc(pipelineId))
+        .thenReturn(Optional.of(pipelineExecution));
+  }
 
-    JobExecutionEntity jobExecution = new JobExecutionEntity();
-    jobExecution.setId(UUID.randomUUID());
-    jobExecution.setJobId(jobId);
-    jobExecution.setStatus(ExecutionStatus.SUCCESS);
+  @Test
+  void testGetStatusForPipeline_success() {
+    // Arrange
+    UUID stageExecutionId = UUID.randomUUID();
+    UUID jobExecutionId = UUID.randomUUID();
+    pipelineExecution.setStatus(ExecutionStatus.SUCCESS);
 
-    when(pipelineRepository.findByName("demo")).thenReturn(Optional.of(pipeline));
-    when(pipelineExecutionRepository.findByPipelineId(pipelineId)).thenReturn(Optional.of(pipelineExecution));
-    when(stageRepository.findByPipelineId(pipelineId)).thenReturn(List.of(stage));
-    when(stageExecutionRepository.findByStageIdAndPipelineExecutionId(stageId, pipelineExecutionId)).thenReturn(Optional.of(stageExecution));
-    when(jobRepository.findByStageId(stageId)).thenReturn(List.of(job));
-    when(jobExecutionRepository.findByJobId(jobId)).thenReturn(Optional.of(jobExecution));
+    when(stageExecutionRepository.findStageStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of(new StageStatusRow(stageExecutionId, "Build", ExecutionStatus.SUCCESS, 0)));
+    when(jobExecutionRepository.findJobStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of(new JobStatusRow(stageExecutionId, jobExecutionId, "Compile", ExecutionStatus.SUCCESS)));
 
     // Act
     Map<String, Object> result = statusService.getStatusForPipeline("demo");
 
     // Assert
     assertEquals("demo", result.get("pipeline"));
+    assertEquals(pipelineExecutionId, result.get("pipelineExecution"));
     assertEquals(ExecutionStatus.SUCCESS, result.get("pipelineStatus"));
 
     List<Map<String, Object>> stages = (List<Map<String, Object>>) result.get("stageResult");
     assertEquals(1, stages.size());
     assertEquals("Build", stages.get(0).get("stage"));
+    assertEquals(stageExecutionId, stages.get(0).get("stageExecution"));
     assertEquals(ExecutionStatus.SUCCESS, stages.get(0).get("stageExecutionStatus"));
 
     List<Map<String, Object>> jobs = (List<Map<String, Object>>) stages.get(0).get("jobs");
     assertEquals(1, jobs.size());
     assertEquals("Compile", jobs.get(0).get("job"));
+    assertEquals(jobExecutionId, jobs.get(0).get("jobExecution"));
     assertEquals(ExecutionStatus.SUCCESS, jobs.get(0).get("jobExecutionStatus"));
   }
 
   @Test
-  void testPipelineNotFound() {
-    when(pipelineRepository.findByName("nonexistent")).thenReturn(Optional.empty());
+  void testGetStatusForPipeline_unchangedStatusesAreNotWritten() {
+    UUID stageExecutionId = UUID.randomUUID();
+    pipelineExecution.setStatus(ExecutionStatus.RUNNING);
+    when(stageExecutionRepository.findStageStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of(new StageStatusRow(stageExecutionId, "Build", ExecutionStatus.RUNNING, 2)));
+    when(jobExecutionRepository.findJobStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of());
+
+    statusService.getStatusForPipeline("demo");
+
+    verify(stageExecutionRepository, never()).findAllById(any());
+    verify(stageExecutionRepository, never()).saveAll(any());
+    verify(pipelineExecutionRepository, never()).save(any());
+    assertTrue(events.isEmpty());
+  }
 
-    IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
-        statusService.getStatusForPipeline("nonexistent"));
+  @Test
+  void testGetStatusForPipeline_writesOnlyChangedStages() {
+    UUID unchangedId = UUID.randomUUID();
+    UUID changedId = UUID.randomUUID();
+    StageExecutionEntity changed = new StageExecutionEntity();
+    changed.setId(changedId);
+    changed.setStatus(ExecutionStatus.RUNNING);
+    pipelineExecution.setStatus(ExecutionStatus.RUNNING);
+
+    when(stageExecutionRepository.findStageStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of(
+            new StageStatusRow(unchangedId, "Build", ExecutionStatus.SUCCESS, 0),
+            new StageStatusRow(changedId, "Test", ExecutionStatus.RUNNING, 4)));
+    when(jobExecutionRepository.findJobStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of());
+    when(stageExecutionRepository.findAllById(Set.of(changedId))).thenReturn(List.of(changed));
 
-    assertTrue(ex.getMessage().contains("Pipeline not found"));
+    Map<String, Object> result = statusService.getStatusForPipeline("demo");
+
+    assertEquals(ExecutionStatus.FAILED, result.get("pipelineStatus"));
+    assertEquals(ExecutionStatus.FAILED, changed.getStatus());
+    assertNotNull(changed.getCompletionTime());
+    verify(stageExecutionRepository).saveAll(List.of(changed));
+    verify(pipelineExecutionRepository).save(pipelineExecution);
+    assertEquals(ExecutionStatus.FAILED, pipelineExecution.getStatus());
+
+    assertEquals(2, events.size());
+    assertEquals(StatusEvent.Scope.STAGE, events.get(0).scope());
+    assertEquals(changedId, events.get(0).executionId());
+    assertEquals("Test", events.get(0).name());
+    assertEquals(StatusEvent.Scope.PIPELINE, events.get(1).scope());
+    assertEquals(ExecutionStatus.FAILED, events.get(1).status());
   }
 
   @Test
-  void testPipelineExecutionNotFound() {
-    UUID pipelineId = UUID.randomUUID();
-    PipelineEntity pipeline = new PipelineEntity();
-    pipeline.setId(pipelineId);
-    pipeline.setName("demo");
-
-    when(pipelineRepository.findByName("demo")).thenReturn(Optional.of(pipeline));
-    when(pipelineExecutionRepository.findByPipelineId(pipelineId)).thenReturn(Optional.empty());
+  void testOnJobStatusUpdate_publishesJobStageAndPipelineTransitions() {
+    UUID stageExecutionId = UUID.randomUUID();
+    UUID jobExecutionId = UUID.randomUUID();
+    StageExecutionEntity stageExecution = new StageExecutionEntity();
+    stageExecution.setId(stageExecutionId);
+    stageExecution.setStatus(ExecutionStatus.PENDING);
+    pipelineExecution.setStatus(ExecutionStatus.PENDING);
+
+    when(pipelineExecutionRepository.findByJobExecutionId(jobExecutionId)).thenReturn(Optional.of(pipelineExecution));
+    when(stageExecutionRepository.findStageStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of(new StageStatusRow(stageExecutionId, "Build", ExecutionStatus.PENDING, 2)));
+    when(jobExecutionRepository.findJobStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of(new JobStatusRow(stageExecutionId, jobExecutionId, "Compile", ExecutionStatus.RUNNING)));
+    when(stageExecutionRepository.findAllById(Set.of(stageExecutionId))).thenReturn(List.of(stageExecution));
+
+    statusService.onJobStatusUpdate(jobExecutionId, ExecutionStatus.RUNNING);
+
+    assertEquals(List.of(StatusEvent.Scope.JOB, StatusEvent.Scope.STAGE, StatusEvent.Scope.PIPELINE),
+        events.stream().map(StatusEvent::scope).toList());
+    assertEquals("Compile", events.get(0).name());
+    assertEquals(jobExecutionId, events.get(0).executionId());
+    events.forEach(event -> assertEquals(ExecutionStatus.RUNNING, event.status()));
+    events.forEach(event -> assertEquals(pipelineExecutionId, event.pipelineExecutionId()));
+  }
 
-    IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
-        statusService.getStatusForPipeline("demo"));
+  @Test
+  void testOnJobStatusUpdate_recordsSuccessfulDurations() {
+    UUID stageExecutionId = UUID.randomUUID();
+    UUID jobExecutionId = UUID.randomUUID();
+    Instant start = Instant.parse("2025-01-01T10:00:00Z");
+    StageExecutionEntity stageExecution = new StageExecutionEntity();
+    stageExecution.setId(stageExecutionId);
+    stageExecution.setStatus(ExecutionStatus.RUNNING);
+    stageExecution.setStartTime(start);
+    pipelineExecution.setStatus(ExecutionStatus.RUNNING);
+    pipelineExecution.setStartTime(start);
+    JobExecutionEntity jobExecution = new JobExecutionEntity();
+    jobExecution.setId(jobExecutionId);
+    jobExecution.setStartTime(start);
+    jobExecution.setCompletionTime(start.plusSeconds(30));
+
+    when(pipelineExecutionRepository.findByJobExecutionId(jobExecutionId)).thenReturn(Optional.of(pipelineExecution));
+    when(stageExecutionRepository.findStageStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of(new StageStatusRow(stageExecutionId, "Build", ExecutionStatus.RUNNING, 0)));
+    when(jobExecutionRepository.findJobStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of(new JobStatusRow(stageExecutionId, jobExecutionId, "Compile", ExecutionStatus.SUCCESS)));
+    when(jobExecutionRepository.findById(jobExecutionId)).thenReturn(Optional.of(jobExecution));
+    when(stageExecutionRepository.findAllById(Set.of(stageExecutionId))).thenReturn(List.of(stageExecution));
+
+    statusService.onJobStatusUpdate(jobExecutionId, ExecutionStatus.SUCCESS);
+
+    verify(durationStatsService).recordJob("demo", "Build", "Compile", jobExecutionId, start, start.plusSeconds(30));
+    verify(jobExecutionRepository).findJobStatusRowsByPipelineExecutionId(pipelineExecutionId,
+        start.minus(Duration.ofHours(1)));
+    verify(durationStatsService).recordStage(eq("demo"), eq("Build"), eq(stageExecutionId), eq(start), any());
+    verify(durationStatsService).recordPipeline(eq("demo"), eq(pipelineExecutionId), eq(start), any());
+    assertNotNull(stageExecution.getCompletionTime());
+    assertNotNull(pipelineExecution.getCompletionTime());
+  }
 
-    assertTrue(ex.getMessage().contains("PipelineExecution not found"));
+  @Test
+  void testOnJobStatusUpdate_measuresPipelineFromFirstStageRun() {
+    UUID stageExecutionId = UUID.randomUUID();
+    UUID jobExecutionId = UUID.randomUUID();
+    Instant reserved = Instant.parse("2025-01-01T10:00:00Z");
+    Instant running = reserved.plusSeconds(45);
+    StageExecutionEntity stageExecution = new StageExecutionEntity();
+    stageExecution.setId(stageExecutionId);
+    stageExecution.setStatus(ExecutionStatus.RUNNING);
+    stageExecution.setStartTime(reserved);
+    pipelineExecution.setStatus(ExecutionStatus.RUNNING);
+    pipelineExecution.setStartTime(reserved);
+
+    when(pipelineExecutionRepository.findByJobExecutionId(jobExecutionId)).thenReturn(Optional.of(pipelineExecution));
+    when(stageExecutionRepository.findStageStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of(new StageStatusRow(stageExecutionId, "Build", ExecutionStatus.RUNNING, 0)));
+    when(jobExecutionRepository.findJobStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of(new JobStatusRow(stageExecutionId, jobExecutionId, "Compile", ExecutionStatus.SUCCESS)));
+    when(stageExecutionRepository.findAllById(Set.of(stageExecutionId))).thenReturn(List.of(stageExecution));
+    when(stageExecutionRepository.findFirstRunStartTimeByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(Optional.of(running));
+
+    statusService.onJobStatusUpdate(jobExecutionId, ExecutionStatus.SUCCESS);
+
+    // The time the execution waited for admission before its first stage ran is left out
+    verify(durationStatsService).recordPipeline(eq("demo"), eq(pipelineExecutionId), eq(running), any());
   }
 
   @Test
-  void testStageExecutionNotFound() {
-    UUID pipelineId = UUID.randomUUID();
-    UUID pipelineExecutionId = UUID.randomUUID();
-    UUID stageId = UUID.randomUUID();
+  void testOnJobStatusUpdate_runningJobRecordsRunStart() {
+    UUID stageExecutionId = UUID.randomUUID();
+    UUID jobExecutionId = UUID.randomUUID();
+    StageExecutionEntity stageExecution = new StageExecutionEntity();
+    stageExecution.setId(stageExecutionId);
+    stageExecution.setStatus(ExecutionStatus.PENDING);
+    pipelineExecution.setStatus(ExecutionStatus.PENDING);
 
-    PipelineEntity pipeline = new PipelineEntity();
-    pipeline.setId(pipelineId);
-    pipeline.setName("demo");
+    when(pipelineExecutionRepository.findByJobExecutionId(jobExecutionId)).thenReturn(Optional.of(pipelineExecution));
+    when(stageExecutionRepository.findStageStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of(new StageStatusRow(stageExecutionId, "Build", ExecutionStatus.PENDING, 2)));
+    when(jobExecutionRepository.findJobStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of(new JobStatusRow(stageExecutionId, jobExecutionId, "Compile", ExecutionStatus.RUNNING)));
+    when(stageExecutionRepository.findAllById(Set.of(stageExecutionId))).thenReturn(List.of(stageExecution));
 
-    PipelineExecutionEntity pipelineExecution = new PipelineExecutionEntity();
-    pipelineExecution.setId(pipelineExecutionId);
-    pipelineExecution.setPipelineId(pipelineId);
+    statusService.onJobStatusUpdate(jobExecutionId, ExecutionStatus.RUNNING);
 
-    StageEntity stage = new StageEntity();
-    stage.setId(stageId);
-    stage.setName("Build");
-    stage.setPipelineId(pipelineId);
+    verify(jobExecutionRepository).markRunStarted(eq(jobExecutionId), any(Instant.class));
+    assertNotNull(stageExecution.getRunStartTime());
+  }
 
-    when(pipelineRepository.findByName("demo")).thenReturn(Optional.of(pipeline));
-    when(pipelineExecutionRepository.findByPipelineId(pipelineId)).thenReturn(Optional.of(pipelineExecution));
-    when(stageRepository.findByPipelineId(pipelineId)).thenReturn(List.of(stage));
-    when(stageExecutionRepository.findByStageIdAndPipelineExecutionId(stageId, pipelineExecutionId)).thenReturn(Optional.empty());
+  @Test
+  void testOnJobStatusUpdate_durationsLeaveOutAdmissionWait() {
+    UUID stageExecutionId = UUID.randomUUID();
+    UUID jobExecutionId = UUID.randomUUID();
+    Instant created = Instant.parse("2025-01-01T10:00:00Z");
+    StageExecutionEntity stageExecution = new StageExecutionEntity();
+    stageExecution.setId(stageExecutionId);
+    stageExecution.setStatus(ExecutionStatus.RUNNING);
+    stageExecution.setStartTime(created);
+    stageExecution.setRunStartTime(created.plusSeconds(10));
+    pipelineExecution.setStatus(ExecutionStatus.RUNNING);
+    pipelineExecution.setStartTime(created);
+    JobExecutionEntity jobExecution = new JobExecutionEntity();
+    jobExecution.setId(jobExecutionId);
+    jobExecution.setStartTime(created);
+    jobExecution.setRunStartTime(created.plusSeconds(20));
+    jobExecution.setCompletionTime(created.plusSeconds(30));
+
+    when(pipelineExecutionRepository.findByJobExecutionId(jobExecutionId)).thenReturn(Optional.of(pipelineExecution));
+    when(stageExecutionRepository.findStageStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of(new StageStatusRow(stageExecutionId, "Build", ExecutionStatus.RUNNING, 0)));
+    when(jobExecutionRepository.findJobStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of(new JobStatusRow(stageExecutionId, jobExecutionId, "Compile", ExecutionStatus.SUCCESS)));
+    when(jobExecutionRepository.findById(jobExecutionId)).thenReturn(Optional.of(jobExecution));
+    when(stageExecutionRepository.findAllById(Set.of(stageExecutionId))).thenReturn(List.of(stageExecution));
+
+    statusService.onJobStatusUpdate(jobExecutionId, ExecutionStatus.SUCCESS);
+
+    verify(durationStatsService).recordJob("demo", "Build", "Compile", jobExecutionId, created.plusSeconds(20),
+        created.plusSeconds(30));
+    verify(durationStatsService).recordStage(eq("demo"), eq("Build"), eq(stageExecutionId),
+        eq(created.plusSeconds(10)), any());
+    verify(jobExecutionRepository, never()).markRunStarted(any(), any());
+  }
 
-    IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
-        statusService.getStatusForPipeline("demo"));
+  @Test
+  void testOnJobStatusUpdate_failedJobIsNotRecorded() {
+    UUID stageExecutionId = UUID.randomUUID();
+    UUID jobExecutionId = UUID.randomUUID();
+    StageExecutionEntity stageExecution = new StageExecutionEntity();
+    stageExecution.setId(stageExecutionId);
+    stageExecution.setStatus(ExecutionStatus.RUNNING);
+    pipelineExecution.setStatus(ExecutionStatus.RUNNING);
+
+    when(pipelineExecutionRepository.findByJobExecutionId(jobExecutionId)).thenReturn(Optional.of(pipelineExecution));
+    when(stageExecutionRepository.findStageStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of(new StageStatusRow(stageExecutionId, "Build", ExecutionStatus.RUNNING, 4)));
+    when(jobExecutionRepository.findJobStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of(new JobStatusRow(stageExecutionId, jobExecutionId, "Compile", ExecutionStatus.FAILED)));
+    when(stageExecutionRepository.findAllById(Set.of(stageExecutionId))).thenReturn(List.of(stageExecution));
+
+    statusService.onJobStatusUpdate(jobExecutionId, ExecutionStatus.FAILED);
+
+    verify(jobExecutionRepository, never()).findById(any());
+    verify(durationStatsService, never()).recordJob(any(), any(), any(), any(), any(), any());
+    verify(durationStatsService, never()).recordStage(any(), any(), any(), any(), any());
+    verify(durationStatsService, never()).recordPipeline(any(), any(), any(), any());
+  }
+
+  @Test
+  void testOnJobStatusUpdate_ignoresUnknownJob() {
+    UUID jobExecutionId = UUID.randomUUID();
+    when(pipelineExecutionRepository.findByJobExecutionId(jobExecutionId)).thenReturn(Optional.empty());
 
-    assertTrue(ex.getMessage().contains("StageExecution not found"));
+    statusService.onJobStatusUpdate(jobExecutionId, ExecutionStatus.SUCCESS);
+
+    assertTrue(events.isEmpty());
+    verify(stageExecutionRepository, never()).findStageStatusRowsByPipelineExecutionId(any(), any());
   }
 
   @Test
-  void testJobExecutionNotFound() {
-    UUID pipelineId = UUID.randomUUID();
-    UUID pipelineExecutionId = UUID.randomUUID();
-    UUID stageId = UUID.randomUUID();
-    UUID jobId = UUID.randomUUID();
+  void testGetStatusForPipeline_mostSevereStatusWins() {
+    UUID pending = UUID.randomUUID();
+    UUID canceled = UUID.randomUUID();
+    UUID empty = UUID.randomUUID();
+    pipelineExecution.setStatus(ExecutionStatus.CANCELED);
+
+    when(stageExecutionRepository.findStageStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of(
+            new StageStatusRow(pending, "Build", ExecutionStatus.PENDING, 1),
+            new StageStatusRow(canceled, "Test", ExecutionStatus.CANCELED, 3),
+            new StageStatusRow(empty, "Docs", ExecutionStatus.SUCCESS, null)));
+    when(jobExecutionRepository.findJobStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(List.of());
 
-    PipelineEntity pipeline = new PipelineEntity();
-    pipeline.setId(pipelineId);
-    pipeline.setName("demo");
+    Map<String, Object> result = statusService.getStatusForPipeline("demo");
 
-    PipelineExecutionEntity pipelineExecution = new PipelineExecutionEntity();
-    pipelineExecution.setId(pipelineExecutionId);
-    pipelineExecution.setPipelineId(pipelineId);
+    assertEquals(ExecutionStatus.CANCELED, result.get("pipelineStatus"));
+    List<Map<String, Object>> stages = (List<Map<String, Object>>) result.get("stageResult");
+    assertEquals(ExecutionStatus.PENDING, stages.get(0).get("stageExecutionStatus"));
+    assertEquals(ExecutionStatus.CANCELED, stages.get(1).get("stageExecutionStatus"));
+    assertEquals(ExecutionStatus.SUCCESS, stages.get(2).get("stageExecutionStatus"));
+    assertTrue(((List<?>) stages.get(2).get("jobs")).isEmpty());
+  }
 
-    StageEntity stage = new StageEntity();
-    stage.setId(stageId);
-    stage.setName("Build");
-    stage.setPipelineId(pipelineId);
+  @Test
+  void testGetStatusForPipeline_queryCountIndependentOfStagesAndJobs() {
+    assertEquals(countRepositoryCalls(1, 1), countRepositoryCalls(50, 20));
+    assertEquals(4, countRepositoryCalls(50, 20));
+  }
 
-    StageExecutionEntity stageExecution = new StageExecutionEntity();
-    stageExecution.setId(UUID.randomUUID());
-    stageExecution.setStageId(stageId);
-    stageExecution.setPipelineExecutionId(pipelineExecutionId);
-    stageExecution.setStatus(ExecutionStatus.SUCCESS);
+  @Test
+  void testPipelineNotFound() {
+    when(pipelineRepository.findByName("nonexistent")).thenReturn(Optional.empty());
 
-    JobEntity job = new JobEntity();
-    job.setId(jobId);
-    job.setName("Compile");
-    job.setStageId(stageId);
+    IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
+        statusService.getStatusForPipeline("nonexistent"));
 
-    when(pipelineRepository.findByName("demo")).thenReturn(Optional.of(pipeline));
-    when(pipelineExecutionRepository.findByPipelineId(pipelineId)).thenReturn(Optional.of(pipelineExecution));
-    when(stageRepository.findByPipelineId(pipelineId)).thenReturn(List.of(stage));
-    when(stageExecutionRepository.findByStageIdAndPipelineExecutionId(stageId, pipelineExecutionId)).thenReturn(Optional.of(stageExecution));
-    when(jobRepository.findByStageId(stageId)).thenReturn(List.of(job));
-    when(jobExecutionRepository.findByJobId(jobId)).thenReturn(Optional.empty());
+    assertTrue(ex.getMessage().contains("Pipeline not found"));
+  }
+
+  @Test
+  void testPipelineExecutionNotFound() {
+    when(pipelineExecutionRepository.findFirstByPipelineIdOrderByStartTimeDesc(pipelineId))
+        .thenReturn(Optional.empty());
 
     IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
         statusService.getStatusForPipeline("demo"));
 
-    assertTrue(ex.getMessage().contains("JobExecution not found"));
+    assertTrue(ex.getMessage().contains("PipelineExecution not found"));
+  }
+
+  /**
+   * Runs a status lookup over an execution with the given number of successful stages and
+   * jobs per stage, whose persisted statuses are up to date, and counts the repository calls.
+   */
+  private int countRepositoryCalls(int stageCount, int jobsPerStage) {
+    setUp();
+    pipelineExecution.setStatus(ExecutionStatus.SUCCESS);
+    List<StageStatusRow> stages = new ArrayList<>();
+    List<JobStatusRow> jobs = new ArrayList<>();
+    for (int s = 0; s < stageCount; s++) {
+      UUID stageExecutionId = UUID.randomUUID();
+      stages.add(new StageStatusRow(stageExecutionId, "stage" + s, ExecutionStatus.SUCCESS, 0));
+      for (int j = 0; j < jobsPerStage; j++) {
+        jobs.add(new JobStatusRow(stageExecutionId, UUID.randomUUID(), "job" + j, ExecutionStatus.SUCCESS));
+      }
+    }
+    when(stageExecutionRepository.findStageStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(stages);
+    when(jobExecutionRepository.findJobStatusRowsByPipelineExecutionId(eq(pipelineExecutionId), any()))
+        .thenReturn(jobs);
+
+    statusService.getStatusForPipeline("demo");
+
+    return mockingDetails(pipelineRepository).getInvocations().size()
+        + mockingDetails(pipelineExecutionRepository).getInvocations().size()
+        + mockingDetails(stageExecutionRepository).getInvocations().size()
+        + mockingDetails(jobExecutionRepository).getInvocations().size();
   }
 }
@@ -563,6 +563,26 @@ class YamlPipelineUtilsTest {
         assertTrue(exception.getMessage().contains("Error parsing"));
     }
 
+    @Test
+    void testParsePipelineYaml_ValidContent() throws IOException {
+        // Test parsing YAML content that was read without a file
+        Map<String, Object> config = YamlPipelineUtils.parsePipelineYaml(
+                Files.readString(validPipelineYaml), ".pipelines/pipeline.yaml@abc123");
+        assertNotNull(config);
+
+        List<?> stages = (List<?>) config.get("stages");
+        assertEquals(2, stages.size());
+    }
+
+    @Test
+    void testParsePipelineYaml_EmptyContent() {
+        // Test parsing empty YAML content
+        IOException exception = assertThrows(IOException.class, () -> {
+            YamlPipelineUtils.parsePipelineYaml("", "memory");
+        });
+        assertTrue(exception.getMessage().contains("Error parsing"));
+    }
+
     @Test
     void testValidatePipelineConfig_ValidNestedFormat() throws IOException, ValidationException {
         // Test validating a valid pipeline configuration with nested format
@@ -1055,10 +1075,47 @@ class YamlPipelineUtilsTest {
         assertDoesNotThrow(() -> YamlPipelineUtils.validatePipelineConfig(config));
     }
 
+    @Test
+    void testValidatePipelineConfig_LongDependencyChainInStage() throws IOException, ValidationException {
+        Path yaml = tempDir.resolve("long-chain.yaml");
+        Files.writeString(yaml, generateChainPipeline(10_000, false));
 
+        Map<String, Object> config = YamlPipelineUtils.readPipelineYaml(yaml.toString());
 
+        assertDoesNotThrow(() -> YamlPipelineUtils.validatePipelineConfig(config));
+    }
 
+    @Test
+    void testValidatePipelineConfig_LongCircularDependencyInStage() throws IOException, ValidationException {
+        Path yaml = tempDir.resolve("long-cycle.yaml");
+        Files.writeString(yaml, generateChainPipeline(10_000, true));
 
+        Map<String, Object> config = YamlPipelineUtils.readPipelineYaml(yaml.toString());
 
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                YamlPipelineUtils.validatePipelineConfig(config));
+        assertTrue(exception.getMessage().contains("Circular dependency detected in stage 'build'"));
+    }
 
-}
\ No newline at end of file
+    /**
+     * Generates a pipeline with one stage whose jobs each depend on the previous job.
+     *
+     * @param jobCount number of jobs
+     * @param closeCycle whether the first job depends on the last one
+     * @return the pipeline YAML
+     */
+    private static String generateChainPipeline(int jobCount, boolean closeCycle) {
+        StringBuilder yaml = new StringBuilder("stages:\n  - name: build\n    jobs:\n");
+        for (int i = 0; i < jobCount; i++) {
+            yaml.append("      - name: job-").append(i).append("\n")
+                    .append("        image: alpine:latest\n")
+                    .append("        script: echo ").append(i).append("\n");
+            if (i > 0) {
+                yaml.append("        dependencies: [job-").append(i - 1).append("]\n");
+            } else if (closeCycle) {
+                yaml.append("        dependencies: [job-").append(jobCount - 1).append("]\n");
+            }
+        }
+        return yaml.toString();
+    }
+}
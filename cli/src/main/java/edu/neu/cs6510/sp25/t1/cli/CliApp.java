@@ -4,6 +4,7 @@ import java.util.concurrent.Callable;
 
 import edu.neu.cs6510.sp25.t1.cli.commands.CheckCommand;
 import edu.neu.cs6510.sp25.t1.cli.commands.DryRunCommand;
+import edu.neu.cs6510.sp25.t1.cli.commands.LogsCommand;
 import edu.neu.cs6510.sp25.t1.cli.commands.ReportCommand;
 import edu.neu.cs6510.sp25.t1.cli.commands.RunCommand;
 import edu.neu.cs6510.sp25.t1.cli.commands.StatusCommand;
@@ -22,13 +23,14 @@ import picocli.CommandLine;
         RunCommand.class,
         ReportCommand.class,
         DryRunCommand.class,
-        StatusCommand.class
+        StatusCommand.class,
+        LogsCommand.class
     }
 )
 
 /*
  * CLI application entry point for the CI/CD tool.
- * Supports commands like run, check, report, dry-run, and status.
+ * Supports commands like run, check, report, dry-run, status, and logs.
  */
 public class CliApp implements Callable<Integer> {
 
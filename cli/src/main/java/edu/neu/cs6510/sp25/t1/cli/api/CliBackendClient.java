@@ -1,12 +1,20 @@
 package edu.neu.cs6510.sp25.t1.cli.api;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
 
@@ -16,6 +24,7 @@ import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
 public class CliBackendClient {
   private final String baseUrl;
   private final HttpClient httpClient;
+  private final ObjectMapper objectMapper = new ObjectMapper();
 
   /**
    * Constructor for CliBackendClient.
@@ -33,7 +42,7 @@ public class CliBackendClient {
    * Fetch pipeline reports from the backend.
    *
    * @param pipelineName the pipeline name
-   * @param runNumber the run number, or -1 for all runs
+   * @param runNumber the run number, or -1 for the first page of the run history
    * @param stageName the stage name (optional)
    * @param jobName the job name (optional)
    * @return formatted response from the backend
@@ -82,6 +91,176 @@ public class CliBackendClient {
     return sendGetRequest(urlBuilder.toString());
   }
 
+  /**
+   * Fetch duration statistics of a pipeline, its stages and its jobs.
+   *
+   * @param pipelineName the pipeline name
+   * @param stageName the stage to report on (optional)
+   * @param jobName the job to report on (optional)
+   * @return JSON array of statistics with count, mean, min, max and p50/p95/p99 durations in milliseconds
+   * @throws IOException if the API request fails
+   */
+  public String fetchDurationStats(String pipelineName, String stageName, String jobName) throws IOException {
+    StringBuilder urlBuilder = new StringBuilder(baseUrl)
+            .append("/api/report/pipeline/")
+            .append(URLEncoder.encode(pipelineName, StandardCharsets.UTF_8))
+            .append("/stats");
+
+    String separator = "?";
+    if (stageName != null && !stageName.isEmpty()) {
+      urlBuilder.append(separator).append("stage=").append(URLEncoder.encode(stageName, StandardCharsets.UTF_8));
+      separator = "&";
+    }
+    if (jobName != null && !jobName.isEmpty()) {
+      urlBuilder.append(separator).append("job=").append(URLEncoder.encode(jobName, StandardCharsets.UTF_8));
+    }
+
+    return sendGetRequest(urlBuilder.toString());
+  }
+
+  /**
+   * Fetch a range of a job execution's log.
+   *
+   * @param jobExecutionId the job execution ID
+   * @param from the byte offset to start at
+   * @param limit the maximum number of lines (optional)
+   * @param tail the number of last lines to fetch instead of reading from the offset (optional)
+   * @return range JSON with {@code text}, {@code next} and {@code complete}
+   * @throws IOException if the API request fails
+   */
+  public String fetchLogs(String jobExecutionId, long from, Integer limit, Integer tail) throws IOException {
+    StringBuilder urlBuilder = new StringBuilder(baseUrl)
+            .append("/api/logs/")
+            .append(URLEncoder.encode(jobExecutionId, StandardCharsets.UTF_8));
+
+    if (tail != null) {
+      urlBuilder.append("?tail=").append(tail);
+    } else {
+      urlBuilder.append("?from=").append(from);
+      if (limit != null) {
+        urlBuilder.append("&limit=").append(limit);
+      }
+    }
+
+    return sendGetRequest(urlBuilder.toString());
+  }
+
+  /**
+   * Fetch one page of a pipeline's execution history.
+   *
+   * @param pipelineName the pipeline name
+   * @param cursor the cursor returned with the previous page, or null for the first page
+   * @param limit the maximum number of runs on the page
+   * @param summary whether to leave stage and job details out of the runs
+   * @return page JSON with {@code items} and {@code nextCursor}
+   * @throws IOException if the API request fails
+   */
+  public String fetchPipelineHistoryPage(String pipelineName, String cursor, int limit,
+                                         boolean summary) throws IOException {
+    return fetchPipelineHistoryPage(pipelineName, null, null, cursor, limit, summary);
+  }
+
+  /**
+   * Fetch one page of a pipeline's execution history, optionally narrowed down to a stage or a job of a stage.
+   *
+   * @param pipelineName the pipeline name
+   * @param stageName the stage to report on (optional)
+   * @param jobName the job of the stage to report on (optional, requires a stage)
+   * @param cursor the cursor returned with the previous page, or null for the first page
+   * @param limit the maximum number of runs on the page
+   * @param summary whether to leave stage and job details out of the runs
+   * @return page JSON with {@code items} and {@code nextCursor}
+   * @throws IOException if the API request fails
+   */
+  public String fetchPipelineHistoryPage(String pipelineName, String stageName, String jobName, String cursor,
+                                         int limit, boolean summary) throws IOException {
+    StringBuilder urlBuilder = new StringBuilder(baseUrl)
+            .append("/api/report/pipeline/history/")
+            .append(URLEncoder.encode(pipelineName, StandardCharsets.UTF_8))
+            .append("?limit=").append(limit);
+
+    if (stageName != null && !stageName.isEmpty()) {
+      urlBuilder.append("&stage=").append(URLEncoder.encode(stageName, StandardCharsets.UTF_8));
+      if (jobName != null && !jobName.isEmpty()) {
+        urlBuilder.append("&job=").append(URLEncoder.encode(jobName, StandardCharsets.UTF_8));
+      }
+    }
+    if (cursor != null) {
+      urlBuilder.append("&cursor=").append(URLEncoder.encode(cursor, StandardCharsets.UTF_8));
+    }
+    if (summary) {
+      urlBuilder.append("&summary=true");
+    }
+
+    return sendGetRequest(urlBuilder.toString());
+  }
+
+  /**
+   * Lazily iterate over a pipeline's execution history, most recent run first.
+   *
+   * @param pipelineName the pipeline name
+   * @param pageSize the number of runs to request per page
+   * @param summary whether to leave stage and job details out of the runs
+   * @return iterable over the pipeline runs
+   * @see #iteratePipelineHistory(String, String, String, int, boolean)
+   */
+  public Iterable<JsonNode> iteratePipelineHistory(String pipelineName, int pageSize, boolean summary) {
+    return iteratePipelineHistory(pipelineName, null, null, pageSize, summary);
+  }
+
+  /**
+   * Lazily iterate over a pipeline's execution history, most recent run first, optionally narrowed down
+   * to the executions of a stage or of a job of a stage.
+   * A page is only requested once every report of the previous page has been consumed,
+   * so callers that stop early never fetch the rest of the history.
+   * Request failures during iteration surface as {@link UncheckedIOException}.
+   *
+   * @param pipelineName the pipeline name
+   * @param stageName the stage to report on (optional)
+   * @param jobName the job of the stage to report on (optional, requires a stage)
+   * @param pageSize the number of runs to request per page
+   * @param summary whether to leave stage and job details out of the runs
+   * @return iterable over the pipeline, stage or job reports
+   */
+  public Iterable<JsonNode> iteratePipelineHistory(String pipelineName, String stageName, String jobName,
+                                                   int pageSize, boolean summary) {
+    return () -> new Iterator<>() {
+      private final Deque<JsonNode> buffer = new ArrayDeque<>();
+      private String cursor;
+      private boolean lastPage;
+
+      @Override
+      public boolean hasNext() {
+        while (buffer.isEmpty() && !lastPage) {
+          fetchNextPage();
+        }
+        return !buffer.isEmpty();
+      }
+
+      @Override
+      public JsonNode next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return buffer.poll();
+      }
+
+      private void fetchNextPage() {
+        try {
+          JsonNode page = objectMapper.readTree(
+                  fetchPipelineHistoryPage(pipelineName, stageName, jobName, cursor, pageSize, summary));
+          page.path("items").forEach(buffer::add);
+
+          JsonNode next = page.path("nextCursor");
+          cursor = next.isTextual() ? next.asText() : null;
+          lastPage = cursor == null;
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+    };
+  }
+
   /**
    * Send a GET request to the backend API.
    *
@@ -91,7 +270,7 @@ public class CliBackendClient {
    */
   private String sendGetRequest(String url) throws IOException {
     try {
-      PipelineLogger.info("Sending GET request to: " + url);
+      PipelineLogger.debug("Sending GET request to: {}", url);
 
       HttpRequest request = HttpRequest.newBuilder()
               .uri(URI.create(url))
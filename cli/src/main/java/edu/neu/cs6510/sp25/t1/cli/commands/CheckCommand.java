@@ -1,32 +1,62 @@
 package edu.neu.cs6510.sp25.t1.cli.commands;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 import edu.neu.cs6510.sp25.t1.common.utils.GitCloneUtil;
 import edu.neu.cs6510.sp25.t1.common.validation.error.ValidationException;
+import edu.neu.cs6510.sp25.t1.common.validation.manager.PipelineNameManager;
 import edu.neu.cs6510.sp25.t1.backend.utils.YamlPipelineUtils;
 
 import picocli.CommandLine;
 
 /**
- * Implements the `check` command to validate a pipeline YAML file.
+ * Implements the `check` command to validate a pipeline YAML file,
+ * or every pipeline YAML file under `.pipelines/` with `--all`.
  */
 @CommandLine.Command(name = "check", description = "Validates a pipeline configuration file without running it.")
 public class CheckCommand implements Callable<Integer> {
 
   @CommandLine.Option(names = { "--file",
-      "-f" }, description = "Path to the pipeline YAML configuration file.", required = true)
+      "-f" }, description = "Path to the pipeline YAML configuration file.")
   private String filePath;
 
+  @CommandLine.Option(names = { "--all" },
+      description = "Validate every pipeline configuration file under .pipelines/ in parallel.")
+  private boolean all;
+
+  @CommandLine.Option(names = { "--parallelism" },
+      description = "Number of files validated at once with --all (default: number of processors).")
+  private int parallelism = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * Outcome of validating one file in `--all` mode.
+   *
+   * @param fileName the YAML file name
+   * @param errors   validation errors, empty if the file is valid
+   */
+  private record FileResult(String fileName, List<String> errors) {
+  }
+
   /**
-   * Validates a pipeline configuration file.
+   * Validates a pipeline configuration file, or every file under `.pipelines/` with `--all`.
    *
    * @return 0 if the pipeline is valid, 1 if validation fails.
    */
   @Override
   public Integer call() {
+    if (all) {
+      return checkAll();
+    }
 
     if (filePath == null) {
       System.err.println("[Error] File path cannot be null");
@@ -57,4 +87,120 @@ public class CheckCommand implements Callable<Integer> {
       return 1;
     }
   }
+
+  /**
+   * Validates every pipeline YAML file under `.pipelines/` on a ForkJoin pool.
+   * Errors are collected per file and reported in file name order, followed by
+   * pipeline names declared by more than one file.
+   *
+   * @return 0 if every pipeline is valid, 1 otherwise.
+   */
+  private Integer checkAll() {
+    if (parallelism < 1) {
+      System.err.println("[Error] Parallelism must be at least 1");
+      return 1;
+    }
+
+    PipelineNameManager nameManager;
+    List<Path> files;
+    try {
+      nameManager = new PipelineNameManager();
+      files = listPipelineFiles(nameManager.getPipelinesDir());
+    } catch (ValidationException | IOException e) {
+      System.err.println("[ERROR] " + e.getMessage());
+      return 1;
+    }
+    if (!GitCloneUtil.isInsideGitRepo(nameManager.getPipelinesDir().toFile())) {
+      System.err.println("[Error] GitClone is not inside the git repo");
+      return 1;
+    }
+    if (files.isEmpty()) {
+      System.out.println("No pipeline configuration files found in " + nameManager.getPipelinesDir());
+      return 0;
+    }
+
+    System.out.println("Checking " + files.size() + " pipeline configurations in " + nameManager.getPipelinesDir());
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    List<FileResult> results;
+    try {
+      // The stream keeps encounter order, so results line up with the sorted file list
+      results = pool.submit(() -> files.parallelStream()
+          .map(file -> checkFile(file, nameManager))
+          .toList()).join();
+    } finally {
+      pool.shutdown();
+    }
+
+    Map<String, List<String>> errorsByFile = new LinkedHashMap<>();
+    for (FileResult result : results) {
+      errorsByFile.put(result.fileName(), new ArrayList<>(result.errors()));
+    }
+    nameManager.getDuplicatePipelineNames().forEach((pipelineName, fileNames) -> {
+      for (String fileName : fileNames.subList(1, fileNames.size())) {
+        errorsByFile.get(fileName).add("Duplicate pipeline name '" + pipelineName + "', already declared in "
+            + fileNames.get(0));
+      }
+    });
+
+    int invalid = 0;
+    for (Map.Entry<String, List<String>> entry : errorsByFile.entrySet()) {
+      if (entry.getValue().isEmpty()) {
+        System.out.println("[OK] " + entry.getKey());
+        continue;
+      }
+      invalid++;
+      for (String error : entry.getValue()) {
+        System.err.println("[ERROR] " + entry.getKey() + ": " + error);
+      }
+    }
+
+    if (invalid > 0) {
+      System.err.println(invalid + " of " + files.size() + " pipeline configurations are invalid.");
+      return 1;
+    }
+    System.out.println("All " + files.size() + " pipeline configurations are valid!");
+    return 0;
+  }
+
+  /**
+   * Validates one pipeline file and records its pipeline name. Runs on a pool thread.
+   *
+   * @param file        the pipeline YAML file
+   * @param nameManager manager collecting pipeline names across files
+   * @return the file's validation outcome
+   */
+  private FileResult checkFile(Path file, PipelineNameManager nameManager) {
+    String fileName = file.getFileName().toString();
+    try {
+      Map<String, Object> pipelineConfig = YamlPipelineUtils.readPipelineYaml(file.toString());
+      Object name = pipelineConfig.get("name");
+      if (name != null) {
+        nameManager.registerPipelineName(name.toString(), fileName);
+      }
+      YamlPipelineUtils.validatePipelineConfig(pipelineConfig);
+      return new FileResult(fileName, List.of());
+    } catch (Exception e) {
+      return new FileResult(fileName, List.of(e.getMessage() != null ? e.getMessage() : e.toString()));
+    }
+  }
+
+  /**
+   * Lists the pipeline YAML files of a directory, sorted by name.
+   *
+   * @param pipelinesDir the `.pipelines/` directory
+   * @return the YAML files
+   * @throws IOException if the directory cannot be listed
+   */
+  private static List<Path> listPipelineFiles(Path pipelinesDir) throws IOException {
+    try (Stream<Path> entries = Files.list(pipelinesDir)) {
+      return entries
+          .filter(Files::isRegularFile)
+          .filter(path -> {
+            String name = path.getFileName().toString().toLowerCase();
+            return name.endsWith(".yaml") || name.endsWith(".yml");
+          })
+          .sorted()
+          .toList();
+    }
+  }
 }
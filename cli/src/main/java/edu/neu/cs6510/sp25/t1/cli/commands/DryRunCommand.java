@@ -3,14 +3,13 @@ package edu.neu.cs6510.sp25.t1.cli.commands;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.Callable;
 
 import edu.neu.cs6510.sp25.t1.backend.utils.YamlPipelineUtils;
+import edu.neu.cs6510.sp25.t1.common.graph.Dag;
 import edu.neu.cs6510.sp25.t1.common.utils.GitCloneUtil;
 import edu.neu.cs6510.sp25.t1.common.validation.error.ValidationException;
 
@@ -175,7 +174,7 @@ public class DryRunCommand implements Callable<Integer> {
     for (String stageName : sortedStages) {
       List<Map<String, Object>> stageJobs = jobsByStage.getOrDefault(stageName, new ArrayList<>());
       if (!stageJobs.isEmpty()) {
-        List<Map<String, Object>> sortedJobs = topologicalSortJobs(stageJobs, jobMap);
+        List<Map<String, Object>> sortedJobs = topologicalSortJobs(stageJobs);
         executionPlan.put(stageName, sortedJobs);
       }
     }
@@ -193,234 +192,124 @@ public class DryRunCommand implements Callable<Integer> {
 
   /**
    * Performs topological sort on stages based on job dependencies.
+   * Stages without dependencies between them keep their declared order.
    * 
    * @param stageNames List of stage names.
    * @param allJobs    List of all jobs.
    * @param jobMap     Map of job name to job.
    * @return List of stage names in topological order.
+   * @throws RuntimeException If a cyclic dependency is detected.
    */
-  @SuppressWarnings("unchecked")
   private List<String> topologicalSortStages(
       List<String> stageNames,
       List<Map<String, Object>> allJobs,
       Map<String, Map<String, Object>> jobMap) {
 
-    // If there are no jobs or no stage names, return an empty list
+    // If there are no jobs or no stage names, return the stages as declared
     if (allJobs == null || allJobs.isEmpty() || stageNames == null || stageNames.isEmpty()) {
-      return new ArrayList<>(stageNames);
+      return stageNames == null ? new ArrayList<>() : new ArrayList<>(stageNames);
     }
 
-    // Create a map of stage dependencies
-    Map<String, List<String>> stageDependencies = new HashMap<>();
+    Dag.Builder<String> stageGraph = Dag.builder();
     for (String stageName : stageNames) {
-      stageDependencies.put(stageName, new ArrayList<>());
+      if (stageName != null) {
+        stageGraph.addNode(stageName);
+      }
     }
 
     // Determine stage dependencies based on job dependencies
-    boolean hasDependencies = false;
     for (Map<String, Object> job : allJobs) {
       String jobStage = (String) job.get("stage");
-      if (job.containsKey("dependencies")) {
-        List<String> dependencies = new ArrayList<>();
-        Object depsObj = job.get("dependencies");
-
-        if (depsObj instanceof String) {
-          dependencies.add((String) depsObj);
-          hasDependencies = true;
-        } else if (depsObj instanceof List && !((List<?>) depsObj).isEmpty()) {
-          dependencies.addAll((List<String>) depsObj);
-          hasDependencies = true;
-        }
-
-        for (String depName : dependencies) {
-          Map<String, Object> depJob = jobMap.get(depName);
-          if (depJob != null) {
-            String depStage = (String) depJob.get("stage");
-            if (!depStage.equals(jobStage) && !stageDependencies.get(jobStage).contains(depStage)) {
-              stageDependencies.get(jobStage).add(depStage);
-            }
-          }
-        }
+      if (jobStage == null || !stageGraph.contains(jobStage)) {
+        continue;
       }
-    }
-
-    // If no dependencies, just return stages in original order
-    if (!hasDependencies) {
-      return new ArrayList<>(stageNames);
-    }
-
-    // Perform topological sort on stages
-    List<String> result = new ArrayList<>();
-    Set<String> visited = new HashSet<>();
-    Set<String> processing = new HashSet<>();
-
-    for (String stageName : stageNames) {
-      if (!visited.contains(stageName)) {
-        dfsStageSort(stageName, stageDependencies, visited, processing, result);
+      for (String depName : getDependencyNames(job)) {
+        Map<String, Object> depJob = jobMap.get(depName);
+        String depStage = depJob == null ? null : (String) depJob.get("stage");
+        if (depStage != null && !depStage.equals(jobStage) && stageGraph.contains(depStage)) {
+          stageGraph.addDependency(jobStage, depStage);
+        }
       }
     }
 
-    return result;
-  }
-
-  /**
-   * DFS helper for topological sorting of stages.
-   * 
-   * @param stageName         The name of the current stage.
-   * @param stageDependencies Map of stage dependencies.
-   * @param visited           Set of visited stages.
-   * @param processing        Set of currently processing stages.
-   * @param result            List to store the sorted stages.
-   * @throws RuntimeException If a cyclic dependency is detected.
-   */
-  private void dfsStageSort(
-      String stageName,
-      Map<String, List<String>> stageDependencies,
-      Set<String> visited,
-      Set<String> processing,
-      List<String> result) {
-
-    if (processing.contains(stageName)) {
-      throw new RuntimeException("Cyclic dependency detected between stages with stage: " + stageName);
-    }
-
-    if (visited.contains(stageName)) {
-      return;
+    Dag.Ordering<String> ordering = stageGraph.build().sort();
+    if (!ordering.isAcyclic()) {
+      throw new RuntimeException("Cyclic dependency detected between stages with stage: "
+          + ordering.getCyclicNodes().get(0));
     }
-
-    processing.add(stageName);
-
-    // Process stage dependencies
-    for (String depStage : stageDependencies.getOrDefault(stageName, new ArrayList<>())) {
-      dfsStageSort(depStage, stageDependencies, visited, processing, result);
-    }
-
-    processing.remove(stageName);
-    visited.add(stageName);
-    result.add(stageName);
+    return ordering.getOrder();
   }
 
   /**
    * Performs topological sort on jobs within a stage.
+   * Only dependencies within the stage are considered; jobs without dependencies between
+   * them keep their declared order, and jobs without a name are left out.
    * 
-   * @param jobs   List of jobs in the stage.
-   * @param jobMap Map of job name to job.
+   * @param jobs List of jobs in the stage.
    * @return List of jobs in topological order.
+   * @throws RuntimeException If a cyclic dependency is detected.
    */
-  @SuppressWarnings("unchecked")
-  private List<Map<String, Object>> topologicalSortJobs(
-      List<Map<String, Object>> jobs,
-      Map<String, Map<String, Object>> jobMap) {
+  private List<Map<String, Object>> topologicalSortJobs(List<Map<String, Object>> jobs) {
 
     // If there are no jobs, return an empty list
     if (jobs == null || jobs.isEmpty()) {
       return new ArrayList<>();
     }
 
-    // Check if any job in this stage has dependencies
-    boolean hasDependencies = false;
+    Dag.Builder<String> jobGraph = Dag.builder();
+    Map<String, Map<String, Object>> stageJobs = new HashMap<>();
     for (Map<String, Object> job : jobs) {
-      if (job.containsKey("dependencies")) {
-        Object deps = job.get("dependencies");
-        if (deps instanceof String || (deps instanceof List && !((List<?>) deps).isEmpty())) {
-          hasDependencies = true;
-          break;
-        }
+      String jobName = (String) job.get("name");
+      if (jobName != null) {
+        jobGraph.addNode(jobName);
+        stageJobs.putIfAbsent(jobName, job);
       }
     }
 
-    // If no dependencies, just return jobs in original order
-    if (!hasDependencies) {
-      return new ArrayList<>(jobs);
-    }
-
-    List<Map<String, Object>> result = new ArrayList<>();
-    Set<String> visited = new HashSet<>();
-    Set<String> processing = new HashSet<>();
-
     for (Map<String, Object> job : jobs) {
       String jobName = (String) job.get("name");
-      if (!visited.contains(jobName)) {
-        dfsJobSort(job, jobMap, visited, processing, result);
+      if (jobName == null) {
+        continue;
       }
+      for (String depName : getDependencyNames(job)) {
+        // Only dependencies within the same stage are ordered here
+        if (jobGraph.contains(depName)) {
+          jobGraph.addDependency(jobName, depName);
+        }
+      }
+    }
+
+    Dag.Ordering<String> ordering = jobGraph.build().sort();
+    if (!ordering.isAcyclic()) {
+      throw new RuntimeException("Cyclic dependency detected for job: " + ordering.getCyclicNodes().get(0));
     }
 
+    List<Map<String, Object>> result = new ArrayList<>();
+    for (String jobName : ordering.getOrder()) {
+      result.add(stageJobs.get(jobName));
+    }
     return result;
   }
 
   /**
-   * DFS helper for topological sorting of jobs.
+   * Returns the names of the jobs a job depends on.
    * 
-   * @param job        The current job.
-   * @param jobMap     Map of job name to job.
-   * @param visited    Set of visited jobs.
-   * @param processing Set of currently processing jobs.
-   * @param result     List to store the sorted jobs.
-   * @throws RuntimeException If a cyclic dependency is detected.
+   * @param job The job.
+   * @return The dependency names; empty if the job has no dependencies.
    */
-  @SuppressWarnings("unchecked")
-  private void dfsJobSort(
-      Map<String, Object> job,
-      Map<String, Map<String, Object>> jobMap,
-      Set<String> visited,
-      Set<String> processing,
-      List<Map<String, Object>> result) {
-
-    if (job == null) {
-      return;
-    }
-
-    String jobName = (String) job.get("name");
-    if (jobName == null) {
-      return;
-    }
-
-    String stageName = (String) job.get("stage");
-    if (stageName == null) {
-      stageName = ""; // Default to empty string to avoid NPE
-    }
-
-    if (processing.contains(jobName)) {
-      throw new RuntimeException("Cyclic dependency detected for job: " + jobName);
-    }
-
-    if (visited.contains(jobName)) {
-      return;
-    }
-
-    processing.add(jobName);
-
-    // Process job dependencies
-    if (job.containsKey("dependencies")) {
-      List<String> dependencies = new ArrayList<>();
-      Object depsObj = job.get("dependencies");
-
-      if (depsObj instanceof String) {
-        dependencies.add((String) depsObj);
-      } else if (depsObj instanceof List) {
-        for (Object dep : (List<?>) depsObj) {
-          if (dep instanceof String) {
-            dependencies.add((String) dep);
-          }
-        }
-      }
-
-      for (String depName : dependencies) {
-        Map<String, Object> depJob = jobMap.get(depName);
-        if (depJob != null) {
-          String depStage = (String) depJob.get("stage");
-
-          // Only process dependencies within the same stage here
-          if (depStage != null && depStage.equals(stageName)) {
-            dfsJobSort(depJob, jobMap, visited, processing, result);
-          }
+  private static List<String> getDependencyNames(Map<String, Object> job) {
+    List<String> dependencies = new ArrayList<>();
+    Object depsObj = job.get("dependencies");
+    if (depsObj instanceof String) {
+      dependencies.add((String) depsObj);
+    } else if (depsObj instanceof List) {
+      for (Object dep : (List<?>) depsObj) {
+        if (dep instanceof String) {
+          dependencies.add((String) dep);
         }
       }
     }
-
-    processing.remove(jobName);
-    visited.add(jobName);
-    result.add(job);
+    return dependencies;
   }
 
   /**
@@ -0,0 +1,112 @@
+package edu.neu.cs6510.sp25.t1.cli.commands;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import edu.neu.cs6510.sp25.t1.cli.api.CliBackendClient;
+import edu.neu.cs6510.sp25.t1.cli.service.K8sService;
+import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
+import picocli.CommandLine;
+
+/**
+ * Implements the `logs` command to print the log of a job execution using the backend API.
+ */
+@CommandLine.Command(
+        name = "logs",
+        description = "Prints the log of a job execution."
+)
+
+/*
+ * CLI command that prints a job execution's log, page by page from the start, or only its last lines
+ * with --tail. With --follow, it keeps asking the backend for the text after the last offset it printed,
+ * like `tail -f`, until the job has finished and its whole log is printed.
+ *
+ * Used with the `logs` subcommand in the CLI.
+ */
+public class LogsCommand implements Callable<Integer> {
+
+  /** Lines requested per page when reading a log from an offset. */
+  private static final int PAGE_LINES = 1000;
+
+  @CommandLine.Parameters(index = "0", description = "The job execution ID, as listed by the report command.")
+  private String jobExecutionId;
+
+  @CommandLine.Option(names = {"--pipeline", "-p"}, description = "Specify the pipeline the job belongs to.", required = true)
+  private String pipelineName;
+
+  @CommandLine.Option(names = {"--follow", "-f"}, description = "Keep printing new log lines until the job finishes.")
+  private boolean follow;
+
+  @CommandLine.Option(names = {"--tail", "-n"}, description = "Only print the last N lines.")
+  private Integer tail;
+
+  @CommandLine.Option(names = {"--poll-interval"}, description = "Milliseconds to wait for new lines while following.", defaultValue = "1000")
+  private long pollIntervalMs = 1000;
+
+  private final CliBackendClient backendClient = new CliBackendClient("http://localhost:8080");
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  /**
+   * Main entry point for the `logs` command.
+   *
+   * @return 0 if successful, 1 if the arguments are invalid or the API request failed
+   */
+  @Override
+  public Integer call() {
+    try {
+      UUID.fromString(jobExecutionId);
+    } catch (IllegalArgumentException e) {
+      System.err.println("Error: invalid job execution ID: " + jobExecutionId);
+      return 1;
+    }
+    if (tail != null && tail <= 0) {
+      System.err.println("Error: --tail must be a positive number of lines");
+      return 1;
+    }
+
+    String podName = K8sService.startBackendEnvironment(pipelineName);
+    try {
+      return printLogs();
+    } catch (IOException e) {
+      PipelineLogger.error("API request failed: " + e.getMessage());
+      return 1;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return 1;
+    } finally {
+      K8sService.stopPortForward();
+      K8sService.stopPod(podName);
+    }
+  }
+
+  /**
+   * Prints the requested part of the log, continuing from the offset of each range.
+   * Without --follow, this stops at the end of the stored log; with --follow, it waits for more
+   * text until the backend marks the log complete.
+   *
+   * @return 0 once done
+   */
+  private Integer printLogs() throws IOException, InterruptedException {
+    JsonNode range = objectMapper.readTree(tail != null
+        ? backendClient.fetchLogs(jobExecutionId, 0, null, tail)
+        : backendClient.fetchLogs(jobExecutionId, 0, PAGE_LINES, null));
+    while (true) {
+      System.out.print(range.path("text").asText());
+      System.out.flush();
+
+      long next = range.path("next").asLong();
+      boolean advanced = next > range.path("from").asLong();
+      if (range.path("complete").asBoolean() || (!follow && (tail != null || !advanced))) {
+        return 0;
+      }
+      if (!advanced) {
+        Thread.sleep(pollIntervalMs);
+      }
+      range = objectMapper.readTree(backendClient.fetchLogs(jobExecutionId, next, PAGE_LINES, null));
+    }
+  }
+}
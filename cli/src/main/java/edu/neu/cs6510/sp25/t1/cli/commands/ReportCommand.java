@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -49,6 +50,15 @@ public class ReportCommand implements Callable<Integer> {
   @CommandLine.Option(names = {"--format"}, description = "Output format (text, json).", defaultValue = "text")
   private String format;
 
+  @CommandLine.Option(names = {"--summary"}, description = "Show pipeline history without stage and job details.")
+  private boolean summary;
+
+  @CommandLine.Option(names = {"--stats"}, description = "Show duration statistics (count, mean, p50/p95/p99) of the pipeline, its stages and its jobs.")
+  private boolean stats;
+
+  @CommandLine.Option(names = {"--page-size"}, description = "Number of runs fetched per request when listing pipeline, stage or job history.", defaultValue = "20")
+  private int pageSize = 20;
+
   private final CliBackendClient backendClient = new CliBackendClient("http://localhost:8080");
   private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
 
@@ -60,6 +70,11 @@ public class ReportCommand implements Callable<Integer> {
   @Override
   public Integer call() {
     try {
+      // Statistics can be filtered by job name alone
+      if (stats) {
+        return fetchDurationStats();
+      }
+
       // If job is specified but stage is not, that's an error
       if (jobName != null && stageName == null) {
         System.err.println("Error: --stage parameter is required when using --job");
@@ -97,21 +112,50 @@ public class ReportCommand implements Callable<Integer> {
 
   /**
    * Fetch past runs of a specific pipeline.
+   * Runs are printed as they arrive, one page of history at a time.
    *
    * @return 0 if successful, 1 if API request failed
    */
   private Integer fetchPipelineHistory() throws IOException {
     PipelineLogger.info("Fetching past runs for pipeline: " + pipelineName);
     String podName = K8sService.startBackendEnvironment(pipelineName);
-    String response = backendClient.fetchPipelineReport(pipelineName, -1, null, null);
+    try {
+      printHistory(backendClient.iteratePipelineHistory(pipelineName, pageSize, summary));
+      return 0;
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      K8sService.stopPortForward();
+      K8sService.stopPod(podName);
+    }
+  }
 
-    // Format and print the response
-    String formattedResponse = formatResponse(response);
+  /**
+   * Print reports as they arrive, either as one JSON array or as text blocks separated by a line.
+   *
+   * @param reports the pipeline, stage or job reports to print
+   * @throws IOException if a report cannot be serialized
+   */
+  private void printHistory(Iterable<JsonNode> reports) throws IOException {
+    boolean json = format.equalsIgnoreCase("json");
+    boolean first = true;
+    if (json) {
+      System.out.println("[");
+    }
 
-    K8sService.stopPortForward();
-    K8sService.stopPod(podName);
-    System.out.println(formattedResponse);
-    return 0;
+    for (JsonNode report : reports) {
+      String formattedReport = formatResponse(objectMapper.writeValueAsString(report));
+      if (json) {
+        System.out.print((first ? "" : ",\n") + formattedReport);
+      } else {
+        System.out.print(formattedReport + "\n----------------------------------------\n");
+      }
+      first = false;
+    }
+
+    if (json) {
+      System.out.println(first ? "]" : "\n]");
+    }
   }
 
   /**
@@ -174,6 +218,7 @@ public class ReportCommand implements Callable<Integer> {
   /**
    * Fetch history of a specific stage across all pipeline runs.
    * This method also handles the case when a job name is specified.
+   * Reports are printed as they arrive, one page of runs at a time.
    *
    * @return 0 if successful, 1 if API request failed
    * @throws IOException if API request fails
@@ -186,17 +231,82 @@ public class ReportCommand implements Callable<Integer> {
     }
 
     String podName = K8sService.startBackendEnvironment(pipelineName);
-    // Pass both stageName and jobName to backend client
-    String response = backendClient.fetchPipelineReport(pipelineName, null, stageName, jobName);
+    try {
+      // Pass both stageName and jobName to backend client
+      printHistory(backendClient.iteratePipelineHistory(pipelineName, stageName, jobName, pageSize, false));
+      return 0;
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      K8sService.stopPortForward();
+      K8sService.stopPod(podName);
+    }
+  }
 
-    K8sService.stopPortForward();
-    K8sService.stopPod(podName);
-    // Format and print the response
-    String formattedResponse = formatResponse(response);
-    System.out.println(formattedResponse);
+  /**
+   * Fetch duration statistics of the pipeline, optionally narrowed down to a stage or job.
+   *
+   * @return 0 if successful, 1 if API request failed
+   * @throws IOException if API request fails
+   */
+  private Integer fetchDurationStats() throws IOException {
+    PipelineLogger.info("Fetching duration statistics for pipeline: " + pipelineName);
+    String podName = K8sService.startBackendEnvironment(pipelineName);
+    String response;
+    try {
+      response = backendClient.fetchDurationStats(pipelineName, stageName, jobName);
+    } finally {
+      K8sService.stopPortForward();
+      K8sService.stopPod(podName);
+    }
+
+    if (format.equalsIgnoreCase("text")) {
+      System.out.println(formatStatsTable(response));
+    } else {
+      System.out.println(formatResponse(response));
+    }
     return 0;
   }
 
+  /**
+   * Format duration statistics as a table with one row per pipeline, stage or job.
+   *
+   * @param jsonResponse The JSON array of statistics
+   * @return The formatted table
+   */
+  private String formatStatsTable(String jsonResponse) throws IOException {
+    JsonNode rootNode = objectMapper.readTree(jsonResponse);
+    if (!rootNode.isArray() || rootNode.isEmpty()) {
+      return "No duration statistics available for pipeline: " + pipelineName;
+    }
+
+    String rowFormat = "%-40s %8s %10s %10s %10s %10s %10s%n";
+    StringBuilder sb = new StringBuilder();
+    sb.append(String.format(rowFormat, "Name", "Runs", "Mean", "p50", "p95", "p99", "Max"));
+    for (JsonNode node : rootNode) {
+      String name = switch (node.path("scope").asText()) {
+        case "pipeline" -> pipelineName;
+        case "stage" -> node.path("stageName").asText();
+        default -> node.path("stageName").asText() + "/" + node.path("jobName").asText();
+      };
+      sb.append(String.format(rowFormat, name, node.path("count").asLong(),
+              formatMillis(node.path("meanMillis").asLong()), formatMillis(node.path("p50Millis").asLong()),
+              formatMillis(node.path("p95Millis").asLong()), formatMillis(node.path("p99Millis").asLong()),
+              formatMillis(node.path("maxMillis").asLong())));
+    }
+    return sb.toString().stripTrailing();
+  }
+
+  /**
+   * Format a duration in milliseconds as seconds, e.g. {@code 12.3s}.
+   *
+   * @param millis The duration in milliseconds
+   * @return The formatted duration
+   */
+  private String formatMillis(long millis) {
+    return String.format("%.1fs", millis / 1000.0);
+  }
+
   /**
    * Format the response based on the format option.
    *
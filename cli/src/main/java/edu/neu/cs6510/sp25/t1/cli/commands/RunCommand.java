@@ -31,6 +31,7 @@ public class RunCommand implements Callable<Integer> {
 
   private static final OkHttpClient HTTP_CLIENT = new OkHttpClient();
   private static final String BACKEND_URL = "http://localhost:8080/api/pipeline/run"; // Unified URL
+  private static final String BACKEND_RUN_ALL_URL = "http://localhost:8080/api/pipeline/run-all";
 
   @CommandLine.ParentCommand
   private CliApp parent; // Inherits global CLI options
@@ -50,6 +51,9 @@ public class RunCommand implements Callable<Integer> {
   @CommandLine.Option(names = { "--pipeline", "-p" }, description = "Specify the pipeline name to run.")
   private String pipeline;
 
+  @CommandLine.Option(names = { "--all" }, description = "Run every pipeline under .pipelines/ from a single fetch of the repository.")
+  private boolean runAll;
+
   @CommandLine.Option(names = { "--local" }, description = "Run the pipeline locally.")
   private boolean localRun;
   
@@ -120,10 +124,11 @@ public class RunCommand implements Callable<Integer> {
           "{\"repo\": \"%s\", \"branch\": \"%s\", \"commit\": \"%s\", \"pipeline\": \"%s\", \"filePath\": \"%s\", \"local\": %s}",
           (repo != null ? repo : ""), branch, commit, (pipeline != null ? pipeline : ""), repo, localRun);
 
-      PipelineLogger.debug("Sending request to backend: " + BACKEND_URL);
+      String url = backendUrl();
+      PipelineLogger.debug("Sending request to backend: " + url);
       PipelineLogger.debug("Payload: " + jsonPayload);
 
-      Request request = createPostRequest(BACKEND_URL, jsonPayload);
+      Request request = createPostRequest(url, jsonPayload);
       Response response = HTTP_CLIENT.newCall(request).execute();
 
       if (!response.isSuccessful()) {
@@ -150,6 +155,15 @@ public class RunCommand implements Callable<Integer> {
 
   }
 
+  /**
+   * Returns the trigger endpoint: every pipeline of the repository with `--all`, otherwise a single one.
+   *
+   * @return The trigger URL.
+   */
+  private String backendUrl() {
+    return runAll ? BACKEND_RUN_ALL_URL : BACKEND_URL;
+  }
+
   /**
    * Creates a POST request with the given payload.
    *
@@ -2,13 +2,19 @@ package edu.neu.cs6510.sp25.t1.cli.commands;
 
 import java.io.IOException;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import edu.neu.cs6510.sp25.t1.cli.CliApp;
 import edu.neu.cs6510.sp25.t1.cli.service.K8sService;
+import edu.neu.cs6510.sp25.t1.common.enums.ExecutionStatus;
 import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okio.BufferedSource;
 import picocli.CommandLine;
 
 
@@ -17,6 +23,10 @@ import picocli.CommandLine;
  * CLI command that fetches the current status of a CI/CD pipeline by querying the backend service.
  * This command automatically starts a Kubernetes backend pod for the specified pipeline,
  * performs an HTTP GET request to the backend, and prints the pipeline status in the terminal.
+ * With --follow, it subscribes to the backend's status event stream instead and prints every
+ * job, stage and pipeline transition as it happens, until the pipeline finishes.
+ * Only one execution is followed: the one given with --execution, such as the ID printed by `run`,
+ * otherwise the execution in the snapshot while it runs, or else the first execution to report a transition.
  *
  * Used with the `status` subcommand in the CLI.
  */
@@ -37,6 +47,7 @@ private final OkHttpClient httpClient;
     this.httpClient = client;
   }
   private static final String BASE_URL = "http://localhost:8080/api/pipeline/";
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
   @CommandLine.ParentCommand
   private CliApp parent;
@@ -44,6 +55,15 @@ private final OkHttpClient httpClient;
   @CommandLine.Option(names = {"--pipeline", "-p"}, required = true, description = "Specify the pipeline name.")
   private String pipelineName;
 
+  @CommandLine.Option(names = {"--follow", "-f"}, description = "Stream status changes until the pipeline finishes; exits with 1 if it does not succeed.")
+  private boolean follow;
+
+  @CommandLine.Option(names = {"--execution", "-e"}, description = "With --follow, the pipeline execution ID to follow; defaults to the running or next execution.")
+  private String executionId;
+
+  /** The pipeline execution being followed, or null until one is known. */
+  private String followedExecution;
+
   @Override
   public Integer call() {
     if (pipelineName == null || pipelineName.trim().isEmpty()) {
@@ -52,6 +72,9 @@ private final OkHttpClient httpClient;
     }
 
     String podName = K8sService.startBackendEnvironment(pipelineName);
+    if (follow) {
+      return followStatus(podName);
+    }
 
     String url = BASE_URL + pipelineName;
     PipelineLogger.info("Fetching pipeline status for: " + pipelineName);
@@ -87,6 +110,130 @@ private final OkHttpClient httpClient;
       K8sService.stopPod(podName);
       return 1;
     }
+  }
+
+  /**
+   * Follows the status event stream of the pipeline until the pipeline reaches a final status.
+   *
+   * @param podName the backend pod to stop once done
+   * @return 0 if the pipeline succeeded, 1 otherwise
+   */
+  private Integer followStatus(String podName) {
+    String url = BASE_URL + pipelineName + "/events";
+    PipelineLogger.info("Following pipeline status for: " + pipelineName);
+    followedExecution = executionId == null || executionId.isBlank() ? null : executionId.trim();
+    PipelineLogger.debug("GET " + url);
+
+    Request request = new Request.Builder()
+        .url(url)
+        .get()
+        .addHeader("Accept", "text/event-stream")
+        .build();
+
+    try (Response response = streamingClient().newCall(request).execute()) {
+      if (!response.isSuccessful() || response.body() == null) {
+        PipelineLogger.error("Failed to follow pipeline status.");
+        PipelineLogger.error("HTTP Status: " + response.code());
+        return 1;
+      }
+
+      BufferedSource source = response.body().source();
+      String eventName = null;
+      StringBuilder data = new StringBuilder();
+      String line;
+      while ((line = source.readUtf8Line()) != null) {
+        if (line.isEmpty()) {
+          // A blank line terminates an event
+          ExecutionStatus finalStatus = handleEvent(eventName, data.toString());
+          if (finalStatus != null) {
+            PipelineLogger.info("Pipeline finished with status: " + finalStatus);
+            return finalStatus == ExecutionStatus.SUCCESS ? 0 : 1;
+          }
+          eventName = null;
+          data.setLength(0);
+        } else if (line.startsWith("event:")) {
+          eventName = line.substring("event:".length()).trim();
+        } else if (line.startsWith("data:")) {
+          data.append(line.substring("data:".length()).trim());
+        }
+      }
+
+      PipelineLogger.warn("Status stream closed before the pipeline finished.");
+      return 1;
+    } catch (IOException e) {
+      PipelineLogger.error("Error while contacting backend: " + e.getMessage());
+      return 1;
+    } finally {
+      K8sService.stopPortForward();
+      K8sService.stopPod(podName);
+    }
+  }
+
+  /**
+   * Prints one status stream event of the followed execution.
+   * A finished snapshot only ends the stream if it belongs to the execution given with --execution, since
+   * the snapshot may still show the previous run while a new one is being set up.
+   *
+   * @param eventName the event name ("snapshot" or "status")
+   * @param data      the event payload as JSON
+   * @return the pipeline status if the event shows the followed execution has finished, otherwise null
+   * @throws IOException if the payload is not valid JSON
+   */
+  private ExecutionStatus handleEvent(String eventName, String data) throws IOException {
+    if (data.isEmpty()) {
+      return null;
+    }
+    JsonNode event = OBJECT_MAPPER.readTree(data);
+
+    if ("snapshot".equals(eventName)) {
+      PipelineLogger.info("Pipeline Status:");
+      PipelineLogger.info(data);
+      String snapshotExecution = event.path("pipelineExecution").asText();
+      ExecutionStatus snapshotStatus = finalStatus(event.path("pipelineStatus").asText());
+      if (followedExecution == null) {
+        if (snapshotStatus == null && !snapshotExecution.isEmpty()) {
+          followedExecution = snapshotExecution;
+        }
+        return null;
+      }
+      return followedExecution.equals(snapshotExecution) ? snapshotStatus : null;
+    }
+
+    String eventExecution = event.path("pipelineExecutionId").asText();
+    if (followedExecution == null && !eventExecution.isEmpty()) {
+      followedExecution = eventExecution;
+    } else if (followedExecution != null && !followedExecution.equals(eventExecution)) {
+      return null;
+    }
+
+    String scope = event.path("scope").asText();
+    String status = event.path("status").asText();
+    PipelineLogger.info("[" + scope + "] " + event.path("name").asText() + " -> " + status);
+    return "PIPELINE".equals(scope) ? finalStatus(status) : null;
+  }
+
+  /**
+   * Returns the given status if it is final.
+   *
+   * @param status the status name
+   * @return the status if it is SUCCESS, FAILED or CANCELED, otherwise null
+   */
+  private static ExecutionStatus finalStatus(String status) {
+    return switch (status) {
+      case "SUCCESS" -> ExecutionStatus.SUCCESS;
+      case "FAILED" -> ExecutionStatus.FAILED;
+      case "CANCELED" -> ExecutionStatus.CANCELED;
+      default -> null;
+    };
+  }
 
+  /**
+   * Returns a client for the status event stream, which stays open for as long as the
+   * pipeline runs and therefore must not time out between events.
+   *
+   * @return the streaming HTTP client
+   */
+  OkHttpClient streamingClient() {
+    return httpClient.newBuilder().readTimeout(0, TimeUnit.MILLISECONDS).build();
   }
 }
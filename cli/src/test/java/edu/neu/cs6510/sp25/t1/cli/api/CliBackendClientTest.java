@@ -8,11 +8,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Field;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.databind.JsonNode;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -151,4 +156,100 @@ class CliBackendClientTest {
         assertTrue(exception.getMessage().contains("API request failed with status code: 404"));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testFetchPipelineHistoryPageWithCursorAndSummary() throws IOException, InterruptedException {
+        // Act
+        clientUnderTest.fetchPipelineHistoryPage("test pipeline", "abc=", 50, true);
+
+        // Assert
+        ArgumentCaptor<HttpRequest> requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(mockHttpClient).send(requestCaptor.capture(), any(HttpResponse.BodyHandler.class));
+
+        String expectedUrl = BASE_URL + "/api/report/pipeline/history/test+pipeline?limit=50&cursor=abc%3D&summary=true";
+        assertEquals(expectedUrl, requestCaptor.getValue().uri().toString());
+    }
+
+    @Test
+    void testIterateStageAndJobHistoryRequestsFilteredPages() throws IOException, InterruptedException {
+        // Arrange
+        when(mockResponse.body()).thenReturn("{\"items\":[{\"name\":\"compile\"}],\"nextCursor\":null}");
+
+        // Act
+        Iterator<JsonNode> jobs = clientUnderTest.iteratePipelineHistory("test-pipeline", "build", "unit tests", 5, false)
+                .iterator();
+
+        // Assert
+        assertEquals("compile", jobs.next().path("name").asText());
+        assertFalse(jobs.hasNext());
+
+        ArgumentCaptor<HttpRequest> requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(mockHttpClient).send(requestCaptor.capture(), any(HttpResponse.BodyHandler.class));
+        assertEquals(BASE_URL + "/api/report/pipeline/history/test-pipeline?limit=5&stage=build&job=unit+tests",
+                requestCaptor.getValue().uri().toString());
+    }
+
+    @Test
+    void testIteratePipelineHistoryFetchesPagesLazily() throws IOException, InterruptedException {
+        // Arrange
+        when(mockResponse.body()).thenReturn(
+                "{\"items\":[{\"runNumber\":3},{\"runNumber\":2}],\"nextCursor\":\"c1\"}",
+                "{\"items\":[{\"runNumber\":1}],\"nextCursor\":null}");
+
+        // Act
+        Iterator<JsonNode> runs = clientUnderTest.iteratePipelineHistory("test-pipeline", 2, false).iterator();
+
+        // Assert
+        verify(mockHttpClient, never()).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        assertEquals(3, runs.next().path("runNumber").asInt());
+        assertEquals(2, runs.next().path("runNumber").asInt());
+        verify(mockHttpClient, times(1)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+
+        assertEquals(1, runs.next().path("runNumber").asInt());
+        assertFalse(runs.hasNext());
+
+        ArgumentCaptor<HttpRequest> requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(mockHttpClient, times(2)).send(requestCaptor.capture(), any(HttpResponse.BodyHandler.class));
+        assertEquals(BASE_URL + "/api/report/pipeline/history/test-pipeline?limit=2&cursor=c1",
+                requestCaptor.getAllValues().get(1).uri().toString());
+        assertThrows(NoSuchElementException.class, runs::next);
+    }
+
+    @Test
+    void testIteratePipelineHistoryWrapsRequestFailure() {
+        // Arrange
+        when(mockResponse.statusCode()).thenReturn(500);
+
+        // Act & Assert
+        Iterator<JsonNode> runs = clientUnderTest.iteratePipelineHistory("test-pipeline", 20, false).iterator();
+        assertThrows(UncheckedIOException.class, runs::hasNext);
+    }
+
+    @Test
+    void testFetchDurationStatsWithJobFilter() throws IOException, InterruptedException {
+        // Act
+        String result = clientUnderTest.fetchDurationStats("test-pipeline", null, "unit tests");
+
+        // Assert
+        assertEquals("{\"status\":\"success\"}", result);
+
+        ArgumentCaptor<HttpRequest> requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(mockHttpClient).send(requestCaptor.capture(), any(HttpResponse.BodyHandler.class));
+        assertEquals(BASE_URL + "/api/report/pipeline/test-pipeline/stats?job=unit+tests",
+                requestCaptor.getValue().uri().toString());
+    }
+
+    @Test
+    void testFetchLogsFromOffsetAndTail() throws IOException, InterruptedException {
+        // Act
+        clientUnderTest.fetchLogs("job-1", 120, 1000, null);
+        clientUnderTest.fetchLogs("job-1", 0, null, 100);
+
+        // Assert
+        ArgumentCaptor<HttpRequest> requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(mockHttpClient, times(2)).send(requestCaptor.capture(), any(HttpResponse.BodyHandler.class));
+        assertEquals(BASE_URL + "/api/logs/job-1?from=120&limit=1000",
+                requestCaptor.getAllValues().get(0).uri().toString());
+        assertEquals(BASE_URL + "/api/logs/job-1?tail=100",
+                requestCaptor.getAllValues().get(1).uri().toString());
+    }
+}
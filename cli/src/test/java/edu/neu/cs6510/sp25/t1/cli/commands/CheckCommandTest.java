@@ -8,13 +8,18 @@ import org.junit.jupiter.api.io.TempDir;
 import picocli.CommandLine;
 import org.mockito.MockedStatic;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class CheckCommandTest {
@@ -96,4 +101,103 @@ class CheckCommandTest {
             assertEquals(1, exitCode);
         }
     }
+
+    private static String pipelineYaml(String name) {
+        return "name: " + name + "\n"
+                + "stages:\n"
+                + "  - name: build\n"
+                + "    jobs:\n"
+                + "      - name: compile\n"
+                + "        image: gradle:jdk17\n"
+                + "        script: ./gradlew build\n";
+    }
+
+    private int runCheckAll(ByteArrayOutputStream out, ByteArrayOutputStream err, String... extraArgs) {
+        String originalUserDir = System.getProperty("user.dir");
+        PrintStream originalOut = System.out;
+        PrintStream originalErr = System.err;
+        System.setProperty("user.dir", tempDir.toString());
+        System.setOut(new PrintStream(out));
+        System.setErr(new PrintStream(err));
+        try (MockedStatic<GitCloneUtil> gitMock = mockStatic(GitCloneUtil.class)) {
+            gitMock.when(() -> GitCloneUtil.isInsideGitRepo(any(File.class))).thenReturn(true);
+
+            String[] args = new String[extraArgs.length + 1];
+            args[0] = "--all";
+            System.arraycopy(extraArgs, 0, args, 1, extraArgs.length);
+            return new CommandLine(new CheckCommand()).execute(args);
+        } finally {
+            System.setProperty("user.dir", originalUserDir);
+            System.setOut(originalOut);
+            System.setErr(originalErr);
+        }
+    }
+
+    @Test
+    void testCheckAllValid() throws Exception {
+        Path pipelinesDir = Files.createDirectory(tempDir.resolve(".pipelines"));
+        Files.writeString(pipelinesDir.resolve("build.yaml"), pipelineYaml("build"));
+        Files.writeString(pipelinesDir.resolve("deploy.yml"), pipelineYaml("deploy"));
+        Files.writeString(pipelinesDir.resolve("notes.txt"), "not a pipeline");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = runCheckAll(out, err);
+
+        assertEquals(0, exitCode);
+        assertTrue(out.toString().contains("Checking 2 pipeline configurations"));
+        assertTrue(out.toString().contains("All 2 pipeline configurations are valid!"));
+        assertEquals("", err.toString());
+    }
+
+    @Test
+    void testCheckAllReportsEveryInvalidFileInOrder() throws Exception {
+        Path pipelinesDir = Files.createDirectory(tempDir.resolve(".pipelines"));
+        for (int i = 0; i < 12; i++) {
+            String content = i % 4 == 0 ? "name: broken-" + i + "\n" : pipelineYaml("pipeline-" + i);
+            Files.writeString(pipelinesDir.resolve(String.format("p%02d.yaml", i)), content);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = runCheckAll(out, err, "--parallelism", "4");
+
+        assertEquals(1, exitCode);
+        String errors = err.toString();
+        int p00 = errors.indexOf("[ERROR] p00.yaml");
+        int p04 = errors.indexOf("[ERROR] p04.yaml");
+        int p08 = errors.indexOf("[ERROR] p08.yaml");
+        assertTrue(p00 >= 0 && p00 < p04 && p04 < p08, errors);
+        assertFalse(errors.contains("p01.yaml"));
+        assertTrue(errors.contains("3 of 12 pipeline configurations are invalid."));
+        assertTrue(out.toString().indexOf("[OK] p01.yaml") < out.toString().indexOf("[OK] p11.yaml"));
+    }
+
+    @Test
+    void testCheckAllDetectsDuplicatePipelineNames() throws Exception {
+        Path pipelinesDir = Files.createDirectory(tempDir.resolve(".pipelines"));
+        Files.writeString(pipelinesDir.resolve("a.yaml"), pipelineYaml("shared"));
+        Files.writeString(pipelinesDir.resolve("b.yaml"), pipelineYaml("shared"));
+        Files.writeString(pipelinesDir.resolve("c.yaml"), pipelineYaml("unique"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = runCheckAll(out, err);
+
+        assertEquals(1, exitCode);
+        assertTrue(err.toString().contains(
+                "[ERROR] b.yaml: Duplicate pipeline name 'shared', already declared in a.yaml"), err.toString());
+        assertTrue(out.toString().contains("[OK] a.yaml"));
+        assertTrue(out.toString().contains("[OK] c.yaml"));
+    }
+
+    @Test
+    void testCheckAllMissingDirectory() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = runCheckAll(out, err);
+
+        assertEquals(1, exitCode);
+        assertTrue(err.toString().contains("Pipeline directory not found"));
+    }
 }
@@ -251,4 +251,45 @@ class DryRunCommandTest {
         assertTrue(output.contains("- echo B"));
     }
 
+    @Test
+    void testJobsOrderedAfterDependenciesDeclaredLater() throws Exception {
+        runWithYaml(
+                "stages:\n" +
+                        "  - build\n" +
+                        "jobs:\n" +
+                        "  - name: package-job\n" +
+                        "    stage: build\n" +
+                        "    script: echo package\n" +
+                        "    dependencies: [\"compile-job\"]\n" +
+                        "  - name: lint-job\n" +
+                        "    stage: build\n" +
+                        "    script: echo lint\n" +
+                        "  - name: compile-job\n" +
+                        "    stage: build\n" +
+                        "    script: echo compile\n"
+        );
+
+        String output = outContent.toString();
+        assertTrue(output.indexOf("lint-job:") < output.indexOf("compile-job:"));
+        assertTrue(output.indexOf("compile-job:") < output.indexOf("package-job:"));
+    }
+
+    @Test
+    void testLongDependencyChainIsOrdered() throws Exception {
+        StringBuilder yaml = new StringBuilder("stages:\n  - build\njobs:\n");
+        for (int i = 9_999; i >= 0; i--) {
+            yaml.append("  - name: job-").append(i).append("\n")
+                    .append("    stage: build\n")
+                    .append("    script: echo ").append(i).append("\n");
+            if (i > 0) {
+                yaml.append("    dependencies: [job-").append(i - 1).append("]\n");
+            }
+        }
+
+        runWithYaml(yaml.toString());
+
+        String output = outContent.toString();
+        assertTrue(output.indexOf("  job-0:") < output.indexOf("  job-1:"));
+        assertTrue(output.indexOf("  job-9998:") < output.indexOf("  job-9999:"));
+    }
 }
@@ -0,0 +1,134 @@
+package edu.neu.cs6510.sp25.t1.cli.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import edu.neu.cs6510.sp25.t1.cli.api.CliBackendClient;
+import edu.neu.cs6510.sp25.t1.cli.service.K8sService;
+
+/**
+ * Unit tests for LogsCommand class
+ */
+public class LogsCommandTest {
+
+    private final String jobId = UUID.randomUUID().toString();
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream errContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+    private final PrintStream originalErr = System.err;
+
+    private CliBackendClient backendClient;
+    private LogsCommand logsCommand;
+    private MockedStatic<K8sService> k8s;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        System.setOut(new PrintStream(outContent));
+        System.setErr(new PrintStream(errContent));
+        k8s = mockStatic(K8sService.class);
+        k8s.when(() -> K8sService.startBackendEnvironment(any())).thenReturn("fake-pod");
+
+        backendClient = mock(CliBackendClient.class);
+        logsCommand = new LogsCommand();
+        setPrivateField("backendClient", backendClient);
+        setPrivateField("jobExecutionId", jobId);
+        setPrivateField("pipelineName", "test-pipeline");
+        setPrivateField("pollIntervalMs", 0L);
+    }
+
+    @AfterEach
+    public void restore() {
+        k8s.close();
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+    }
+
+    private void setPrivateField(String fieldName, Object value) throws Exception {
+        Field field = LogsCommand.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(logsCommand, value);
+    }
+
+    private static String range(long from, long next, String text, boolean complete) {
+        return "{\"from\":" + from + ",\"next\":" + next + ",\"text\":\"" + text + "\",\"complete\":" + complete + "}";
+    }
+
+    @Test
+    public void testPrintsWholeStoredLogPageByPage() throws IOException {
+        when(backendClient.fetchLogs(jobId, 0, 1000, null)).thenReturn(range(0, 4, "a\\nb\\n", false));
+        when(backendClient.fetchLogs(jobId, 4, 1000, null)).thenReturn(range(4, 6, "c\\n", false));
+        when(backendClient.fetchLogs(jobId, 6, 1000, null)).thenReturn(range(6, 6, "", false));
+
+        Integer result = logsCommand.call();
+
+        assertEquals(0, result);
+        assertEquals("a\nb\nc\n", outContent.toString());
+        k8s.verify(() -> K8sService.stopPod("fake-pod"));
+    }
+
+    @Test
+    public void testTailPrintsLastLinesOnce() throws Exception {
+        setPrivateField("tail", 2);
+        when(backendClient.fetchLogs(jobId, 0, null, 2)).thenReturn(range(40, 46, "y\\nz\\n", false));
+
+        Integer result = logsCommand.call();
+
+        assertEquals(0, result);
+        assertEquals("y\nz\n", outContent.toString());
+        verify(backendClient, never()).fetchLogs(jobId, 46, 1000, null);
+    }
+
+    @Test
+    public void testFollowPollsUntilLogIsComplete() throws Exception {
+        setPrivateField("follow", true);
+        setPrivateField("tail", 1);
+        when(backendClient.fetchLogs(jobId, 0, null, 1)).thenReturn(range(10, 15, "step\\n", false));
+        when(backendClient.fetchLogs(jobId, 15, 1000, null))
+                .thenReturn(range(15, 15, "", false))
+                .thenReturn(range(15, 20, "done\\n", true));
+
+        Integer result = logsCommand.call();
+
+        assertEquals(0, result);
+        assertEquals("step\ndone\n", outContent.toString());
+    }
+
+    @Test
+    public void testRejectsInvalidJobExecutionId() throws Exception {
+        setPrivateField("jobExecutionId", "not-a-uuid");
+
+        Integer result = logsCommand.call();
+
+        assertEquals(1, result);
+        assertTrue(errContent.toString().contains("invalid job execution ID"));
+        verifyNoInteractions(backendClient);
+    }
+
+    @Test
+    public void testApiFailure() throws Exception {
+        when(backendClient.fetchLogs(jobId, 0, 1000, null)).thenThrow(new IOException("connection refused"));
+
+        Integer result = logsCommand.call();
+
+        assertEquals(1, result);
+        k8s.verify(K8sService::stopPortForward);
+    }
+}
@@ -7,8 +7,11 @@ import static org.mockito.Mockito.*;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -93,23 +96,89 @@ public class ReportCommandTest {
         assertTrue(errContent.toString().contains("--stage parameter is required when using --job"));
     }
 
+    @Test
+    public void testFetchDurationStats_TextTable() throws Exception {
+        // Arrange
+        setPrivateField("pipelineName", "test-pipeline");
+        setPrivateField("format", "text");
+        setPrivateField("stats", true);
+        setPrivateField("jobName", "compile");
+
+        String response = "[{\"scope\":\"job\",\"stageName\":\"build\",\"jobName\":\"compile\",\"count\":12,"
+                + "\"meanMillis\":61000,\"minMillis\":30000,\"p50Millis\":60000,\"p95Millis\":90500,"
+                + "\"p99Millis\":99000,\"maxMillis\":100000}]";
+        when(backendClient.fetchDurationStats("test-pipeline", null, "compile")).thenReturn(response);
+
+        // Act
+        Integer result = reportCommand.call();
+
+        // Assert
+        assertEquals(0, result);
+        verify(backendClient, never()).fetchPipelineReport(anyString(), any(), any(), any());
+        String output = outContent.toString();
+        assertTrue(output.contains("p95"));
+        assertTrue(output.contains("build/compile"));
+        assertTrue(output.contains("90.5s"));
+        assertFalse(errContent.toString().contains("--stage parameter is required"));
+    }
+
+    @Test
+    public void testFetchDurationStats_Empty() throws Exception {
+        // Arrange
+        setPrivateField("pipelineName", "test-pipeline");
+        setPrivateField("format", "text");
+        setPrivateField("stats", true);
+        when(backendClient.fetchDurationStats("test-pipeline", null, null)).thenReturn("[]");
+
+        // Act
+        Integer result = reportCommand.call();
+
+        // Assert
+        assertEquals(0, result);
+        assertTrue(outContent.toString().contains("No duration statistics available"));
+    }
+
     @Test
     public void testFetchPipelineHistory() throws Exception {
         // Arrange
         setPrivateField("pipelineName", "test-pipeline");
         setPrivateField("format", "text");
 
-        String mockApiResponse = createMockPipelineHistoryResponse();
-        when(backendClient.fetchPipelineReport(eq("test-pipeline"), eq(-1), eq(null), eq(null)))
-                .thenReturn(mockApiResponse);
+        when(backendClient.iteratePipelineHistory("test-pipeline", 20, false))
+                .thenReturn(createMockPipelineHistoryRuns());
 
         // Act
         Integer result = reportCommand.call();
 
         // Assert
         assertEquals(0, result);
-        verify(backendClient).fetchPipelineReport("test-pipeline", -1, null, null);
+        verify(backendClient).iteratePipelineHistory("test-pipeline", 20, false);
+        verify(backendClient, never()).fetchPipelineReport(anyString(), any(), any(), any());
         assertTrue(outContent.toString().contains("pipeline"));
+        assertEquals(3, outContent.toString().split("----------------------------------------").length - 1);
+    }
+
+    @Test
+    public void testFetchPipelineHistory_JsonStreamsSingleArray() throws Exception {
+        // Arrange
+        setPrivateField("pipelineName", "test-pipeline");
+        setPrivateField("format", "json");
+        setPrivateField("summary", true);
+        setPrivateField("pageSize", 2);
+
+        when(backendClient.iteratePipelineHistory("test-pipeline", 2, true))
+                .thenReturn(createMockPipelineHistoryRuns());
+
+        // Act
+        Integer result = reportCommand.call();
+
+        // Assert
+        assertEquals(0, result);
+        String output = outContent.toString();
+        JsonNode printed = new ObjectMapper().readTree(
+                output.substring(output.indexOf("[\n{"), output.lastIndexOf("]") + 1));
+        assertTrue(printed.isArray());
+        assertEquals(3, printed.size());
     }
 
     @Test
@@ -183,17 +252,18 @@ public class ReportCommandTest {
         setPrivateField("stageName", "build");
         setPrivateField("format", "text");
 
-        String mockApiResponse = createMockStageHistoryResponse();
-        when(backendClient.fetchPipelineReport(eq("test-pipeline"), isNull(), eq("build"), eq(null)))
-                .thenReturn(mockApiResponse);
+        when(backendClient.iteratePipelineHistory("test-pipeline", "build", null, 20, false))
+                .thenReturn(createMockStageHistoryReports());
 
         // Act
         Integer result = reportCommand.call();
 
         // Assert
         assertEquals(0, result);
-        verify(backendClient).fetchPipelineReport("test-pipeline", null, "build", null);
+        verify(backendClient).iteratePipelineHistory("test-pipeline", "build", null, 20, false);
+        verify(backendClient, never()).fetchPipelineReport(anyString(), any(), any(), any());
         assertTrue(outContent.toString().contains("build"));
+        assertEquals(3, outContent.toString().split("----------------------------------------").length - 1);
     }
 
     @Test
@@ -254,8 +324,10 @@ public class ReportCommandTest {
     public void testApiRequestFailure() throws Exception {
         // Arrange
         setPrivateField("pipelineName", "test-pipeline");
-        when(backendClient.fetchPipelineReport(anyString(), any(), any(), any()))
-                .thenThrow(new IOException("Network error"));
+        when(backendClient.iteratePipelineHistory(anyString(), anyInt(), anyBoolean()))
+                .thenReturn(() -> {
+                    throw new UncheckedIOException(new IOException("Network error"));
+                });
 
         // Act
         Integer result = reportCommand.call();
@@ -266,16 +338,13 @@ public class ReportCommandTest {
 
 
     // Helper methods to create mock responses
-    private String createMockPipelineHistoryResponse() throws IOException {
+    private List<JsonNode> createMockPipelineHistoryRuns() {
         ObjectMapper mapper = new ObjectMapper();
-        ArrayNode arrayNode = mapper.createArrayNode();
-
+        List<JsonNode> runs = new ArrayList<>();
         for (int i = 1; i <= 3; i++) {
-            ObjectNode pipelineNode = createBasicPipelineNode(mapper, i);
-            arrayNode.add(pipelineNode);
+            runs.add(createBasicPipelineNode(mapper, i));
         }
-
-        return mapper.writeValueAsString(arrayNode);
+        return runs;
     }
 
     private String createMockPipelineRunResponse() throws IOException {
@@ -316,16 +385,15 @@ public class ReportCommandTest {
         return mapper.writeValueAsString(jobNode);
     }
 
-    private String createMockStageHistoryResponse() throws IOException {
+    private List<JsonNode> createMockStageHistoryReports() {
         ObjectMapper mapper = new ObjectMapper();
-        ArrayNode arrayNode = mapper.createArrayNode();
+        List<JsonNode> stages = new ArrayList<>();
 
         for (int i = 1; i <= 3; i++) {
-            ObjectNode stageNode = createStageNode(mapper, "build", i % 2 == 0 ? "success" : "failed");
-            arrayNode.add(stageNode);
+            stages.add(createStageNode(mapper, "build", i % 2 == 0 ? "success" : "failed"));
         }
 
-        return mapper.writeValueAsString(arrayNode);
+        return stages;
     }
 
     private ObjectNode createBasicPipelineNode(ObjectMapper mapper, int runNumber) {
@@ -412,8 +480,8 @@ public class ReportCommandTest {
         setPrivateField("jobName", "compile");
         setPrivateField("format", "text"); // ✅ add this line
 
-        when(backendClient.fetchPipelineReport(eq("test-pipeline"), isNull(), eq("build"), eq("compile")))
-                .thenReturn("{\"status\": \"success\"}");
+        when(backendClient.iteratePipelineHistory("test-pipeline", "build", "compile", 20, false))
+                .thenReturn(List.of());
 
         Method method = ReportCommand.class.getDeclaredMethod("fetchStageHistory");
         method.setAccessible(true);
@@ -132,6 +132,18 @@ public class RunCommandTest {
         assertEquals("repo-name", repoName2);
     }
 
+    @Test
+    public void testBackendUrl_allSelectsRunAllEndpoint() throws Exception {
+        Method method = RunCommand.class.getDeclaredMethod("backendUrl");
+        method.setAccessible(true);
+        assertEquals("http://localhost:8080/api/pipeline/run", method.invoke(testableRunCommand));
+
+        Field runAll = RunCommand.class.getDeclaredField("runAll");
+        runAll.setAccessible(true);
+        runAll.set(testableRunCommand, true);
+        assertEquals("http://localhost:8080/api/pipeline/run-all", method.invoke(testableRunCommand));
+    }
+
     @Test
     public void testExtractRepoName_InvalidUrl() throws Exception {
         // Use reflection to access private method
@@ -271,6 +271,143 @@ public class StatusCommandTest {
 
 
     // Helpers
+    @Test
+    public void testFollowStopsWhenPipelineSucceeds() throws Exception {
+        String stream = "event:snapshot\n"
+                + "data:{\"pipeline\":\"test-pipeline\",\"pipelineStatus\":\"RUNNING\"}\n\n"
+                + "event:status\n"
+                + "data:{\"scope\":\"JOB\",\"name\":\"compile\",\"status\":\"SUCCESS\"}\n\n"
+                + "event:status\n"
+                + "data:{\"scope\":\"PIPELINE\",\"name\":\"test-pipeline\",\"status\":\"SUCCESS\"}\n\n"
+                + "event:status\n"
+                + "data:{\"scope\":\"JOB\",\"name\":\"never-read\",\"status\":\"RUNNING\"}\n\n";
+
+        runFollowWithStream(stream, 0, logger -> {
+            logger.verify(() -> PipelineLogger.info(contains("Following pipeline status")));
+            logger.verify(() -> PipelineLogger.info("[JOB] compile -> SUCCESS"));
+            logger.verify(() -> PipelineLogger.info(contains("finished with status: SUCCESS")));
+            logger.verify(() -> PipelineLogger.info(contains("never-read")), never());
+        });
+    }
+
+    @Test
+    public void testFollowReturnsErrorWhenPipelineFails() throws Exception {
+        String stream = "event:status\n"
+                + "data:{\"scope\":\"STAGE\",\"name\":\"build\",\"status\":\"FAILED\"}\n\n"
+                + "event:status\n"
+                + "data:{\"scope\":\"PIPELINE\",\"name\":\"test-pipeline\",\"status\":\"FAILED\"}\n\n";
+
+        runFollowWithStream(stream, 1, logger ->
+                logger.verify(() -> PipelineLogger.info("[STAGE] build -> FAILED")));
+    }
+
+    @Test
+    public void testFollowIgnoresFinishedSnapshotOfEarlierRun() throws Exception {
+        // The snapshot still shows the previous run while the new one is being set up
+        String stream = "event:snapshot\n"
+                + "data:{\"pipeline\":\"test-pipeline\",\"pipelineExecution\":\"previous\","
+                + "\"pipelineStatus\":\"SUCCESS\"}\n\n"
+                + "event:status\n"
+                + "data:{\"scope\":\"JOB\",\"pipelineExecutionId\":\"next\",\"name\":\"compile\","
+                + "\"status\":\"RUNNING\"}\n\n"
+                + "event:status\n"
+                + "data:{\"scope\":\"PIPELINE\",\"pipelineExecutionId\":\"next\",\"name\":\"test-pipeline\","
+                + "\"status\":\"FAILED\"}\n\n";
+
+        runFollowWithStream(stream, 1, logger -> {
+            logger.verify(() -> PipelineLogger.info("Pipeline Status:"));
+            logger.verify(() -> PipelineLogger.info("[JOB] compile -> RUNNING"));
+            logger.verify(() -> PipelineLogger.info(contains("finished with status: FAILED")));
+        });
+    }
+
+    @Test
+    public void testFollowExitsOnFinishedSnapshotOfFollowedExecution() throws Exception {
+        String stream = "event:snapshot\n"
+                + "data:{\"pipeline\":\"test-pipeline\",\"pipelineExecution\":\"run-7\","
+                + "\"pipelineStatus\":\"SUCCESS\"}\n\n";
+
+        runFollowWithStream(stream, "run-7", 0, logger ->
+                logger.verify(() -> PipelineLogger.info(contains("finished with status: SUCCESS"))));
+    }
+
+    @Test
+    public void testFollowIgnoresTransitionsOfOtherExecutions() throws Exception {
+        String stream = "event:snapshot\n"
+                + "data:{\"pipeline\":\"test-pipeline\",\"pipelineExecution\":\"run-7\","
+                + "\"pipelineStatus\":\"RUNNING\"}\n\n"
+                + "event:status\n"
+                + "data:{\"scope\":\"PIPELINE\",\"pipelineExecutionId\":\"run-8\",\"name\":\"test-pipeline\","
+                + "\"status\":\"FAILED\"}\n\n"
+                + "event:status\n"
+                + "data:{\"scope\":\"PIPELINE\",\"pipelineExecutionId\":\"run-7\",\"name\":\"test-pipeline\","
+                + "\"status\":\"SUCCESS\"}\n\n";
+
+        runFollowWithStream(stream, 0, logger -> {
+            logger.verify(() -> PipelineLogger.info("[PIPELINE] test-pipeline -> FAILED"), never());
+            logger.verify(() -> PipelineLogger.info(contains("finished with status: SUCCESS")));
+        });
+    }
+
+    @Test
+    public void testFollowStreamClosedEarly() throws Exception {
+        String stream = "event:status\n"
+                + "data:{\"scope\":\"JOB\",\"name\":\"compile\",\"status\":\"RUNNING\"}\n\n";
+
+        runFollowWithStream(stream, 1, logger ->
+                logger.verify(() -> PipelineLogger.warn(contains("closed before the pipeline finished"))));
+    }
+
+    private void runFollowWithStream(String stream, int expectedCode, Consumer<MockedStatic<PipelineLogger>> verifier) throws Exception {
+        runFollowWithStream(stream, null, expectedCode, verifier);
+    }
+
+    private void runFollowWithStream(String stream, String executionId, int expectedCode,
+            Consumer<MockedStatic<PipelineLogger>> verifier) throws Exception {
+        OkHttpClient mockClient = mock(OkHttpClient.class);
+        Call mockCall = mock(Call.class);
+        Response response = new Response.Builder()
+                .request(new Request.Builder().url("http://localhost:8080/api/pipeline/test-pipeline/events").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create(stream, MediaType.parse("text/event-stream")))
+                .build();
+        when(mockClient.newCall(any())).thenReturn(mockCall);
+        when(mockCall.execute()).thenReturn(response);
+
+        StatusCommand cmd = new StatusCommand(mockClient) {
+            @Override
+            OkHttpClient streamingClient() {
+                return mockClient;
+            }
+        };
+
+        Field pipelineField = StatusCommand.class.getDeclaredField("pipelineName");
+        pipelineField.setAccessible(true);
+        pipelineField.set(cmd, "test-pipeline");
+
+        Field followField = StatusCommand.class.getDeclaredField("follow");
+        followField.setAccessible(true);
+        followField.set(cmd, true);
+
+        Field executionField = StatusCommand.class.getDeclaredField("executionId");
+        executionField.setAccessible(true);
+        executionField.set(cmd, executionId);
+
+        try (
+                MockedStatic<PipelineLogger> logger = mockStatic(PipelineLogger.class);
+                MockedStatic<K8sService> k8s = mockStatic(K8sService.class)
+        ) {
+            k8s.when(() -> K8sService.startBackendEnvironment(any())).thenReturn("fake-pod");
+
+            int result = cmd.call();
+            assertEquals(expectedCode, result);
+            verifier.accept(logger);
+            k8s.verify(() -> K8sService.stopPod("fake-pod"));
+        }
+    }
+
     private Response createMockResponse(int code, String body, boolean hasBody) {
         ResponseBody responseBody = hasBody
                 ? ResponseBody.create(body != null ? body : "", MediaType.parse("application/json"))
@@ -0,0 +1,108 @@
+package edu.neu.cs6510.sp25.t1.common.dto;
+
+/**
+ * Duration statistics of the successful executions of a pipeline, one of its stages or one of its jobs.
+ * {@code scope} is {@code pipeline}, {@code stage} or {@code job}; durations are in milliseconds and
+ * percentiles are approximate, within about 1% of the exact value.
+ */
+public class DurationStatsDTO {
+  private String scope;
+  private String stageName;
+  private String jobName;
+  private long count;
+  private long meanMillis;
+  private long minMillis;
+  private long p50Millis;
+  private long p95Millis;
+  private long p99Millis;
+  private long maxMillis;
+
+  public DurationStatsDTO() {
+  }
+
+  public DurationStatsDTO(String scope, String stageName, String jobName) {
+    this.scope = scope;
+    this.stageName = stageName;
+    this.jobName = jobName;
+  }
+
+  public String getScope() {
+    return scope;
+  }
+
+  public void setScope(String scope) {
+    this.scope = scope;
+  }
+
+  public String getStageName() {
+    return stageName;
+  }
+
+  public void setStageName(String stageName) {
+    this.stageName = stageName;
+  }
+
+  public String getJobName() {
+    return jobName;
+  }
+
+  public void setJobName(String jobName) {
+    this.jobName = jobName;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public void setCount(long count) {
+    this.count = count;
+  }
+
+  public long getMeanMillis() {
+    return meanMillis;
+  }
+
+  public void setMeanMillis(long meanMillis) {
+    this.meanMillis = meanMillis;
+  }
+
+  public long getMinMillis() {
+    return minMillis;
+  }
+
+  public void setMinMillis(long minMillis) {
+    this.minMillis = minMillis;
+  }
+
+  public long getP50Millis() {
+    return p50Millis;
+  }
+
+  public void setP50Millis(long p50Millis) {
+    this.p50Millis = p50Millis;
+  }
+
+  public long getP95Millis() {
+    return p95Millis;
+  }
+
+  public void setP95Millis(long p95Millis) {
+    this.p95Millis = p95Millis;
+  }
+
+  public long getP99Millis() {
+    return p99Millis;
+  }
+
+  public void setP99Millis(long p99Millis) {
+    this.p99Millis = p99Millis;
+  }
+
+  public long getMaxMillis() {
+    return maxMillis;
+  }
+
+  public void setMaxMillis(long maxMillis) {
+    this.maxMillis = maxMillis;
+  }
+}
@@ -0,0 +1,78 @@
+package edu.neu.cs6510.sp25.t1.common.dto;
+
+import java.util.UUID;
+
+/**
+ * A range of a job execution's log.
+ * {@code from} and {@code next} are byte offsets in the log; passing {@code next} as the offset of the
+ * following request continues where this range ended. {@code complete} is true once the job has finished
+ * and the range reaches the end of its log.
+ */
+public class LogRangeDTO {
+  private UUID jobExecutionId;
+  private long from;
+  private long next;
+  private int lineCount;
+  private String text;
+  private boolean complete;
+
+  public LogRangeDTO() {
+  }
+
+  public LogRangeDTO(UUID jobExecutionId, long from, long next, int lineCount, String text, boolean complete) {
+    this.jobExecutionId = jobExecutionId;
+    this.from = from;
+    this.next = next;
+    this.lineCount = lineCount;
+    this.text = text;
+    this.complete = complete;
+  }
+
+  public UUID getJobExecutionId() {
+    return jobExecutionId;
+  }
+
+  public void setJobExecutionId(UUID jobExecutionId) {
+    this.jobExecutionId = jobExecutionId;
+  }
+
+  public long getFrom() {
+    return from;
+  }
+
+  public void setFrom(long from) {
+    this.from = from;
+  }
+
+  public long getNext() {
+    return next;
+  }
+
+  public void setNext(long next) {
+    this.next = next;
+  }
+
+  public int getLineCount() {
+    return lineCount;
+  }
+
+  public void setLineCount(int lineCount) {
+    this.lineCount = lineCount;
+  }
+
+  public String getText() {
+    return text;
+  }
+
+  public void setText(String text) {
+    this.text = text;
+  }
+
+  public boolean isComplete() {
+    return complete;
+  }
+
+  public void setComplete(boolean complete) {
+    this.complete = complete;
+  }
+}
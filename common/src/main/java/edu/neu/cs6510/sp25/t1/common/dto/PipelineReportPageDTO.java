@@ -0,0 +1,36 @@
+package edu.neu.cs6510.sp25.t1.common.dto;
+
+import java.util.List;
+
+/**
+ * One page of a pipeline's execution history.
+ * {@code nextCursor} is an opaque token for the following page, or null on the last page.
+ */
+public class PipelineReportPageDTO {
+  private List<PipelineReportDTO> items;
+  private String nextCursor;
+
+  public PipelineReportPageDTO() {
+  }
+
+  public PipelineReportPageDTO(List<PipelineReportDTO> items, String nextCursor) {
+    this.items = items;
+    this.nextCursor = nextCursor;
+  }
+
+  public List<PipelineReportDTO> getItems() {
+    return items;
+  }
+
+  public void setItems(List<PipelineReportDTO> items) {
+    this.items = items;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public void setNextCursor(String nextCursor) {
+    this.nextCursor = nextCursor;
+  }
+}
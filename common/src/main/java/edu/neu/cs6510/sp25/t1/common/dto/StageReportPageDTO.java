@@ -0,0 +1,36 @@
+package edu.neu.cs6510.sp25.t1.common.dto;
+
+import java.util.List;
+
+/**
+ * One page of the history of a stage across pipeline runs, holding the stage reports of a page of runs.
+ * {@code nextCursor} is an opaque token for the following page, or null on the last page.
+ */
+public class StageReportPageDTO {
+  private List<StageReportDTO> items;
+  private String nextCursor;
+
+  public StageReportPageDTO() {
+  }
+
+  public StageReportPageDTO(List<StageReportDTO> items, String nextCursor) {
+    this.items = items;
+    this.nextCursor = nextCursor;
+  }
+
+  public List<StageReportDTO> getItems() {
+    return items;
+  }
+
+  public void setItems(List<StageReportDTO> items) {
+    this.items = items;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public void setNextCursor(String nextCursor) {
+    this.nextCursor = nextCursor;
+  }
+}
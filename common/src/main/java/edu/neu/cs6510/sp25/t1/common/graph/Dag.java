@@ -0,0 +1,402 @@
+package edu.neu.cs6510.sp25.t1.common.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact dependency graph over nodes of any type, such as job or stage names.
+ * <p>
+ * Nodes are numbered in the order they are added and edges are stored in int-indexed
+ * adjacency arrays, one row per node, in both directions. Sorting uses Kahn's algorithm
+ * with an explicit queue, so building, sorting and level assignment all run in O(V + E)
+ * without recursion, even for very deep dependency chains.
+ * <p>
+ * A built graph is immutable and can be shared between threads.
+ *
+ * @param <T> the node type
+ */
+public final class Dag<T> {
+  private final List<T> nodes;
+  private final Map<T, Integer> indexByNode;
+
+  /** Row offsets into {@link #dependencyIndexes}; row {@code i} spans {@code [offsets[i], offsets[i + 1])}. */
+  private final int[] dependencyOffsets;
+  private final int[] dependencyIndexes;
+
+  /** Row offsets into {@link #dependantIndexes}. */
+  private final int[] dependantOffsets;
+  private final int[] dependantIndexes;
+
+  private Dag(List<T> nodes, Map<T, Integer> indexByNode, int[] dependencyOffsets, int[] dependencyIndexes,
+              int[] dependantOffsets, int[] dependantIndexes) {
+    this.nodes = nodes;
+    this.indexByNode = indexByNode;
+    this.dependencyOffsets = dependencyOffsets;
+    this.dependencyIndexes = dependencyIndexes;
+    this.dependantOffsets = dependantOffsets;
+    this.dependantIndexes = dependantIndexes;
+  }
+
+  /**
+   * Creates a builder for a new graph.
+   *
+   * @param <T> the node type
+   * @return an empty builder
+   */
+  public static <T> Builder<T> builder() {
+    return new Builder<>();
+  }
+
+  /**
+   * Returns the number of nodes.
+   *
+   * @return the node count
+   */
+  public int size() {
+    return nodes.size();
+  }
+
+  /**
+   * Returns the node at an index.
+   *
+   * @param index the node index
+   * @return the node
+   */
+  public T node(int index) {
+    return nodes.get(index);
+  }
+
+  /**
+   * Returns the index of a node.
+   *
+   * @param node the node
+   * @return the node index, or -1 if the node is not in the graph
+   */
+  public int indexOf(T node) {
+    Integer index = indexByNode.get(node);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Returns the indexes of the nodes a node depends on, in the order they were added.
+   *
+   * @param index the node index
+   * @return the dependency indexes
+   */
+  public int[] dependencies(int index) {
+    return Arrays.copyOfRange(dependencyIndexes, dependencyOffsets[index], dependencyOffsets[index + 1]);
+  }
+
+  /**
+   * Returns the number of nodes a node depends on.
+   *
+   * @param index the node index
+   * @return the dependency count
+   */
+  public int dependencyCount(int index) {
+    return dependencyOffsets[index + 1] - dependencyOffsets[index];
+  }
+
+  /**
+   * Returns the indexes of the nodes that depend on a node, in ascending order.
+   *
+   * @param index the node index
+   * @return the dependant indexes
+   */
+  public int[] dependants(int index) {
+    return Arrays.copyOfRange(dependantIndexes, dependantOffsets[index], dependantOffsets[index + 1]);
+  }
+
+  /**
+   * Sorts the graph topologically and assigns every node a level: nodes without dependencies are on
+   * level 0, every other node is one level above its highest dependency. The order lists nodes by level,
+   * then by index, so independent nodes keep the order they were added in.
+   * <p>
+   * Nodes on a cycle, or depending on one, cannot be sorted; they are reported by
+   * {@link Ordering#getCyclicNodes()} and left out of the order.
+   *
+   * @return the ordering
+   */
+  public Ordering<T> sort() {
+    int size = size();
+    int[] remaining = new int[size];
+    int[] levels = new int[size];
+    int[] queue = new int[size];
+    int head = 0;
+    int tail = 0;
+
+    for (int i = 0; i < size; i++) {
+      remaining[i] = dependencyCount(i);
+      if (remaining[i] == 0) {
+        queue[tail++] = i;
+      }
+    }
+    int levelCount = tail > 0 ? 1 : 0;
+    while (head < tail) {
+      int node = queue[head++];
+      for (int e = dependantOffsets[node]; e < dependantOffsets[node + 1]; e++) {
+        int dependant = dependantIndexes[e];
+        levels[dependant] = Math.max(levels[dependant], levels[node] + 1);
+        if (--remaining[dependant] == 0) {
+          queue[tail++] = dependant;
+          levelCount = Math.max(levelCount, levels[dependant] + 1);
+        }
+      }
+    }
+
+    // Counting sort by level; scanning indexes in ascending order keeps each level in insertion order
+    int[] levelOffsets = new int[levelCount + 1];
+    List<T> cyclic = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      if (remaining[i] > 0) {
+        levels[i] = -1;
+        cyclic.add(nodes.get(i));
+      } else {
+        levelOffsets[levels[i] + 1]++;
+      }
+    }
+    for (int level = 0; level < levelCount; level++) {
+      levelOffsets[level + 1] += levelOffsets[level];
+    }
+    int[] order = new int[tail];
+    int[] next = Arrays.copyOf(levelOffsets, levelCount);
+    for (int i = 0; i < size; i++) {
+      if (levels[i] >= 0) {
+        order[next[levels[i]]++] = i;
+      }
+    }
+    return new Ordering<>(this, order, levels, levelOffsets, cyclic);
+  }
+
+  /**
+   * Result of sorting a graph.
+   *
+   * @param <T> the node type
+   */
+  public static final class Ordering<T> {
+    private final Dag<T> dag;
+    private final int[] order;
+    private final int[] levels;
+    private final int[] levelOffsets;
+    private final List<T> cyclicNodes;
+
+    private Ordering(Dag<T> dag, int[] order, int[] levels, int[] levelOffsets, List<T> cyclicNodes) {
+      this.dag = dag;
+      this.order = order;
+      this.levels = levels;
+      this.levelOffsets = levelOffsets;
+      this.cyclicNodes = Collections.unmodifiableList(cyclicNodes);
+    }
+
+    /**
+     * Checks whether every node could be sorted.
+     *
+     * @return true if the graph has no cycle
+     */
+    public boolean isAcyclic() {
+      return cyclicNodes.isEmpty();
+    }
+
+    /**
+     * Returns the nodes on a cycle or depending on one, in insertion order.
+     *
+     * @return the nodes left out of the order
+     */
+    public List<T> getCyclicNodes() {
+      return cyclicNodes;
+    }
+
+    /**
+     * Returns the sorted node indexes; every node comes after all of its dependencies.
+     *
+     * @return the node indexes in topological order
+     */
+    public int[] getOrderIndexes() {
+      return order.clone();
+    }
+
+    /**
+     * Returns the sorted nodes; every node comes after all of its dependencies.
+     *
+     * @return the nodes in topological order
+     */
+    public List<T> getOrder() {
+      List<T> sorted = new ArrayList<>(order.length);
+      for (int index : order) {
+        sorted.add(dag.node(index));
+      }
+      return sorted;
+    }
+
+    /**
+     * Returns the number of levels.
+     *
+     * @return the level count, 0 for an empty graph
+     */
+    public int getLevelCount() {
+      return levelOffsets.length - 1;
+    }
+
+    /**
+     * Returns the level of a node.
+     *
+     * @param index the node index
+     * @return the level, or -1 if the node is on or behind a cycle
+     */
+    public int getLevel(int index) {
+      return levels[index];
+    }
+
+    /**
+     * Returns the nodes grouped by level; nodes of one level do not depend on each other.
+     *
+     * @return one list of nodes per level, lowest level first
+     */
+    public List<List<T>> getLevels() {
+      List<List<T>> grouped = new ArrayList<>(getLevelCount());
+      for (int level = 0; level < getLevelCount(); level++) {
+        List<T> nodesOfLevel = new ArrayList<>(levelOffsets[level + 1] - levelOffsets[level]);
+        for (int i = levelOffsets[level]; i < levelOffsets[level + 1]; i++) {
+          nodesOfLevel.add(dag.node(order[i]));
+        }
+        grouped.add(nodesOfLevel);
+      }
+      return grouped;
+    }
+  }
+
+  /**
+   * Collects nodes and dependencies, then compacts them into a {@link Dag}.
+   *
+   * @param <T> the node type
+   */
+  public static final class Builder<T> {
+    private final List<T> nodes = new ArrayList<>();
+    private final Map<T, Integer> indexByNode = new HashMap<>();
+    private int[] edgeNodes = new int[16];
+    private int[] edgeDependencies = new int[16];
+    private int edgeCount;
+
+    private Builder() {
+    }
+
+    /**
+     * Adds a node. Adding a node that is already in the graph has no effect.
+     *
+     * @param node the node
+     * @return the node index
+     * @throws IllegalArgumentException if the node is null
+     */
+    public int addNode(T node) {
+      if (node == null) {
+        throw new IllegalArgumentException("Node cannot be null");
+      }
+      Integer index = indexByNode.get(node);
+      if (index != null) {
+        return index;
+      }
+      indexByNode.put(node, nodes.size());
+      nodes.add(node);
+      return nodes.size() - 1;
+    }
+
+    /**
+     * Checks whether a node was added.
+     *
+     * @param node the node
+     * @return true if the node is in the graph
+     */
+    public boolean contains(T node) {
+      return indexByNode.containsKey(node);
+    }
+
+    /**
+     * Records that a node depends on another. Both nodes must have been added; repeated
+     * dependencies are only kept once.
+     *
+     * @param node      the dependant node
+     * @param dependsOn the node it depends on
+     * @return this builder
+     * @throws IllegalArgumentException if either node was not added
+     */
+    public Builder<T> addDependency(T node, T dependsOn) {
+      Integer from = indexByNode.get(node);
+      Integer to = indexByNode.get(dependsOn);
+      if (from == null || to == null) {
+        throw new IllegalArgumentException("Unknown node in dependency: " + (from == null ? node : dependsOn));
+      }
+      if (edgeCount == edgeNodes.length) {
+        edgeNodes = Arrays.copyOf(edgeNodes, edgeCount * 2);
+        edgeDependencies = Arrays.copyOf(edgeDependencies, edgeCount * 2);
+      }
+      edgeNodes[edgeCount] = from;
+      edgeDependencies[edgeCount] = to;
+      edgeCount++;
+      return this;
+    }
+
+    /**
+     * Builds the graph.
+     *
+     * @return the immutable graph
+     */
+    public Dag<T> build() {
+      int size = nodes.size();
+
+      // Drop repeated edges; lastSeen[dependency] holds the last node that recorded it, plus one
+      int[] lastSeen = new int[size];
+      int[] dependencyOffsets = new int[size + 1];
+      int[] dependantOffsets = new int[size + 1];
+      int[] rowOrder = rowOrder(size);
+      boolean[] kept = new boolean[edgeCount];
+      for (int e : rowOrder) {
+        if (lastSeen[edgeDependencies[e]] != edgeNodes[e] + 1) {
+          lastSeen[edgeDependencies[e]] = edgeNodes[e] + 1;
+          kept[e] = true;
+          dependencyOffsets[edgeNodes[e] + 1]++;
+          dependantOffsets[edgeDependencies[e] + 1]++;
+        }
+      }
+      for (int i = 0; i < size; i++) {
+        dependencyOffsets[i + 1] += dependencyOffsets[i];
+        dependantOffsets[i + 1] += dependantOffsets[i];
+      }
+
+      // Edges are visited grouped by dependant node in ascending order, so every dependant row ends up sorted
+      int[] dependencyIndexes = new int[dependencyOffsets[size]];
+      int[] dependantIndexes = new int[dependantOffsets[size]];
+      int[] nextDependency = Arrays.copyOf(dependencyOffsets, size);
+      int[] nextDependant = Arrays.copyOf(dependantOffsets, size);
+      for (int e : rowOrder) {
+        if (kept[e]) {
+          dependencyIndexes[nextDependency[edgeNodes[e]]++] = edgeDependencies[e];
+          dependantIndexes[nextDependant[edgeDependencies[e]]++] = edgeNodes[e];
+        }
+      }
+      return new Dag<>(List.copyOf(nodes), Map.copyOf(indexByNode), dependencyOffsets, dependencyIndexes,
+          dependantOffsets, dependantIndexes);
+    }
+
+    /**
+     * Returns the edge indexes grouped by dependant node, keeping the order edges were added within each node.
+     */
+    private int[] rowOrder(int size) {
+      int[] offsets = new int[size + 1];
+      for (int e = 0; e < edgeCount; e++) {
+        offsets[edgeNodes[e] + 1]++;
+      }
+      for (int i = 0; i < size; i++) {
+        offsets[i + 1] += offsets[i];
+      }
+      int[] rowOrder = new int[edgeCount];
+      for (int e = 0; e < edgeCount; e++) {
+        rowOrder[offsets[edgeNodes[e]]++] = e;
+      }
+      return rowOrder;
+    }
+  }
+}
@@ -2,61 +2,177 @@ package edu.neu.cs6510.sp25.t1.common.logging;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.spi.LoggingEventBuilder;
 
+import ch.qos.logback.classic.AsyncAppender;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
 import ch.qos.logback.core.ConsoleAppender;
 import ch.qos.logback.core.FileAppender;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
 
 /**
  * Centralized logger for pipeline-related logging.
  * Uses SLF4J with Logback and ensures logs print to the console and a log file.
+ * <p>
+ * Hot paths should avoid building messages that are never written: use the parameterized
+ * ({@code debug("Sent job {}", id)}) or supplier overloads, or check {@link #isDebugEnabled()} first.
+ * Correlation IDs are attached as structured fields, either to one event
+ * ({@code atInfo().executionId(id).log("...")}) or to everything logged in a block
+ * ({@code try (Scope scope = PipelineLogger.scope(EXECUTION_ID, id)) { ... }}); both are
+ * written after the message as {@code key=value} pairs.
+ * <p>
+ * In async mode ({@code -Dpipeline.logging.async=true} or {@link #setAsync(boolean)}), callers only
+ * put events in a bounded ring buffer and a background thread writes them out. When the buffer is
+ * nearly full, DEBUG and INFO events are dropped rather than blocking the caller; WARN and ERROR
+ * events are always kept.
  */
 public class PipelineLogger {
   private static final Logger logger = LoggerFactory.getLogger("cicd-logger"); //  Set logger name explicitly
   private static final String LOG_FILE_PATH = "logs/pipeline_system.log"; // Log file path
 
+  /** System property enabling async mode at startup. */
+  public static final String ASYNC_PROPERTY = "pipeline.logging.async";
+  /** System property setting the number of events the async ring buffer holds. */
+  public static final String QUEUE_SIZE_PROPERTY = "pipeline.logging.queue-size";
+
+  /** Structured field holding a pipeline execution ID. */
+  public static final String EXECUTION_ID = "executionId";
+  /** Structured field holding a stage execution ID. */
+  public static final String STAGE_ID = "stageId";
+  /** Structured field holding a job execution ID. */
+  public static final String JOB_ID = "jobId";
+
+  private static final String ASYNC_APPENDER_NAME = "ASYNC";
+  private static final int DEFAULT_QUEUE_SIZE = 8192;
+
   // Verbose mode flag
   private static boolean verbose = false;
+  private static Level level = Level.DEBUG;
+
+  private static boolean async = false;
+  private static boolean shutdownHookRegistered = false;
 
   static {
-    configureLogging();
+    configureLogging(Boolean.getBoolean(ASYNC_PROPERTY), true);
   }
 
   /**
    * Configures Logback to ensure logs appear in the console and a log file.
+   *
+   * @param asyncMode    whether the appenders are fed through a ring buffer
+   * @param resetContext whether the rest of the Logback configuration is cleared as well
    */
-  private static void configureLogging() {
+  private static void configureLogging(boolean asyncMode, boolean resetContext) {
     LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
-    context.reset();
-
-    // Define log pattern (includes time, level, thread, and message)
-    PatternLayoutEncoder encoder = new PatternLayoutEncoder();
-    encoder.setContext(context);
-    encoder.setPattern("[%d{HH:mm:ss}] [%thread] %-5level cicd-logger - %msg%n"); //  Replaces %logger with "cicd-logger"
-    encoder.start();
+    if (resetContext) {
+      context.reset();
+    }
+    async = asyncMode;
 
     // Console Appender
     ConsoleAppender<ILoggingEvent> consoleAppender = new ConsoleAppender<>();
     consoleAppender.setContext(context);
-    consoleAppender.setEncoder(encoder);
+    consoleAppender.setEncoder(createEncoder(context));
     consoleAppender.start();
 
-    // File Appender (logs to a file)
+    // File Appender (logs to a file); in async mode the background thread flushes it when the buffer drains
     FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
     fileAppender.setContext(context);
     fileAppender.setFile(LOG_FILE_PATH);
-    fileAppender.setEncoder(encoder);
+    fileAppender.setEncoder(createEncoder(context));
+    fileAppender.setImmediateFlush(!asyncMode);
     fileAppender.start();
 
     // Get the root logger and attach appenders
     ch.qos.logback.classic.Logger rootLogger = context.getLogger("cicd-logger"); //  Ensures the logger is named correctly
-    rootLogger.setLevel(Level.DEBUG); // Capture DEBUG and above
-    rootLogger.addAppender(consoleAppender);
-    rootLogger.addAppender(fileAppender);
+    rootLogger.detachAndStopAllAppenders();
+    rootLogger.setAdditive(false); // Appenders other frameworks attach to the root would write every event twice
+    rootLogger.setLevel(level); // Capture DEBUG and above unless verbose mode was turned off
+    if (asyncMode) {
+      rootLogger.addAppender(createAsyncAppender(context, List.of(consoleAppender, fileAppender)));
+      registerShutdownHook(context);
+    } else {
+      rootLogger.addAppender(consoleAppender);
+      rootLogger.addAppender(fileAppender);
+    }
+  }
+
+  /**
+   * Creates the encoder of one appender. The pattern includes time, level, thread and message,
+   * followed by scoped and per-event structured fields when there are any.
+   */
+  private static PatternLayoutEncoder createEncoder(LoggerContext context) {
+    PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+    encoder.setContext(context);
+    encoder.setPattern("[%d{HH:mm:ss}] [%thread] %-5level cicd-logger - %msg" //  Replaces %logger with "cicd-logger"
+        + "%replace( %mdc){'^ $', ''}%replace( %kvp{NONE}){'^ $', ''}%n");
+    encoder.start();
+    return encoder;
+  }
+
+  /**
+   * Wraps appenders in an async appender backed by a bounded queue, drained by one background thread.
+   */
+  private static AsyncAppender createAsyncAppender(LoggerContext context, List<Appender<ILoggingEvent>> appenders) {
+    AsyncAppender asyncAppender = new AsyncAppender();
+    asyncAppender.setContext(context);
+    asyncAppender.setName(ASYNC_APPENDER_NAME);
+    asyncAppender.setQueueSize(Integer.getInteger(QUEUE_SIZE_PROPERTY, DEFAULT_QUEUE_SIZE));
+    asyncAppender.setIncludeCallerData(false);
+    appenders.forEach(asyncAppender::addAppender);
+    asyncAppender.start();
+    return asyncAppender;
+  }
+
+  /**
+   * Makes sure events still in the ring buffer are written before the JVM exits.
+   */
+  private static synchronized void registerShutdownHook(LoggerContext context) {
+    if (!shutdownHookRegistered) {
+      Runtime.getRuntime().addShutdownHook(new Thread(context::stop, "pipeline-logger-shutdown"));
+      shutdownHookRegistered = true;
+    }
+  }
+
+  /**
+   * Switches between writing log events on the calling thread and handing them to a background
+   * thread through a ring buffer. Switching writes out the events already buffered.
+   *
+   * @param enableAsync If true, events are written asynchronously.
+   */
+  public static synchronized void setAsync(boolean enableAsync) {
+    if (enableAsync != async) {
+      configureLogging(enableAsync, false);
+    }
+  }
+
+  /**
+   * Attaches the console and file appenders again, leaving the rest of the Logback configuration alone.
+   * Frameworks that reset Logback while starting up, such as Spring Boot, drop them; call this once
+   * they have set up logging.
+   *
+   * @param enableAsync If true, events are written asynchronously.
+   */
+  public static synchronized void reattach(boolean enableAsync) {
+    configureLogging(enableAsync, false);
+  }
+
+  /**
+   * Checks whether async mode is on.
+   *
+   * @return true if events are written by a background thread
+   */
+  public static boolean isAsync() {
+    return async;
   }
 
   /**
@@ -66,9 +182,28 @@ public class PipelineLogger {
    */
   public static void setVerbose(boolean enableVerbose) {
     verbose = enableVerbose;
+    level = enableVerbose ? Level.DEBUG : Level.INFO;
     LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
     ch.qos.logback.classic.Logger rootLogger = context.getLogger("cicd-logger");
-    rootLogger.setLevel(enableVerbose ? Level.DEBUG : Level.INFO);
+    rootLogger.setLevel(level);
+  }
+
+  /**
+   * Checks whether debug messages are written.
+   *
+   * @return true if DEBUG is enabled
+   */
+  public static boolean isDebugEnabled() {
+    return logger.isDebugEnabled();
+  }
+
+  /**
+   * Checks whether informational messages are written.
+   *
+   * @return true if INFO is enabled
+   */
+  public static boolean isInfoEnabled() {
+    return logger.isInfoEnabled();
   }
 
   /**
@@ -80,6 +215,38 @@ public class PipelineLogger {
     logger.info("{}", message);
   }
 
+  /**
+   * Logs an informational message with one {@code {}} placeholder, formatted only if INFO is enabled.
+   *
+   * @param format The message format.
+   * @param arg    The placeholder value.
+   */
+  public static void info(String format, Object arg) {
+    logger.info(format, arg);
+  }
+
+  /**
+   * Logs an informational message with two {@code {}} placeholders, formatted only if INFO is enabled.
+   *
+   * @param format The message format.
+   * @param arg1   The first placeholder value.
+   * @param arg2   The second placeholder value.
+   */
+  public static void info(String format, Object arg1, Object arg2) {
+    logger.info(format, arg1, arg2);
+  }
+
+  /**
+   * Logs an informational message built only if INFO is enabled.
+   *
+   * @param message Supplies the message to log.
+   */
+  public static void info(Supplier<String> message) {
+    if (logger.isInfoEnabled()) {
+      logger.info("{}", message.get());
+    }
+  }
+
   /**
    * Logs a warning message.
    *
@@ -89,6 +256,27 @@ public class PipelineLogger {
     logger.warn("{}", message);
   }
 
+  /**
+   * Logs a warning message with one {@code {}} placeholder.
+   *
+   * @param format The message format.
+   * @param arg    The placeholder value.
+   */
+  public static void warn(String format, Object arg) {
+    logger.warn(format, arg);
+  }
+
+  /**
+   * Logs a warning message with two {@code {}} placeholders.
+   *
+   * @param format The message format.
+   * @param arg1   The first placeholder value.
+   * @param arg2   The second placeholder value.
+   */
+  public static void warn(String format, Object arg1, Object arg2) {
+    logger.warn(format, arg1, arg2);
+  }
+
   /**
    * Logs an error message.
    *
@@ -98,6 +286,27 @@ public class PipelineLogger {
     logger.error("{}", message);
   }
 
+  /**
+   * Logs an error message with one {@code {}} placeholder.
+   *
+   * @param format The message format.
+   * @param arg    The placeholder value.
+   */
+  public static void error(String format, Object arg) {
+    logger.error(format, arg);
+  }
+
+  /**
+   * Logs an error message with two {@code {}} placeholders.
+   *
+   * @param format The message format.
+   * @param arg1   The first placeholder value.
+   * @param arg2   The second placeholder value.
+   */
+  public static void error(String format, Object arg1, Object arg2) {
+    logger.error(format, arg1, arg2);
+  }
+
   /**
    * Logs a debug message.
    *
@@ -106,4 +315,218 @@ public class PipelineLogger {
   public static void debug(String message) {
     logger.debug("{}", message);
   }
+
+  /**
+   * Logs a debug message with one {@code {}} placeholder, formatted only if DEBUG is enabled.
+   *
+   * @param format The message format.
+   * @param arg    The placeholder value.
+   */
+  public static void debug(String format, Object arg) {
+    logger.debug(format, arg);
+  }
+
+  /**
+   * Logs a debug message with two {@code {}} placeholders, formatted only if DEBUG is enabled.
+   *
+   * @param format The message format.
+   * @param arg1   The first placeholder value.
+   * @param arg2   The second placeholder value.
+   */
+  public static void debug(String format, Object arg1, Object arg2) {
+    logger.debug(format, arg1, arg2);
+  }
+
+  /**
+   * Logs a debug message built only if DEBUG is enabled.
+   *
+   * @param message Supplies the message to log.
+   */
+  public static void debug(Supplier<String> message) {
+    if (logger.isDebugEnabled()) {
+      logger.debug("{}", message.get());
+    }
+  }
+
+  /**
+   * Starts a debug event carrying structured fields. Nothing is allocated if DEBUG is disabled.
+   *
+   * @return the event to add fields to and log
+   */
+  public static Event atDebug() {
+    return logger.isDebugEnabled() ? new Event(logger.atDebug()) : Event.DISABLED;
+  }
+
+  /**
+   * Starts an informational event carrying structured fields. Nothing is allocated if INFO is disabled.
+   *
+   * @return the event to add fields to and log
+   */
+  public static Event atInfo() {
+    return logger.isInfoEnabled() ? new Event(logger.atInfo()) : Event.DISABLED;
+  }
+
+  /**
+   * Starts a warning event carrying structured fields.
+   *
+   * @return the event to add fields to and log
+   */
+  public static Event atWarn() {
+    return logger.isWarnEnabled() ? new Event(logger.atWarn()) : Event.DISABLED;
+  }
+
+  /**
+   * Starts an error event carrying structured fields.
+   *
+   * @return the event to add fields to and log
+   */
+  public static Event atError() {
+    return logger.isErrorEnabled() ? new Event(logger.atError()) : Event.DISABLED;
+  }
+
+  /**
+   * Attaches a structured field to everything the current thread logs until the returned scope is closed.
+   * Closing the scope restores the previous value of the field.
+   *
+   * @param key   The field name, e.g. {@link #EXECUTION_ID}.
+   * @param value The field value; null leaves the field unset.
+   * @return the scope to close, typically with try-with-resources
+   */
+  public static Scope scope(String key, Object value) {
+    return new Scope().and(key, value);
+  }
+
+  /**
+   * A log event with structured key/value fields, written by one of the {@code log} methods.
+   */
+  public static final class Event {
+    private static final Event DISABLED = new Event(null);
+
+    private final LoggingEventBuilder builder;
+
+    private Event(LoggingEventBuilder builder) {
+      this.builder = builder;
+    }
+
+    /**
+     * Adds a structured field.
+     *
+     * @param key   The field name.
+     * @param value The field value.
+     * @return this event
+     */
+    public Event with(String key, Object value) {
+      if (builder != null) {
+        builder.addKeyValue(key, value);
+      }
+      return this;
+    }
+
+    /**
+     * Adds the {@link #EXECUTION_ID} field.
+     *
+     * @param executionId The pipeline execution ID.
+     * @return this event
+     */
+    public Event executionId(Object executionId) {
+      return with(EXECUTION_ID, executionId);
+    }
+
+    /**
+     * Adds the {@link #STAGE_ID} field.
+     *
+     * @param stageId The stage execution ID.
+     * @return this event
+     */
+    public Event stageId(Object stageId) {
+      return with(STAGE_ID, stageId);
+    }
+
+    /**
+     * Adds the {@link #JOB_ID} field.
+     *
+     * @param jobId The job execution ID.
+     * @return this event
+     */
+    public Event jobId(Object jobId) {
+      return with(JOB_ID, jobId);
+    }
+
+    /**
+     * Attaches the exception that caused the event.
+     *
+     * @param cause The exception.
+     * @return this event
+     */
+    public Event cause(Throwable cause) {
+      if (builder != null) {
+        builder.setCause(cause);
+      }
+      return this;
+    }
+
+    /**
+     * Writes the event.
+     *
+     * @param message The message to log.
+     */
+    public void log(String message) {
+      if (builder != null) {
+        builder.log("{}", message);
+      }
+    }
+
+    /**
+     * Writes the event with a message with {@code {}} placeholders.
+     *
+     * @param format The message format.
+     * @param args   The placeholder values.
+     */
+    public void log(String format, Object... args) {
+      if (builder != null) {
+        builder.log(format, args);
+      }
+    }
+  }
+
+  /**
+   * Structured fields attached to everything the current thread logs while the scope is open.
+   */
+  public static final class Scope implements AutoCloseable {
+    private final List<String> keys = new ArrayList<>(3);
+    private final List<String> previousValues = new ArrayList<>(3);
+
+    private Scope() {
+    }
+
+    /**
+     * Adds another field to the scope.
+     *
+     * @param key   The field name.
+     * @param value The field value; null leaves the field unset.
+     * @return this scope
+     */
+    public Scope and(String key, Object value) {
+      if (value != null) {
+        keys.add(key);
+        previousValues.add(MDC.get(key));
+        MDC.put(key, value.toString());
+      }
+      return this;
+    }
+
+    /**
+     * Restores the fields to their values before the scope was opened, most recent field first.
+     */
+    @Override
+    public void close() {
+      for (int i = keys.size() - 1; i >= 0; i--) {
+        if (previousValues.get(i) == null) {
+          MDC.remove(keys.get(i));
+        } else {
+          MDC.put(keys.get(i), previousValues.get(i));
+        }
+      }
+    }
+  }
 }
@@ -3,11 +3,21 @@ package edu.neu.cs6510.sp25.t1.common.utils;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.Config;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 public class GitCloneUtil {
   /**
@@ -49,6 +59,140 @@ public class GitCloneUtil {
   }
 
 
+  /**
+   * Creates or incrementally updates a bare mirror of a remote Git repo.
+   * The first call clones every branch into a bare repository; later calls only fetch
+   * new objects and prune branches that were deleted on the remote.
+   *
+   * @param repoUrl   The remote Git repo URL
+   * @param mirrorDir The local directory holding the bare mirror
+   * @return The mirror directory
+   * @throws GitAPIException If cloning or fetching fails
+   * @throws IOException     If the existing mirror cannot be opened
+   */
+  public static File updateMirror(String repoUrl, File mirrorDir) throws GitAPIException, IOException {
+    if (new File(mirrorDir, Constants.HEAD).isFile()) {
+      try (Git git = Git.open(mirrorDir)) {
+        git.fetch()
+            .setRemote(Constants.DEFAULT_REMOTE_NAME)
+            .setRemoveDeletedRefs(true)
+            .call();
+      }
+    } else {
+      Git.cloneRepository()
+          .setURI(repoUrl)
+          .setDirectory(mirrorDir)
+          .setBare(true)
+          .setCloneAllBranches(true)
+          .call()
+          .close();
+    }
+    return mirrorDir;
+  }
+
+  /**
+   * Resolves the commit a branch currently points to.
+   *
+   * @param gitDir The Git directory of the repository (a bare mirror or a .git directory)
+   * @param branch The branch name, or null/empty for HEAD
+   * @return The commit hash
+   * @throws IOException If the branch does not exist
+   */
+  public static String resolveCommit(File gitDir, String branch) throws IOException {
+    try (Repository repository = openGitDir(gitDir)) {
+      return resolveBranch(repository, branch).getName();
+    }
+  }
+
+  /**
+   * Lists the files below one path at a revision, without reading their contents
+   * or materializing a working tree.
+   *
+   * @param gitDir   The Git directory of the repository (a bare mirror or a .git directory)
+   * @param revision The commit hash or other revision to read
+   * @param path     The repository path to list (e.g., ".pipelines")
+   * @return The repository paths of the regular files below the path, in tree order
+   * @throws IOException If the revision cannot be resolved
+   */
+  public static List<String> listFiles(File gitDir, String revision, String path) throws IOException {
+    List<String> files = new ArrayList<>();
+    try (Repository repository = openGitDir(gitDir);
+         RevWalk revWalk = new RevWalk(repository);
+         TreeWalk treeWalk = new TreeWalk(repository)) {
+      treeWalk.addTree(revWalk.parseCommit(resolveRevision(repository, revision)).getTree());
+      treeWalk.setRecursive(true);
+      treeWalk.setFilter(PathFilter.create(path));
+      while (treeWalk.next()) {
+        if ((treeWalk.getRawMode(0) & FileMode.TYPE_MASK) == FileMode.TYPE_FILE) {
+          files.add(treeWalk.getPathString());
+        }
+      }
+    }
+    return files;
+  }
+
+  /**
+   * Reads a single file at a revision straight from the object database.
+   *
+   * @param gitDir   The Git directory of the repository (a bare mirror or a .git directory)
+   * @param revision The commit hash or other revision to read
+   * @param filePath The repository path of the file
+   * @return The file content decoded as UTF-8
+   * @throws IOException If the revision cannot be resolved or the file does not exist
+   */
+  public static String readFile(File gitDir, String revision, String filePath) throws IOException {
+    try (Repository repository = openGitDir(gitDir);
+         RevWalk revWalk = new RevWalk(repository)) {
+      RevCommit commit = revWalk.parseCommit(resolveRevision(repository, revision));
+      try (TreeWalk treeWalk = TreeWalk.forPath(repository, filePath, commit.getTree())) {
+        if (treeWalk == null) {
+          throw new IOException("File not found at " + revision + ": " + filePath);
+        }
+        return new String(repository.open(treeWalk.getObjectId(0)).getBytes(), StandardCharsets.UTF_8);
+      }
+    }
+  }
+
+  /**
+   * Opens an existing Git directory.
+   *
+   * @param gitDir The Git directory
+   * @return The repository, to be closed by the caller
+   * @throws IOException If the directory is not a Git repository
+   */
+  private static Repository openGitDir(File gitDir) throws IOException {
+    return new FileRepositoryBuilder().setGitDir(gitDir).setMustExist(true).build();
+  }
+
+  /**
+   * Resolves the commit a branch points to.
+   *
+   * @param repository The repository
+   * @param branch     The branch name, or null/empty for HEAD
+   * @return The commit ID
+   * @throws IOException If the branch does not exist
+   */
+  private static ObjectId resolveBranch(Repository repository, String branch) throws IOException {
+    return resolveRevision(repository,
+        (branch == null || branch.isEmpty()) ? Constants.HEAD : Constants.R_HEADS + branch);
+  }
+
+  /**
+   * Resolves a revision to a commit.
+   *
+   * @param repository The repository
+   * @param revision   The revision (branch ref, commit hash or HEAD)
+   * @return The commit ID
+   * @throws IOException If the revision does not exist
+   */
+  private static ObjectId resolveRevision(Repository repository, String revision) throws IOException {
+    ObjectId commitId = repository.resolve(revision + "^{commit}");
+    if (commitId == null) {
+      throw new IOException("Revision not found in repository: " + revision);
+    }
+    return commitId;
+  }
+
   /**
    * Fetches and checks out a specific commit in the given Git repo.
    *
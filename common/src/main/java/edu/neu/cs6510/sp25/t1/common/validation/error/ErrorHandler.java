@@ -15,12 +15,11 @@ public class ErrorHandler {
   /**
    * Represents a specific location in a YAML file.
    */
+  @Getter
   public static class Location {
     private final String filename;
     private final int line;
     private final int column;
-
-    @Getter
     private final String path;
 
     /**
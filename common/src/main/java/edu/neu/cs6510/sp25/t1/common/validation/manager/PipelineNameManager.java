@@ -3,8 +3,15 @@ package edu.neu.cs6510.sp25.t1.common.validation.manager;
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 
 import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
 import edu.neu.cs6510.sp25.t1.common.validation.error.ErrorHandler;
@@ -13,10 +20,13 @@ import edu.neu.cs6510.sp25.t1.common.validation.error.ValidationException;
 /**
  * PipelineNameManager ensures that pipeline YAML file names are unique inside `.pipelines/`.
  * It provides methods to validate names and suggest alternative names if conflicts exist.
+ * It also tracks which files declare each pipeline name, so pipeline names can be checked for
+ * uniqueness across files validated in parallel.
  */
 public class PipelineNameManager {
   private final Path pipelinesDir = Paths.get(System.getProperty("user.dir"), ".pipelines");
   private final Set<String> existingFileNames;
+  private final Map<String, Set<String>> fileNamesByPipelineName = new ConcurrentHashMap<>();
 
   /**
    * Initializes the PipelineNameManager and loads existing YAML file names.
@@ -62,4 +72,39 @@ public class PipelineNameManager {
     PipelineLogger.debug("Checking uniqueness for '" + fileName + "': " + (isUnique ? "Unique" : "Duplicate"));
     return isUnique;
   }
+
+  /**
+   * Returns the `.pipelines/` directory the manager loaded its file names from.
+   *
+   * @return The pipelines directory.
+   */
+  public Path getPipelinesDir() {
+    return pipelinesDir;
+  }
+
+  /**
+   * Records that a YAML file declares a pipeline name. Safe to call from several threads.
+   *
+   * @param pipelineName The pipeline name declared in the file.
+   * @param fileName     The YAML file name.
+   */
+  public void registerPipelineName(String pipelineName, String fileName) {
+    fileNamesByPipelineName.computeIfAbsent(pipelineName, name -> new ConcurrentSkipListSet<>()).add(fileName);
+  }
+
+  /**
+   * Returns the pipeline names declared by more than one file, with the declaring files.
+   * Names and files are sorted, so the result does not depend on registration order.
+   *
+   * @return Declaring file names keyed by duplicated pipeline name.
+   */
+  public SortedMap<String, List<String>> getDuplicatePipelineNames() {
+    SortedMap<String, List<String>> duplicates = new TreeMap<>();
+    fileNamesByPipelineName.forEach((pipelineName, fileNames) -> {
+      if (fileNames.size() > 1) {
+        duplicates.put(pipelineName, new ArrayList<>(fileNames));
+      }
+    });
+    return duplicates;
+  }
 }
@@ -0,0 +1,54 @@
+package edu.neu.cs6510.sp25.t1.common.validation.parser;
+
+import java.util.Collections;
+import java.util.Map;
+
+import edu.neu.cs6510.sp25.t1.common.model.Pipeline;
+import edu.neu.cs6510.sp25.t1.common.validation.error.ErrorHandler;
+import lombok.Getter;
+
+/**
+ * Result of parsing one pipeline YAML file: the pipeline model together with the
+ * location of every field, keyed by its path (e.g. {@code jobs[0].image}).
+ * Each parse returns its own instance, so files can be parsed concurrently.
+ */
+@Getter
+public class ParsedPipeline {
+  private final String filename;
+  private final Pipeline pipeline;
+  private final Map<String, ErrorHandler.Location> fieldLocations;
+
+  /**
+   * Constructs a ParsedPipeline.
+   *
+   * @param filename       The YAML file name.
+   * @param pipeline       The parsed pipeline.
+   * @param fieldLocations Field locations keyed by field path.
+   */
+  public ParsedPipeline(String filename, Pipeline pipeline, Map<String, ErrorHandler.Location> fieldLocations) {
+    this.filename = filename;
+    this.pipeline = pipeline;
+    this.fieldLocations = Collections.unmodifiableMap(fieldLocations);
+  }
+
+  /**
+   * Returns the location of a field, falling back to its closest enclosing field
+   * and then to the start of the file.
+   *
+   * @param fieldPath The field path, e.g. {@code jobs[0].image}.
+   * @return The field location.
+   */
+  public ErrorHandler.Location getFieldLocation(String fieldPath) {
+    return YamlParser.findLocation(fieldLocations, filename, fieldPath);
+  }
+
+  /**
+   * Returns the line number of a field.
+   *
+   * @param fieldPath The field path.
+   * @return The line number, or 1 if unknown.
+   */
+  public int getFieldLineNumber(String fieldPath) {
+    return getFieldLocation(fieldPath).getLine();
+  }
+}
@@ -1,8 +1,11 @@
 package edu.neu.cs6510.sp25.t1.common.validation.parser;
 
 import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.Yaml;
@@ -17,128 +20,227 @@ import org.yaml.snakeyaml.nodes.ScalarNode;
 import org.yaml.snakeyaml.nodes.SequenceNode;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.StringReader;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import edu.neu.cs6510.sp25.t1.common.logging.PipelineLogger;
 import edu.neu.cs6510.sp25.t1.common.model.Pipeline;
+import edu.neu.cs6510.sp25.t1.common.validation.error.ErrorHandler;
 import edu.neu.cs6510.sp25.t1.common.validation.error.ValidationException;
 
 /**
  * Parses YAML files into Java objects while tracking exact line/column numbers.
  * <p>
  * Enhancements:
- * - Extracts exact error locations using SnakeYAML's AST.
+ * - Streams the file through SnakeYAML once and walks the node graph once, recording the
+ * field locations while building the JSON tree the pipeline model is bound from.
  * - Provides precise error messages with line/column information.
- * - Ensures better validation feedback for pipeline configurations.
+ * - Keeps no shared state, so files can be parsed concurrently.
  */
 public class YamlParser {
-  private static final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
-  private static final Map<String, Mark> fieldLocations = new HashMap<>();
+  private static final ObjectMapper yamlMapper = new ObjectMapper();
 
   /**
-   * Parses a YAML file into a PipelineConfig object while tracking field locations.
+   * Parses a YAML file into a Pipeline object.
    *
    * @param yamlFile The YAML file to parse.
-   * @return Parsed PipelineConfig object.
+   * @return Parsed Pipeline object.
    * @throws ValidationException If parsing fails.
    */
   public static Pipeline parseYaml(File yamlFile) throws ValidationException {
+    return parse(yamlFile).getPipeline();
+  }
+
+  /**
+   * Parses a YAML file into a Pipeline object while tracking field locations.
+   *
+   * @param yamlFile The YAML file to parse.
+   * @return The parsed pipeline with the location of every field.
+   * @throws ValidationException If parsing fails.
+   */
+  public static ParsedPipeline parse(File yamlFile) throws ValidationException {
+    String filename = yamlFile.getName();
     if (!yamlFile.exists() || !yamlFile.isFile()) {
       PipelineLogger.error("YAML file not found: " + yamlFile.getAbsolutePath());
-      throw new ValidationException(yamlFile.getName(), 0, 0, "YAML file not found: " + yamlFile.getAbsolutePath());
+      throw new ValidationException(filename, 0, 0, "YAML file not found: " + yamlFile.getAbsolutePath());
     }
 
-    try (FileInputStream inputStream = new FileInputStream(yamlFile)) {
+    Map<String, ErrorHandler.Location> fieldLocations = new HashMap<>();
+    try (Reader reader = Files.newBufferedReader(yamlFile.toPath(), StandardCharsets.UTF_8)) {
       PipelineLogger.info("Parsing YAML file: " + yamlFile.getAbsolutePath());
-      fieldLocations.clear();
 
-      // Load raw content for debugging
-      String content = new String(inputStream.readAllBytes());
-      if (content.trim().isEmpty()) {
+      // Single pass: compose the node graph straight from the stream
+      LoaderOptions loaderOptions = new LoaderOptions();
+      Node rootNode = new Yaml(new SafeConstructor(loaderOptions)).compose(reader);
+      if (rootNode == null) {
         PipelineLogger.error("YAML file is empty: " + yamlFile.getAbsolutePath());
-        throw new ValidationException(yamlFile.getName(), 1, 1, "YAML file is empty.");
+        throw new ValidationException(filename, 1, 1, "YAML file is empty.");
       }
-
-      Yaml yaml = new Yaml(new SafeConstructor(new LoaderOptions()));
-
-      // First pass: Load YAML data into a Map
-      Map<String, Object> data = yaml.load(content);
-
-      // Second pass: Extract line/column locations
-      Node rootNode = yaml.compose(new StringReader(content));
-      if (rootNode == null) {
+      if (!(rootNode instanceof MappingNode)) {
         PipelineLogger.error("Invalid or empty YAML structure in: " + yamlFile.getAbsolutePath());
-        throw new ValidationException(yamlFile.getName(), 1, 1, "Invalid or empty YAML structure.");
+        throw new ValidationException(filename, 1, 1, "Invalid or empty YAML structure.");
       }
 
-      processNode(rootNode, "", fieldLocations);
+      // Locations and values both come from one walk of the node graph
+      JsonNode tree = toTree(rootNode, "", filename, fieldLocations, new NodeConstructor(loaderOptions));
       PipelineLogger.info("YAML structure validated successfully: " + yamlFile.getAbsolutePath());
 
-      // Convert to PipelineConfig
-      Pipeline pipeline = yamlMapper.convertValue(data, Pipeline.class);
+      // Binds straight from the tree, without going through an intermediate Map
+      Pipeline pipeline = yamlMapper.treeToValue(tree, Pipeline.class);
       PipelineLogger.info("Successfully converted YAML to Pipeline object: " + pipeline.getName());
 
-      return pipeline;
+      return new ParsedPipeline(filename, pipeline, fieldLocations);
 
     } catch (JsonMappingException e) {
-      int line = e.getLocation() != null ? e.getLocation().getLineNr() : 1;
-      int column = e.getLocation() != null ? e.getLocation().getColumnNr() : 1;
+      // Report binding errors at the offending field
       PipelineLogger.error("Invalid YAML format in " + yamlFile.getAbsolutePath() + ": " + e.getOriginalMessage());
-      throw new ValidationException(yamlFile.getName(), line, column, "Invalid YAML format: " + e.getOriginalMessage());
+      throw new ValidationException(findLocation(fieldLocations, filename, toFieldPath(e)),
+          "Invalid YAML format: " + e.getOriginalMessage());
     } catch (YAMLException e) {
       int line = 1, column = 1;
-      if (e instanceof MarkedYAMLException markedE) {
+      if (e instanceof MarkedYAMLException markedE && markedE.getProblemMark() != null) {
         line = markedE.getProblemMark().getLine() + 1;
         column = markedE.getProblemMark().getColumn() + 1;
       }
       PipelineLogger.error("YAML parsing error in " + yamlFile.getAbsolutePath() + ": " + e.getMessage());
-      throw new ValidationException(yamlFile.getName(), line, column, "YAML parsing error: " + e.getMessage());
+      throw new ValidationException(filename, line, column, "YAML parsing error: " + e.getMessage());
     } catch (IOException e) {
       PipelineLogger.error("Failed to read YAML file: " + e.getMessage());
-      throw new ValidationException(yamlFile.getName(), 0, 0, "Failed to read file: " + e.getMessage());
+      throw new ValidationException(filename, 0, 0, "Failed to read file: " + e.getMessage());
     }
   }
 
   /**
-   * Extracts the line number of a field from the YAML file.
+   * Looks up the location of a field, falling back to its closest enclosing field
+   * and then to the start of the file.
    *
+   * @param locations Field locations of one parse.
    * @param filename  The YAML file name.
-   * @param fieldName The field whose line number is needed.
-   * @return The line number or 1 if unknown.
+   * @param fieldPath The field path, e.g. {@code jobs[0].image}.
+   * @return The field location.
+   */
+  static ErrorHandler.Location findLocation(Map<String, ErrorHandler.Location> locations, String filename,
+                                            String fieldPath) {
+    String path = fieldPath == null ? "" : fieldPath;
+    while (!path.isEmpty()) {
+      ErrorHandler.Location location = locations.get(path);
+      if (location != null) {
+        return location;
+      }
+      int parent = Math.max(path.lastIndexOf('.'), path.lastIndexOf('['));
+      path = parent < 0 ? "" : path.substring(0, parent);
+    }
+    return locations.getOrDefault("", new ErrorHandler.Location(filename, 1, 1, ""));
+  }
+
+  /**
+   * Builds the field path of a Jackson binding error, matching the paths of the location index.
+   *
+   * @param e The binding error.
+   * @return The field path.
    */
-  public static int getFieldLineNumber(String filename, String fieldName) {
-    return fieldLocations
-            .getOrDefault(fieldName, new Mark(filename, 0, 1, 0, new char[]{}, 0)) // FIXED: Provide an empty char array
-            .getLine() + 1;
+  private static String toFieldPath(JsonMappingException e) {
+    StringBuilder path = new StringBuilder();
+    for (JsonMappingException.Reference reference : e.getPath()) {
+      if (reference.getFieldName() != null) {
+        if (!path.isEmpty()) {
+          path.append('.');
+        }
+        path.append(reference.getFieldName());
+      } else if (reference.getIndex() >= 0) {
+        path.append('[').append(reference.getIndex()).append(']');
+      }
+    }
+    return path.toString();
   }
 
   /**
-   * Recursively processes a YAML node to store field locations.
+   * Recursively converts a YAML node to a JSON tree while storing field locations.
    *
-   * @param node      The YAML node to process.
-   * @param path      The current path in the YAML structure.
-   * @param locations Map to store field locations.
+   * @param node        The YAML node to process.
+   * @param path        The current path in the YAML structure.
+   * @param filename    The YAML file name.
+   * @param locations   Map to store field locations.
+   * @param constructor Resolves scalar values and merge keys.
+   * @return The JSON tree of the node.
    */
-  private static void processNode(Node node, String path, Map<String, Mark> locations) {
-    locations.put(path, node.getStartMark());
+  private static JsonNode toTree(Node node, String path, String filename,
+                                 Map<String, ErrorHandler.Location> locations, NodeConstructor constructor) {
+    Mark mark = node.getStartMark();
+    locations.put(path, new ErrorHandler.Location(filename, mark.getLine() + 1, mark.getColumn() + 1, path));
 
     if (node instanceof MappingNode mappingNode) {
-      for (NodeTuple tuple : mappingNode.getValue()) {
-        String key = ((ScalarNode) tuple.getKeyNode()).getValue();
+      ObjectNode object = JsonNodeFactory.instance.objectNode();
+      for (NodeTuple tuple : constructor.flatten(mappingNode)) {
+        if (!(tuple.getKeyNode() instanceof ScalarNode keyNode)) {
+          continue;
+        }
+        String key = keyNode.getValue();
         String newPath = path.isEmpty() ? key : path + "." + key;
-        processNode(tuple.getValueNode(), newPath, locations);
+        object.set(key, toTree(tuple.getValueNode(), newPath, filename, locations, constructor));
       }
+      return object;
     } else if (node instanceof SequenceNode sequenceNode) {
+      ArrayNode array = JsonNodeFactory.instance.arrayNode();
       int index = 0;
       for (Node itemNode : sequenceNode.getValue()) {
         String newPath = path + "[" + index + "]";
-        processNode(itemNode, newPath, locations);
+        array.add(toTree(itemNode, newPath, filename, locations, constructor));
         index++;
       }
+      return array;
+    }
+    return toScalar(constructor.construct(node), (ScalarNode) node);
+  }
+
+  /**
+   * Converts a resolved YAML scalar to a JSON value, keeping its YAML type.
+   *
+   * @param value The value resolved from the scalar's tag.
+   * @param node  The scalar node, whose text is used for types JSON has no equivalent for.
+   * @return The JSON value.
+   */
+  private static JsonNode toScalar(Object value, ScalarNode node) {
+    JsonNodeFactory factory = JsonNodeFactory.instance;
+    if (value == null) {
+      return factory.nullNode();
+    } else if (value instanceof Boolean bool) {
+      return factory.booleanNode(bool);
+    } else if (value instanceof Integer number) {
+      return factory.numberNode(number);
+    } else if (value instanceof Long number) {
+      return factory.numberNode(number);
+    } else if (value instanceof BigInteger number) {
+      return factory.numberNode(number);
+    } else if (value instanceof Double number) {
+      return factory.numberNode(number);
+    } else if (value instanceof String text) {
+      return factory.textNode(text);
+    }
+    return factory.textNode(node.getValue());
+  }
+
+  /**
+   * Safe constructor that resolves values and merge keys of an already composed node graph.
+   */
+  private static class NodeConstructor extends SafeConstructor {
+    NodeConstructor(LoaderOptions loaderOptions) {
+      super(loaderOptions);
+    }
+
+    Object construct(Node node) {
+      return constructObject(node);
+    }
+
+    List<NodeTuple> flatten(MappingNode node) {
+      flattenMapping(node);
+      return node.getValue();
     }
   }
 }
@@ -0,0 +1,33 @@
+package edu.neu.cs6510.sp25.t1.common.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class JobReportPageDTOTest {
+
+    @Test
+    public void testConstructorAndGetters() {
+        JobReportDTO report = new JobReportDTO();
+        JobReportPageDTO page = new JobReportPageDTO(List.of(report), "cursor");
+
+        assertEquals(List.of(report), page.getItems());
+        assertEquals("cursor", page.getNextCursor());
+    }
+
+    @Test
+    public void testSetters() {
+        JobReportPageDTO page = new JobReportPageDTO();
+        assertNull(page.getItems());
+        assertNull(page.getNextCursor());
+
+        page.setItems(List.of());
+        page.setNextCursor("next");
+
+        assertEquals(List.of(), page.getItems());
+        assertEquals("next", page.getNextCursor());
+    }
+}
@@ -0,0 +1,49 @@
+package edu.neu.cs6510.sp25.t1.common.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LogRangeDTOTest {
+
+    @Test
+    public void testConstructorAndGetters() {
+        UUID jobId = UUID.randomUUID();
+        LogRangeDTO range = new LogRangeDTO(jobId, 10, 25, 2, "line 1\nline 2\n", true);
+
+        assertEquals(jobId, range.getJobExecutionId());
+        assertEquals(10, range.getFrom());
+        assertEquals(25, range.getNext());
+        assertEquals(2, range.getLineCount());
+        assertEquals("line 1\nline 2\n", range.getText());
+        assertTrue(range.isComplete());
+    }
+
+    @Test
+    public void testSetters() {
+        LogRangeDTO range = new LogRangeDTO();
+        assertNull(range.getJobExecutionId());
+        assertNull(range.getText());
+        assertFalse(range.isComplete());
+
+        UUID jobId = UUID.randomUUID();
+        range.setJobExecutionId(jobId);
+        range.setFrom(5);
+        range.setNext(9);
+        range.setLineCount(1);
+        range.setText("ok\n");
+        range.setComplete(true);
+
+        assertEquals(jobId, range.getJobExecutionId());
+        assertEquals(5, range.getFrom());
+        assertEquals(9, range.getNext());
+        assertEquals(1, range.getLineCount());
+        assertEquals("ok\n", range.getText());
+        assertTrue(range.isComplete());
+    }
+}
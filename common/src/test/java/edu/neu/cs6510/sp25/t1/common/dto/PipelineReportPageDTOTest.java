@@ -0,0 +1,33 @@
+package edu.neu.cs6510.sp25.t1.common.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class PipelineReportPageDTOTest {
+
+    @Test
+    public void testConstructorAndGetters() {
+        PipelineReportDTO report = new PipelineReportDTO();
+        PipelineReportPageDTO page = new PipelineReportPageDTO(List.of(report), "cursor");
+
+        assertEquals(List.of(report), page.getItems());
+        assertEquals("cursor", page.getNextCursor());
+    }
+
+    @Test
+    public void testSetters() {
+        PipelineReportPageDTO page = new PipelineReportPageDTO();
+        assertNull(page.getItems());
+        assertNull(page.getNextCursor());
+
+        page.setItems(List.of());
+        page.setNextCursor("next");
+
+        assertEquals(List.of(), page.getItems());
+        assertEquals("next", page.getNextCursor());
+    }
+}
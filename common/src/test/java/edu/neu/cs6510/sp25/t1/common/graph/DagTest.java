@@ -0,0 +1,156 @@
+package edu.neu.cs6510.sp25.t1.common.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DagTest {
+
+    @Test
+    void testSort_ordersByLevelThenInsertionOrder() {
+        Dag.Builder<String> builder = Dag.builder();
+        builder.addNode("deploy");
+        builder.addNode("test");
+        builder.addNode("lint");
+        builder.addNode("build");
+        builder.addDependency("deploy", "test");
+        builder.addDependency("deploy", "lint");
+        builder.addDependency("test", "build");
+
+        Dag.Ordering<String> ordering = builder.build().sort();
+
+        assertTrue(ordering.isAcyclic());
+        assertEquals(List.of("lint", "build", "test", "deploy"), ordering.getOrder());
+        assertEquals(List.of(List.of("lint", "build"), List.of("test"), List.of("deploy")), ordering.getLevels());
+        assertEquals(3, ordering.getLevelCount());
+    }
+
+    @Test
+    void testSort_levelIsLongestDependencyChain() {
+        Dag.Builder<String> builder = Dag.builder();
+        for (String node : List.of("a", "b", "c", "d")) {
+            builder.addNode(node);
+        }
+        builder.addDependency("b", "a");
+        builder.addDependency("c", "b");
+        builder.addDependency("d", "a");
+        builder.addDependency("d", "c");
+        Dag<String> dag = builder.build();
+
+        Dag.Ordering<String> ordering = dag.sort();
+
+        assertEquals(0, ordering.getLevel(dag.indexOf("a")));
+        assertEquals(2, ordering.getLevel(dag.indexOf("c")));
+        assertEquals(3, ordering.getLevel(dag.indexOf("d")));
+    }
+
+    @Test
+    void testSort_reportsNodesOnAndBehindCycle() {
+        Dag.Builder<String> builder = Dag.builder();
+        for (String node : List.of("root", "x", "y", "after")) {
+            builder.addNode(node);
+        }
+        builder.addDependency("x", "root");
+        builder.addDependency("x", "y");
+        builder.addDependency("y", "x");
+        builder.addDependency("after", "y");
+        Dag<String> dag = builder.build();
+
+        Dag.Ordering<String> ordering = dag.sort();
+
+        assertFalse(ordering.isAcyclic());
+        assertEquals(List.of("x", "y", "after"), ordering.getCyclicNodes());
+        assertEquals(List.of("root"), ordering.getOrder());
+        assertEquals(-1, ordering.getLevel(dag.indexOf("after")));
+    }
+
+    @Test
+    void testSort_selfDependencyIsCycle() {
+        Dag.Builder<String> builder = Dag.builder();
+        builder.addNode("a");
+        builder.addDependency("a", "a");
+
+        assertEquals(List.of("a"), builder.build().sort().getCyclicNodes());
+    }
+
+    @Test
+    void testBuild_dropsRepeatedDependencies() {
+        Dag.Builder<String> builder = Dag.builder();
+        builder.addNode("a");
+        builder.addNode("b");
+        builder.addNode("c");
+        builder.addDependency("c", "b").addDependency("c", "a").addDependency("c", "b");
+        builder.addDependency("b", "a");
+        Dag<String> dag = builder.build();
+
+        assertArrayEquals(new int[] {1, 0}, dag.dependencies(dag.indexOf("c")));
+        assertArrayEquals(new int[] {1, 2}, dag.dependants(dag.indexOf("a")));
+        assertEquals(2, dag.dependencyCount(dag.indexOf("c")));
+    }
+
+    @Test
+    void testBuilder_addNodeIsIdempotent() {
+        Dag.Builder<String> builder = Dag.builder();
+
+        assertEquals(0, builder.addNode("a"));
+        assertEquals(1, builder.addNode("b"));
+        assertEquals(0, builder.addNode("a"));
+        assertEquals(2, builder.build().size());
+    }
+
+    @Test
+    void testBuilder_rejectsUnknownAndNullNodes() {
+        Dag.Builder<String> builder = Dag.builder();
+        builder.addNode("a");
+
+        assertThrows(IllegalArgumentException.class, () -> builder.addDependency("a", "missing"));
+        assertThrows(IllegalArgumentException.class, () -> builder.addNode(null));
+    }
+
+    @Test
+    void testIndexOf_unknownNode() {
+        Dag<String> dag = Dag.<String>builder().build();
+
+        assertEquals(-1, dag.indexOf("a"));
+        assertEquals(0, dag.sort().getLevelCount());
+        assertTrue(dag.sort().getOrder().isEmpty());
+    }
+
+    @Test
+    void testSort_longChainDoesNotOverflowStack() {
+        int size = 100_000;
+        Dag.Builder<Integer> builder = Dag.builder();
+        for (int i = 0; i < size; i++) {
+            builder.addNode(i);
+            if (i > 0) {
+                builder.addDependency(i, i - 1);
+            }
+        }
+
+        Dag.Ordering<Integer> ordering = builder.build().sort();
+
+        assertTrue(ordering.isAcyclic());
+        assertEquals(size, ordering.getLevelCount());
+        assertEquals(size - 1, ordering.getOrder().get(size - 1));
+    }
+
+    @Test
+    void testSort_longCycleIsDetected() {
+        int size = 100_000;
+        Dag.Builder<Integer> builder = Dag.builder();
+        for (int i = 0; i < size; i++) {
+            builder.addNode(i);
+        }
+        for (int i = 0; i < size; i++) {
+            builder.addDependency(i, (i + 1) % size);
+        }
+
+        assertEquals(size, builder.build().sort().getCyclicNodes().size());
+    }
+}
@@ -1,16 +1,23 @@
 package edu.neu.cs6510.sp25.t1.common.logging;
 
+import ch.qos.logback.classic.AsyncAppender;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
 import ch.qos.logback.classic.Logger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class PipelineLoggerTest {
 
@@ -59,4 +66,104 @@ public class PipelineLoggerTest {
         assertEquals(Level.DEBUG, logger.getLevel());
     }
 
+    @Test
+    public void testParameterizedLogging() {
+        UUID jobId = UUID.randomUUID();
+
+        PipelineLogger.info("Sent job {} with priority {}", jobId, 7);
+        PipelineLogger.warn("Skipping {}", "job");
+
+        assertEquals("Sent job " + jobId + " with priority 7", listAppender.list.get(0).getFormattedMessage());
+        assertEquals("Skipping job", listAppender.list.get(1).getFormattedMessage());
+    }
+
+    @Test
+    public void testPlainMessageIsNotTreatedAsFormat() {
+        PipelineLogger.info("Literal {} braces");
+
+        assertEquals("Literal {} braces", listAppender.list.get(0).getFormattedMessage());
+    }
+
+    @Test
+    public void testDisabledLevelSkipsMessageConstruction() {
+        logger.setLevel(Level.INFO);
+        AtomicInteger built = new AtomicInteger();
+
+        PipelineLogger.debug(() -> "expensive " + built.incrementAndGet());
+        PipelineLogger.atDebug().jobId(UUID.randomUUID()).log("dropped");
+        PipelineLogger.info(() -> "kept " + built.incrementAndGet());
+
+        assertFalse(PipelineLogger.isDebugEnabled());
+        assertEquals(1, built.get());
+        assertEquals(1, listAppender.list.size());
+        assertEquals("kept 1", listAppender.list.get(0).getFormattedMessage());
+    }
+
+    @Test
+    public void testStructuredFieldsAreAttachedToEvent() {
+        UUID executionId = UUID.randomUUID();
+        UUID jobId = UUID.randomUUID();
+
+        PipelineLogger.atInfo().executionId(executionId).jobId(jobId).log("Job completed with status {}", "SUCCESS");
+
+        ILoggingEvent event = listAppender.list.get(0);
+        assertEquals("Job completed with status SUCCESS", event.getFormattedMessage());
+        assertEquals(2, event.getKeyValuePairs().size());
+        assertEquals(PipelineLogger.EXECUTION_ID, event.getKeyValuePairs().get(0).key);
+        assertEquals(executionId, event.getKeyValuePairs().get(0).value);
+        assertEquals(PipelineLogger.JOB_ID, event.getKeyValuePairs().get(1).key);
+    }
+
+    @Test
+    public void testScopeSetsAndRestoresFields() {
+        MDC.put(PipelineLogger.EXECUTION_ID, "outer");
+
+        try (PipelineLogger.Scope scope = PipelineLogger.scope(PipelineLogger.EXECUTION_ID, "inner")
+                .and(PipelineLogger.STAGE_ID, "build")
+                .and(PipelineLogger.JOB_ID, null)) {
+            PipelineLogger.info("Inside scope");
+        }
+
+        assertEquals("inner", listAppender.list.get(0).getMDCPropertyMap().get(PipelineLogger.EXECUTION_ID));
+        assertEquals("build", listAppender.list.get(0).getMDCPropertyMap().get(PipelineLogger.STAGE_ID));
+        assertEquals("outer", MDC.get(PipelineLogger.EXECUTION_ID));
+        assertNull(MDC.get(PipelineLogger.STAGE_ID));
+        MDC.clear();
+    }
+
+    @Test
+    public void testSetAsyncWrapsAppenders() {
+        try {
+            PipelineLogger.setAsync(true);
+
+            assertTrue(PipelineLogger.isAsync());
+            assertInstanceOf(AsyncAppender.class, logger.getAppender("ASYNC"));
+        } finally {
+            PipelineLogger.setAsync(false);
+        }
+
+        assertFalse(PipelineLogger.isAsync());
+        assertNull(logger.getAppender("ASYNC"));
+    }
+
+    @Test
+    public void testReattachRestoresAppendersDroppedByReset() {
+        ch.qos.logback.classic.LoggerContext context = logger.getLoggerContext();
+        ListAppender<ILoggingEvent> frameworkAppender = new ListAppender<>();
+        try {
+            // What a framework does while setting up logging
+            context.reset();
+            frameworkAppender.start();
+            context.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(frameworkAppender);
+
+            PipelineLogger.reattach(true);
+
+            assertInstanceOf(AsyncAppender.class, logger.getAppender("ASYNC"));
+            assertFalse(logger.isAdditive());
+            assertTrue(context.getLogger(Logger.ROOT_LOGGER_NAME).isAttached(frameworkAppender));
+        } finally {
+            context.getLogger(Logger.ROOT_LOGGER_NAME).detachAppender(frameworkAppender);
+            PipelineLogger.setAsync(false);
+        }
+    }
 }
@@ -12,7 +12,9 @@ import org.mockito.MockedStatic;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -400,4 +402,79 @@ class GitCloneUtilTest {
         }
     }
 
+    @Test
+    void updateMirrorClonesBareRepositoryThenFetchesNewCommits() throws Exception {
+        File sourceDir = tempDir.resolve("source").toFile();
+        File mirrorDir = tempDir.resolve("mirror.git").toFile();
+        try (Git source = createSourceRepository(sourceDir)) {
+            GitCloneUtil.updateMirror(sourceDir.toURI().toString(), mirrorDir);
+            assertTrue(new File(mirrorDir, "HEAD").isFile());
+            assertFalse(new File(mirrorDir, ".pipelines").exists());
+
+            commitFile(source, ".pipelines/pipeline.yaml", "name: updated\n");
+            GitCloneUtil.updateMirror(sourceDir.toURI().toString(), mirrorDir);
+        }
+
+        String commit = GitCloneUtil.resolveCommit(mirrorDir, "main");
+        assertEquals("name: updated\n", GitCloneUtil.readFile(mirrorDir, commit, ".pipelines/pipeline.yaml"));
+    }
+
+    @Test
+    void resolveCommitFailsForUnknownBranch() throws Exception {
+        File sourceDir = tempDir.resolve("source").toFile();
+        File mirrorDir = tempDir.resolve("mirror.git").toFile();
+        try (Git ignored = createSourceRepository(sourceDir)) {
+            GitCloneUtil.updateMirror(sourceDir.toURI().toString(), mirrorDir);
+        }
+
+        assertThrows(IOException.class, () -> GitCloneUtil.resolveCommit(mirrorDir, "missing"));
+    }
+
+    @Test
+    void listFilesAndReadFileUseObjectDatabaseOnly() throws Exception {
+        File sourceDir = tempDir.resolve("source").toFile();
+        File mirrorDir = tempDir.resolve("mirror.git").toFile();
+        try (Git source = createSourceRepository(sourceDir)) {
+            commitFile(source, ".pipelines/deploy.yml", "name: deploy\n");
+            GitCloneUtil.updateMirror(sourceDir.toURI().toString(), mirrorDir);
+        }
+
+        String commit = GitCloneUtil.resolveCommit(mirrorDir, "main");
+
+        assertEquals(List.of(".pipelines/deploy.yml", ".pipelines/pipeline.yaml"),
+                GitCloneUtil.listFiles(mirrorDir, commit, ".pipelines"));
+        assertEquals("name: original\n", GitCloneUtil.readFile(mirrorDir, commit, ".pipelines/pipeline.yaml"));
+        assertFalse(new File(mirrorDir, ".pipelines").exists());
+    }
+
+    @Test
+    void readFileFailsForMissingPath() throws Exception {
+        File sourceDir = tempDir.resolve("source").toFile();
+        File mirrorDir = tempDir.resolve("mirror.git").toFile();
+        try (Git ignored = createSourceRepository(sourceDir)) {
+            GitCloneUtil.updateMirror(sourceDir.toURI().toString(), mirrorDir);
+        }
+
+        String commit = GitCloneUtil.resolveCommit(mirrorDir, null);
+
+        assertThrows(IOException.class, () -> GitCloneUtil.readFile(mirrorDir, commit, ".pipelines/missing.yaml"));
+        assertTrue(GitCloneUtil.listFiles(mirrorDir, commit, "missing").isEmpty());
+    }
+
+    private static Git createSourceRepository(File dir) throws Exception {
+        Git git = Git.init().setDirectory(dir).setInitialBranch("main").call();
+        commitFile(git, "README.md", "readme\n");
+        commitFile(git, ".pipelines/pipeline.yaml", "name: original\n");
+        return git;
+    }
+
+    private static void commitFile(Git git, String path, String content) throws Exception {
+        Path file = git.getRepository().getWorkTree().toPath().resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+        git.add().addFilepattern(path).call();
+        git.commit().setMessage("Update " + path).setAuthor("test", "test@example.com")
+                .setCommitter("test", "test@example.com").call();
+    }
+
 }
\ No newline at end of file
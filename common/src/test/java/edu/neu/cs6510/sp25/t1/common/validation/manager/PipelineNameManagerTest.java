@@ -9,7 +9,12 @@ import static org.mockito.Mockito.mockStatic;
 import java.io.File;
 import java.nio.file.Path;
 import java.lang.reflect.Field;
+import java.util.List;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -128,4 +133,42 @@ class PipelineNameManagerTest {
 
         assertTrue(existingFileNames.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getDuplicatePipelineNamesShouldListSortedDeclaringFiles() throws Exception {
+        PipelineNameManager manager = new PipelineNameManager();
+
+        manager.registerPipelineName("release", "c.yaml");
+        manager.registerPipelineName("build", "b.yaml");
+        manager.registerPipelineName("release", "a.yaml");
+
+        SortedMap<String, List<String>> duplicates = manager.getDuplicatePipelineNames();
+        assertEquals(1, duplicates.size());
+        assertEquals(List.of("a.yaml", "c.yaml"), duplicates.get("release"));
+    }
+
+    @Test
+    void registerPipelineNameShouldBeSafeAcrossThreads() throws Exception {
+        PipelineNameManager manager = new PipelineNameManager();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 200; i++) {
+            String fileName = "pipeline-" + i + ".yaml";
+            String pipelineName = "name-" + (i % 10);
+            executor.execute(() -> manager.registerPipelineName(pipelineName, fileName));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        SortedMap<String, List<String>> duplicates = manager.getDuplicatePipelineNames();
+        assertEquals(10, duplicates.size());
+        duplicates.values().forEach(files -> assertEquals(20, files.size()));
+    }
+
+    @Test
+    void getPipelinesDirShouldReturnDirectoryUnderUserDir() throws Exception {
+        PipelineNameManager manager = new PipelineNameManager();
+
+        assertEquals(pipelinesDir, manager.getPipelinesDir());
+    }
+}
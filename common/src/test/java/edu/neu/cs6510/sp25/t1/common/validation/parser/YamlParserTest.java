@@ -13,6 +13,11 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -77,6 +82,70 @@ class YamlParserTest {
         nonExistentFile = tempDir.resolve("nonexistent.yaml").toFile();
     }
 
+    @Test
+    void parseShouldTrackFieldLocations() throws Exception {
+        try (MockedStatic<PipelineLogger> ignored = mockStatic(PipelineLogger.class)) {
+            ParsedPipeline parsed = YamlParser.parse(validYamlFile);
+
+            assertEquals("test-pipeline", parsed.getPipeline().getName());
+            assertEquals(1, parsed.getFieldLineNumber("name"));
+            assertEquals(6, parsed.getFieldLineNumber("jobs[0]"));
+            assertEquals(8, parsed.getFieldLineNumber("jobs[0].image"));
+            assertEquals(7, parsed.getFieldLocation("jobs[0].image").getColumn());
+            assertEquals(10, parsed.getFieldLineNumber("jobs[0].script[0]"));
+        }
+    }
+
+    @Test
+    void parseShouldFallBackToEnclosingFieldLocation() throws Exception {
+        try (MockedStatic<PipelineLogger> ignored = mockStatic(PipelineLogger.class)) {
+            ParsedPipeline parsed = YamlParser.parse(validYamlFile);
+
+            assertEquals(8, parsed.getFieldLineNumber("jobs[0].image.tag"));
+            assertEquals(1, parsed.getFieldLineNumber("unknown"));
+        }
+    }
+
+    @Test
+    void parseShouldReportBindingErrorsAtTheField() throws IOException {
+        File badIdFile = tempDir.resolve("bad-id.yaml").toFile();
+        Files.writeString(badIdFile.toPath(), VALID_YAML + "id: not-a-uuid\n");
+
+        try (MockedStatic<PipelineLogger> ignored = mockStatic(PipelineLogger.class)) {
+            ValidationException exception = assertThrows(ValidationException.class,
+                    () -> YamlParser.parse(badIdFile));
+
+            assertTrue(exception.getMessage().startsWith("bad-id.yaml:11:5: Invalid YAML format"),
+                    exception.getMessage());
+        }
+    }
+
+    @Test
+    void parseShouldKeepLocationsSeparateAcrossConcurrentParses() throws Exception {
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            File file = tempDir.resolve("pipeline-" + i + ".yaml").toFile();
+            Files.writeString(file.toPath(), "# comment\n".repeat(i) + VALID_YAML);
+            files.add(file);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (MockedStatic<PipelineLogger> ignored = mockStatic(PipelineLogger.class)) {
+            List<Future<ParsedPipeline>> results = new ArrayList<>();
+            for (int round = 0; round < 10; round++) {
+                for (File file : files) {
+                    results.add(executor.submit(() -> YamlParser.parse(file)));
+                }
+            }
+            for (int i = 0; i < results.size(); i++) {
+                int offset = i % files.size();
+                assertEquals(1 + offset, results.get(i).get().getFieldLineNumber("name"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void parseYamlShouldSucceedWithValidYaml() throws Exception {
         try (MockedStatic<PipelineLogger> mockLogger = mockStatic(PipelineLogger.class)) {